@@ -12,6 +12,8 @@
 package alluxio.client.block.stream;
 
 import alluxio.conf.AlluxioConfiguration;
+import alluxio.grpc.BatchGetStatusRequest;
+import alluxio.grpc.BatchGetStatusResponse;
 import alluxio.grpc.CacheDataRequest;
 import alluxio.grpc.CacheDataResponse;
 import alluxio.grpc.CacheRequest;
@@ -29,6 +31,8 @@ import alluxio.grpc.DeletePRequest;
 import alluxio.grpc.DeletePResponse;
 import alluxio.grpc.ExistsPRequest;
 import alluxio.grpc.ExistsPResponse;
+import alluxio.grpc.GetRevokedMetadataLeasesRequest;
+import alluxio.grpc.GetRevokedMetadataLeasesResponse;
 import alluxio.grpc.GetStatusPRequest;
 import alluxio.grpc.GetStatusPResponse;
 import alluxio.grpc.GrpcServerAddress;
@@ -191,6 +195,23 @@ public interface BlockWorkerClient extends Closeable {
    */
   GetStatusPResponse getStatus(GetStatusPRequest request);
 
+  /**
+   * get status of multiple files in a single call.
+   *
+   * @param request the batch get status request
+   * @return listenable future of BatchGetStatusResponse
+   */
+  ListenableFuture<BatchGetStatusResponse> batchGetStatus(BatchGetStatusRequest request);
+
+  /**
+   * get the metadata leases revoked by the worker since the last call.
+   *
+   * @param request the get revoked metadata leases request
+   * @return the leases revoked
+   */
+  GetRevokedMetadataLeasesResponse getRevokedMetadataLeases(
+      GetRevokedMetadataLeasesRequest request);
+
   /**
    * List status from Worker.
    * @param request
@@ -15,6 +15,8 @@ import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.status.AlluxioStatusException;
 import alluxio.exception.status.UnauthenticatedException;
+import alluxio.grpc.BatchGetStatusRequest;
+import alluxio.grpc.BatchGetStatusResponse;
 import alluxio.grpc.BlockWorkerGrpc;
 import alluxio.grpc.CacheDataRequest;
 import alluxio.grpc.CacheDataResponse;
@@ -36,6 +38,8 @@ import alluxio.grpc.DeletePResponse;
 import alluxio.grpc.ExistsPRequest;
 import alluxio.grpc.ExistsPResponse;
 import alluxio.grpc.FreeWorkerRequest;
+import alluxio.grpc.GetRevokedMetadataLeasesRequest;
+import alluxio.grpc.GetRevokedMetadataLeasesResponse;
 import alluxio.grpc.GetStatusPRequest;
 import alluxio.grpc.GetStatusPResponse;
 import alluxio.grpc.GrpcChannel;
@@ -346,6 +350,19 @@ public class DefaultBlockWorkerClient implements BlockWorkerClient {
         .getStatus(request);
   }
 
+  @Override
+  public ListenableFuture<BatchGetStatusResponse> batchGetStatus(BatchGetStatusRequest request) {
+    return mRpcFutureStub.withDeadlineAfter(mRpcTimeoutMs, TimeUnit.MILLISECONDS)
+        .batchGetStatus(request);
+  }
+
+  @Override
+  public GetRevokedMetadataLeasesResponse getRevokedMetadataLeases(
+      GetRevokedMetadataLeasesRequest request) {
+    return mRpcBlockingStub.withDeadlineAfter(mRpcTimeoutMs, TimeUnit.MILLISECONDS)
+        .getRevokedMetadataLeases(request);
+  }
+
   @Override
   public Iterator<ListStatusPResponse> listStatus(ListStatusPRequest request) {
     return mRpcBlockingStub.withDeadlineAfter(mRpcTimeoutMs, TimeUnit.MILLISECONDS)
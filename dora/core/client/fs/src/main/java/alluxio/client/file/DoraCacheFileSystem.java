@@ -17,6 +17,7 @@ import alluxio.PositionReader;
 import alluxio.annotation.SuppressFBWarnings;
 import alluxio.client.ReadType;
 import alluxio.client.file.dora.DoraCacheClient;
+import alluxio.client.file.dora.MetadataLeaseCache;
 import alluxio.client.file.options.OutStreamOptions;
 import alluxio.client.file.ufs.UfsBaseFileSystem;
 import alluxio.collections.Pair;
@@ -31,6 +32,7 @@ import alluxio.exception.InvalidPathException;
 import alluxio.exception.OpenDirectoryException;
 import alluxio.exception.runtime.AlluxioRuntimeException;
 import alluxio.exception.status.FailedPreconditionException;
+import alluxio.exception.status.PermissionDeniedException;
 import alluxio.grpc.CreateDirectoryPOptions;
 import alluxio.grpc.CreateFilePOptions;
 import alluxio.grpc.DeletePOptions;
@@ -69,6 +71,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -90,6 +93,8 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
   private final DoraCacheClient mDoraClient;
   protected final FileSystemContext mFsContext;
   private final boolean mMetadataCacheEnabled;
+  @Nullable
+  private final MetadataLeaseCache mMetadataLeaseCache;
   private boolean mUfsFallbackEnabled;
   private final long mDefaultVirtualBlockSize;
 
@@ -132,6 +137,8 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
     mFsContext = context;
     mMetadataCacheEnabled = context.getClusterConf()
         .getBoolean(PropertyKey.DORA_CLIENT_METADATA_CACHE_ENABLED);
+    mMetadataLeaseCache = mMetadataCacheEnabled
+        ? MetadataLeaseCache.create(context.getClusterConf(), mDoraClient) : null;
     mUfsFallbackEnabled = context.getClusterConf()
         .getBoolean(PropertyKey.DORA_CLIENT_UFS_FALLBACK_ENABLED);
     mDefaultVirtualBlockSize = context.getClusterConf()
@@ -152,7 +159,7 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
       GetStatusPOptions mergedOptions = FileSystemOptionsUtils.getStatusDefaults(
           mFsContext.getClusterConf()).toBuilder().mergeFrom(options).build();
 
-      final URIStatus status = mDoraClient.getStatus(ufsFullPath.toString(), mergedOptions);
+      final URIStatus status = getStatusFromWorker(ufsFullPath.toString(), mergedOptions);
       // convert to proto and then back to get a clone of the object
       // as it may be cached by a `MetadataCachingFileSystem`, while we need to mutate its fields
       FileInfo info = GrpcUtils.fromProto(GrpcUtils.toProto(status.getFileInfo()));
@@ -175,6 +182,80 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
     }
   }
 
+  /**
+   * Gets the status of a path from the worker, or from the metadata cached under a lease.
+   */
+  private URIStatus getStatusFromWorker(String ufsPath, GetStatusPOptions options)
+      throws PermissionDeniedException {
+    if (mMetadataLeaseCache == null || options.getIncludeRealContentHash()
+        || !mMetadataLeaseCache.isLeasable(options.getCommonOptions())) {
+      return mDoraClient.getStatus(ufsPath, options);
+    }
+    URIStatus status = mMetadataLeaseCache.getStatus(ufsPath);
+    if (status != null) {
+      return status;
+    }
+    WorkerNetAddress worker = mDoraClient.getWorkerNetAddress(ufsPath);
+    long lease = mMetadataLeaseCache.acquireLease(worker);
+    status = mDoraClient.getStatus(ufsPath, options);
+    mMetadataLeaseCache.putStatus(ufsPath, status, worker, lease);
+    return status;
+  }
+
+  /**
+   * Gets status of multiple paths, served by the workers in batches instead of one request per
+   * path. Paths not existing are absent from the result, so the same call serves batched exists
+   * checks as well.
+   *
+   * @param paths the paths
+   * @param options the get status options
+   * @return the status of the paths found, keyed by the paths
+   */
+  public Map<AlluxioURI, URIStatus> getStatuses(List<AlluxioURI> paths,
+      GetStatusPOptions options) throws IOException, AlluxioException {
+    if (!mMetadataCacheEnabled) {
+      return getStatusesOneByOne(paths, options);
+    }
+    Map<String, AlluxioURI> pathsByUfsPath = new HashMap<>(paths.size());
+    for (AlluxioURI path : paths) {
+      pathsByUfsPath.put(convertToUfsPath(path).toString(), path);
+    }
+    try {
+      GetStatusPOptions mergedOptions = FileSystemOptionsUtils.getStatusDefaults(
+          mFsContext.getClusterConf()).toBuilder().mergeFrom(options).build();
+      Map<String, URIStatus> statuses =
+          mDoraClient.getStatuses(new ArrayList<>(pathsByUfsPath.keySet()), mergedOptions);
+      Map<AlluxioURI, URIStatus> result = new HashMap<>(statuses.size());
+      statuses.forEach((ufsPath, status) -> {
+        FileInfo info = status.getFileInfo();
+        info.setPath(convertToAlluxioPath(new AlluxioURI(info.getUfsPath())).getPath());
+        result.put(pathsByUfsPath.get(ufsPath), status);
+      });
+      return result;
+    } catch (RuntimeException ex) {
+      if (!mUfsFallbackEnabled) {
+        throw ex;
+      }
+      UFS_FALLBACK_COUNTER.inc();
+      LOG.error("Dora client batch get status error ({} times). Fall back to UFS.",
+          UFS_FALLBACK_COUNTER.getCount(), ex);
+      return getStatusesOneByOne(paths, options);
+    }
+  }
+
+  private Map<AlluxioURI, URIStatus> getStatusesOneByOne(List<AlluxioURI> paths,
+      GetStatusPOptions options) throws IOException, AlluxioException {
+    Map<AlluxioURI, URIStatus> result = new HashMap<>(paths.size());
+    for (AlluxioURI path : paths) {
+      try {
+        result.put(path, mDelegatedFileSystem.getStatus(convertToUfsPath(path), options));
+      } catch (FileDoesNotExistException e) {
+        // absent from the result
+      }
+    }
+    return result;
+  }
+
   @Override
   public FileInStream openFile(AlluxioURI path, OpenFilePOptions options)
       throws IOException, AlluxioException {
@@ -260,7 +341,7 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
       ListStatusPOptions mergedOptions = FileSystemOptionsUtils.listStatusDefaults(
           mFsContext.getClusterConf()).toBuilder().mergeFrom(options).build();
 
-      final List<URIStatus> uriStatuses = mDoraClient.listStatus(ufsFullPath.toString(),
+      final List<URIStatus> uriStatuses = listStatusFromWorker(ufsFullPath.toString(),
           mergedOptions);
       List<URIStatus> statusesWithRelativePath = new ArrayList<>(uriStatuses.size());
       for (URIStatus s : uriStatuses) {
@@ -286,10 +367,40 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
     }
   }
 
+  /**
+   * Lists the status of a directory from the worker, or from the listing cached under a lease.
+   */
+  private List<URIStatus> listStatusFromWorker(String ufsPath, ListStatusPOptions options)
+      throws PermissionDeniedException {
+    if (mMetadataLeaseCache == null || options.getRecursive()
+        || !mMetadataLeaseCache.isLeasable(options.getCommonOptions())) {
+      return mDoraClient.listStatus(ufsPath, options);
+    }
+    List<URIStatus> statuses = mMetadataLeaseCache.listStatus(ufsPath);
+    if (statuses != null) {
+      return statuses;
+    }
+    WorkerNetAddress worker = mDoraClient.getWorkerNetAddress(ufsPath);
+    long lease = mMetadataLeaseCache.acquireLease(worker);
+    statuses = mDoraClient.listStatus(ufsPath, options);
+    mMetadataLeaseCache.putListing(ufsPath, statuses, worker, lease);
+    return statuses;
+  }
+
+  /**
+   * Drops the metadata of a path changed by this client from the metadata cached under leases.
+   */
+  private void invalidateMetadataLease(AlluxioURI ufsPath, boolean recursive) {
+    if (mMetadataLeaseCache != null) {
+      mMetadataLeaseCache.invalidate(ufsPath.toString(), recursive);
+    }
+  }
+
   @Override
   public FileOutStream createFile(AlluxioURI alluxioPath, CreateFilePOptions options)
       throws FileAlreadyExistsException, InvalidPathException, IOException, AlluxioException {
     AlluxioURI ufsFullPath = convertToUfsPath(alluxioPath);
+    invalidateMetadataLease(ufsFullPath, false);
 
     try {
       CreateFilePOptions mergedOptions = FileSystemOptionsUtils.createFileDefaults(
@@ -337,6 +448,7 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
   public void createDirectory(AlluxioURI path, CreateDirectoryPOptions options)
       throws FileAlreadyExistsException, InvalidPathException, IOException, AlluxioException {
     AlluxioURI ufsFullPath = convertToUfsPath(path);
+    invalidateMetadataLease(ufsFullPath, false);
     try {
       CreateDirectoryPOptions mergedOptions = FileSystemOptionsUtils.createDirectoryDefaults(
           mFsContext.getClusterConf()).toBuilder().mergeFrom(options).build();
@@ -357,6 +469,7 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
   public void delete(AlluxioURI path, DeletePOptions options)
       throws DirectoryNotEmptyException, FileDoesNotExistException, IOException, AlluxioException {
     AlluxioURI ufsFullPath = convertToUfsPath(path);
+    invalidateMetadataLease(ufsFullPath, true);
 
     try {
       DeletePOptions mergedOptions = FileSystemOptionsUtils.deleteDefaults(
@@ -379,6 +492,8 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
       throws FileDoesNotExistException, IOException, AlluxioException {
     AlluxioURI srcUfsFullPath = convertToUfsPath(src);
     AlluxioURI dstUfsFullPath = convertToUfsPath(dst);
+    invalidateMetadataLease(srcUfsFullPath, true);
+    invalidateMetadataLease(dstUfsFullPath, true);
     try {
       RenamePOptions mergedOptions = FileSystemOptionsUtils.renameDefaults(
           mFsContext.getClusterConf()).toBuilder().mergeFrom(options).build();
@@ -440,6 +555,7 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
   public void setAttribute(AlluxioURI path, SetAttributePOptions options)
       throws FileDoesNotExistException, IOException, AlluxioException {
     AlluxioURI ufsFullPath = convertToUfsPath(path);
+    invalidateMetadataLease(ufsFullPath, options.getRecursive());
 
     try {
       SetAttributePOptions mergedOptions = FileSystemOptionsUtils.setAttributeDefaults(
@@ -457,6 +573,14 @@ public class DoraCacheFileSystem extends DelegatingFileSystem {
     }
   }
 
+  @Override
+  public void close() throws IOException {
+    if (mMetadataLeaseCache != null) {
+      mMetadataLeaseCache.close();
+    }
+    super.close();
+  }
+
   /**
    * Converts the Alluxio based path to UfsBaseFileSystem based path if needed.
    *
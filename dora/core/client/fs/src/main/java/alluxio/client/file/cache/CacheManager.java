@@ -12,6 +12,7 @@
 package alluxio.client.file.cache;
 
 import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.filter.CacheFilter;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.PageNotFoundException;
@@ -20,6 +21,7 @@ import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
 import alluxio.metrics.MultiDimensionalMetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 import alluxio.resource.LockResource;
 
@@ -132,12 +134,15 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
           options.setIsAsyncWriteEnabled(false);
         }
         MultiDimensionalMetricsSystem.setCacheStorageSupplier(pageMetaStore::bytes);
+        CacheFilter admissionFilter = options.getAdmissionFilterClass() == null ? null
+            : CacheFilter.create(conf, options.getAdmissionFilterClass());
+        LocalCacheManager cacheManager =
+            LocalCacheManager.create(options, pageMetaStore, admissionFilter);
         if (isShadowCacheEnabled) {
           return new NoExceptionCacheManager(
-              new CacheManagerWithShadowCache(LocalCacheManager.create(options, pageMetaStore),
-                  conf));
+              new CacheManagerWithShadowCache(cacheManager, conf));
         }
-        return new NoExceptionCacheManager(LocalCacheManager.create(options, pageMetaStore));
+        return new NoExceptionCacheManager(cacheManager);
       } catch (IOException e) {
         Metrics.CREATE_ERRORS.inc();
         LOG.error("Failed to create CacheManager", e);
@@ -295,6 +300,25 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
   int get(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer buffer,
       CacheContext cacheContext);
 
+  /**
+   * Reads parts of multiple pages which are found in the cache, stores the result of each read
+   * in its own target buffer. Implementations may serve the reads concurrently, so that a read
+   * spanning many pages does not wait for each page read in turn.
+   *
+   * @param requests the reads of the pages
+   * @param cacheContext cache related context
+   * @return for each read, number of bytes read, 0 if page is not found, -1 on errors
+   */
+  default int[] get(List<PageReadRequest> requests, CacheContext cacheContext) {
+    int[] bytesRead = new int[requests.size()];
+    for (int i = 0; i < requests.size(); i++) {
+      PageReadRequest request = requests.get(i);
+      bytesRead[i] = get(request.getPageId(), request.getPageOffset(), request.getBytesToRead(),
+          request.getTarget(), cacheContext);
+    }
+    return bytesRead;
+  }
+
   /**
    * Reads a part of a page if the queried page is found in the cache, stores the result in buffer.
    * Loads the page otherwise.
@@ -310,6 +334,32 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
   int getAndLoad(PageId pageId, int pageOffset, int bytesToRead,
       ReadTargetBuffer buffer, CacheContext cacheContext, Supplier<byte[]> externalDataSupplier);
 
+  /**
+   * Loads parts of multiple pages of a file which are not found in the cache, stores the result
+   * of each read in its own target buffer. Implementations may read several pages from external
+   * storage with one ranged read, as long as it skips no more than the max gap of bytes of pages
+   * which are not part of the reads.
+   *
+   * @param requests the reads of the pages, ordered by page index
+   * @param cacheContext cache related context
+   * @param maxRangeGap the max bytes between two pages read with one ranged read, or a negative
+   *                    value to read each page separately
+   * @param rangeReader the reader of consecutive pages from external storage
+   * @return for each read, number of bytes read, 0 if page is not found, -1 on errors
+   */
+  default int[] getAndLoad(List<PageReadRequest> requests, CacheContext cacheContext,
+      long maxRangeGap, ExternalRangeReader rangeReader) {
+    int[] bytesRead = new int[requests.size()];
+    for (int i = 0; i < requests.size(); i++) {
+      PageReadRequest request = requests.get(i);
+      long pageIndex = request.getPageId().getPageIndex();
+      bytesRead[i] = getAndLoad(request.getPageId(), request.getPageOffset(),
+          request.getBytesToRead(), request.getTarget(), cacheContext,
+          () -> rangeReader.read(pageIndex, pageIndex));
+    }
+    return bytesRead;
+  }
+
   /**
    * Get page ids by the given file id.
    * @param fileId file identifier
@@ -327,6 +377,18 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
    */
   void deleteFile(String fileId);
 
+  /**
+   * Invalidates all pages of the given file, e.g. after the file has been changed. Unlike
+   * {@link #deleteFile(String)}, the pages may be deleted in the background after this method
+   * returns, but are no longer read from the cache once it returns. Pages of the file added
+   * afterwards are not affected.
+   *
+   * @param fileId the file id of the target file
+   */
+  default void invalidateFile(String fileId) {
+    deleteFile(fileId);
+  }
+
   /**
    * Deletes all temporary pages of the given file.
    *
@@ -393,4 +455,37 @@ public interface CacheManager extends AutoCloseable, CacheStatus {
   Optional<DataFileChannel> getDataFileChannel(
       PageId pageId, int pageOffset, int bytesToRead, CacheContext cacheContext)
       throws PageNotFoundException;
+
+  /**
+   * Get a {@link DataBuffer} of a page which can be sent by Netty without copying the page
+   * onto the heap, either a {@link DataFileChannel} for file based page stores or a retained
+   * slice of the page for memory based page stores. The caller is responsible for releasing
+   * the returned buffer.
+   *
+   * @param pageId the page id
+   * @param pageOffset the offset inside the page
+   * @param bytesToRead the bytes to read
+   * @param cacheContext the cache context
+   * @return a {@link DataBuffer} of the page
+   */
+  default Optional<DataBuffer> getDataBuffer(
+      PageId pageId, int pageOffset, int bytesToRead, CacheContext cacheContext)
+      throws PageNotFoundException {
+    return getDataFileChannel(pageId, pageOffset, bytesToRead, cacheContext)
+        .map(DataBuffer.class::cast);
+  }
+
+  /**
+   * Reader of consecutive pages of a file from external storage.
+   */
+  @FunctionalInterface
+  interface ExternalRangeReader {
+    /**
+     * @param firstPageIndex the index of the first page to read
+     * @param lastPageIndex the index of the last page to read, inclusive
+     * @return the complete pages read, the last one ending at the end of the file if it is the
+     *         last page of the file
+     */
+    byte[] read(long firstPageIndex, long lastPageIndex);
+  }
 }
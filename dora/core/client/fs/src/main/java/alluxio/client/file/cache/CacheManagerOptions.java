@@ -12,6 +12,7 @@
 package alluxio.client.file.cache;
 
 import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.filter.CacheFilter;
 import alluxio.client.file.cache.store.PageStoreOptions;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.PropertyKey;
@@ -22,10 +23,15 @@ import java.util.List;
  * Options for initiating local cache manager.
  */
 public class CacheManagerOptions {
+  private Class<? extends CacheFilter> mAdmissionFilterClass;
   private boolean mAsyncRestoreEnabled;
   private boolean mAsyncWriteEnabled;
   private int mAsyncWriteThreads;
+  private int mBatchReadThreads;
   private CacheEvictorOptions mCacheEvictorOptions;
+  private boolean mConcurrentMetaStoreEnabled;
+  private boolean mLoadCoalescingEnabled;
+  private long mLoadCoalescingTimeoutMs;
   private int mMaxEvictionRetries;
   private long mPageSize;
   private List<PageStoreOptions> mPageStoreOptions;
@@ -43,16 +49,27 @@ public class CacheManagerOptions {
         .setEvictorClass(conf.getClass(PropertyKey.USER_CLIENT_CACHE_EVICTOR_CLASS))
         .setIsNondeterministic(
             conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_EVICTOR_NONDETERMINISTIC_ENABLED))
-        .setLFULogBase(conf.getDouble(PropertyKey.USER_CLIENT_CACHE_EVICTOR_LFU_LOGBASE));
+        .setLFULogBase(conf.getDouble(PropertyKey.USER_CLIENT_CACHE_EVICTOR_LFU_LOGBASE))
+        .setTinyLFUWindowRatio(
+            conf.getDouble(PropertyKey.USER_CLIENT_CACHE_EVICTOR_TINYLFU_WINDOW_RATIO));
     CacheManagerOptions options = new CacheManagerOptions()
+        .setAdmissionFilterClass(
+            conf.getClass(PropertyKey.USER_CLIENT_CACHE_ADMISSION_FILTER_CLASS))
         .setAsyncRestoreEnabled(
             conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED))
         .setAsyncWriteThreads(conf.getInt(PropertyKey.USER_CLIENT_CACHE_ASYNC_WRITE_THREADS))
+        .setBatchReadThreads(conf.getInt(PropertyKey.USER_CLIENT_CACHE_BATCH_READ_THREADS))
         .setIsAsyncWriteEnabled(
             conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_ASYNC_WRITE_ENABLED))
         .setMaxEvictionRetries(conf.getInt(PropertyKey.USER_CLIENT_CACHE_EVICTION_RETRIES))
+        .setLoadCoalescingEnabled(
+            conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_LOAD_COALESCING_ENABLED))
+        .setLoadCoalescingTimeoutMs(
+            conf.getMs(PropertyKey.USER_CLIENT_CACHE_LOAD_COALESCING_TIMEOUT))
         .setPageSize(conf.getBytes(PropertyKey.USER_CLIENT_CACHE_PAGE_SIZE))
         .setQuotaEnabled(conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_QUOTA_ENABLED))
+        .setConcurrentMetaStoreEnabled(
+            conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_CONCURRENT_METASTORE_ENABLED))
         .setTtlEnabled(conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_TTL_ENABLED))
         .setTtlCheckIntervalSeconds(
             conf.getLong(PropertyKey.USER_CLIENT_CACHE_TTL_CHECK_INTERVAL_SECONDS))
@@ -71,16 +88,27 @@ public class CacheManagerOptions {
         .setEvictorClass(conf.getClass(PropertyKey.WORKER_PAGE_STORE_EVICTOR_CLASS))
         .setIsNondeterministic(
             conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_EVICTOR_NONDETERMINISTIC_ENABLED))
-        .setLFULogBase(conf.getDouble(PropertyKey.WORKER_PAGE_STORE_EVICTOR_LFU_LOGBASE));
+        .setLFULogBase(conf.getDouble(PropertyKey.WORKER_PAGE_STORE_EVICTOR_LFU_LOGBASE))
+        .setTinyLFUWindowRatio(
+            conf.getDouble(PropertyKey.WORKER_PAGE_STORE_EVICTOR_TINYLFU_WINDOW_RATIO));
     CacheManagerOptions options = new CacheManagerOptions()
+        .setAdmissionFilterClass(
+            conf.getClass(PropertyKey.WORKER_PAGE_STORE_ADMISSION_FILTER_CLASS))
         .setAsyncRestoreEnabled(
             conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_ASYNC_RESTORE_ENABLED))
         .setAsyncWriteThreads(conf.getInt(PropertyKey.WORKER_PAGE_STORE_ASYNC_WRITE_THREADS))
+        .setBatchReadThreads(conf.getInt(PropertyKey.WORKER_PAGE_STORE_BATCH_READ_THREADS))
         .setIsAsyncWriteEnabled(
             conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_ASYNC_WRITE_ENABLED))
         .setMaxEvictionRetries(conf.getInt(PropertyKey.WORKER_PAGE_STORE_EVICTION_RETRIES))
+        .setLoadCoalescingEnabled(
+            conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_LOAD_COALESCING_ENABLED))
+        .setLoadCoalescingTimeoutMs(
+            conf.getMs(PropertyKey.WORKER_PAGE_STORE_LOAD_COALESCING_TIMEOUT))
         .setPageSize(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE))
         .setQuotaEnabled(conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_QUOTA_ENABLED))
+        .setConcurrentMetaStoreEnabled(
+            conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_CONCURRENT_METASTORE_ENABLED))
         .setCacheEvictorOptions(cacheEvictorOptions)
         .setPageStoreOptions(PageStoreOptions.createForWorkerPageStore(conf));
     return options;
@@ -92,6 +120,14 @@ public class CacheManagerOptions {
   public CacheManagerOptions() {
   }
 
+  /**
+   * @return the class of the filter admitting pages read on cache misses into the cache,
+   *         or null to admit all of them
+   */
+  public Class<? extends CacheFilter> getAdmissionFilterClass() {
+    return mAdmissionFilterClass;
+  }
+
   /**
    * @return if async restore is enabled
    */
@@ -113,6 +149,13 @@ public class CacheManagerOptions {
     return mAsyncWriteThreads;
   }
 
+  /**
+   * @return number of threads for concurrently reading the pages of a batch
+   */
+  public int getBatchReadThreads() {
+    return mBatchReadThreads;
+  }
+
   /**
    * @return if quota is enabled
    */
@@ -120,6 +163,29 @@ public class CacheManagerOptions {
     return mQuotaEnabled;
   }
 
+  /**
+   * @return if the concurrent page meta store is enabled
+   */
+  public boolean isConcurrentMetaStoreEnabled() {
+    return mConcurrentMetaStoreEnabled;
+  }
+
+  /**
+   * @return if concurrent reads of the same page from external storage on cache misses are
+   *         coalesced into one
+   */
+  public boolean isLoadCoalescingEnabled() {
+    return mLoadCoalescingEnabled;
+  }
+
+  /**
+   * @return the max time in milliseconds a cache miss waits for the read of the same page by
+   *         another miss, before reading the page on its own
+   */
+  public long getLoadCoalescingTimeoutMs() {
+    return mLoadCoalescingTimeoutMs;
+  }
+
   /**
    * @return if cache ttl is enabled
    */
@@ -170,6 +236,36 @@ public class CacheManagerOptions {
     return mCacheEvictorOptions;
   }
 
+  /**
+   * @param admissionFilterClass the class of the filter admitting pages read on cache misses
+   * @return the updated options
+   */
+  public CacheManagerOptions setAdmissionFilterClass(
+      Class<? extends CacheFilter> admissionFilterClass) {
+    mAdmissionFilterClass = admissionFilterClass;
+    return this;
+  }
+
+  /**
+   * @param loadCoalescingEnabled whether to coalesce concurrent reads of the same page from
+   *        external storage on cache misses
+   * @return the updated options
+   */
+  public CacheManagerOptions setLoadCoalescingEnabled(boolean loadCoalescingEnabled) {
+    mLoadCoalescingEnabled = loadCoalescingEnabled;
+    return this;
+  }
+
+  /**
+   * @param loadCoalescingTimeoutMs the max time in milliseconds a cache miss waits for the read
+   *        of the same page by another miss
+   * @return the updated options
+   */
+  public CacheManagerOptions setLoadCoalescingTimeoutMs(long loadCoalescingTimeoutMs) {
+    mLoadCoalescingTimeoutMs = loadCoalescingTimeoutMs;
+    return this;
+  }
+
   /**
    * @param isAsyncRestoreEnabled
    * @return the updated options
@@ -197,6 +293,15 @@ public class CacheManagerOptions {
     return this;
   }
 
+  /**
+   * @param batchReadThreads
+   * @return the updated options
+   */
+  public CacheManagerOptions setBatchReadThreads(int batchReadThreads) {
+    mBatchReadThreads = batchReadThreads;
+    return this;
+  }
+
   /**
    * @param cacheEvictorOptions
    * @return the updated options
@@ -233,6 +338,15 @@ public class CacheManagerOptions {
     return this;
   }
 
+  /**
+   * @param isConcurrentMetaStoreEnabled
+   * @return the updated options
+   */
+  public CacheManagerOptions setConcurrentMetaStoreEnabled(boolean isConcurrentMetaStoreEnabled) {
+    mConcurrentMetaStoreEnabled = isConcurrentMetaStoreEnabled;
+    return this;
+  }
+
   /**
    * @param pageStoreOptions
    * @return the updated options
@@ -20,6 +20,7 @@ import alluxio.exception.PageNotFoundException;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 
 import com.codahale.metrics.Counter;
@@ -28,6 +29,7 @@ import com.google.common.hash.Funnel;
 import com.google.common.hash.PrimitiveSink;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
@@ -76,6 +78,15 @@ public class CacheManagerWithShadowCache implements CacheManager {
         buffer, cacheContext, externalDataSupplier);
   }
 
+  @Override
+  public int[] getAndLoad(List<PageReadRequest> requests, CacheContext cacheContext,
+      long maxRangeGap, ExternalRangeReader rangeReader) {
+    for (PageReadRequest request : requests) {
+      getOrUpdateShadowCache(request.getPageId(), request.getBytesToRead(), cacheContext);
+    }
+    return mCacheManager.getAndLoad(requests, cacheContext, maxRangeGap, rangeReader);
+  }
+
   private void getOrUpdateShadowCache(PageId pageId, int bytesToRead, CacheContext cacheContext) {
     int nread = mShadowCacheManager.get(pageId, bytesToRead, getCacheScope(cacheContext));
     if (nread > 0) {
@@ -168,6 +179,11 @@ public class CacheManagerWithShadowCache implements CacheManager {
     mCacheManager.deleteFile(fileId);
   }
 
+  @Override
+  public void invalidateFile(String fileId) {
+    mCacheManager.invalidateFile(fileId);
+  }
+
   @Override
   public void deleteTempFile(String fileId) {
     mCacheManager.deleteTempFile(fileId);
@@ -184,6 +200,12 @@ public class CacheManagerWithShadowCache implements CacheManager {
     return mCacheManager.getDataFileChannel(pageId, pageOffset, bytesToRead, cacheContext);
   }
 
+  @Override
+  public Optional<DataBuffer> getDataBuffer(PageId pageId, int pageOffset,
+      int bytesToRead, CacheContext cacheContext) throws PageNotFoundException {
+    return mCacheManager.getDataBuffer(pageId, pageOffset, bytesToRead, cacheContext);
+  }
+
   /**
    * Decrease each item's clock and clean stale items.
    */
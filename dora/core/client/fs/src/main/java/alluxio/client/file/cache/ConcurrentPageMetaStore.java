@@ -0,0 +1,503 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import alluxio.client.file.cache.allocator.Allocator;
+import alluxio.client.file.cache.allocator.HashAllocator;
+import alluxio.client.file.cache.evictor.CacheEvictor;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.quota.CacheScope;
+import alluxio.exception.FileDoesNotExistException;
+import alluxio.exception.PageNotFoundException;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.resource.LockResource;
+
+import com.codahale.metrics.Counter;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A thread-safe implementation of a metadata store for pages stored in cache, which does not
+ * require callers to hold a global lock.
+ * <p>
+ * Pages are indexed by a {@link ConcurrentHashMap}, so lookups and hit accounting
+ * ({@link #hasPage}, {@link #getPageInfo}) never block on each other or on writers. Mutations
+ * are coordinated per shard, where a shard is one {@link PageStoreDir}: adding, removing and
+ * evicting pages of a directory only contend with other mutations on the same directory.
+ * <p>
+ * Hits are not passed to the evictor of the directory as they happen, which would serialize
+ * them on the evictor. They are recorded in a bounded buffer of the shard instead, which is
+ * drained into the evictor under the shard lock before the next mutation of the shard, or once
+ * enough hits are buffered. Hits are dropped when the buffer is full, so the evictor may miss
+ * some of the accesses to pages under heavy load, which only makes its policy approximate.
+ * <p>
+ * The lock returned by {@link #getLock()} is a no-op, so the page lock striping in
+ * {@link LocalCacheManager} is the only lock on the hot path. As a consequence, concurrent puts
+ * to the same directory may transiently overshoot its capacity by at most one page per writer
+ * thread; the overshoot is reclaimed by eviction on subsequent puts.
+ */
+@ThreadSafe
+public class ConcurrentPageMetaStore implements PageMetaStore {
+  private static final Logger LOG = LoggerFactory.getLogger(ConcurrentPageMetaStore.class);
+  private static final ReadWriteLock NOOP_LOCK = new NoopReadWriteLock();
+  /** The number of buffered hits of a shard at which a reader drains them if it can. */
+  private static final int READ_BUFFER_DRAIN_THRESHOLD = 64;
+  /** The max number of buffered hits of a shard, past which hits are dropped. */
+  private static final int READ_BUFFER_MAX_SIZE = 4096;
+
+  /** A map from PageId to page info. */
+  private final ConcurrentHashMap<PageId, PageInfo> mPages = new ConcurrentHashMap<>();
+  /** A map from file id to the pages of this file. */
+  private final ConcurrentHashMap<String, Set<PageInfo>> mFilePages = new ConcurrentHashMap<>();
+  private final ImmutableList<PageStoreDir> mDirs;
+  /** Shards guarding mutations on each directory. */
+  private final Map<PageStoreDir, Shard> mShards;
+  /** The number of logical bytes used. */
+  private final AtomicLong mBytes = new AtomicLong(0);
+  private final Allocator mAllocator;
+
+  /**
+   * @param dirs storage directories
+   */
+  public ConcurrentPageMetaStore(List<PageStoreDir> dirs) {
+    this(dirs, new HashAllocator(dirs));
+  }
+
+  /**
+   * Constructor of ConcurrentPageMetaStore.
+   *
+   * @param dirs storage directories
+   * @param allocator storage allocator
+   */
+  public ConcurrentPageMetaStore(List<PageStoreDir> dirs, Allocator allocator) {
+    mDirs = ImmutableList.copyOf(requireNonNull(dirs));
+    mAllocator = requireNonNull(allocator);
+    Map<PageStoreDir, Shard> shards = new IdentityHashMap<>();
+    for (PageStoreDir dir : mDirs) {
+      shards.put(dir, new Shard(dir));
+    }
+    mShards = Collections.unmodifiableMap(shards);
+    //metrics for the num of pages stored in the cache
+    MetricsSystem.registerGaugeIfAbsent(MetricKey.CLIENT_CACHE_PAGES.getName(),
+        mPages::size);
+  }
+
+  /**
+   * @return a no-op lock, as this meta store synchronizes internally
+   */
+  @Override
+  public ReadWriteLock getLock() {
+    return NOOP_LOCK;
+  }
+
+  @Override
+  public boolean hasPage(PageId pageId) {
+    return mPages.containsKey(pageId);
+  }
+
+  @Override
+  public void addPage(PageId pageId, PageInfo pageInfo) {
+    try (LockResource r = lockShard(pageInfo.getLocalCacheDir())) {
+      if (addPageInternal(pageId, pageInfo)) {
+        pageInfo.getLocalCacheDir().putPage(pageInfo);
+      }
+    }
+  }
+
+  @Override
+  public void addTempPage(PageId pageId, PageInfo pageInfo) {
+    try (LockResource r = lockShard(pageInfo.getLocalCacheDir())) {
+      if (addPageInternal(pageId, pageInfo)) {
+        pageInfo.getLocalCacheDir().putTempPage(pageInfo);
+      }
+    }
+  }
+
+  private boolean addPageInternal(PageId pageId, PageInfo pageInfo) {
+    Preconditions.checkArgument(pageId.equals(pageInfo.getPageId()), "page id mismatch");
+    if (mPages.putIfAbsent(pageId, pageInfo) != null) {
+      return false;
+    }
+    mFilePages.computeIfAbsent(pageId.getFileId(), k -> ConcurrentHashMap.newKeySet())
+        .add(pageInfo);
+    mBytes.addAndGet(pageInfo.getPageSize());
+    Metrics.SPACE_USED.inc(pageInfo.getPageSize());
+    return true;
+  }
+
+  @Override
+  public void commitFile(String fileId, String newFileId) throws PageNotFoundException {
+    Set<PageInfo> pages = mFilePages.get(fileId);
+    if (pages == null || pages.isEmpty()) {
+      throw new PageNotFoundException(
+          String.format("No Pages found for file %s when committing", fileId));
+    }
+    // the pages of the file are locked in the order of the directories to avoid deadlocks
+    List<Shard> shards = new ArrayList<>();
+    for (PageStoreDir dir : mDirs) {
+      if (pages.stream().anyMatch(pageInfo -> pageInfo.getLocalCacheDir() == dir)) {
+        shards.add(mShards.get(dir));
+      }
+    }
+    shards.forEach(shard -> shard.mLock.lock());
+    try {
+      pages = mFilePages.remove(fileId);
+      if (pages == null || pages.isEmpty()) {
+        throw new PageNotFoundException(
+            String.format("No Pages found for file %s when committing", fileId));
+      }
+      Set<PageInfo> newPages =
+          mFilePages.computeIfAbsent(newFileId, k -> ConcurrentHashMap.newKeySet());
+      for (PageInfo oldPageInfo : pages) {
+        PageId newPageId = new PageId(newFileId, oldPageInfo.getPageId().getPageIndex());
+        PageInfo newPageInfo = new PageInfo(newPageId, oldPageInfo.getPageSize(),
+            oldPageInfo.getScope(), oldPageInfo.getLocalCacheDir());
+        mPages.remove(oldPageInfo.getPageId(), oldPageInfo);
+        mPages.put(newPageId, newPageInfo);
+        newPages.add(newPageInfo);
+      }
+    } finally {
+      shards.forEach(shard -> shard.mLock.unlock());
+    }
+  }
+
+  @Override
+  public PageStoreDir getStoreDirOfFile(String fileId) throws FileDoesNotExistException {
+    Set<PageInfo> pages = mFilePages.get(fileId);
+    if (pages != null) {
+      for (PageInfo pageInfo : pages) {
+        return pageInfo.getLocalCacheDir();
+      }
+    }
+    throw new FileDoesNotExistException(String.format("File %s does not exist in cache", fileId));
+  }
+
+  @Override
+  public List<PageStoreDir> getStoreDirs() {
+    return mDirs;
+  }
+
+  @Override
+  public PageStoreDir allocate(String fileId, long fileLength) {
+    return mAllocator.allocate(fileId, fileLength);
+  }
+
+  @Override
+  public PageInfo getPageInfo(PageId pageId) throws PageNotFoundException {
+    PageInfo pageInfo = mPages.get(pageId);
+    if (pageInfo == null) {
+      throw new PageNotFoundException(String.format("Page %s could not be found", pageId));
+    }
+    getShard(pageInfo.getLocalCacheDir()).recordRead(pageInfo);
+    return pageInfo;
+  }
+
+  @Override
+  public PageInfo peekPageInfo(PageId pageId) throws PageNotFoundException {
+    PageInfo pageInfo = mPages.get(pageId);
+    if (pageInfo == null) {
+      throw new PageNotFoundException(String.format("Page %s could not be found", pageId));
+    }
+    return pageInfo;
+  }
+
+  @Override
+  public PageInfo removePage(PageId pageId, boolean isTemporary) throws PageNotFoundException {
+    PageInfo pageInfo = mPages.get(pageId);
+    if (pageInfo == null) {
+      throw new PageNotFoundException(String.format("Page %s could not be found", pageId));
+    }
+    try (LockResource r = lockShard(pageInfo.getLocalCacheDir())) {
+      if (!mPages.remove(pageId, pageInfo)) {
+        // lost the race against another thread removing the same page
+        throw new PageNotFoundException(String.format("Page %s could not be found", pageId));
+      }
+      mFilePages.computeIfPresent(pageId.getFileId(), (k, pages) -> {
+        pages.remove(pageInfo);
+        return pages.isEmpty() ? null : pages;
+      });
+      mBytes.addAndGet(-pageInfo.getPageSize());
+      Metrics.SPACE_USED.dec(pageInfo.getPageSize());
+      if (isTemporary) {
+        pageInfo.getLocalCacheDir().deleteTempPage(pageInfo);
+      } else {
+        pageInfo.getLocalCacheDir().deletePage(pageInfo);
+      }
+    }
+    return pageInfo;
+  }
+
+  @Override
+  public PageInfo removePage(PageId pageId) throws PageNotFoundException {
+    return removePage(pageId, false);
+  }
+
+  @Override
+  public long bytes() {
+    return mBytes.get();
+  }
+
+  @Override
+  public long numPages() {
+    return mPages.size();
+  }
+
+  @Override
+  public void reset() {
+    mBytes.set(0);
+    Metrics.SPACE_USED.dec(Metrics.SPACE_USED.getCount());
+    mPages.clear();
+    mFilePages.clear();
+    for (Shard shard : mShards.values()) {
+      try (LockResource r = new LockResource(shard.mLock)) {
+        shard.clearReads();
+      }
+    }
+  }
+
+  @Override
+  @Nullable
+  public PageInfo evict(CacheScope scope, PageStoreDir pageStoreDir) {
+    return evictMatching(scope, pageStoreDir, null);
+  }
+
+  @Override
+  @Nullable
+  public PageInfo evictMatching(CacheScope scope, PageStoreDir pageStoreDir,
+      @Nullable Predicate<PageId> criterion) {
+    try (LockResource r = lockShard(pageStoreDir)) {
+      CacheEvictor evictor = pageStoreDir.getEvictor();
+      PageId victim = criterion == null ? evictor.evict() : evictor.evictMatching(criterion);
+      if (victim == null) {
+        return null;
+      }
+      PageInfo victimInfo = mPages.get(victim);
+      if (victimInfo == null) {
+        LOG.error("Invalid result returned by evictor: page {} not available", victim);
+        evictor.updateOnDelete(victim);
+        return null;
+      }
+      return victimInfo;
+    }
+  }
+
+  @Override
+  public Set<PageInfo> getAllPagesByFileId(String fileId) {
+    Set<PageInfo> pages = mFilePages.get(fileId);
+    if (pages == null) {
+      return Collections.emptySet();
+    }
+    // return a snapshot so callers can safely delete pages while iterating
+    return new HashSet<>(pages);
+  }
+
+  private Shard getShard(PageStoreDir dir) {
+    Shard shard = mShards.get(dir);
+    Preconditions.checkArgument(shard != null, "Unknown page store dir %s", dir.getRootPath());
+    return shard;
+  }
+
+  /**
+   * Locks the shard of a directory, passing the hits buffered to its evictor so that they are
+   * ordered before the mutation made under the lock.
+   *
+   * @param dir the directory
+   * @return the resource releasing the lock
+   */
+  private LockResource lockShard(PageStoreDir dir) {
+    Shard shard = getShard(dir);
+    LockResource r = new LockResource(shard.mLock);
+    shard.drainReads();
+    return r;
+  }
+
+  @Override
+  public Optional<CacheUsage> getUsage() {
+    return Optional.of(new Usage());
+  }
+
+  class Usage implements CacheUsage {
+
+    @Override
+    public long used() {
+      return bytes();
+    }
+
+    @Override
+    public long available() {
+      return capacity() - used();
+    }
+
+    @Override
+    public long capacity() {
+      return mDirs.stream().mapToLong(PageStoreDir::getCapacityBytes).sum();
+    }
+
+    @Override
+    public Optional<CacheUsage> partitionedBy(PartitionDescriptor<?> partition) {
+      if (partition instanceof FilePartition) {
+        String fileId = ((FilePartition) partition).getIdentifier();
+        long used = getAllPagesByFileId(fileId).stream().mapToLong(PageInfo::getPageSize).sum();
+        long capacity = capacity();
+        long available = capacity - bytes();
+        return Optional.of(new ImmutableCacheUsageView(used, available, capacity));
+      }
+      if (partition instanceof DirPartition) {
+        int dirIndex = ((DirPartition) partition).getIdentifier();
+        if (dirIndex < 0 || dirIndex >= mDirs.size()) {
+          return Optional.empty();
+        }
+        return mDirs.get(dirIndex).getUsage();
+      }
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * The pages of a directory, with the lock guarding their mutations and the hits not yet passed
+   * to the evictor of the directory.
+   */
+  private final class Shard {
+    private final PageStoreDir mDir;
+    private final ReentrantLock mLock = new ReentrantLock();
+    /** The pages read since the last drain. */
+    private final ConcurrentLinkedQueue<PageInfo> mReadBuffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mReadBufferSize = new AtomicInteger();
+
+    Shard(PageStoreDir dir) {
+      mDir = dir;
+    }
+
+    /**
+     * Records a hit on a page of the directory, draining the buffered hits if there are enough
+     * of them and the shard is not locked.
+     *
+     * @param pageInfo the page read
+     */
+    void recordRead(PageInfo pageInfo) {
+      int size = mReadBufferSize.incrementAndGet();
+      if (size > READ_BUFFER_MAX_SIZE) {
+        // the evictor falls behind, so the hit is dropped
+        mReadBufferSize.decrementAndGet();
+      } else {
+        mReadBuffer.offer(pageInfo);
+      }
+      if (size >= READ_BUFFER_DRAIN_THRESHOLD && mLock.tryLock()) {
+        try {
+          drainReads();
+        } finally {
+          mLock.unlock();
+        }
+      }
+    }
+
+    /**
+     * Passes the buffered hits to the evictor, skipping the pages removed since they were read.
+     */
+    @GuardedBy("mLock")
+    void drainReads() {
+      CacheEvictor evictor = mDir.getEvictor();
+      PageInfo pageInfo;
+      while ((pageInfo = mReadBuffer.poll()) != null) {
+        mReadBufferSize.decrementAndGet();
+        // pages are only removed under the lock, so a page still indexed is in the evictor
+        if (mPages.get(pageInfo.getPageId()) == pageInfo) {
+          evictor.updateOnGet(pageInfo.getPageId());
+        }
+      }
+    }
+
+    @GuardedBy("mLock")
+    void clearReads() {
+      while (mReadBuffer.poll() != null) {
+        mReadBufferSize.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * A read write lock whose read and write locks do nothing.
+   */
+  private static final class NoopReadWriteLock implements ReadWriteLock {
+    private static final Lock NOOP = new Lock() {
+      @Override
+      public void lock() {}
+
+      @Override
+      public void lockInterruptibly() {}
+
+      @Override
+      public boolean tryLock() {
+        return true;
+      }
+
+      @Override
+      public boolean tryLock(long time, TimeUnit unit) {
+        return true;
+      }
+
+      @Override
+      public void unlock() {}
+
+      @Override
+      public Condition newCondition() {
+        throw new UnsupportedOperationException("newCondition is not supported");
+      }
+    };
+
+    @Override
+    public Lock readLock() {
+      return NOOP;
+    }
+
+    @Override
+    public Lock writeLock() {
+      return NOOP;
+    }
+  }
+
+  private static final class Metrics {
+    // Note that only counter can be added here.
+    // Both meter and timer need to be used inline
+    // because new meter and timer will be created after {@link MetricsSystem.resetAllMetrics()}
+    /** Bytes used in the cache. */
+    private static final Counter SPACE_USED =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_SPACE_USED_COUNT.getName());
+  }
+}
@@ -36,6 +36,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
@@ -162,6 +163,15 @@ public class DefaultPageMetaStore implements PageMetaStore {
     return pageInfo;
   }
 
+  @Override
+  @GuardedBy("getLock()")
+  public PageInfo peekPageInfo(PageId pageId) throws PageNotFoundException {
+    if (!mPages.contains(INDEX_PAGE_ID, pageId)) {
+      throw new PageNotFoundException(String.format("Page %s could not be found", pageId));
+    }
+    return mPages.getFirstByField(INDEX_PAGE_ID, pageId);
+  }
+
   @Override
   @GuardedBy("getLock()")
   public PageInfo removePage(PageId pageId, boolean isTemporary) throws PageNotFoundException {
@@ -210,11 +220,19 @@ public class DefaultPageMetaStore implements PageMetaStore {
   @Nullable
   @GuardedBy("getLock()")
   public PageInfo evict(CacheScope scope, PageStoreDir pageStoreDir) {
-    return evictInternal(pageStoreDir.getEvictor());
+    return evictInternal(pageStoreDir.getEvictor(), null);
+  }
+
+  @Override
+  @Nullable
+  @GuardedBy("getLock()")
+  public PageInfo evictMatching(CacheScope scope, PageStoreDir pageStoreDir,
+      Predicate<PageId> criterion) {
+    return evictInternal(pageStoreDir.getEvictor(), criterion);
   }
 
-  PageInfo evictInternal(CacheEvictor evictor) {
-    PageId victim = evictor.evict();
+  PageInfo evictInternal(CacheEvictor evictor, @Nullable Predicate<PageId> criterion) {
+    PageId victim = criterion == null ? evictor.evict() : evictor.evictMatching(criterion);
     if (victim == null) {
       return null;
     }
@@ -20,6 +20,7 @@ import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import alluxio.client.file.CacheContext;
+import alluxio.client.file.cache.filter.CacheFilter;
 import alluxio.client.file.cache.store.PageStoreDir;
 import alluxio.client.quota.CacheQuota;
 import alluxio.client.quota.CacheScope;
@@ -34,6 +35,7 @@ import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
 import alluxio.metrics.MultiDimensionalMetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 import alluxio.resource.LockResource;
 import alluxio.util.ThreadFactoryUtils;
@@ -41,6 +43,8 @@ import alluxio.util.ThreadFactoryUtils;
 import com.codahale.metrics.Counter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Uninterruptibles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,13 +55,19 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -107,15 +117,46 @@ public class LocalCacheManager implements CacheManager {
    * Executor service for execute the async cache tasks.
    */
   private final Optional<ExecutorService> mAsyncCacheExecutor;
+  /**
+   * Executor service for concurrently reading the pages of a batch.
+   */
+  private final Optional<ExecutorService> mBatchReadExecutor;
   /** Executor service for execute the cache ttl check tasks. */
   private final Optional<ScheduledExecutorService> mTtlEnforcerExecutor;
   private final ConcurrentHashSet<PageId> mPendingRequests;
+  /**
+   * Pages whose files are being read by zero-copy transfers and must stay in place.
+   */
+  private final PinnedPages mPinnedPages = new PinnedPages();
   /**
    * State of this cache.
    */
   private final AtomicReference<CacheManager.State> mState = new AtomicReference<>();
   private final CacheManagerOptions mOptions;
   private final Optional<Predicate<PageInfo>> mPagePredicate;
+  /** Filter admitting pages read from external storage on cache misses into the cache. */
+  private final Optional<CacheFilter> mAdmissionFilter;
+  /**
+   * Generation of the cache, recorded by the pages added to the cache and advanced by every
+   * invalidation of a file. Pages restored from the page store have generation 0.
+   */
+  private final AtomicLong mGeneration = new AtomicLong(1);
+  /**
+   * Files invalidated whose pages are still being deleted, mapped to the last generation of their
+   * stale pages. Pages of these files up to this generation are no longer read from the cache.
+   */
+  private final ConcurrentHashMap<String, Long> mStaleFiles = new ConcurrentHashMap<>();
+  /**
+   * Executor service for deleting the stale pages of invalidated files, and the pages deleted
+   * from the cache while pinned once they are unpinned.
+   */
+  private final ExecutorService mDeletionExecutor;
+  /**
+   * Pages being read from external storage on cache misses, so that concurrent misses of the
+   * same page wait for the read in progress instead of reading the page again.
+   */
+  private final ConcurrentHashMap<PageId, CompletableFuture<ByteBuffer>> mExternalReads =
+      new ConcurrentHashMap<>();
 
   /**
    * @param options       the options of local cache manager
@@ -125,7 +166,19 @@ public class LocalCacheManager implements CacheManager {
   public static LocalCacheManager create(CacheManagerOptions options,
                                          PageMetaStore pageMetaStore)
       throws IOException {
-    LocalCacheManager manager = new LocalCacheManager(options, pageMetaStore);
+    return create(options, pageMetaStore, null);
+  }
+
+  /**
+   * @param options the options of local cache manager
+   * @param pageMetaStore meta store for pages
+   * @param admissionFilter the filter admitting pages read on cache misses into the cache, or
+   *        null to admit all of them
+   * @return an instance of {@link LocalCacheManager}
+   */
+  public static LocalCacheManager create(CacheManagerOptions options,
+      PageMetaStore pageMetaStore, @Nullable CacheFilter admissionFilter) throws IOException {
+    LocalCacheManager manager = new LocalCacheManager(options, pageMetaStore, admissionFilter);
     List<PageStoreDir> pageStoreDirs = pageMetaStore.getStoreDirs();
     if (manager.mInitService.isPresent()) {
       manager.mInitService.get().submit(() -> {
@@ -147,7 +200,18 @@ public class LocalCacheManager implements CacheManager {
    */
   @VisibleForTesting
   LocalCacheManager(CacheManagerOptions options, PageMetaStore pageMetaStore) {
+    this(options, pageMetaStore, null);
+  }
+
+  /**
+   * @param options       the options of local cache manager
+   * @param pageMetaStore the meta store manages the metadata
+   * @param admissionFilter the filter admitting pages read on cache misses, or null
+   */
+  private LocalCacheManager(CacheManagerOptions options, PageMetaStore pageMetaStore,
+      @Nullable CacheFilter admissionFilter) {
     mPageMetaStore = pageMetaStore;
+    mAdmissionFilter = Optional.ofNullable(admissionFilter);
     mPageStoreDirs = pageMetaStore.getStoreDirs();
     mOptions = options;
     mCacheSize = mPageStoreDirs.stream().map(PageStoreDir::getCapacityBytes).reduce(0L, Long::sum);
@@ -163,6 +227,17 @@ public class LocalCacheManager implements CacheManager {
                         "alluxio-async-cache-executor", true),
                 new ThreadPoolExecutor.CallerRunsPolicy()))
             : Optional.empty();
+    mBatchReadExecutor =
+        options.getBatchReadThreads() > 0
+            ? Optional.of(new ThreadPoolExecutor(mOptions.getBatchReadThreads(),
+            mOptions.getBatchReadThreads(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), ThreadFactoryUtils.build(
+                        "alluxio-batch-read-executor", true),
+                // unlike CallerRunsPolicy, also run the read after shutdown, as it is waited for
+                (task, executor) -> task.run()))
+            : Optional.empty();
+    mDeletionExecutor = Executors.newSingleThreadExecutor(
+        ThreadFactoryUtils.build("alluxio-cache-deletion-executor", true));
     mInitService =
         options.isAsyncRestoreEnabled() ? Optional.of(Executors.newSingleThreadExecutor(
                 ThreadFactoryUtils.build("alluxio-init-service", true))) :
@@ -195,6 +270,22 @@ public class LocalCacheManager implements CacheManager {
   public Optional<DataFileChannel> getDataFileChannel(
       PageId pageId, int pageOffset, int bytesToRead, CacheContext cacheContext)
       throws PageNotFoundException {
+    return getZeroCopyBuffer(pageId, pageOffset, bytesToRead, cacheContext,
+        PageStore::getDataFileChannel);
+  }
+
+  @Override
+  public Optional<DataBuffer> getDataBuffer(
+      PageId pageId, int pageOffset, int bytesToRead, CacheContext cacheContext)
+      throws PageNotFoundException {
+    return getZeroCopyBuffer(pageId, pageOffset, bytesToRead, cacheContext,
+        PageStore::getDataBuffer);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T extends DataBuffer> Optional<T> getZeroCopyBuffer(
+      PageId pageId, int pageOffset, int bytesToRead, CacheContext cacheContext,
+      PageBufferGetter<T> getter) throws PageNotFoundException {
     Preconditions.checkArgument(pageOffset <= mOptions.getPageSize(),
         "Read exceeds page boundary: offset=%s size=%s",
         pageOffset, mOptions.getPageSize());
@@ -215,18 +306,28 @@ public class LocalCacheManager implements CacheManager {
             pageId, pageOffset);
         return Optional.empty();
       }
+      if (isStale(pageInfo)) {
+        LOG.debug("getDataChannel({},pageOffset={}) fails due to page being stale",
+            pageId, pageOffset);
+        return Optional.empty();
+      }
 
       try {
-        DataFileChannel dataFileChannel = pageInfo.getLocalCacheDir().getPageStore()
-            .getDataFileChannel(pageInfo.getPageId(), pageOffset, bytesToRead,
-                cacheContext.isTemporary());
+        T dataBuffer = getter.get(pageInfo.getLocalCacheDir().getPageStore(),
+            pageInfo.getPageId(), pageOffset, bytesToRead, cacheContext.isTemporary());
+        if (dataBuffer instanceof DataFileChannel && !cacheContext.isTemporary()) {
+          // the page file is opened later by netty, keep it in place until it has been sent
+          mPinnedPages.pin(pageInfo);
+          dataBuffer = (T) ((DataFileChannel) dataBuffer)
+              .withReleaseCallback(() -> unpin(pageId));
+        }
         MultiDimensionalMetricsSystem.CACHED_DATA_READ.inc(bytesToRead);
         MetricsSystem.counter(MetricKey.CLIENT_CACHE_HIT_REQUESTS.getName()).inc();
         MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_READ_CACHE.getName()).mark(bytesToRead);
         cacheContext.incrementCounter(MetricKey.CLIENT_CACHE_BYTES_READ_CACHE.getMetricName(), BYTE,
             bytesToRead);
         LOG.debug("getDataChannel({},pageOffset={}) exits", pageId, pageOffset);
-        return Optional.of(dataFileChannel);
+        return Optional.of(dataBuffer);
       } catch (PageNotFoundException e) {
         LOG.debug("getDataChannel({},pageOffset={}) fails due to page file not found",
             pageId, pageOffset);
@@ -249,6 +350,33 @@ public class LocalCacheManager implements CacheManager {
     }
   }
 
+  /**
+   * Releases a pin of a page. If the page was deleted from the cache while pinned, it is deleted
+   * from its page store in the background, as the pin is released by the thread sending the page
+   * which must not block on the page lock.
+   *
+   * @param pageId page identifier
+   */
+  private void unpin(PageId pageId) {
+    PageInfo deferred = mPinnedPages.unpin(pageId);
+    if (deferred == null) {
+      return;
+    }
+    try {
+      mDeletionExecutor.execute(() -> deleteUnpinnedPage(deferred));
+    } catch (RejectedExecutionException e) {
+      // the cache is being closed
+      deleteUnpinnedPage(deferred);
+    }
+  }
+
+  private void deleteUnpinnedPage(PageInfo pageInfo) {
+    try (LockResource r = new LockResource(getPageLock(pageInfo.getPageId()).writeLock())) {
+      deletePage(pageInfo, false);
+      mPinnedPages.completeDeferredDeletion(pageInfo.getPageId());
+    }
+  }
+
   /**
    * @param pageId page identifier
    * @return the page lock id
@@ -438,6 +566,15 @@ public class LocalCacheManager implements CacheManager {
     ReadWriteLock pageLock = getPageLock(pageId);
     PageStoreDir pageStoreDir;
     try (LockResource r = new LockResource(pageLock.writeLock())) {
+      if (!mStaleFiles.isEmpty()) {
+        // make room for the page of the current version of the file
+        deleteIfStale(pageId);
+      }
+      if (mPinnedPages.isDeletePending(pageId)) {
+        // the file of a deleted version of this page is still being transferred
+        LOG.debug("{} is pending deletion after being unpinned", pageId);
+        return PutResult.OTHER;
+      }
       try (LockResource r2 = new LockResource(mPageMetaStore.getLock().writeLock())) {
         if (mPageMetaStore.hasPage(pageId)) {
           LOG.debug("{} is already inserted before", pageId);
@@ -451,7 +588,12 @@ public class LocalCacheManager implements CacheManager {
         if (scopeToEvict == null) {
           addPageToMetaStore(pageId, page, cacheContext, pageStoreDir);
         } else {
-          if (mOptions.isQuotaEnabled()) {
+          if (!mPinnedPages.isEmpty()) {
+            // pinned pages are being transferred and cannot be evicted
+            victimPageInfo = mPageMetaStore.evictMatching(
+                mOptions.isQuotaEnabled() ? scopeToEvict : CacheScope.GLOBAL, pageStoreDir,
+                victim -> !mPinnedPages.isPinned(victim));
+          } else if (mOptions.isQuotaEnabled()) {
             victimPageInfo =
                 ((QuotaPageMetaStore) mPageMetaStore).evict(scopeToEvict, pageStoreDir);
           } else {
@@ -498,6 +640,11 @@ public class LocalCacheManager implements CacheManager {
         if (mPageMetaStore.hasPage(pageId)) {
           return PutResult.OK;
         }
+        if (mPinnedPages.isPinned(victimPageInfo.getPageId())) {
+          LOG.debug("Page {} is pinned after being chosen for eviction",
+              victimPageInfo.getPageId());
+          return PutResult.BENIGN_RACING;
+        }
         try {
           mPageMetaStore.removePage(victimPageInfo.getPageId());
         } catch (PageNotFoundException e) {
@@ -563,8 +710,8 @@ public class LocalCacheManager implements CacheManager {
 
   private void addPageToMetaStore(PageId pageId, ByteBuffer page, CacheContext cacheContext,
                                   PageStoreDir pageStoreDir) {
-    PageInfo pageInfo =
-        new PageInfo(pageId, page.remaining(), cacheContext.getCacheScope(), pageStoreDir);
+    PageInfo pageInfo = new PageInfo(pageId, page.remaining(), cacheContext.getCacheScope(),
+        pageStoreDir, System.currentTimeMillis(), mGeneration.get());
     if (cacheContext.isTemporary()) {
       mPageMetaStore.addTempPage(pageId, pageInfo);
     } else {
@@ -595,6 +742,10 @@ public class LocalCacheManager implements CacheManager {
         LOG.debug("get({},pageOffset={}) fails due to page not found", pageId, pageOffset);
         return 0;
       }
+      if (isStale(pageInfo)) {
+        LOG.debug("get({},pageOffset={}) fails due to page being stale", pageId, pageOffset);
+        return 0;
+      }
       pageSize = pageInfo.getPageSize();
     }
     return get(pageId, pageOffset, (int) pageSize, buffer, cacheContext);
@@ -624,6 +775,10 @@ public class LocalCacheManager implements CacheManager {
         LOG.debug("get({},pageOffset={}) fails due to page not found", pageId, pageOffset);
         return 0;
       }
+      if (isStale(pageInfo)) {
+        LOG.debug("get({},pageOffset={}) fails due to page being stale", pageId, pageOffset);
+        return 0;
+      }
       int bytesRead =
           getPage(pageInfo, pageOffset, bytesToRead, buffer, cacheContext);
       if (bytesRead <= 0) {
@@ -651,6 +806,43 @@ public class LocalCacheManager implements CacheManager {
     }
   }
 
+  /**
+   * Reads the pages of the batch concurrently on the batch read executor, the first page is read
+   * by the calling thread. When all threads of the executor are busy, the calling thread reads
+   * the remaining pages itself.
+   */
+  @Override
+  public int[] get(List<PageReadRequest> requests, CacheContext cacheContext) {
+    if (!mBatchReadExecutor.isPresent() || requests.size() < 2) {
+      return CacheManager.super.get(requests, cacheContext);
+    }
+    int[] bytesRead = new int[requests.size()];
+    List<Future<?>> futures = new ArrayList<>(requests.size() - 1);
+    for (int i = 1; i < requests.size(); i++) {
+      int index = i;
+      PageReadRequest request = requests.get(i);
+      futures.add(mBatchReadExecutor.get().submit(() -> {
+        bytesRead[index] = get(request.getPageId(), request.getPageOffset(),
+            request.getBytesToRead(), request.getTarget(), cacheContext);
+      }));
+    }
+    PageReadRequest first = requests.get(0);
+    bytesRead[0] = get(first.getPageId(), first.getPageOffset(), first.getBytesToRead(),
+        first.getTarget(), cacheContext);
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        // the target buffers must not be handed back while a read may still write to them
+        Uninterruptibles.getUninterruptibly(futures.get(i));
+      } catch (ExecutionException e) {
+        LOG.error("Failed to get page {} of batch", requests.get(i + 1).getPageId(),
+            e.getCause());
+        Metrics.GET_ERRORS.inc();
+        bytesRead[i + 1] = -1;
+      }
+    }
+    return bytesRead;
+  }
+
   @Override
   public int getAndLoad(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer buffer,
                         CacheContext cacheContext, Supplier<byte[]> externalDataSupplier) {
@@ -664,27 +856,223 @@ public class LocalCacheManager implements CacheManager {
     // progress or throw an exception
     // Note that we cannot synchronize on the new page, as this will cause deadlock due to
     // incompatible lock order within putAttempt
-    // Not synchronizing may cause the same page to be read multiple times from UFS by two or more
-    // concurrent requests,
-    // but this is acceptable, and is expected to be rare as long as the number of striping locks
-    // is big enough
+    // Unless load coalescing is enabled, the same page may be read multiple times from UFS by two
+    // or more concurrent requests
+    CompletableFuture<ByteBuffer> externalRead = null;
+    if (mOptions.isLoadCoalescingEnabled()) {
+      CompletableFuture<ByteBuffer> pendingRead = new CompletableFuture<>();
+      CompletableFuture<ByteBuffer> existingRead = mExternalReads.putIfAbsent(pageId, pendingRead);
+      if (existingRead != null) {
+        // the reader of the page is responsible for caching it
+        return readCoalesced(pageId, pageOffset, bytesToRead, buffer, cacheContext,
+            existingRead, externalDataSupplier);
+      }
+      externalRead = pendingRead;
+    }
+    try {
+      return loadExternalPage(pageId, pageOffset, bytesToRead, buffer, cacheContext,
+          externalDataSupplier, externalRead);
+    } finally {
+      if (externalRead != null) {
+        mExternalReads.remove(pageId, externalRead);
+      }
+    }
+  }
+
+  @Override
+  public int[] getAndLoad(List<PageReadRequest> requests, CacheContext cacheContext,
+      long maxRangeGap, ExternalRangeReader rangeReader) {
+    int[] bytesRead = new int[requests.size()];
+    // claim every page before reading any, so that each page is read by one reader only and the
+    // ranges are planned over the pages claimed. Pages claimed by other readers are waited for
+    // after the claimed ones are loaded, as the other readers may be waiting for them in turn
+    List<CompletableFuture<ByteBuffer>> externalReads = new ArrayList<>(requests.size());
+    boolean[] claimed = new boolean[requests.size()];
+    for (int i = 0; i < requests.size(); i++) {
+      CompletableFuture<ByteBuffer> externalRead = null;
+      claimed[i] = true;
+      if (mOptions.isLoadCoalescingEnabled()) {
+        CompletableFuture<ByteBuffer> pendingRead = new CompletableFuture<>();
+        externalRead = mExternalReads.putIfAbsent(requests.get(i).getPageId(), pendingRead);
+        claimed[i] = externalRead == null;
+        if (externalRead == null) {
+          externalRead = pendingRead;
+        }
+      }
+      externalReads.add(externalRead);
+    }
+    try {
+      int rangeStart = -1;
+      int rangeEnd = -1;
+      for (int i = 0; i < requests.size(); i++) {
+        if (!claimed[i]) {
+          continue;
+        }
+        if (rangeStart >= 0 && (maxRangeGap < 0 || (pageIndex(requests, i)
+            - pageIndex(requests, rangeEnd) - 1) * mOptions.getPageSize() > maxRangeGap)) {
+          loadExternalRange(requests, externalReads, claimed, rangeStart, rangeEnd,
+              bytesRead, cacheContext, rangeReader);
+          rangeStart = -1;
+        }
+        if (rangeStart < 0) {
+          rangeStart = i;
+        }
+        rangeEnd = i;
+      }
+      if (rangeStart >= 0) {
+        loadExternalRange(requests, externalReads, claimed, rangeStart, rangeEnd,
+            bytesRead, cacheContext, rangeReader);
+      }
+    } catch (Throwable e) {
+      // no-op for the pages which were loaded
+      for (int i = 0; i < requests.size(); i++) {
+        if (claimed[i] && externalReads.get(i) != null) {
+          externalReads.get(i).completeExceptionally(e);
+        }
+      }
+      throw e;
+    } finally {
+      for (int i = 0; i < requests.size(); i++) {
+        if (claimed[i] && externalReads.get(i) != null) {
+          mExternalReads.remove(requests.get(i).getPageId(), externalReads.get(i));
+        }
+      }
+    }
+    for (int i = 0; i < requests.size(); i++) {
+      if (!claimed[i]) {
+        PageReadRequest request = requests.get(i);
+        long pageIndex = pageIndex(requests, i);
+        bytesRead[i] = readCoalesced(request.getPageId(), request.getPageOffset(),
+            request.getBytesToRead(), request.getTarget(), cacheContext, externalReads.get(i),
+            () -> rangeReader.read(pageIndex, pageIndex));
+      }
+    }
+    return bytesRead;
+  }
+
+  private static long pageIndex(List<PageReadRequest> requests, int i) {
+    return requests.get(i).getPageId().getPageIndex();
+  }
+
+  /**
+   * Reads the claimed pages from the first to the last request of a range with one read from
+   * external storage, and loads each of them. The pages share the buffer of the range read.
+   */
+  private void loadExternalRange(List<PageReadRequest> requests,
+      List<CompletableFuture<ByteBuffer>> externalReads, boolean[] claimed, int rangeStart,
+      int rangeEnd, int[] bytesRead, CacheContext cacheContext, ExternalRangeReader rangeReader) {
+    long firstPageIndex = pageIndex(requests, rangeStart);
     long startTime = System.nanoTime();
-    byte[] page = externalDataSupplier.get();
-    long timeElapse = System.nanoTime() - startTime;
-    buffer.writeBytes(page, pageOffset, bytesToRead);
+    byte[] data = rangeReader.read(firstPageIndex, pageIndex(requests, rangeEnd));
+    cacheContext.incrementCounter(
+        MetricKey.CLIENT_CACHE_PAGE_READ_EXTERNAL_TIME_NS.getMetricName(), NANO,
+        System.nanoTime() - startTime);
+    int pages = 0;
+    for (int i = rangeStart; i <= rangeEnd; i++) {
+      if (!claimed[i]) {
+        continue;
+      }
+      PageReadRequest request = requests.get(i);
+      long pageStart = (pageIndex(requests, i) - firstPageIndex) * mOptions.getPageSize();
+      int pageLength = (int) Math.min(mOptions.getPageSize(), data.length - pageStart);
+      ByteBuffer page = ByteBuffer.wrap(data, (int) pageStart, pageLength).slice();
+      bytesRead[i] = loadExternalPage(request.getPageId(), request.getPageOffset(),
+          request.getBytesToRead(), request.getTarget(), cacheContext, page,
+          externalReads.get(i));
+      pages++;
+    }
+    if (pages > 1) {
+      MetricsSystem.counter(MetricKey.CLIENT_CACHE_EXTERNAL_RANGE_READS.getName()).inc();
+      MetricsSystem.counter(MetricKey.CLIENT_CACHE_EXTERNAL_RANGE_READ_PAGES.getName())
+          .inc(pages);
+    }
+  }
+
+  private int loadExternalPage(PageId pageId, int pageOffset, int bytesToRead,
+      ReadTargetBuffer buffer, CacheContext cacheContext, Supplier<byte[]> externalDataSupplier,
+      @Nullable CompletableFuture<ByteBuffer> externalRead) {
+    long startTime = System.nanoTime();
+    ByteBuffer page;
+    try {
+      page = ByteBuffer.wrap(externalDataSupplier.get());
+    } catch (Throwable e) {
+      if (externalRead != null) {
+        externalRead.completeExceptionally(e);
+      }
+      throw e;
+    }
+    cacheContext.incrementCounter(
+        MetricKey.CLIENT_CACHE_PAGE_READ_EXTERNAL_TIME_NS.getMetricName(), NANO,
+        System.nanoTime() - startTime);
+    return loadExternalPage(pageId, pageOffset, bytesToRead, buffer, cacheContext, page,
+        externalRead);
+  }
+
+  /**
+   * Serves a read from a page read from external storage, and caches the page.
+   *
+   * @param page the page read, not consumed
+   * @param externalRead the read of the page concurrent misses wait for, completed with the page
+   */
+  private int loadExternalPage(PageId pageId, int pageOffset, int bytesToRead,
+      ReadTargetBuffer buffer, CacheContext cacheContext, ByteBuffer page,
+      @Nullable CompletableFuture<ByteBuffer> externalRead) {
+    if (externalRead != null) {
+      // readers arriving until the page is cached find the read completed
+      externalRead.complete(page);
+    }
+    writePage(page, pageOffset, bytesToRead, buffer);
     MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_REQUESTED_EXTERNAL.getName())
         .mark(bytesToRead);
     MetricsSystem.counter(MetricKey.CLIENT_CACHE_EXTERNAL_REQUESTS.getName()).inc();
     cacheContext.incrementCounter(
         MetricKey.CLIENT_CACHE_BYTES_REQUESTED_EXTERNAL.getMetricName(), BYTE,
         bytesToRead);
-    cacheContext.incrementCounter(
-        MetricKey.CLIENT_CACHE_PAGE_READ_EXTERNAL_TIME_NS.getMetricName(), NANO,
-        timeElapse);
-    put(pageId, page, cacheContext);
+    if (!mAdmissionFilter.isPresent()
+        || mAdmissionFilter.get().needsCache(pageId, page.remaining(), cacheContext)) {
+      put(pageId, page.duplicate(), cacheContext);
+    } else {
+      MetricsSystem.counter(MetricKey.CLIENT_CACHE_PUT_ADMISSION_REJECTIONS.getName()).inc();
+    }
     return bytesToRead;
   }
 
+  /**
+   * Serves a read from the read of the page by another cache miss. In case the other read takes
+   * longer than the coalescing timeout, the page is read with the external data supplier instead,
+   * so that a stuck read does not hold up every miss of the page.
+   */
+  private int readCoalesced(PageId pageId, int pageOffset, int bytesToRead,
+      ReadTargetBuffer buffer, CacheContext cacheContext,
+      CompletableFuture<ByteBuffer> externalRead, Supplier<byte[]> externalDataSupplier) {
+    ByteBuffer page;
+    try {
+      page = externalRead.get(mOptions.getLoadCoalescingTimeoutMs(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      // the reader got cancelled by others, interrupt the current thread
+      // and then throw a runtime ex to make the higher level stop.
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException(e.getCause());
+    } catch (TimeoutException e) {
+      LOG.warn("Timed out after {}ms waiting for the read of page {}, reading it again",
+          mOptions.getLoadCoalescingTimeoutMs(), pageId);
+      return loadExternalPage(pageId, pageOffset, bytesToRead, buffer, cacheContext,
+          externalDataSupplier, null);
+    }
+    writePage(page, pageOffset, bytesToRead, buffer);
+    MetricsSystem.counter(MetricKey.CLIENT_CACHE_EXTERNAL_REQUESTS_COALESCED.getName()).inc();
+    return bytesToRead;
+  }
+
+  private static void writePage(ByteBuffer page, int pageOffset, int bytesToRead,
+      ReadTargetBuffer buffer) {
+    buffer.writeBytes(page.array(), page.arrayOffset() + page.position() + pageOffset,
+        bytesToRead);
+  }
+
   /**
    * delete the specified page.
    *
@@ -711,6 +1099,10 @@ public class LocalCacheManager implements CacheManager {
           return false;
         }
       }
+      if (!isTemporary && mPinnedPages.deferDeletion(pageId)) {
+        LOG.debug("delete({}) deferred until the page is unpinned", pageId);
+        return true;
+      }
       boolean ok = deletePage(pageInfo, isTemporary);
       LOG.debug("delete({}) exits, success: {}", pageId, ok);
       if (!ok) {
@@ -777,6 +1169,10 @@ public class LocalCacheManager implements CacheManager {
           // pass through to delete the page from page store
         }
       }
+      if (!isTemporary && mPinnedPages.deferDeletion(info.getPageId())) {
+        LOG.debug("delete({}) deferred until the page is unpinned", info.getPageId());
+        return true;
+      }
       try {
         info.getLocalCacheDir().getPageStore().delete(info.getPageId(), isTemporary);
       } catch (IOException e) {
@@ -804,6 +1200,7 @@ public class LocalCacheManager implements CacheManager {
    */
   private void restoreOrInit(List<PageStoreDir> pageStoreDirs) throws IOException {
     Preconditions.checkState(mState.get() == READ_ONLY);
+    long startTime = System.currentTimeMillis();
     for (PageStoreDir pageStoreDir : pageStoreDirs) {
       if (!restore(pageStoreDir)) {
         try (LockResource r = new LockResource(mPageMetaStore.getLock().writeLock())) {
@@ -819,7 +1216,8 @@ public class LocalCacheManager implements CacheManager {
         }
       }
     }
-    LOG.info("Cache is in READ_WRITE.");
+    Metrics.RESTORE_TIME_MS.set(System.currentTimeMillis() - startTime);
+    LOG.info("Cache is in READ_WRITE after restoring for {} ms.", Metrics.RESTORE_TIME_MS.get());
     mState.set(READ_WRITE);
     Metrics.STATE.inc();
   }
@@ -920,7 +1318,7 @@ public class LocalCacheManager implements CacheManager {
     try (LockResource r = new LockResource(mPageMetaStore.getLock().readLock())) {
       for (long pageIndex = 0; pageIndex < numOfPages; pageIndex++) {
         PageId pageId = new PageId(fileId, pageIndex);
-        if (mPageMetaStore.hasPage(pageId)) {
+        if (mPageMetaStore.hasPage(pageId) && !isStale(pageId)) {
           pageIds.add(pageId);
         }
       }
@@ -930,7 +1328,15 @@ public class LocalCacheManager implements CacheManager {
 
   @Override
   public boolean hasPageUnsafe(PageId pageId) {
-    return mPageMetaStore.hasPage(pageId);
+    if (!mPageMetaStore.hasPage(pageId)) {
+      return false;
+    }
+    if (!mStaleFiles.containsKey(pageId.getFileId())) {
+      return true;
+    }
+    try (LockResource r = new LockResource(mPageMetaStore.getLock().readLock())) {
+      return !isStale(pageId);
+    }
   }
 
   @Override
@@ -942,6 +1348,114 @@ public class LocalCacheManager implements CacheManager {
     pages.forEach(page -> delete(page.getPageId()));
   }
 
+  /**
+   * Marks the pages of the file currently in the cache stale and deletes them on the
+   * invalidation executor. Stale pages are treated as absent by reads, and are replaced by puts
+   * of the same pages. The stale marks are only kept in memory, so the pages are deleted before
+   * returning unless every page store dir records that they are stale and must not be restored
+   * after a restart.
+   *
+   * @param fileId the file id of the target file
+   */
+  @Override
+  public void invalidateFile(String fileId) {
+    long staleGeneration = mGeneration.getAndIncrement();
+    mStaleFiles.merge(fileId, staleGeneration, Math::max);
+    boolean markedStale = true;
+    for (PageStoreDir pageStoreDir : mPageStoreDirs) {
+      if (!pageStoreDir.markStale(fileId)) {
+        markedStale = false;
+        break;
+      }
+    }
+    if (!markedStale) {
+      deleteStalePages(fileId, staleGeneration);
+      return;
+    }
+    try {
+      mDeletionExecutor.execute(() -> deleteStalePages(fileId, staleGeneration));
+    } catch (RejectedExecutionException e) {
+      // the cache is being closed
+      mStaleFiles.remove(fileId, staleGeneration);
+    }
+  }
+
+  private void deleteStalePages(String fileId, long staleGeneration) {
+    Set<PageInfo> pages;
+    try (LockResource r = new LockResource(mPageMetaStore.getLock().readLock())) {
+      pages = mPageMetaStore.getAllPagesByFileId(fileId);
+    }
+    int deleted = 0;
+    for (PageInfo page : pages) {
+      if (page.getGeneration() > staleGeneration) {
+        continue;
+      }
+      try (LockResource r = new LockResource(getPageLock(page.getPageId()).writeLock())) {
+        if (deleteIfStale(page.getPageId())) {
+          deleted++;
+        }
+      }
+    }
+    mStaleFiles.remove(fileId, staleGeneration);
+    MetricsSystem.meter(MetricKey.CLIENT_CACHE_PAGES_INVALIDATED.getName()).mark(deleted);
+    LOG.debug("Deleted {} stale pages of file {}", deleted, fileId);
+  }
+
+  /**
+   * Deletes the page if it belongs to an invalidated version of its file. The page lock must be
+   * acquired before calling this method.
+   *
+   * @param pageId page identifier
+   * @return whether the page was stale and has been deleted
+   */
+  private boolean deleteIfStale(PageId pageId) {
+    PageInfo pageInfo;
+    try (LockResource r = new LockResource(mPageMetaStore.getLock().writeLock())) {
+      if (!isStale(pageId)) {
+        return false;
+      }
+      try {
+        pageInfo = mPageMetaStore.removePage(pageId);
+      } catch (PageNotFoundException e) {
+        return false;
+      }
+    }
+    if (mPinnedPages.deferDeletion(pageId)) {
+      LOG.debug("delete({}) deferred until the page is unpinned", pageId);
+      return true;
+    }
+    if (!deletePage(pageInfo, false)) {
+      Metrics.DELETE_STORE_DELETE_ERRORS.inc();
+      Metrics.DELETE_ERRORS.inc();
+    }
+    return true;
+  }
+
+  /**
+   * The metastore lock must be acquired before calling this method.
+   *
+   * @param pageId page identifier
+   * @return whether the page is in the cache and belongs to an invalidated version of its file
+   */
+  private boolean isStale(PageId pageId) {
+    if (!mStaleFiles.containsKey(pageId.getFileId()) || !mPageMetaStore.hasPage(pageId)) {
+      return false;
+    }
+    try {
+      return isStale(mPageMetaStore.peekPageInfo(pageId));
+    } catch (PageNotFoundException e) {
+      return false;
+    }
+  }
+
+  private boolean isStale(PageInfo pageInfo) {
+    if (mStaleFiles.isEmpty()) {
+      return false;
+    }
+    Long staleGeneration = mStaleFiles.get(pageInfo.getPageId().getFileId());
+    return staleGeneration != null && pageInfo.getGeneration() <= staleGeneration;
+  }
+
   @Override
   public void deleteTempFile(String fileId) {
     Set<PageInfo> pages;
@@ -991,7 +1505,10 @@ public class LocalCacheManager implements CacheManager {
     mPageMetaStore.reset();
     mInitService.ifPresent(ExecutorService::shutdownNow);
     mAsyncCacheExecutor.ifPresent(ExecutorService::shutdownNow);
+    mBatchReadExecutor.ifPresent(ExecutorService::shutdownNow);
     mTtlEnforcerExecutor.ifPresent(ExecutorService::shutdownNow);
+    mDeletionExecutor.shutdownNow();
+    mAdmissionFilter.ifPresent(CacheFilter::close);
   }
 
   /**
@@ -1047,6 +1564,12 @@ public class LocalCacheManager implements CacheManager {
     return Optional.of(new Usage());
   }
 
+  @FunctionalInterface
+  private interface PageBufferGetter<T extends DataBuffer> {
+    T get(PageStore pageStore, PageId pageId, int pageOffset, int bytesToRead,
+        boolean isTemporary) throws PageNotFoundException;
+  }
+
   private final class Usage implements CacheUsage {
     @Override
     public long used() {
@@ -1187,6 +1710,10 @@ public class LocalCacheManager implements CacheManager {
      */
     private static final Counter STATE =
         MetricsSystem.counter(MetricKey.CLIENT_CACHE_STATE.getName());
+    /**
+     * Time taken by the last restore of the cache.
+     */
+    private static final AtomicLong RESTORE_TIME_MS = new AtomicLong();
 
     private static void registerGauges(long cacheSize, PageMetaStore pageMetaStore) {
       MetricsSystem.registerGaugeIfAbsent(
@@ -1195,6 +1722,9 @@ public class LocalCacheManager implements CacheManager {
       MetricsSystem.registerGaugeIfAbsent(
           MetricsSystem.getMetricName(MetricKey.CLIENT_CACHE_SPACE_USED.getName()),
           pageMetaStore::bytes);
+      MetricsSystem.registerGaugeIfAbsent(
+          MetricsSystem.getMetricName(MetricKey.CLIENT_CACHE_RESTORE_TIME_MS.getName()),
+          RESTORE_TIME_MS::get);
     }
   }
 }
@@ -26,6 +26,7 @@ import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
 import alluxio.metrics.MultiDimensionalMetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -35,6 +36,8 @@ import com.google.common.base.Ticker;
 import io.prometheus.metrics.core.datapoints.CounterDataPoint;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -43,6 +46,11 @@ import javax.annotation.concurrent.ThreadSafe;
  */
 @ThreadSafe
 public class LocalCachePositionReader implements PositionReader {
+  /**
+   * Value of the max range gap reading each page missing from the cache separately.
+   */
+  public static final long NO_RANGE_READ = -1;
+
   /**
    * Page size in bytes.
    */
@@ -62,6 +70,11 @@ public class LocalCachePositionReader implements PositionReader {
   private final CloseableSupplier<PositionReader> mFallbackReader;
   private final FileId mFileId;
   private final long mFileSize;
+  /**
+   * Max bytes of cached pages between two missing pages read with one ranged read, negative if
+   * missing pages are read separately.
+   */
+  private final long mMaxRangeGap;
   private volatile boolean mClosed;
   private final CounterDataPoint mExternalMetric;
 
@@ -84,9 +97,11 @@ public class LocalCachePositionReader implements PositionReader {
     String fileId = conf.getBoolean(PropertyKey.DORA_ENABLED)
         ? new AlluxioURI(status.getUfsPath()).hash() :
         Long.toString(status.getFileId());
+    long maxRangeGap = conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_RANGE_READ_ENABLED)
+        ? conf.getBytes(PropertyKey.USER_CLIENT_CACHE_RANGE_READ_MAX_GAP) : NO_RANGE_READ;
     // Used in client, set the external metric to EXTERNAL
     return new LocalCachePositionReader(cacheManager, fallbackReader,
-        FileId.of(fileId), status.getLength(), pageSize, cacheContext,
+        FileId.of(fileId), status.getLength(), pageSize, cacheContext, maxRangeGap,
         MultiDimensionalMetricsSystem.EXTERNAL_DATA_READ);
   }
 
@@ -103,22 +118,42 @@ public class LocalCachePositionReader implements PositionReader {
                                                 CloseableSupplier<PositionReader> fallbackReader,
                                                 FileId fileId, long fileSize, long pageSize,
                                                 CacheContext cacheContext) {
+    return create(cacheManager, fallbackReader, fileId, fileSize, pageSize, cacheContext,
+        NO_RANGE_READ);
+  }
+
+  /**
+   * @param cacheManager
+   * @param fallbackReader
+   * @param fileId
+   * @param fileSize
+   * @param pageSize
+   * @param cacheContext
+   * @param maxRangeGap the max bytes of cached pages between two pages missing from the cache
+   *                    of one read to read them with one ranged read, or {@link #NO_RANGE_READ}
+   * @return LocalCachePositionReader
+   */
+  public static LocalCachePositionReader create(CacheManager cacheManager,
+                                                CloseableSupplier<PositionReader> fallbackReader,
+                                                FileId fileId, long fileSize, long pageSize,
+                                                CacheContext cacheContext, long maxRangeGap) {
     // Used in worker, set the external metric to UFS
     return new LocalCachePositionReader(cacheManager, fallbackReader,
-        fileId, fileSize, pageSize, cacheContext,
+        fileId, fileSize, pageSize, cacheContext, maxRangeGap,
         MultiDimensionalMetricsSystem.UFS_DATA_ACCESS.labelValues("read"));
   }
 
   private LocalCachePositionReader(CacheManager cacheManager,
                                    CloseableSupplier<PositionReader> fallbackReader, FileId fileId,
                                    long fileSize, long pageSize, CacheContext context,
-                                   CounterDataPoint externalMetric) {
+                                   long maxRangeGap, CounterDataPoint externalMetric) {
     mCacheManager = Preconditions.checkNotNull(cacheManager);
     mFallbackReader = Preconditions.checkNotNull(fallbackReader);
     mFileId = fileId;
     mFileSize = fileSize;
     mPageSize = pageSize;
     mCacheContext = Preconditions.checkNotNull(context);
+    mMaxRangeGap = maxRangeGap;
     mExternalMetric = externalMetric;
   }
 
@@ -132,6 +167,12 @@ public class LocalCachePositionReader implements PositionReader {
     Stopwatch stopwatch = createUnstartedStopwatch();
     int totalBytesRead = 0;
     long lengthToRead = Math.min(length, mFileSize - position);
+    if (position / mPageSize != (position + lengthToRead - 1) / mPageSize) {
+      // the read spans multiple pages, read the cached ones in one batch
+      int bytesRead = batchedRead(buffer, (int) lengthToRead, position);
+      totalBytesRead += bytesRead;
+      position += bytesRead;
+    }
     // used in positionedRead, so make stopwatch a local variable rather than class member
     // for each page, check if it is available in the cache
     while (totalBytesRead < lengthToRead) {
@@ -169,6 +210,23 @@ public class LocalCachePositionReader implements PositionReader {
    * @return an object of {@link DataFileChannel}
    */
   public Optional<DataFileChannel> getDataFileChannel(long position, int length) {
+    return getZeroCopyBuffer(position, length, mCacheManager::getDataFileChannel);
+  }
+
+  /**
+   * Get a {@link DataBuffer} of the cached page covering the position which can be sent by Netty
+   * without copying, see {@link CacheManager#getDataBuffer}.
+   *
+   * @param position the start position to read
+   * @param length   how many bytes to read
+   * @return a {@link DataBuffer} of the cached page
+   */
+  public Optional<DataBuffer> getDataBuffer(long position, int length) {
+    return getZeroCopyBuffer(position, length, mCacheManager::getDataBuffer);
+  }
+
+  private <T extends DataBuffer> Optional<T> getZeroCopyBuffer(long position, int length,
+      PageBufferGetter<T> getter) {
     long currentPage = position / mPageSize;
     PageId pageId;
     if (mCacheContext.getCacheIdentifier() != null) {
@@ -181,22 +239,77 @@ public class LocalCachePositionReader implements PositionReader {
     int bytesToReadInPage = Math.min(bytesLeftInPage, length);
     // If the page is not in Alluxio, we will return null here
     try {
-      return mCacheManager.getDataFileChannel(
-          pageId, currentPageOffset, bytesToReadInPage, mCacheContext);
+      return getter.get(pageId, currentPageOffset, bytesToReadInPage, mCacheContext);
     } catch (PageNotFoundException e) {
       return Optional.empty();
     }
   }
 
-  private int localCachedRead(ReadTargetBuffer bytesBuffer, int length,
-                              long position, Stopwatch stopwatch) {
-    long currentPage = position / mPageSize;
-    PageId pageId;
+  /**
+   * Reads all pages covering the range with one batched read from the cache, each page into its
+   * own region of the buffer. Pages which are not cached are then loaded with one batch, nearby
+   * ones read from external storage together with one ranged read.
+   *
+   * @return the number of bytes read contiguously from the position, the offset of the buffer
+   *         is advanced by this number
+   */
+  private int batchedRead(ReadTargetBuffer buffer, int length, long position) {
+    List<PageReadRequest> requests = new ArrayList<>();
+    List<Integer> targetOffsets = new ArrayList<>();
+    int bytesRequested = 0;
+    while (bytesRequested < length) {
+      long pagePosition = position + bytesRequested;
+      int pageOffset = (int) (pagePosition % mPageSize);
+      int bytesToRead = (int) Math.min(mPageSize - pageOffset, length - bytesRequested);
+      ReadTargetBuffer target = buffer.slice(bytesRequested, bytesToRead);
+      requests.add(new PageReadRequest(getPageId(pagePosition / mPageSize), pageOffset,
+          bytesToRead, target));
+      targetOffsets.add(target.offset());
+      bytesRequested += bytesToRead;
+    }
+    int[] bytesRead = mCacheManager.get(requests, mCacheContext);
+    List<PageReadRequest> missing = new ArrayList<>();
+    List<Integer> missingIndexes = new ArrayList<>();
+    for (int i = 0; i < requests.size(); i++) {
+      if (bytesRead[i] <= 0) {
+        // discard anything a failed read may have written
+        requests.get(i).getTarget().offset(targetOffsets.get(i));
+        missing.add(requests.get(i));
+        missingIndexes.add(i);
+      }
+    }
+    if (!missing.isEmpty()) {
+      int[] loadedBytesRead = mCacheManager.getAndLoad(missing, mCacheContext, mMaxRangeGap,
+          this::readExternalPages);
+      for (int i = 0; i < missing.size(); i++) {
+        bytesRead[missingIndexes.get(i)] = loadedBytesRead[i];
+      }
+    }
+    int totalBytesRead = 0;
+    for (int i = 0; i < requests.size(); i++) {
+      if (bytesRead[i] <= 0) {
+        break;
+      }
+      totalBytesRead += bytesRead[i];
+      if (bytesRead[i] < requests.get(i).getBytesToRead()) {
+        // the rest of the range is read page by page from where this page ended
+        break;
+      }
+    }
+    buffer.offset(buffer.offset() + totalBytesRead);
+    return totalBytesRead;
+  }
+
+  private PageId getPageId(long pageIndex) {
     if (mCacheContext.getCacheIdentifier() != null) {
-      pageId = new PageId(mCacheContext.getCacheIdentifier(), currentPage);
-    } else {
-      pageId = new PageId(mFileId.toString(), currentPage);
+      return new PageId(mCacheContext.getCacheIdentifier(), pageIndex);
     }
+    return new PageId(mFileId.toString(), pageIndex);
+  }
+
+  private int localCachedRead(ReadTargetBuffer bytesBuffer, int length,
+                              long position, Stopwatch stopwatch) {
+    PageId pageId = getPageId(position / mPageSize);
     int currentPageOffset = (int) (position % mPageSize);
     int bytesLeftInPage = (int) (mPageSize - currentPageOffset);
     int bytesToReadInPage = Math.min(bytesLeftInPage, length);
@@ -206,14 +319,31 @@ public class LocalCachePositionReader implements PositionReader {
 
   private byte[] readExternalPage(long position) {
     long pageStart = position - (position % mPageSize);
-    int pageSize = (int) Math.min(mPageSize, mFileSize - pageStart);
-    byte[] page = new byte[pageSize];
+    return readExternal(pageStart, (int) Math.min(mPageSize, mFileSize - pageStart));
+  }
+
+  private byte[] readExternalPages(long firstPageIndex, long lastPageIndex) {
+    long pageStart = firstPageIndex * mPageSize;
+    long pagesEnd = Math.min((lastPageIndex + 1) * mPageSize, mFileSize);
+    return readExternal(pageStart, (int) (pagesEnd - pageStart));
+  }
+
+  /**
+   * Reads complete pages from external storage. The read blocks the calling thread until the
+   * pages are read, concurrent misses of a page waiting on a single read of it.
+   *
+   * @param pageStart the start of the first page
+   * @param length the length of the pages, ending at the end of a page or of the file
+   * @return the pages read
+   */
+  private byte[] readExternal(long pageStart, int length) {
+    byte[] page = new byte[length];
     int totalBytesRead = 0;
     int bytesRead;
-    while (totalBytesRead < pageSize) {
+    while (totalBytesRead < length) {
       try {
         bytesRead = mFallbackReader.get()
-            .read(pageStart + totalBytesRead, page, totalBytesRead, pageSize - totalBytesRead);
+            .read(pageStart + totalBytesRead, page, totalBytesRead, length - totalBytesRead);
       } catch (IOException e) {
         throw AlluxioRuntimeException.from(e);
       }
@@ -225,10 +355,10 @@ public class LocalCachePositionReader implements PositionReader {
     // Bytes read from external, may be larger than requests due to reading complete pages
     mExternalMetric.inc(totalBytesRead);
     MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_READ_EXTERNAL.getName()).mark(totalBytesRead);
-    if (totalBytesRead != pageSize) {
+    if (totalBytesRead != length) {
       throw new FailedPreconditionRuntimeException(
-          "Failed to read complete page from external storage. Bytes read: "
-              + totalBytesRead + " Page size: " + pageSize);
+          "Failed to read complete pages from external storage. Bytes read: "
+              + totalBytesRead + " Bytes expected: " + length);
     }
     return page;
   }
@@ -263,4 +393,10 @@ public class LocalCachePositionReader implements PositionReader {
           return 0;
         });
   }
+
+  @FunctionalInterface
+  private interface PageBufferGetter<T extends DataBuffer> {
+    Optional<T> get(PageId pageId, int pageOffset, int bytesToRead, CacheContext cacheContext)
+        throws PageNotFoundException;
+  }
 }
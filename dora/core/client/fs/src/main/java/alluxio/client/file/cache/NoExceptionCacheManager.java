@@ -16,6 +16,7 @@ import alluxio.exception.PageNotFoundException;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 
 import com.codahale.metrics.Counter;
@@ -23,6 +24,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -143,6 +145,19 @@ public class NoExceptionCacheManager implements CacheManager {
     }
   }
 
+  @Override
+  public int[] get(List<PageReadRequest> requests, CacheContext cacheContext) {
+    try {
+      return mCacheManager.get(requests, cacheContext);
+    } catch (Exception e) {
+      LOG.error("Failed to get {} pages, cacheContext {}", requests.size(), cacheContext, e);
+      Metrics.GET_ERRORS.inc();
+      int[] bytesRead = new int[requests.size()];
+      Arrays.fill(bytesRead, -1);
+      return bytesRead;
+    }
+  }
+
   @Override
   public int getAndLoad(PageId pageId, int pageOffset, int bytesToRead,
       ReadTargetBuffer buffer, CacheContext cacheContext,
@@ -158,6 +173,21 @@ public class NoExceptionCacheManager implements CacheManager {
     }
   }
 
+  @Override
+  public int[] getAndLoad(List<PageReadRequest> requests, CacheContext cacheContext,
+      long maxRangeGap, ExternalRangeReader rangeReader) {
+    try {
+      return mCacheManager.getAndLoad(requests, cacheContext, maxRangeGap, rangeReader);
+    } catch (Exception e) {
+      LOG.error("Failed to get and load {} pages, cacheContext {}", requests.size(),
+          cacheContext, e);
+      Metrics.GET_ERRORS.inc();
+      int[] bytesRead = new int[requests.size()];
+      Arrays.fill(bytesRead, -1);
+      return bytesRead;
+    }
+  }
+
   @Override
   public boolean delete(PageId pageId) {
     try {
@@ -186,6 +216,23 @@ public class NoExceptionCacheManager implements CacheManager {
     }
   }
 
+  @Override
+  public Optional<DataBuffer> getDataBuffer(PageId pageId, int pageOffset,
+      int bytesToRead, CacheContext cacheContext) {
+    try {
+      return mCacheManager.getDataBuffer(pageId, pageOffset, bytesToRead, cacheContext);
+    } catch (Exception e) {
+      if (e instanceof PageNotFoundException) {
+        // In cold read, this may be expected behavior
+        LOG.debug("Failed to getDataBuffer of page {}", pageId, e);
+      } else {
+        LOG.error("Failed to getDataBuffer of page {}", pageId, e);
+      }
+      Metrics.GET_ERRORS.inc();
+      return Optional.empty();
+    }
+  }
+
   @Override
   public State state() {
     return mCacheManager.state();
@@ -224,6 +271,15 @@ public class NoExceptionCacheManager implements CacheManager {
     }
   }
 
+  @Override
+  public void invalidateFile(String fileId) {
+    try {
+      mCacheManager.invalidateFile(fileId);
+    } catch (Exception e) {
+      LOG.error("Failed to invalidateFile for {}", fileId, e);
+    }
+  }
+
   @Override
   public void deleteTempFile(String fileId) {
     try {
@@ -29,6 +29,7 @@ public class PageInfo {
   private final CacheScope mCacheScope;
   private final PageStoreDir mLocalCacheDir;
   private final long mCreatedTimestamp;
+  private final long mGeneration;
 
   /**
    * @param pageId page id
@@ -59,11 +60,25 @@ public class PageInfo {
    */
   public PageInfo(PageId pageId, long pageSize, CacheScope cacheScope,
       PageStoreDir pageStoreDir, long createdTimestamp) {
+    this(pageId, pageSize, cacheScope, pageStoreDir, createdTimestamp, 0);
+  }
+
+  /**
+   * @param pageId page id
+   * @param pageSize page size in bytes
+   * @param cacheScope scope of this page
+   * @param pageStoreDir directory of this page
+   * @param createdTimestamp created time
+   * @param generation generation of the cache when the page was added, 0 if unknown
+   */
+  public PageInfo(PageId pageId, long pageSize, CacheScope cacheScope,
+      PageStoreDir pageStoreDir, long createdTimestamp, long generation) {
     mPageId = pageId;
     mPageSize = pageSize;
     mCacheScope = cacheScope;
     mLocalCacheDir = pageStoreDir;
     mCreatedTimestamp = createdTimestamp;
+    mGeneration = generation;
   }
 
   /**
@@ -101,6 +116,14 @@ public class PageInfo {
     return mCreatedTimestamp;
   }
 
+  /**
+   * @return the generation of the cache when the page was added, pages restored from the page
+   *         store have generation 0
+   */
+  public long getGeneration() {
+    return mGeneration;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -126,6 +149,7 @@ public class PageInfo {
         .add("PageSize", mPageSize)
         .add("Scope", mCacheScope)
         .add("CreateTimeMs", mCreatedTimestamp)
+        .add("Generation", mGeneration)
         .toString();
   }
 }
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Predicate;
 
 /**
  * The metadata store for pages stored in cache.
@@ -35,6 +36,9 @@ public interface PageMetaStore extends CacheStatus {
     if (options.isQuotaEnabled()) {
       return new QuotaPageMetaStore(options.getCacheEvictorOptions(), dirs);
     }
+    if (options.isConcurrentMetaStoreEnabled()) {
+      return new ConcurrentPageMetaStore(dirs);
+    }
     return new DefaultPageMetaStore(dirs);
   }
 
@@ -104,6 +108,14 @@ public interface PageMetaStore extends CacheStatus {
    */
   PageInfo getPageInfo(PageId pageId) throws PageNotFoundException;
 
+  /**
+   * Gets the info of a page without recording an access to the page for eviction.
+   *
+   * @param pageId page identifier
+   * @return page info
+   */
+  PageInfo peekPageInfo(PageId pageId) throws PageNotFoundException;
+
   /**
    * Removes a page.
    *
@@ -157,4 +169,13 @@ public interface PageMetaStore extends CacheStatus {
    * @return a page to evict
    */
   PageInfo evict(CacheScope cacheScope, PageStoreDir pageStoreDir);
+
+  /**
+   * @param cacheScope
+   * @param pageStoreDir
+   * @param criterion only pages satisfying the criterion can be evicted
+   * @return a page to evict satisfying the criterion, or null if there is none
+   */
+  PageInfo evictMatching(CacheScope cacheScope, PageStoreDir pageStoreDir,
+      Predicate<PageId> criterion);
 }
@@ -0,0 +1,82 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.file.ReadTargetBuffer;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * A read of a part of a page, used to read multiple pages in one batch with
+ * {@link CacheManager#get(java.util.List, alluxio.client.file.CacheContext)}. Each read of a
+ * batch must have its own target buffer, as the reads may be served concurrently.
+ */
+public final class PageReadRequest {
+  private final PageId mPageId;
+  private final int mPageOffset;
+  private final int mBytesToRead;
+  private final ReadTargetBuffer mTarget;
+
+  /**
+   * @param pageId the page to read
+   * @param pageOffset the offset into the page
+   * @param bytesToRead the number of bytes to read
+   * @param target the buffer to read the data into
+   */
+  public PageReadRequest(PageId pageId, int pageOffset, int bytesToRead,
+      ReadTargetBuffer target) {
+    Preconditions.checkArgument(pageOffset >= 0, "page offset should be non-negative");
+    Preconditions.checkArgument(bytesToRead >= 0, "bytes to read should be non-negative");
+    mPageId = Preconditions.checkNotNull(pageId, "pageId");
+    mPageOffset = pageOffset;
+    mBytesToRead = bytesToRead;
+    mTarget = Preconditions.checkNotNull(target, "target");
+  }
+
+  /**
+   * @return the page to read
+   */
+  public PageId getPageId() {
+    return mPageId;
+  }
+
+  /**
+   * @return the offset into the page
+   */
+  public int getPageOffset() {
+    return mPageOffset;
+  }
+
+  /**
+   * @return the number of bytes to read
+   */
+  public int getBytesToRead() {
+    return mBytesToRead;
+  }
+
+  /**
+   * @return the buffer to read the data into
+   */
+  public ReadTargetBuffer getTarget() {
+    return mTarget;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("pageId", mPageId)
+        .add("pageOffset", mPageOffset)
+        .add("bytesToRead", mBytesToRead)
+        .toString();
+  }
+}
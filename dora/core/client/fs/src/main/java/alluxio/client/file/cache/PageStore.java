@@ -14,12 +14,15 @@ package alluxio.client.file.cache;
 import alluxio.Constants;
 import alluxio.client.file.cache.store.LocalPageStore;
 import alluxio.client.file.cache.store.MemoryPageStore;
+import alluxio.client.file.cache.store.OffHeapMemoryPageStore;
 import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.client.file.cache.store.SlabPageStore;
 import alluxio.exception.PageNotFoundException;
 import alluxio.exception.status.ResourceExhaustedException;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
+import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
 import alluxio.util.logging.SamplingLogger;
 
@@ -54,6 +57,12 @@ public interface PageStore extends AutoCloseable {
       case MEM:
         pageStore = new MemoryPageStore((int) options.getPageSize());
         break;
+      case OFF_HEAP_MEM:
+        pageStore = new OffHeapMemoryPageStore(options);
+        break;
+      case SLAB:
+        pageStore = new SlabPageStore(options);
+        break;
       default:
         throw new IllegalArgumentException(
             "Incompatible PageStore " + options.getType() + " specified");
@@ -230,6 +239,24 @@ public interface PageStore extends AutoCloseable {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Get a {@link DataBuffer} of a page which can be sent by Netty without copying the page
+   * onto the heap. The caller is responsible for releasing the returned buffer.
+   * By default this is the {@link DataFileChannel} of the page.
+   *
+   * @param pageId the page id
+   * @param pageOffset the offset inside the page
+   * @param bytesToRead the bytes to read
+   * @param isTemporary whether it is temporary or not
+   * @return a {@link DataBuffer} of the page
+   * @throws PageNotFoundException
+   */
+  default DataBuffer getDataBuffer(
+      PageId pageId, int pageOffset, int bytesToRead, boolean isTemporary)
+      throws PageNotFoundException {
+    return getDataFileChannel(pageId, pageOffset, bytesToRead, isTemporary);
+  }
+
   /**
    * Metrics.
    */
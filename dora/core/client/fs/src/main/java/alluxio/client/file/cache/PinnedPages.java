@@ -0,0 +1,144 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.codahale.metrics.Counter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Reference counted pins of cached pages. A page is pinned while its data is read directly
+ * from the page store by someone else than the cache manager, e.g. a file region being sent
+ * by Netty. A pinned page must not be evicted, and its deletion is deferred until the last
+ * pin is released.
+ */
+@ThreadSafe
+final class PinnedPages {
+  private final Map<PageId, Pin> mPins = new ConcurrentHashMap<>();
+
+  /**
+   * Pins a page. The caller must hold the read lock of the page, so that the page is not
+   * deleted concurrently.
+   *
+   * @param pageInfo the page to pin
+   */
+  void pin(PageInfo pageInfo) {
+    mPins.compute(pageInfo.getPageId(), (pageId, pin) -> {
+      if (pin == null) {
+        pin = new Pin(pageInfo);
+        Metrics.PINNED_PAGES.inc();
+        Metrics.PINNED_BYTES.inc(pageInfo.getPageSize());
+      }
+      pin.mCount++;
+      return pin;
+    });
+  }
+
+  /**
+   * Releases a pin of a page. If this was the last pin and the deletion of the page was
+   * deferred while it was pinned, the page stays registered as pending deletion, so that it
+   * cannot be cached again, until {@link #completeDeferredDeletion} is called.
+   *
+   * @param pageId the page to unpin
+   * @return the info of the page if the caller must now delete the page, otherwise null
+   */
+  @Nullable
+  PageInfo unpin(PageId pageId) {
+    PageInfo[] deferred = new PageInfo[1];
+    mPins.computeIfPresent(pageId, (id, pin) -> {
+      if (--pin.mCount > 0) {
+        return pin;
+      }
+      Metrics.PINNED_PAGES.dec();
+      Metrics.PINNED_BYTES.dec(pin.mPageInfo.getPageSize());
+      if (pin.mDeletePending) {
+        deferred[0] = pin.mPageInfo;
+        return pin;
+      }
+      return null;
+    });
+    return deferred[0];
+  }
+
+  /**
+   * Unregisters a page after its deferred deletion is done.
+   *
+   * @param pageId the page id
+   */
+  void completeDeferredDeletion(PageId pageId) {
+    mPins.computeIfPresent(pageId, (id, pin) -> pin.mCount == 0 ? null : pin);
+  }
+
+  /**
+   * Defers the deletion of a page from its page store until the page is unpinned. The page
+   * must have been removed from the meta store already.
+   *
+   * @param pageId the page to delete
+   * @return true if the page is pinned and its deletion is deferred, false if the page is not
+   *         pinned and the caller should delete it now
+   */
+  boolean deferDeletion(PageId pageId) {
+    return mPins.computeIfPresent(pageId, (id, pin) -> {
+      pin.mDeletePending = true;
+      return pin;
+    }) != null;
+  }
+
+  /**
+   * @param pageId the page id
+   * @return whether the page is pinned or pending deletion
+   */
+  boolean isPinned(PageId pageId) {
+    return mPins.containsKey(pageId);
+  }
+
+  /**
+   * @param pageId the page id
+   * @return whether the page is pinned and waiting to be deleted once unpinned
+   */
+  boolean isDeletePending(PageId pageId) {
+    Pin pin = mPins.get(pageId);
+    return pin != null && pin.mDeletePending;
+  }
+
+  /**
+   * @return whether no page is pinned
+   */
+  boolean isEmpty() {
+    return mPins.isEmpty();
+  }
+
+  private static final class Pin {
+    private final PageInfo mPageInfo;
+    private int mCount = 0;
+    private boolean mDeletePending = false;
+
+    private Pin(PageInfo pageInfo) {
+      mPageInfo = pageInfo;
+    }
+  }
+
+  private static final class Metrics {
+    /** Bytes of pages pinned by in-flight zero-copy transfers. */
+    private static final Counter PINNED_BYTES =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_PINNED_BYTES.getName());
+    /** Number of pages pinned by in-flight zero-copy transfers. */
+    private static final Counter PINNED_PAGES =
+        MetricsSystem.counter(MetricKey.CLIENT_CACHE_PINNED_PAGES.getName());
+  }
+}
@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
@@ -115,11 +116,25 @@ public class QuotaPageMetaStore extends DefaultPageMetaStore {
   @Nullable
   @GuardedBy("getLock()")
   public PageInfo evict(CacheScope cacheScope, PageStoreDir pageStoreDir) {
+    return evictMatching(cacheScope, pageStoreDir, null);
+  }
+
+  /**
+   * @param cacheScope scope to evict
+   * @param pageStoreDir the page store dir targeted to evict
+   * @param criterion only pages satisfying the criterion can be evicted, or null for any page
+   * @return a page to evict in this scope
+   */
+  @Override
+  @Nullable
+  @GuardedBy("getLock()")
+  public PageInfo evictMatching(CacheScope cacheScope, PageStoreDir pageStoreDir,
+      @Nullable Predicate<PageId> criterion) {
     if (cacheScope == CacheScope.GLOBAL) {
-      return evictInternal(pageStoreDir.getEvictor());
+      return evictInternal(pageStoreDir.getEvictor(), criterion);
     }
     CacheEvictor evictor = mCacheEvictors.computeIfAbsent(cacheScope, k -> mSupplier.get());
-    return evictInternal(evictor);
+    return evictInternal(evictor, criterion);
   }
 
   @Override
@@ -0,0 +1,201 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.evictor;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.collections.FrequencySketch;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * W-TinyLFU client-side cache eviction policy, which resists scans that would flush the cache
+ * under LRU.
+ * <br>
+ * New pages enter a small LRU window, pages leaving the window enter the probation
+ * segment of the main SLRU cache, and a page hit in probation is promoted to the protected
+ * segment. Once the cache is full, the oldest page of the window competes with the least
+ * recently used page of the main cache for admission, and the one accessed less often, as
+ * estimated by a count-min sketch of recent accesses, is evicted. A scan therefore only replaces
+ * pages of the window and other pages used once, while frequently used pages stay in the cache.
+ */
+@ThreadSafe
+public class TinyLFUCacheEvictor implements CacheEvictor {
+  /** Share of the main cache for the protected segment. */
+  private static final double PROTECTED_RATIO = 0.8;
+  /** Initial width of the sketch, which grows with the number of pages. */
+  private static final int SKETCH_MIN_WIDTH = 64;
+  /** Max value of the counters of the sketch, which saturate like 4-bit counters. */
+  private static final int SKETCH_MAX_COUNT = 15;
+  /** Accesses counted before the sketch is aged, as a multiple of its width. */
+  private static final int SKETCH_SAMPLE_FACTOR = 10;
+
+  private final double mWindowRatio;
+  @GuardedBy("this")
+  private final Set<PageId> mWindow = new LinkedHashSet<>();
+  @GuardedBy("this")
+  private final Set<PageId> mProbation = new LinkedHashSet<>();
+  @GuardedBy("this")
+  private final Set<PageId> mProtected = new LinkedHashSet<>();
+  @GuardedBy("this")
+  private final FrequencySketch<PageId> mSketch =
+      new FrequencySketch<>(SKETCH_MIN_WIDTH, SKETCH_MAX_COUNT, SKETCH_SAMPLE_FACTOR);
+  /** The last victim chosen over a window candidate, admitted once the victim is deleted. */
+  @GuardedBy("this")
+  @Nullable
+  private PageId mPendingVictim;
+  @GuardedBy("this")
+  @Nullable
+  private PageId mPendingCandidate;
+
+  /**
+   * Required constructor.
+   *
+   * @param options
+   */
+  public TinyLFUCacheEvictor(CacheEvictorOptions options) {
+    mWindowRatio = options.getTinyLFUWindowRatio();
+    Preconditions.checkArgument(mWindowRatio > 0 && mWindowRatio < 1,
+        "window ratio %s should be between 0 and 1", mWindowRatio);
+  }
+
+  @Override
+  public synchronized void updateOnGet(PageId pageId) {
+    mSketch.increment(pageId);
+    if (mWindow.remove(pageId)) {
+      mWindow.add(pageId);
+    } else if (mProbation.remove(pageId)) {
+      mProtected.add(pageId);
+      demoteProtected();
+    } else if (mProtected.remove(pageId)) {
+      mProtected.add(pageId);
+    }
+  }
+
+  @Override
+  public synchronized void updateOnPut(PageId pageId) {
+    mSketch.increment(pageId);
+    removePage(pageId);
+    mWindow.add(pageId);
+    mSketch.ensureCapacity(Iterables.concat(mWindow, mProbation, mProtected), size());
+    // while the cache is not full, pages leaving the window are admitted without competition
+    while (mWindow.size() > windowCapacity()) {
+      mProbation.add(removeFirst(mWindow));
+    }
+  }
+
+  @Override
+  public synchronized void updateOnDelete(PageId pageId) {
+    removePage(pageId);
+    if (pageId.equals(mPendingVictim)) {
+      // the eviction went through, admit the candidate into the main cache in place of the victim
+      if (mWindow.remove(mPendingCandidate)) {
+        mProbation.add(mPendingCandidate);
+      }
+      clearPending();
+    } else if (pageId.equals(mPendingCandidate)) {
+      clearPending();
+    }
+  }
+
+  @Nullable
+  @Override
+  public PageId evict() {
+    return evictMatching(pageId -> true);
+  }
+
+  @Nullable
+  @Override
+  public synchronized PageId evictMatching(Predicate<PageId> criterion) {
+    // the caller may abort the eviction, so nothing moves until the victim is actually deleted
+    clearPending();
+    PageId victim = firstMatching(mProbation, criterion);
+    if (victim == null) {
+      victim = firstMatching(mProtected, criterion);
+    }
+    // the oldest page of a full window is about to leave it for the page being added
+    PageId candidate = mWindow.size() >= windowCapacity() ? firstMatching(mWindow, criterion)
+        : null;
+    if (victim == null) {
+      return candidate == null ? firstMatching(mWindow, criterion) : candidate;
+    }
+    if (candidate == null) {
+      return victim;
+    }
+    if (mSketch.frequency(candidate) > mSketch.frequency(victim)) {
+      mPendingVictim = victim;
+      mPendingCandidate = candidate;
+      return victim;
+    }
+    return candidate;
+  }
+
+  @Override
+  public synchronized void reset() {
+    mWindow.clear();
+    mProbation.clear();
+    mProtected.clear();
+    mSketch.clear();
+    clearPending();
+  }
+
+  private void clearPending() {
+    mPendingVictim = null;
+    mPendingCandidate = null;
+  }
+
+  private int size() {
+    return mWindow.size() + mProbation.size() + mProtected.size();
+  }
+
+  private int windowCapacity() {
+    return Math.max(1, (int) (size() * mWindowRatio));
+  }
+
+  private void removePage(PageId pageId) {
+    if (!mWindow.remove(pageId) && !mProbation.remove(pageId)) {
+      mProtected.remove(pageId);
+    }
+  }
+
+  private void demoteProtected() {
+    int protectedCapacity = (int) ((mProbation.size() + mProtected.size()) * PROTECTED_RATIO);
+    while (mProtected.size() > protectedCapacity) {
+      mProbation.add(removeFirst(mProtected));
+    }
+  }
+
+  private static PageId removeFirst(Set<PageId> pages) {
+    Iterator<PageId> it = pages.iterator();
+    PageId first = it.next();
+    it.remove();
+    return first;
+  }
+
+  @Nullable
+  private static PageId firstMatching(Set<PageId> pages, Predicate<PageId> criterion) {
+    for (PageId pageId : pages) {
+      if (criterion.test(pageId)) {
+        return pageId;
+      }
+    }
+    return null;
+  }
+}
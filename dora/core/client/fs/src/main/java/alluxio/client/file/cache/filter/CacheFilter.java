@@ -11,16 +11,20 @@
 
 package alluxio.client.file.cache.filter;
 
+import alluxio.client.file.CacheContext;
 import alluxio.client.file.URIStatus;
+import alluxio.client.file.cache.PageId;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.util.CommonUtils;
 
+import java.io.Closeable;
+
 /**
  * The Cache Filter interface which is used to determine
- * whether a particular file (URI) needs to be cached.
+ * whether a particular file (URI) or page needs to be cached.
  */
-public interface CacheFilter {
+public interface CacheFilter extends Closeable {
 
   /**
    * Create a CacheFilter.
@@ -28,8 +32,17 @@ public interface CacheFilter {
    * @return the cache filter
    */
   static CacheFilter create(AlluxioConfiguration conf) {
-    return CommonUtils.createNewClassInstance(
-        conf.getClass(PropertyKey.USER_CLIENT_CACHE_FILTER_CLASS),
+    return create(conf, conf.getClass(PropertyKey.USER_CLIENT_CACHE_FILTER_CLASS));
+  }
+
+  /**
+   * Create a CacheFilter of the given class.
+   * @param conf the alluxio configuration
+   * @param filterClass the class of the cache filter
+   * @return the cache filter
+   */
+  static CacheFilter create(AlluxioConfiguration conf, Class<? extends CacheFilter> filterClass) {
+    return CommonUtils.createNewClassInstance(filterClass,
         new Class[] {AlluxioConfiguration.class, String.class},
         new Object[] {conf, conf.getString(
             PropertyKey.USER_CLIENT_CACHE_FILTER_CONFIG_FILE)});
@@ -41,4 +54,19 @@ public interface CacheFilter {
    * @return whether uriStatus needs to be cached
    */
   boolean needsCache(URIStatus uriStatus);
+
+  /**
+   * Whether a page read from the under storage on a cache miss needs to be cached or not.
+   * @param pageId the page id
+   * @param pageLength the length of the page
+   * @param cacheContext the cache related context
+   * @return whether the page needs to be cached
+   */
+  default boolean needsCache(PageId pageId, int pageLength, CacheContext cacheContext) {
+    return true;
+  }
+
+  @Override
+  default void close() {
+  }
 }
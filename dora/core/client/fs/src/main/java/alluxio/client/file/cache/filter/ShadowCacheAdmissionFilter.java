@@ -0,0 +1,58 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.filter;
+
+import alluxio.client.file.CacheContext;
+import alluxio.client.file.URIStatus;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.ShadowCacheManager;
+import alluxio.client.quota.CacheScope;
+import alluxio.conf.AlluxioConfiguration;
+
+/**
+ * Cache filter admitting a page into the cache only when it is read again while still
+ * remembered by a shadow cache, which tracks the pages read recently without storing their data.
+ * Pages read only once, e.g. by a scan, are therefore served from the under storage without
+ * being written into the cache, saving the writes and the evictions of other pages they would
+ * cause. The window of the shadow cache is configured by the shadow cache properties.
+ */
+public class ShadowCacheAdmissionFilter implements CacheFilter {
+  private final ShadowCacheManager mShadowCacheManager;
+
+  /**
+   * @param conf the Alluxio configuration
+   * @param cacheConfigFile the cache config file
+   */
+  public ShadowCacheAdmissionFilter(AlluxioConfiguration conf, String cacheConfigFile) {
+    mShadowCacheManager = ShadowCacheManager.create(conf);
+  }
+
+  @Override
+  public boolean needsCache(URIStatus uriStatus) {
+    return true;
+  }
+
+  @Override
+  public boolean needsCache(PageId pageId, int pageLength, CacheContext cacheContext) {
+    CacheScope scope = cacheContext == null ? CacheScope.GLOBAL : cacheContext.getCacheScope();
+    if (mShadowCacheManager.get(pageId, pageLength, scope) > 0) {
+      return true;
+    }
+    mShadowCacheManager.put(pageId, pageLength, scope);
+    return false;
+  }
+
+  @Override
+  public void close() {
+    mShadowCacheManager.stopUpdate();
+  }
+}
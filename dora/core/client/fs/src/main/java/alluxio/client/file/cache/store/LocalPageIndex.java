@@ -0,0 +1,715 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.client.quota.CacheScope;
+import alluxio.util.ThreadFactoryUtils;
+import alluxio.util.io.FileUtils;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * An index of the pages of a {@link LocalPageStoreDir} kept on disk, so that the pages can be
+ * restored on startup without walking through all the page files.
+ * <br>
+ * The index is made of a snapshot of the pages and of the logs of the pages added and deleted
+ * since the snapshot was taken. Each log record is checksummed and handed to the file system as
+ * soon as the page is added or deleted, and a log cut short by a crash is replayed up to its last
+ * complete record. Once a log has more records than there are pages, a new log is started and
+ * the older logs are compacted into a new snapshot in the background. The snapshot replaces the
+ * previous one atomically and records the first log it does not cover, so the index can be
+ * loaded whenever the process stops.
+ * <br>
+ * Invalidating a file records that the pages of the file added so far are stale. The record is
+ * forced to disk, the stale pages are no longer loaded, and their files are deleted on the next
+ * load unless their deletion was recorded.
+ * <br>
+ * Pages are added to the index before their files are written and deleted from the index before
+ * their files are deleted, and the log records are not forced to disk one by one. A marker file
+ * is written once the index is closed, and an index loaded without the marker may miss the
+ * records written right before a crash. The page files are then walked through and reconciled
+ * with the index, instead of trusting the index alone.
+ */
+@ThreadSafe
+final class LocalPageIndex implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(LocalPageIndex.class);
+
+  private static final String SNAPSHOT_FILE = "snapshot";
+  private static final String SNAPSHOT_TEMP_FILE = "snapshot.tmp";
+  /** The new snapshot written by a compaction, only ever written by the compaction thread. */
+  private static final String SNAPSHOT_COMPACTION_FILE = "snapshot.compaction";
+  private static final String LOG_FILE_PREFIX = "log.";
+  private static final String CLEAN_FILE = "clean";
+  private static final long MAGIC = 0x414c5850414745L;
+  private static final int VERSION = 2;
+  private static final byte RECORD_ADD = 1;
+  private static final byte RECORD_DELETE = 2;
+  /** All the pages of a file recorded before are stale. */
+  private static final byte RECORD_INVALIDATE = 3;
+  /**
+   * Type, file id of at most 64KB, page index, size and creation time, and scope id of at most
+   * 64KB of a log record.
+   */
+  private static final int MAX_RECORD_SIZE = 1 + 2 * (2 + 65535) + 3 * Long.BYTES;
+  /** The minimum number of log records before the logs are compacted into a snapshot. */
+  private static final long MIN_COMPACTION_RECORDS = 1 << 20;
+
+  private final Path mDir;
+  private final long mPageSize;
+  private final long mMinCompactionRecords;
+
+  /** Incremented whenever the files of the index are replaced, to abandon a compaction. */
+  @GuardedBy("this")
+  private long mGeneration;
+  @GuardedBy("this")
+  @Nullable
+  private FileChannel mLog;
+  @GuardedBy("this")
+  private long mLogSequence;
+  @GuardedBy("this")
+  private long mLogRecords;
+  @GuardedBy("this")
+  private long mNumPages;
+  /** Whether the index holds all the pages and can be compacted and loaded. */
+  @GuardedBy("this")
+  private boolean mComplete;
+  @GuardedBy("this")
+  private boolean mCompacting;
+  @GuardedBy("this")
+  @Nullable
+  private ExecutorService mCompactionExecutor;
+  /** The stale pages found by the last load, whose files may not have been deleted. */
+  @GuardedBy("this")
+  private List<PageInfo> mStalePages = new ArrayList<>();
+  /** Whether the index has been closed and marked as closed cleanly. */
+  @GuardedBy("this")
+  private boolean mMarkedClean;
+
+  /**
+   * @param dir the directory of the index files
+   * @param pageSize the page size of the page store
+   */
+  LocalPageIndex(Path dir, long pageSize) {
+    this(dir, pageSize, MIN_COMPACTION_RECORDS);
+  }
+
+  /**
+   * @param dir the directory of the index files
+   * @param pageSize the page size of the page store
+   * @param minCompactionRecords the minimum number of log records before compacting the logs
+   */
+  @VisibleForTesting
+  LocalPageIndex(Path dir, long pageSize, long minCompactionRecords) {
+    mDir = dir;
+    mPageSize = pageSize;
+    mMinCompactionRecords = minCompactionRecords;
+  }
+
+  /**
+   * @return whether the index was closed before the process stopped, so that it holds all the
+   *         pages added and deleted before
+   */
+  synchronized boolean isClosedCleanly() {
+    return Files.exists(mDir.resolve(CLEAN_FILE));
+  }
+
+  /**
+   * Loads the pages of the index, and starts a new log for the pages added and deleted from now
+   * on if the index could be loaded. The index is no longer marked as closed cleanly.
+   *
+   * @param pageStoreDir the dir the pages belong to
+   * @return the pages of the index, or empty if the index is missing or cannot be read
+   */
+  synchronized Optional<Collection<PageInfo>> load(PageStoreDir pageStoreDir) {
+    closeLog();
+    mGeneration++;
+    mComplete = false;
+    mCompacting = false;
+    mStalePages = new ArrayList<>();
+    IndexedPages pages = new IndexedPages();
+    long logRecords;
+    long lastLogSequence;
+    try {
+      if (!Files.exists(mDir.resolve(SNAPSHOT_FILE))) {
+        LOG.info("No page index found in {}", mDir);
+        return Optional.empty();
+      }
+      long firstLogSequence = readSnapshot(pageStoreDir, pages);
+      TreeMap<Long, Path> logs = listLogs();
+      logRecords = 0;
+      for (Map.Entry<Long, Path> log : logs.entrySet()) {
+        if (log.getKey() < firstLogSequence) {
+          // already compacted into the snapshot
+          Files.delete(log.getValue());
+        } else {
+          logRecords += replayLog(log.getValue(), pageStoreDir, pages);
+        }
+      }
+      lastLogSequence = logs.isEmpty() ? firstLogSequence - 1
+          : Math.max(firstLogSequence - 1, logs.lastKey());
+      Files.deleteIfExists(mDir.resolve(CLEAN_FILE));
+      mMarkedClean = false;
+      openLog(lastLogSequence + 1);
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to load the page index in {}", mDir, e);
+      closeLog();
+      return Optional.empty();
+    }
+    mLogRecords = logRecords;
+    mNumPages = pages.size() + pages.stalePages().size();
+    mStalePages = new ArrayList<>(pages.stalePages());
+    mComplete = true;
+    LOG.info("Loaded {} pages from the page index in {}", pages.size(), mDir);
+    maybeCompact();
+    return Optional.of(pages.values());
+  }
+
+  /**
+   * @return the pages of invalidated files found by the last load whose deletion was not
+   *         recorded, which are to be deleted and are no longer returned afterwards
+   */
+  synchronized List<PageInfo> takeStalePages() {
+    List<PageInfo> stalePages = mStalePages;
+    mStalePages = new ArrayList<>();
+    return stalePages;
+  }
+
+  /**
+   * Clears the index and starts an empty one, which is not loaded until it is marked complete.
+   * If the index cannot be cleared, it is left disabled until the next reset.
+   */
+  synchronized void reset() {
+    closeLog();
+    mGeneration++;
+    mMarkedClean = false;
+    mComplete = false;
+    mCompacting = false;
+    mStalePages = new ArrayList<>();
+    mLogRecords = 0;
+    mNumPages = 0;
+    try {
+      if (Files.exists(mDir)) {
+        FileUtils.deletePathRecursively(mDir.toString());
+      }
+      Files.createDirectories(mDir);
+      openLog(1);
+    } catch (IOException e) {
+      LOG.error("Failed to reset the page index in {}, the index is disabled", mDir, e);
+      closeLog();
+    }
+  }
+
+  /**
+   * Marks the index as holding all the pages after they were added following a reset, from when
+   * on it is loaded on startup.
+   */
+  synchronized void markComplete() {
+    if (mLog == null) {
+      return;
+    }
+    try {
+      writeSnapshot(new ArrayList<>(), new ArrayList<>(), 1);
+    } catch (IOException e) {
+      LOG.error("Failed to write the snapshot of the page index in {}", mDir, e);
+      return;
+    }
+    mComplete = true;
+    maybeCompact();
+  }
+
+  /**
+   * @param pageInfo the page added
+   */
+  synchronized void add(PageInfo pageInfo) {
+    mNumPages++;
+    appendRecord(RECORD_ADD, pageInfo.getPageId(), pageInfo.getPageSize(),
+        pageInfo.getCreatedTimestamp(), pageInfo.getScope());
+  }
+
+  /**
+   * @param pageId the page deleted
+   */
+  synchronized void delete(PageId pageId) {
+    mNumPages--;
+    appendRecord(RECORD_DELETE, pageId, 0, 0, CacheScope.GLOBAL);
+  }
+
+  /**
+   * Records that the pages of the file added so far are stale and are not loaded anymore, and
+   * forces the record to disk.
+   *
+   * @param fileId the file invalidated
+   * @return whether the record was forced to disk, false if the pages may still be loaded
+   */
+  boolean invalidate(String fileId) {
+    FileChannel log;
+    synchronized (this) {
+      log = mLog;
+      if (log == null || !mComplete) {
+        return false;
+      }
+      appendRecord(RECORD_INVALIDATE, new PageId(fileId, 0), 0, 0, CacheScope.GLOBAL);
+      if (mLog != log) {
+        // the log has been replaced or discarded after the record was appended to it
+        return false;
+      }
+    }
+    // force outside the lock so that the pages added and deleted meanwhile are not blocked
+    try {
+      log.force(false);
+    } catch (IOException e) {
+      LOG.warn("Failed to force the invalidation of file {} in the page index in {}", fileId,
+          mDir, e);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Closes the index, which is marked as closed cleanly if all its records were written.
+   */
+  @Override
+  public synchronized void close() {
+    mGeneration++;
+    if (mCompactionExecutor != null) {
+      // a compaction in progress is abandoned as the generation changed
+      mCompactionExecutor.shutdown();
+      mCompactionExecutor = null;
+    }
+    if (mLog != null && closeLog()) {
+      try {
+        Files.createFile(mDir.resolve(CLEAN_FILE));
+        mMarkedClean = true;
+      } catch (IOException e) {
+        LOG.warn("Failed to mark the page index in {} as closed cleanly", mDir, e);
+      }
+    }
+  }
+
+  private void appendRecord(byte type, PageId pageId, long pageSize, long createdTime,
+      CacheScope scope) {
+    if (mLog == null) {
+      if (mMarkedClean) {
+        // a page changed after the index was closed, which no longer holds all the pages
+        mMarkedClean = false;
+        try {
+          Files.deleteIfExists(mDir.resolve(CLEAN_FILE));
+        } catch (IOException e) {
+          LOG.error("Failed to unmark the page index in {} as closed cleanly", mDir, e);
+        }
+      }
+      return;
+    }
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream payload = new DataOutputStream(bytes);
+      payload.writeByte(type);
+      writePage(payload, pageId, pageSize, createdTime, scope);
+      byte[] data = bytes.toByteArray();
+      CRC32 crc = new CRC32();
+      crc.update(data);
+      ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + data.length);
+      record.putInt(data.length).putLong(crc.getValue()).put(data).flip();
+      while (record.hasRemaining()) {
+        mLog.write(record);
+      }
+    } catch (IOException e) {
+      // the index no longer matches the pages, fall back to walking through the page files
+      LOG.error("Failed to write to the page index in {}, discarding the index", mDir, e);
+      closeLog();
+      mComplete = false;
+      mGeneration++;
+      try {
+        Files.deleteIfExists(mDir.resolve(SNAPSHOT_FILE));
+      } catch (IOException ex) {
+        LOG.error("Failed to discard the page index in {}", mDir, ex);
+      }
+      return;
+    }
+    mLogRecords++;
+    maybeCompact();
+  }
+
+  private void maybeCompact() {
+    if (!mComplete || mCompacting || mLog == null
+        || mLogRecords <= Math.max(mMinCompactionRecords, mNumPages)) {
+      return;
+    }
+    long generation = mGeneration;
+    long firstLogSequence = mLogSequence + 1;
+    try {
+      // the logs before the new one are no longer written to and can be compacted
+      closeLog();
+      openLog(firstLogSequence);
+    } catch (IOException e) {
+      LOG.error("Failed to start a new log for the page index in {}", mDir, e);
+      return;
+    }
+    mLogRecords = 0;
+    mCompacting = true;
+    if (mCompactionExecutor == null) {
+      mCompactionExecutor = Executors.newSingleThreadExecutor(
+          ThreadFactoryUtils.build("alluxio-page-index-compaction-%d", true));
+    }
+    mCompactionExecutor.execute(() -> compact(generation, firstLogSequence));
+  }
+
+  /**
+   * Replaces the snapshot and the logs before the given one with a new snapshot. The logs to
+   * compact are no longer written to, so the new snapshot is built and forced to disk without
+   * holding the lock, which is only held to install the snapshot and delete the logs it covers.
+   */
+  private void compact(long generation, long firstLogSequence) {
+    Path compactedSnapshot = mDir.resolve(SNAPSHOT_COMPACTION_FILE);
+    boolean installed = false;
+    try {
+      IndexedPages pages = new IndexedPages();
+      readSnapshot(null, pages);
+      for (Map.Entry<Long, Path> log : listLogs().headMap(firstLogSequence).entrySet()) {
+        replayLog(log.getValue(), null, pages);
+      }
+      writeSnapshotFile(compactedSnapshot, pages.values(), pages.stalePages(), firstLogSequence);
+      synchronized (this) {
+        if (generation != mGeneration) {
+          return;
+        }
+        Files.move(compactedSnapshot, mDir.resolve(SNAPSHOT_FILE),
+            StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        installed = true;
+        for (Path log : listLogs().headMap(firstLogSequence).values()) {
+          Files.delete(log);
+        }
+      }
+      LOG.debug("Compacted the page index in {} with {} pages", mDir, pages.size());
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to compact the page index in {}", mDir, e);
+    } finally {
+      if (!installed) {
+        try {
+          Files.deleteIfExists(compactedSnapshot);
+        } catch (IOException e) {
+          LOG.warn("Failed to delete the abandoned snapshot {}", compactedSnapshot, e);
+        }
+      }
+      synchronized (this) {
+        if (generation == mGeneration) {
+          mCompacting = false;
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the snapshot into the given pages.
+   *
+   * @return the sequence number of the first log not included in the snapshot
+   */
+  private long readSnapshot(@Nullable PageStoreDir pageStoreDir, IndexedPages pages)
+      throws IOException {
+    try (CheckedInputStream checked = new CheckedInputStream(
+        new BufferedInputStream(Files.newInputStream(mDir.resolve(SNAPSHOT_FILE))), new CRC32());
+         DataInputStream in = new DataInputStream(checked)) {
+      readHeader(in);
+      long firstLogSequence = in.readLong();
+      long numPages = in.readLong();
+      for (long i = 0; i < numPages; i++) {
+        pages.add(readPage(in, pageStoreDir));
+      }
+      long numStalePages = in.readLong();
+      for (long i = 0; i < numStalePages; i++) {
+        pages.addStale(readPage(in, pageStoreDir));
+      }
+      long expectedChecksum = checked.getChecksum().getValue();
+      if (in.readLong() != expectedChecksum) {
+        throw new IOException("Checksum mismatch in snapshot " + mDir.resolve(SNAPSHOT_FILE));
+      }
+      return firstLogSequence;
+    }
+  }
+
+  /**
+   * Writes a new snapshot with the given pages, replacing the current one.
+   */
+  private void writeSnapshot(Collection<PageInfo> pages, Collection<PageInfo> stalePages,
+      long firstLogSequence) throws IOException {
+    Path tempSnapshot = mDir.resolve(SNAPSHOT_TEMP_FILE);
+    writeSnapshotFile(tempSnapshot, pages, stalePages, firstLogSequence);
+    Files.move(tempSnapshot, mDir.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+        StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Writes a snapshot with the given pages to a file and forces it to disk.
+   */
+  private void writeSnapshotFile(Path snapshot, Collection<PageInfo> pages,
+      Collection<PageInfo> stalePages, long firstLogSequence) throws IOException {
+    try (FileOutputStream file = new FileOutputStream(snapshot.toFile())) {
+      CheckedOutputStream checked =
+          new CheckedOutputStream(new BufferedOutputStream(file), new CRC32());
+      DataOutputStream out = new DataOutputStream(checked);
+      writeHeader(out);
+      out.writeLong(firstLogSequence);
+      out.writeLong(pages.size());
+      for (PageInfo pageInfo : pages) {
+        writePage(out, pageInfo.getPageId(), pageInfo.getPageSize(),
+            pageInfo.getCreatedTimestamp(), pageInfo.getScope());
+      }
+      out.writeLong(stalePages.size());
+      for (PageInfo pageInfo : stalePages) {
+        writePage(out, pageInfo.getPageId(), pageInfo.getPageSize(),
+            pageInfo.getCreatedTimestamp(), pageInfo.getScope());
+      }
+      out.writeLong(checked.getChecksum().getValue());
+      out.flush();
+      file.getFD().sync();
+    }
+  }
+
+  /**
+   * Replays a log onto the given pages, up to its last complete record.
+   *
+   * @return the number of records replayed
+   */
+  private long replayLog(Path log, @Nullable PageStoreDir pageStoreDir,
+      IndexedPages pages) throws IOException {
+    long records = 0;
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(log)))) {
+      readHeader(in);
+      while (true) {
+        byte[] payload;
+        long checksum;
+        try {
+          int length = in.readInt();
+          checksum = in.readLong();
+          if (length <= 0 || length > MAX_RECORD_SIZE) {
+            LOG.warn("Invalid record length {} in {}, ignoring the rest of the log", length, log);
+            return records;
+          }
+          payload = new byte[length];
+          in.readFully(payload);
+        } catch (EOFException e) {
+          // the end of the log, or a record cut short by a crash
+          return records;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if (crc.getValue() != checksum) {
+          LOG.warn("Checksum mismatch in {}, ignoring the rest of the log", log);
+          return records;
+        }
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = record.readByte();
+        PageInfo pageInfo = readPage(record, pageStoreDir);
+        if (type == RECORD_ADD) {
+          pages.add(pageInfo);
+        } else if (type == RECORD_DELETE) {
+          pages.delete(pageInfo.getPageId());
+        } else if (type == RECORD_INVALIDATE) {
+          pages.deleteFile(pageInfo.getPageId().getFileId());
+        } else {
+          throw new IOException(String.format("Unknown record type %d in %s", type, log));
+        }
+        records++;
+      }
+    }
+  }
+
+  /**
+   * The pages of the index grouped by file, so that all the pages of a file can be invalidated,
+   * and the stale pages of invalidated files whose deletion has not been recorded yet.
+   */
+  private static final class IndexedPages {
+    private final Map<String, Map<Long, PageInfo>> mFiles = new LinkedHashMap<>();
+    private final Map<PageId, PageInfo> mStalePages = new LinkedHashMap<>();
+    private long mSize;
+
+    void add(PageInfo pageInfo) {
+      PageId pageId = pageInfo.getPageId();
+      // the page file of a stale page is overwritten by the new version of the page
+      mStalePages.remove(pageId);
+      if (mFiles.computeIfAbsent(pageId.getFileId(), fileId -> new LinkedHashMap<>())
+          .put(pageId.getPageIndex(), pageInfo) == null) {
+        mSize++;
+      }
+    }
+
+    void addStale(PageInfo pageInfo) {
+      mStalePages.put(pageInfo.getPageId(), pageInfo);
+    }
+
+    void delete(PageId pageId) {
+      mStalePages.remove(pageId);
+      Map<Long, PageInfo> file = mFiles.get(pageId.getFileId());
+      if (file != null && file.remove(pageId.getPageIndex()) != null) {
+        mSize--;
+        if (file.isEmpty()) {
+          mFiles.remove(pageId.getFileId());
+        }
+      }
+    }
+
+    void deleteFile(String fileId) {
+      Map<Long, PageInfo> file = mFiles.remove(fileId);
+      if (file != null) {
+        mSize -= file.size();
+        for (PageInfo pageInfo : file.values()) {
+          mStalePages.put(pageInfo.getPageId(), pageInfo);
+        }
+      }
+    }
+
+    long size() {
+      return mSize;
+    }
+
+    Collection<PageInfo> values() {
+      List<PageInfo> pages = new ArrayList<>((int) mSize);
+      for (Map<Long, PageInfo> file : mFiles.values()) {
+        pages.addAll(file.values());
+      }
+      return pages;
+    }
+
+    Collection<PageInfo> stalePages() {
+      return mStalePages.values();
+    }
+  }
+
+  private TreeMap<Long, Path> listLogs() throws IOException {
+    TreeMap<Long, Path> logs = new TreeMap<>();
+    try (Stream<Path> files = Files.list(mDir)) {
+      files.forEach(file -> {
+        String name = file.getFileName().toString();
+        if (name.startsWith(LOG_FILE_PREFIX)) {
+          try {
+            logs.put(Long.parseLong(name.substring(LOG_FILE_PREFIX.length())), file);
+          } catch (NumberFormatException e) {
+            LOG.warn("Ignoring unrecognized file {} in the page index", file);
+          }
+        }
+      });
+    }
+    return logs;
+  }
+
+  private void openLog(long sequence) throws IOException {
+    Path log = mDir.resolve(LOG_FILE_PREFIX + sequence);
+    Files.deleteIfExists(log);
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    writeHeader(new DataOutputStream(header));
+    FileChannel channel = FileChannel.open(log, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    try {
+      ByteBuffer buffer = ByteBuffer.wrap(header.toByteArray());
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    mLog = channel;
+    mLogSequence = sequence;
+  }
+
+  /**
+   * @return whether the log was forced to disk and closed
+   */
+  private boolean closeLog() {
+    if (mLog == null) {
+      return false;
+    }
+    boolean closed = false;
+    try {
+      mLog.force(true);
+      mLog.close();
+      closed = true;
+    } catch (IOException e) {
+      LOG.warn("Failed to close the log of the page index in {}", mDir, e);
+    }
+    mLog = null;
+    return closed;
+  }
+
+  private void writeHeader(DataOutputStream out) throws IOException {
+    out.writeLong(MAGIC);
+    out.writeInt(VERSION);
+    out.writeLong(mPageSize);
+  }
+
+  private void readHeader(DataInputStream in) throws IOException {
+    if (in.readLong() != MAGIC || in.readInt() != VERSION) {
+      throw new IOException("Unrecognized page index file in " + mDir);
+    }
+    long pageSize = in.readLong();
+    if (pageSize != mPageSize) {
+      throw new IOException(String.format(
+          "Page index in %s is for page size %d, expected %d", mDir, pageSize, mPageSize));
+    }
+  }
+
+  private static void writePage(DataOutputStream out, PageId pageId, long pageSize,
+      long createdTime, CacheScope scope) throws IOException {
+    out.writeUTF(pageId.getFileId());
+    out.writeLong(pageId.getPageIndex());
+    out.writeLong(pageSize);
+    out.writeLong(createdTime);
+    out.writeUTF(scope.getId());
+  }
+
+  private static PageInfo readPage(DataInputStream in, @Nullable PageStoreDir pageStoreDir)
+      throws IOException {
+    PageId pageId = new PageId(in.readUTF(), in.readLong());
+    long pageSize = in.readLong();
+    long createdTime = in.readLong();
+    CacheScope scope = CacheScope.create(in.readUTF());
+    return new PageInfo(pageId, pageSize, scope, pageStoreDir, createdTime);
+  }
+}
@@ -19,6 +19,8 @@ import alluxio.client.file.cache.PageInfo;
 import alluxio.client.file.cache.PageStore;
 import alluxio.client.file.cache.evictor.CacheEvictor;
 import alluxio.client.quota.CacheScope;
+import alluxio.exception.PageNotFoundException;
+import alluxio.util.io.FileUtils;
 
 import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
@@ -28,22 +30,35 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
 
 /**
  *
  */
 public class LocalPageStoreDir extends QuotaManagedPageStoreDir {
   private static final Logger LOG = LoggerFactory.getLogger(LocalPageStoreDir.class);
+  private static final String INDEX_DIR = "index";
 
   private final PageStoreOptions mPageStoreOptions;
   private final int mFileBuckets;
   private final Pattern mPagePattern;
 
   private PageStore mPageStore;
+  private final Path mIndexDir;
+  @Nullable
+  private final LocalPageIndex mPageIndex;
+  /** Whether pages are being restored from the index, which need not be added to it again. */
+  private volatile boolean mRestoringFromIndex;
 
   /**
    * Constructor for LocalCacheDir.
@@ -65,6 +80,9 @@ public class LocalPageStoreDir extends QuotaManagedPageStoreDir {
         String.format("%s/%d/(\\d+)/([^/]+)/(\\d+)",
             Pattern.quote(pageStoreOptions.getRootDir().toString()),
             pageStoreOptions.getPageSize()));
+    mIndexDir = pageStoreOptions.getRootDir().resolve(INDEX_DIR);
+    mPageIndex = pageStoreOptions.isIndexEnabled()
+        ? new LocalPageIndex(mIndexDir, pageStoreOptions.getPageSize()) : null;
   }
 
   /**
@@ -85,26 +103,134 @@ public class LocalPageStoreDir extends QuotaManagedPageStoreDir {
     // when cache is large, e.g. millions of pages, the clear may take a while on deletion
     PageStoreDir.clear(getRootPath());
     mPageStore = PageStore.create(mPageStoreOptions);
+    if (mPageIndex != null) {
+      mPageIndex.reset();
+      mPageIndex.markComplete();
+    }
   }
 
   /**
-   * Gets a stream of all pages from the page store. This stream needs to be closed as it may
-   * open IO resources.
+   * Gets a stream of all pages from the page store. The pages are read from the page index when
+   * it is enabled and was closed cleanly, otherwise the page files are walked through and the
+   * index is rebuilt from them. The page files missing from an index which was not closed cleanly
+   * were written, deleted or invalidated right before a crash, and are deleted. So are the stale
+   * pages of the files invalidated by the index.
    *
    * @throws IOException if any error occurs
    */
   @Override
   public void scanPages(Consumer<Optional<PageInfo>> pageInfoConsumer) throws IOException {
-    Files.walk(getRootPath()).filter(Files::isRegularFile).map(this::getPageInfo)
-        .forEach(pageInfoConsumer);
+    Map<PageId, PageInfo> indexedPages = null;
+    if (mPageIndex != null) {
+      boolean closedCleanly = mPageIndex.isClosedCleanly();
+      Optional<Collection<PageInfo>> pages = mPageIndex.load(this);
+      if (pages.isPresent() && closedCleanly) {
+        // temporary pages are not indexed, and would be deleted by walking through the files
+        Path tempDir = getRootPath().resolve(Long.toString(mPageStoreOptions.getPageSize()))
+            .resolve(LocalPageStore.TEMP_DIR);
+        if (Files.exists(tempDir)) {
+          FileUtils.deletePathRecursively(tempDir.toString());
+        }
+        // the pages of files invalidated before the process stopped, still to be deleted
+        for (PageInfo stalePage : mPageIndex.takeStalePages()) {
+          try {
+            mPageStore.delete(stalePage.getPageId());
+          } catch (PageNotFoundException e) {
+            // already deleted
+          }
+          mPageIndex.delete(stalePage.getPageId());
+        }
+        mRestoringFromIndex = true;
+        try {
+          pages.get().forEach(pageInfo -> pageInfoConsumer.accept(Optional.of(pageInfo)));
+        } finally {
+          mRestoringFromIndex = false;
+        }
+        return;
+      }
+      if (pages.isPresent()) {
+        LOG.info("The page index of {} was not closed cleanly, reconciling it with the page files",
+            getRootPath());
+        indexedPages = new HashMap<>();
+        for (PageInfo pageInfo : pages.get()) {
+          indexedPages.put(pageInfo.getPageId(), pageInfo);
+        }
+      } else {
+        LOG.info("Rebuilding the page index of {} from the page files", getRootPath());
+      }
+      mPageIndex.reset();
+    }
+    Map<PageId, PageInfo> reconciledPages = indexedPages;
+    try (Stream<Path> paths = Files.walk(getRootPath())) {
+      // the files of a disabled index are deleted as unrecognized, so it is not loaded stale
+      paths.filter(path -> mPageIndex == null || !path.startsWith(mIndexDir))
+          .filter(Files::isRegularFile)
+          .map(path -> getPageInfo(path, reconciledPages)).forEach(pageInfoConsumer);
+    }
+    if (mPageIndex != null) {
+      mPageIndex.markComplete();
+    }
+  }
+
+  @Override
+  public void putPage(PageInfo pageInfo) {
+    if (mPageIndex != null && !mRestoringFromIndex) {
+      mPageIndex.add(pageInfo);
+    }
+    super.putPage(pageInfo);
+  }
+
+  @Override
+  public long deletePage(PageInfo pageInfo) {
+    if (mPageIndex != null) {
+      mPageIndex.delete(pageInfo.getPageId());
+    }
+    return super.deletePage(pageInfo);
+  }
+
+  @Override
+  public void commit(String fileId, String newFileId) throws IOException {
+    List<PageInfo> pages = new ArrayList<>(getTempPages(fileId));
+    super.commit(fileId, newFileId);
+    if (mPageIndex != null) {
+      for (PageInfo pageInfo : pages) {
+        mPageIndex.add(new PageInfo(new PageId(newFileId, pageInfo.getPageId().getPageIndex()),
+            pageInfo.getPageSize(), pageInfo.getScope(), this, pageInfo.getCreatedTimestamp()));
+      }
+    }
+  }
+
+  @Override
+  public boolean markStale(String fileId) {
+    return mPageIndex != null && mPageIndex.invalidate(fileId);
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    if (mPageIndex != null) {
+      mPageIndex.close();
+    }
   }
 
   /**
    * @param path path of a file
+   * @param indexedPages the pages of the index the file is reconciled with, or null
    * @return the corresponding page info for the file otherwise empty
    */
-  private Optional<PageInfo> getPageInfo(Path path) {
+  private Optional<PageInfo> getPageInfo(Path path,
+      @Nullable Map<PageId, PageInfo> indexedPages) {
     Optional<PageId> pageId = getPageId(path);
+    CacheScope scope = CacheScope.GLOBAL;
+    if (pageId.isPresent() && indexedPages != null) {
+      PageInfo indexedPage = indexedPages.get(pageId.get());
+      if (indexedPage == null) {
+        LOG.debug("Page file {} is not in the page index and is going to be deleted.", path);
+        deleteUnrecognizedPage(path);
+        return Optional.empty();
+      }
+      scope = indexedPage.getScope();
+    }
     if (pageId.isPresent()) {
       long pageSize;
       long createdTime;
@@ -117,8 +243,7 @@ public class LocalPageStoreDir extends QuotaManagedPageStoreDir {
         deleteUnrecognizedPage(path);
         return Optional.empty();
       }
-      return Optional.of(new PageInfo(pageId.get(),
-          pageSize, CacheScope.GLOBAL, this, createdTime));
+      return Optional.of(new PageInfo(pageId.get(), pageSize, scope, this, createdTime));
     }
     deleteUnrecognizedPage(path);
     return Optional.empty();
@@ -59,6 +59,12 @@ public class MemoryPageStoreDir extends QuotaManagedPageStoreDir {
     //do nothing
   }
 
+  @Override
+  public boolean markStale(String fileId) {
+    // the pages are not restored after a restart
+    return true;
+  }
+
   @Override
   public Optional<CacheUsage> getUsage() {
     return Optional.of(new QuotaManagedPageStoreDir.Usage());
@@ -0,0 +1,222 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import alluxio.Constants;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageStore;
+import alluxio.exception.PageCorruptedException;
+import alluxio.exception.PageNotFoundException;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.network.protocol.databuffer.DataBuffer;
+import alluxio.network.protocol.databuffer.NettyDataBuffer;
+import alluxio.network.protocol.databuffer.NioDirectSlabPool;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The {@link OffHeapMemoryPageStore} is an implementation of {@link PageStore} which stores all
+ * pages in page-sized slots of large direct memory slabs, so that cached data does not live on
+ * the Java heap.
+ * <br>
+ * Each page is a reference counted {@link ByteBuf}. Readers retain the page while copying from
+ * it, and {@link #getDataBuffer} hands out a retained slice which Netty releases once it has
+ * been sent. The slot of a deleted page is reused only after all those references are released.
+ */
+@ThreadSafe
+public class OffHeapMemoryPageStore implements PageStore {
+  /** Size of each direct memory slab the pages are allocated from. */
+  private static final int SLAB_SIZE = 64 * Constants.MB;
+
+  private final NioDirectSlabPool mPool;
+  private final Map<PageId, ByteBuf> mPages = new ConcurrentHashMap<>();
+  private final Map<PageId, ByteBuf> mTempPages = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new instance of {@link OffHeapMemoryPageStore}.
+   *
+   * @param options options for the page store
+   */
+  public OffHeapMemoryPageStore(PageStoreOptions options) {
+    long pageSize = options.getPageSize();
+    Preconditions.checkArgument(pageSize > 0 && pageSize <= Integer.MAX_VALUE,
+        "Invalid page size %s", pageSize);
+    long capacity = (long) (options.getCacheSize() / (1 + options.getOverheadRatio()));
+    // a small cache does not need a full slab
+    long slabSize = Math.max(pageSize, Math.min(SLAB_SIZE, capacity));
+    mPool = new NioDirectSlabPool((int) pageSize, (int) slabSize, capacity);
+  }
+
+  @Override
+  public void put(PageId pageId, ByteBuffer page, boolean isTemporary)
+      throws ResourceExhaustedException, IOException {
+    int pageLength = page.remaining();
+    if (pageLength > mPool.getSlotSize()) {
+      throw new IOException(String.format("Page %s of %s bytes exceeds the page size %s",
+          pageId, pageLength, mPool.getSlotSize()));
+    }
+    ByteBuf buf = mPool.allocate(pageLength);
+    if (buf == null) {
+      throw new ResourceExhaustedException(String.format(
+          "No free memory for page %s, %s bytes allocated", pageId, mPool.getAllocatedBytes()));
+    }
+    buf.writeBytes(page);
+    ByteBuf replaced = (isTemporary ? mTempPages : mPages).put(pageId, buf);
+    if (replaced != null) {
+      replaced.release();
+    }
+  }
+
+  @Override
+  public int get(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer target,
+      boolean isTemporary) throws IOException, PageNotFoundException {
+    Preconditions.checkArgument(target != null, "buffer is null");
+    Preconditions.checkArgument(pageOffset >= 0, "page offset should be non-negative");
+    ByteBuf page = retainPage(pageId, isTemporary);
+    try {
+      checkPageRange(pageId, page, pageOffset, bytesToRead);
+      int bytesLeft = (int) Math.min(bytesToRead, target.remaining());
+      target.writeBytes(page.slice(pageOffset, bytesLeft));
+      return bytesLeft;
+    } finally {
+      page.release();
+    }
+  }
+
+  /**
+   * Returns a retained slice of the page backed by direct memory, which Netty can send
+   * without copying. The caller must release the returned buffer.
+   */
+  @Override
+  public DataBuffer getDataBuffer(PageId pageId, int pageOffset, int bytesToRead,
+      boolean isTemporary) throws PageNotFoundException {
+    Preconditions.checkArgument(pageOffset >= 0, "page offset should be non-negative");
+    ByteBuf page = retainPage(pageId, isTemporary);
+    try {
+      if (pageOffset > page.readableBytes()) {
+        throw new IllegalArgumentException(String.format(
+            "offset %s exceeds length of page %s", pageOffset, page.readableBytes()));
+      }
+      int length = Math.min(bytesToRead, page.readableBytes() - pageOffset);
+      return new NettyDataBuffer(page.retainedSlice(pageOffset, length));
+    } finally {
+      page.release();
+    }
+  }
+
+  @Override
+  public void delete(PageId pageId, boolean isTemporary)
+      throws IOException, PageNotFoundException {
+    ByteBuf page = (isTemporary ? mTempPages : mPages).remove(pageId);
+    if (page == null) {
+      throw new PageNotFoundException(pageId.getFileId() + "_" + pageId.getPageIndex());
+    }
+    page.release();
+  }
+
+  @Override
+  public void commit(String fileId, String newFileId) throws IOException {
+    for (PageId tempPageId : getTempPages(fileId)) {
+      ByteBuf page = mTempPages.remove(tempPageId);
+      if (page == null) {
+        continue;
+      }
+      ByteBuf replaced = mPages.put(new PageId(newFileId, tempPageId.getPageIndex()), page);
+      if (replaced != null) {
+        replaced.release();
+      }
+    }
+  }
+
+  @Override
+  public void abort(String fileId) throws IOException {
+    for (PageId tempPageId : getTempPages(fileId)) {
+      ByteBuf page = mTempPages.remove(tempPageId);
+      if (page != null) {
+        page.release();
+      }
+    }
+  }
+
+  /**
+   * @return the number of bytes of direct memory allocated for pages
+   */
+  @VisibleForTesting
+  public long getAllocatedBytes() {
+    return mPool.getAllocatedBytes();
+  }
+
+  /**
+   * Removes all pages. Pages still referenced by readers are freed once they are released.
+   */
+  public void reset() {
+    releaseAll(mPages);
+    releaseAll(mTempPages);
+  }
+
+  @Override
+  public void close() {
+    reset();
+    mPool.close();
+  }
+
+  /**
+   * Retains the page while it is still in the store, so that a concurrent delete does not free
+   * its slot before the caller releases it.
+   */
+  private ByteBuf retainPage(PageId pageId, boolean isTemporary) throws PageNotFoundException {
+    ByteBuf page = (isTemporary ? mTempPages : mPages).computeIfPresent(pageId, (k, v) -> {
+      v.retain();
+      return v;
+    });
+    if (page == null) {
+      throw new PageNotFoundException(pageId.getFileId() + "_" + pageId.getPageIndex());
+    }
+    return page;
+  }
+
+  private static void checkPageRange(PageId pageId, ByteBuf page, int pageOffset,
+      int bytesToRead) throws PageCorruptedException {
+    if (pageOffset + bytesToRead > page.readableBytes()) {
+      throw new PageCorruptedException(String.format(
+          "The page %s probably has been corrupted, "
+              + "page-offset %s, bytes to read %s, page length %s",
+          pageId, pageOffset, bytesToRead, page.readableBytes()));
+    }
+  }
+
+  private List<PageId> getTempPages(String fileId) {
+    return mTempPages.keySet().stream()
+        .filter(pageId -> pageId.getFileId().equals(fileId))
+        .collect(Collectors.toList());
+  }
+
+  private static void releaseAll(Map<PageId, ByteBuf> pages) {
+    for (PageId pageId : pages.keySet()) {
+      ByteBuf page = pages.remove(pageId);
+      if (page != null) {
+        page.release();
+      }
+    }
+  }
+}
@@ -73,6 +73,18 @@ public interface PageStoreDir extends CacheStatus {
             (MemoryPageStore) PageStore.create(pageStoreOptions),
             CacheEvictor.create(cacheEvictorOptions)
         );
+      case OFF_HEAP_MEM:
+        return new OffHeapMemoryPageStoreDir(
+            pageStoreOptions,
+            (OffHeapMemoryPageStore) PageStore.create(pageStoreOptions),
+            CacheEvictor.create(cacheEvictorOptions)
+        );
+      case SLAB:
+        return new SlabPageStoreDir(
+            pageStoreOptions,
+            (SlabPageStore) PageStore.create(pageStoreOptions),
+            CacheEvictor.create(cacheEvictorOptions)
+        );
       default:
         throw new IllegalArgumentException(String.format("Unrecognized store type %s",
             pageStoreOptions.getType().name()));
@@ -223,4 +235,16 @@ public interface PageStoreDir extends CacheStatus {
    * @param fileId
    */
   void abort(String fileId) throws IOException;
+
+  /**
+   * Records that the pages of the file currently in this dir are stale, so that they are not
+   * restored after a restart even if they have not been deleted yet.
+   *
+   * @param fileId the file id
+   * @return whether the stale pages are no longer restored, false if they are restored until
+   *         they are deleted
+   */
+  default boolean markStale(String fileId) {
+    return false;
+  }
 }
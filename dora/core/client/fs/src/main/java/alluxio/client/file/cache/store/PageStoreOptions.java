@@ -11,6 +11,7 @@
 
 package alluxio.client.file.cache.store;
 
+import alluxio.Constants;
 import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.util.FormatUtils;
@@ -39,10 +40,12 @@ public class PageStoreOptions {
     List<PageStoreOptions> optionsList = createPageStoreOptions(dirs, cacheSizes, storeType);
     optionsList.forEach(options -> {
       options.setFileBuckets(conf.getInt(PropertyKey.USER_CLIENT_CACHE_LOCAL_STORE_FILE_BUCKETS))
+          .setIndexEnabled(conf.getBoolean(PropertyKey.USER_CLIENT_CACHE_LOCAL_STORE_INDEX_ENABLED))
           .setPageSize(conf.getBytes(PropertyKey.USER_CLIENT_CACHE_PAGE_SIZE))
           .setAlluxioVersion(conf.getString(PropertyKey.VERSION))
           .setTimeoutDuration(conf.getMs(PropertyKey.USER_CLIENT_CACHE_TIMEOUT_DURATION))
-          .setTimeoutThreads(conf.getInt(PropertyKey.USER_CLIENT_CACHE_TIMEOUT_THREADS));
+          .setTimeoutThreads(conf.getInt(PropertyKey.USER_CLIENT_CACHE_TIMEOUT_THREADS))
+          .setSlabFileSize(conf.getBytes(PropertyKey.USER_CLIENT_CACHE_SLAB_FILE_SIZE));
       if (conf.isSet(PropertyKey.USER_CLIENT_CACHE_STORE_OVERHEAD)) {
         options.setOverheadRatio(conf.getDouble(PropertyKey.USER_CLIENT_CACHE_STORE_OVERHEAD));
       }
@@ -62,10 +65,12 @@ public class PageStoreOptions {
     List<PageStoreOptions> optionsList = createPageStoreOptions(dirs, cacheSizes, storeType);
     optionsList.forEach(options -> {
       options.setFileBuckets(conf.getInt(PropertyKey.WORKER_PAGE_STORE_LOCAL_STORE_FILE_BUCKETS))
+          .setIndexEnabled(conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_LOCAL_STORE_INDEX_ENABLED))
           .setPageSize(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE))
           .setAlluxioVersion(conf.getString(PropertyKey.VERSION))
           .setTimeoutDuration(conf.getMs(PropertyKey.WORKER_PAGE_STORE_TIMEOUT_DURATION))
-          .setTimeoutThreads(conf.getInt(PropertyKey.WORKER_PAGE_STORE_TIMEOUT_THREADS));
+          .setTimeoutThreads(conf.getInt(PropertyKey.WORKER_PAGE_STORE_TIMEOUT_THREADS))
+          .setSlabFileSize(conf.getBytes(PropertyKey.WORKER_PAGE_STORE_SLAB_FILE_SIZE));
       if (conf.isSet(PropertyKey.WORKER_PAGE_STORE_OVERHEAD)) {
         options.setOverheadRatio(conf.getDouble(PropertyKey.WORKER_PAGE_STORE_OVERHEAD));
       }
@@ -95,6 +100,7 @@ public class PageStoreOptions {
 
   private PageStoreType mStoreType = PageStoreType.LOCAL;
   private int mFileBuckets = 1000;
+  private boolean mIndexEnabled;
   /**
    * Root directory where the data is stored.
    */
@@ -137,6 +143,11 @@ public class PageStoreOptions {
    */
   private double mOverheadRatio;
 
+  /**
+   * Maximum size of a single slab file of the slab page store.
+   */
+  private long mSlabFileSize = 64L * Constants.GB;
+
   /**
    * @return the type corresponding to the page store
    */
@@ -272,6 +283,22 @@ public class PageStoreOptions {
     return this;
   }
 
+  /**
+   * @return the maximum size of a single slab file of the slab page store
+   */
+  public long getSlabFileSize() {
+    return mSlabFileSize;
+  }
+
+  /**
+   * @param slabFileSize the maximum size of a single slab file of the slab page store
+   * @return the updated options
+   */
+  public PageStoreOptions setSlabFileSize(long slabFileSize) {
+    mSlabFileSize = slabFileSize;
+    return this;
+  }
+
   /**
    * @param fileBuckets the number of buckets to place files in
    * @return the updated options
@@ -288,6 +315,22 @@ public class PageStoreOptions {
     return mFileBuckets;
   }
 
+  /**
+   * @param indexEnabled whether the local page store keeps an index of its pages on disk
+   * @return the updated options
+   */
+  public PageStoreOptions setIndexEnabled(boolean indexEnabled) {
+    mIndexEnabled = indexEnabled;
+    return this;
+  }
+
+  /**
+   * @return whether the local page store keeps an index of its pages on disk
+   */
+  public boolean isIndexEnabled() {
+    return mIndexEnabled;
+  }
+
   /**
    * @param storeType
    * @return the updated options
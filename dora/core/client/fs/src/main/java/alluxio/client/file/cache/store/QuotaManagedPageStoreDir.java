@@ -21,6 +21,7 @@ import alluxio.resource.LockResource;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -114,6 +115,14 @@ abstract class QuotaManagedPageStoreDir implements PageStoreDir {
     mBytesUsed.addAndGet(-pageInfo.getPageSize());
   }
 
+  /**
+   * @param fileId the id of a temporary file
+   * @return the pages of the temporary file
+   */
+  protected List<PageInfo> getTempPages(String fileId) {
+    return mTempFileToPageInfoListMap.getOrDefault(fileId, Collections.emptyList());
+  }
+
   @Override
   public boolean putTempFile(String fileId) {
     try (LockResource lock = new LockResource(mTempFileIdSetLock.writeLock())) {
@@ -0,0 +1,610 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.client.file.cache.PageStore;
+import alluxio.client.quota.CacheScope;
+import alluxio.exception.PageCorruptedException;
+import alluxio.exception.PageNotFoundException;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.network.protocol.databuffer.DataFileChannel;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The {@link SlabPageStore} is an implementation of {@link PageStore} which stores all pages in
+ * a few large preallocated slab files on the local disk, instead of one file per page.
+ * <p>
+ * The capacity of the store is divided into fixed-size slots of one page each. A page is
+ * written to a free slot and read back with positional reads on a shared {@link FileChannel},
+ * so neither reads nor writes open or create files. The page ids of the occupied slots are
+ * persisted in a separate index file with one fixed-size record per slot, which is read back
+ * when the store is reopened so the cache can be restored after a restart.
+ * <p>
+ * A page is first written to its slot and then its index record is written, neither being
+ * forced to disk, so after a crash a record may point at a slot holding torn or stale data.
+ * Each record therefore carries a checksum of the data of its page, which is checked the first
+ * time a page restored from the index is read. A restored page failing the check is reported as
+ * corrupted and dropped from the cache. Records also carry a checksum of their own and torn
+ * records are treated as free.
+ */
+@ThreadSafe
+public class SlabPageStore implements PageStore {
+  private static final String INDEX_FILE = "index";
+  private static final String SLAB_FILE_PREFIX = "slab_";
+
+  private static final long INDEX_MAGIC = 0x414c5853_4c414231L;
+  private static final int INDEX_VERSION = 2;
+  /** Size of the index header and of each slot record in the index file. */
+  @VisibleForTesting
+  static final int RECORD_SIZE = 256;
+  /** Number of records to read at once when loading the index. */
+  private static final int INDEX_READ_BATCH = 4096;
+
+  private static final byte STATE_FREE = 0;
+  private static final byte STATE_PAGE = 1;
+  private static final byte STATE_TEMP_PAGE = 2;
+  // record layout: crc(int) state(byte) length(int) dataCrc(int) pageIndex(long) created(long)
+  // fileId(short+n)
+  private static final int RECORD_CRC_OFFSET = 0;
+  private static final int RECORD_HEADER_SIZE = 4 + 1 + 4 + 4 + 8 + 8 + 2;
+  /** The longest file id, in UTF-8 bytes, that can be stored in a slot record. */
+  @VisibleForTesting
+  static final int MAX_FILE_ID_BYTES = RECORD_SIZE - RECORD_HEADER_SIZE;
+
+  private final Path mRoot;
+  private final long mPageSize;
+  private final long mCapacity;
+  private final int mNumSlots;
+  private final int mSlotsPerSlab;
+  private final File[] mSlabFiles;
+  private final FileChannel[] mSlabChannels;
+  private final FileChannel mIndexChannel;
+  /** Length of the page stored in each slot. */
+  private final int[] mSlotLengths;
+  /** Creation time of the page stored in each slot. */
+  private final long[] mSlotCreatedTimes;
+  /** Checksum of the data of the page stored in each slot. */
+  private final int[] mSlotDataCrcs;
+  private final Map<PageId, Integer> mPageSlots = new ConcurrentHashMap<>();
+  private final Map<PageId, Integer> mTempPageSlots = new ConcurrentHashMap<>();
+
+  @GuardedBy("mUsedSlots")
+  private final BitSet mUsedSlots;
+  @GuardedBy("mUsedSlots")
+  private int mNextSlotHint = 0;
+  /** The slots restored from the index whose data has not been checked yet. */
+  @GuardedBy("mUnverifiedSlots")
+  private final BitSet mUnverifiedSlots;
+
+  /**
+   * Creates a new instance of {@link SlabPageStore}, opening the existing slab files under the
+   * root directory if their layout matches the options, or creating new ones otherwise.
+   *
+   * @param options options for the slab page store
+   */
+  public SlabPageStore(PageStoreOptions options) {
+    mRoot = Paths.get(options.getRootDir().toString(), Long.toString(options.getPageSize()));
+    mPageSize = options.getPageSize();
+    mCapacity = (long) (options.getCacheSize() / (1 + options.getOverheadRatio()));
+    Preconditions.checkArgument(mPageSize > 0 && mPageSize <= Integer.MAX_VALUE,
+        "Invalid page size %s", mPageSize);
+    long numSlots = mCapacity / mPageSize;
+    Preconditions.checkArgument(numSlots > 0 && numSlots < Integer.MAX_VALUE,
+        "Capacity %s of %s cannot be divided into slots of %s bytes",
+        mCapacity, options.getRootDir(), mPageSize);
+    mNumSlots = (int) numSlots;
+    mSlotsPerSlab = (int) Math.min(mNumSlots,
+        Math.max(1, options.getSlabFileSize() / mPageSize));
+    int numSlabs = (mNumSlots + mSlotsPerSlab - 1) / mSlotsPerSlab;
+    mSlabFiles = new File[numSlabs];
+    mSlabChannels = new FileChannel[numSlabs];
+    mSlotLengths = new int[mNumSlots];
+    mSlotCreatedTimes = new long[mNumSlots];
+    mSlotDataCrcs = new int[mNumSlots];
+    mUsedSlots = new BitSet(mNumSlots);
+    mUnverifiedSlots = new BitSet(mNumSlots);
+    try {
+      Files.createDirectories(mRoot);
+      Path indexPath = mRoot.resolve(INDEX_FILE);
+      boolean reuse = Files.exists(indexPath);
+      mIndexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE,
+          StandardOpenOption.READ, StandardOpenOption.WRITE);
+      reuse = reuse && readHeader();
+      if (!reuse) {
+        LOG.info("Creating slab page store at {} with {} slots in {} slab files",
+            mRoot, mNumSlots, numSlabs);
+        // records past the end of the index file are free slots
+        mIndexChannel.truncate(0);
+        writeHeader();
+      }
+      for (int i = 0; i < numSlabs; i++) {
+        mSlabFiles[i] = mRoot.resolve(SLAB_FILE_PREFIX + i).toFile();
+        try (RandomAccessFile slab = new RandomAccessFile(mSlabFiles[i], "rw")) {
+          // preallocate the slab file, its content is only ever accessed through slots
+          long slotsInSlab = Math.min(mSlotsPerSlab, mNumSlots - (long) i * mSlotsPerSlab);
+          if (slab.length() != slotsInSlab * mPageSize) {
+            slab.setLength(slotsInSlab * mPageSize);
+            if (reuse) {
+              LOG.warn("Slab file {} has an unexpected length, recreating the slab page store",
+                  mSlabFiles[i]);
+              reuse = false;
+              mIndexChannel.truncate(0);
+              writeHeader();
+            }
+          }
+        }
+        mSlabChannels[i] = FileChannel.open(mSlabFiles[i].toPath(),
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+      }
+      if (reuse) {
+        loadIndex();
+      }
+    } catch (IOException e) {
+      close();
+      throw new RuntimeException("Failed to open slab page store at " + mRoot, e);
+    }
+  }
+
+  @Override
+  public void put(PageId pageId,
+      ByteBuffer page,
+      boolean isTemporary) throws ResourceExhaustedException, IOException {
+    int pageLength = page.remaining();
+    if (pageLength > mPageSize) {
+      throw new IOException(String.format("Page %s of %s bytes exceeds the slot size %s",
+          pageId, pageLength, mPageSize));
+    }
+    byte[] fileId = pageId.getFileId().getBytes(StandardCharsets.UTF_8);
+    if (fileId.length > MAX_FILE_ID_BYTES) {
+      throw new IOException(String.format("File id of page %s exceeds %s bytes",
+          pageId, MAX_FILE_ID_BYTES));
+    }
+    Map<PageId, Integer> slots = isTemporary ? mTempPageSlots : mPageSlots;
+    Integer existing = slots.remove(pageId);
+    if (existing != null) {
+      freeSlot(existing);
+    }
+    int slot = allocateSlot();
+    if (slot < 0) {
+      throw new ResourceExhaustedException(
+          String.format("%s has no free slot, configured with %d bytes", mRoot, mCapacity));
+    }
+    try {
+      CRC32 crc = new CRC32();
+      crc.update(page.duplicate());
+      int dataCrc = (int) crc.getValue();
+      writeFully(getSlabChannel(slot), page, getSlotOffset(slot));
+      long createdTime = System.currentTimeMillis();
+      writeRecord(slot, isTemporary ? STATE_TEMP_PAGE : STATE_PAGE, pageLength, dataCrc,
+          pageId.getPageIndex(), createdTime, fileId);
+      mSlotLengths[slot] = pageLength;
+      mSlotCreatedTimes[slot] = createdTime;
+      mSlotDataCrcs[slot] = dataCrc;
+      slots.put(pageId, slot);
+    } catch (Throwable t) {
+      releaseSlot(slot);
+      throw new IOException("Failed to write slot " + slot + " for page " + pageId, t);
+    }
+  }
+
+  @Override
+  public int get(PageId pageId, int pageOffset, int bytesToRead, ReadTargetBuffer target,
+      boolean isTemporary) throws IOException, PageNotFoundException {
+    Preconditions.checkArgument(pageOffset >= 0, "page offset should be non-negative");
+    Preconditions.checkArgument(bytesToRead >= 0, "bytes to read should be non-negative");
+    if (target.remaining() == 0 || bytesToRead == 0) {
+      return 0;
+    }
+    int slot = getSlot(pageId, isTemporary);
+    int pageLength = mSlotLengths[slot];
+    if (pageOffset + bytesToRead > pageLength) {
+      throw new PageCorruptedException(String.format(
+          "The page %s (slot %s) probably has been corrupted, "
+              + "page-offset %s, bytes to read %s, page length %s",
+          pageId, slot, pageOffset, bytesToRead, pageLength));
+    }
+    if (!verifySlot(slot)) {
+      throw new PageCorruptedException(String.format(
+          "The data of page %s (slot %s) does not match its checksum", pageId, slot));
+    }
+    FileChannel channel = getSlabChannel(slot);
+    long position = getSlotOffset(slot) + pageOffset;
+    int bytesRead = 0;
+    int bytesLeft = (int) Math.min(target.remaining(), bytesToRead);
+    while (bytesLeft > 0) {
+      int bytes = target.readFromFile(channel, position + bytesRead, bytesLeft);
+      if (bytes <= 0) {
+        break;
+      }
+      bytesRead += bytes;
+      bytesLeft -= bytes;
+    }
+    if (bytesRead == 0) {
+      SAMPLING_LOG.warn("Read 0 bytes from page {}, the page is probably empty", pageId);
+      return -1;
+    }
+    return bytesRead;
+  }
+
+  @Override
+  public void delete(PageId pageId, boolean isTemporary) throws IOException, PageNotFoundException {
+    Map<PageId, Integer> slots = isTemporary ? mTempPageSlots : mPageSlots;
+    Integer slot = slots.remove(pageId);
+    if (slot == null) {
+      throw new PageNotFoundException(pageId.getFileId() + "_" + pageId.getPageIndex());
+    }
+    freeSlot(slot);
+  }
+
+  @Override
+  public void commit(String fileId, String newFileId) throws IOException {
+    byte[] newFileIdBytes = newFileId.getBytes(StandardCharsets.UTF_8);
+    if (newFileIdBytes.length > MAX_FILE_ID_BYTES) {
+      throw new IOException(String.format("File id %s exceeds %s bytes",
+          newFileId, MAX_FILE_ID_BYTES));
+    }
+    for (PageId tempPageId : getTempPages(fileId)) {
+      Integer slot = mTempPageSlots.remove(tempPageId);
+      if (slot == null) {
+        continue;
+      }
+      PageId newPageId = new PageId(newFileId, tempPageId.getPageIndex());
+      writeRecord(slot, STATE_PAGE, mSlotLengths[slot], mSlotDataCrcs[slot],
+          newPageId.getPageIndex(), mSlotCreatedTimes[slot], newFileIdBytes);
+      Integer replaced = mPageSlots.put(newPageId, slot);
+      if (replaced != null) {
+        freeSlot(replaced);
+      }
+    }
+  }
+
+  @Override
+  public void abort(String fileId) throws IOException {
+    for (PageId tempPageId : getTempPages(fileId)) {
+      Integer slot = mTempPageSlots.remove(tempPageId);
+      if (slot != null) {
+        freeSlot(slot);
+      }
+    }
+  }
+
+  @Override
+  public DataFileChannel getDataFileChannel(
+      PageId pageId, int pageOffset, int bytesToRead, boolean isTemporary)
+      throws PageNotFoundException {
+    Preconditions.checkArgument(pageOffset >= 0,
+        "page offset should be non-negative");
+    Preconditions.checkArgument(!isTemporary,
+        "cannot acquire a data file channel to a temporary page");
+    int slot = getSlot(pageId);
+    int pageLength = mSlotLengths[slot];
+    if (pageLength < pageOffset) {
+      throw new IllegalArgumentException(
+          String.format("offset %s exceeds length of page %s", pageOffset, pageLength));
+    }
+    if (pageOffset + bytesToRead > pageLength) {
+      bytesToRead = pageLength - pageOffset;
+    }
+    if (!verifySlot(slot)) {
+      LOG.warn("The data of page {} (slot {}) does not match its checksum, dropping it",
+          pageId, slot);
+      if (mPageSlots.remove(pageId, slot)) {
+        try {
+          freeSlot(slot);
+        } catch (IOException e) {
+          LOG.warn("Failed to free slot {} of {}: {}", slot, mRoot, e.toString());
+        }
+      }
+      throw new PageNotFoundException(pageId.getFileId() + "_" + pageId.getPageIndex());
+    }
+    return new DataFileChannel(mSlabFiles[slot / mSlotsPerSlab],
+        getSlotOffset(slot) + pageOffset, bytesToRead);
+  }
+
+  /**
+   * Scans the pages stored in this page store. Temporary pages are not reported.
+   *
+   * @param dir the page store dir owning this page store
+   * @param pageInfoConsumer consumer of the page infos
+   */
+  public void scanPages(PageStoreDir dir, Consumer<Optional<PageInfo>> pageInfoConsumer) {
+    for (Map.Entry<PageId, Integer> entry : mPageSlots.entrySet()) {
+      int slot = entry.getValue();
+      pageInfoConsumer.accept(Optional.of(new PageInfo(entry.getKey(), mSlotLengths[slot],
+          CacheScope.GLOBAL, dir, mSlotCreatedTimes[slot])));
+    }
+  }
+
+  /**
+   * @return the number of slots of this page store
+   */
+  @VisibleForTesting
+  public int getNumSlots() {
+    return mNumSlots;
+  }
+
+  /**
+   * @return the number of slots currently in use
+   */
+  @VisibleForTesting
+  public int getNumUsedSlots() {
+    synchronized (mUsedSlots) {
+      return mUsedSlots.cardinality();
+    }
+  }
+
+  @Override
+  public void close() {
+    List<FileChannel> channels = new ArrayList<>();
+    channels.add(mIndexChannel);
+    for (FileChannel channel : mSlabChannels) {
+      channels.add(channel);
+    }
+    for (FileChannel channel : channels) {
+      if (channel == null) {
+        continue;
+      }
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOG.warn("Failed to close slab page store channel at {}: {}", mRoot, e.toString());
+      }
+    }
+  }
+
+  private int getSlot(PageId pageId, boolean isTemporary) throws PageNotFoundException {
+    Integer slot = (isTemporary ? mTempPageSlots : mPageSlots).get(pageId);
+    if (slot == null) {
+      throw new PageNotFoundException(pageId.getFileId() + "_" + pageId.getPageIndex());
+    }
+    return slot;
+  }
+
+  private List<PageId> getTempPages(String fileId) {
+    List<PageId> pages = new ArrayList<>();
+    for (PageId pageId : mTempPageSlots.keySet()) {
+      if (pageId.getFileId().equals(fileId)) {
+        pages.add(pageId);
+      }
+    }
+    return pages;
+  }
+
+  private FileChannel getSlabChannel(int slot) {
+    return mSlabChannels[slot / mSlotsPerSlab];
+  }
+
+  private long getSlotOffset(int slot) {
+    return (long) (slot % mSlotsPerSlab) * mPageSize;
+  }
+
+  /**
+   * @return a free slot marked as used, or -1 if all slots are in use
+   */
+  private int allocateSlot() {
+    synchronized (mUsedSlots) {
+      int slot = mUsedSlots.nextClearBit(mNextSlotHint);
+      if (slot >= mNumSlots) {
+        slot = mUsedSlots.nextClearBit(0);
+        if (slot >= mNumSlots) {
+          return -1;
+        }
+      }
+      mUsedSlots.set(slot);
+      mNextSlotHint = slot + 1;
+      return slot;
+    }
+  }
+
+  /**
+   * Checks the data of a slot restored from the index against the checksum of its record, the
+   * first time the slot is read.
+   *
+   * @return whether the data of the slot matches its checksum
+   */
+  private boolean verifySlot(int slot) {
+    synchronized (mUnverifiedSlots) {
+      if (!mUnverifiedSlots.get(slot)) {
+        return true;
+      }
+    }
+    ByteBuffer data = ByteBuffer.allocate(mSlotLengths[slot]);
+    FileChannel channel = getSlabChannel(slot);
+    long position = getSlotOffset(slot);
+    try {
+      while (data.hasRemaining()) {
+        if (channel.read(data, position + data.position()) < 0) {
+          return false;
+        }
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to read slot {} of {}: {}", slot, mRoot, e.toString());
+      return false;
+    }
+    data.flip();
+    CRC32 crc = new CRC32();
+    crc.update(data);
+    if ((int) crc.getValue() != mSlotDataCrcs[slot]) {
+      return false;
+    }
+    synchronized (mUnverifiedSlots) {
+      mUnverifiedSlots.clear(slot);
+    }
+    return true;
+  }
+
+  private void releaseSlot(int slot) {
+    synchronized (mUnverifiedSlots) {
+      mUnverifiedSlots.clear(slot);
+    }
+    synchronized (mUsedSlots) {
+      mUsedSlots.clear(slot);
+    }
+  }
+
+  /**
+   * Clears the index record of a slot and makes it available again.
+   */
+  private void freeSlot(int slot) throws IOException {
+    try {
+      writeFully(mIndexChannel, ByteBuffer.allocate(RECORD_SIZE), getRecordOffset(slot));
+    } finally {
+      releaseSlot(slot);
+    }
+  }
+
+  private static long getRecordOffset(int slot) {
+    // the first record is the header of the index file
+    return (long) (slot + 1) * RECORD_SIZE;
+  }
+
+  private void writeRecord(int slot, byte state, int length, int dataCrc, long pageIndex,
+      long createdTime, byte[] fileId) throws IOException {
+    ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    record.position(RECORD_CRC_OFFSET + 4);
+    record.put(state).putInt(length).putInt(dataCrc).putLong(pageIndex).putLong(createdTime)
+        .putShort((short) fileId.length).put(fileId);
+    record.putInt(RECORD_CRC_OFFSET, checksum(record.array()));
+    record.clear();
+    writeFully(mIndexChannel, record, getRecordOffset(slot));
+  }
+
+  private static int checksum(byte[] record) {
+    CRC32 crc = new CRC32();
+    crc.update(record, RECORD_CRC_OFFSET + 4, RECORD_SIZE - RECORD_CRC_OFFSET - 4);
+    return (int) crc.getValue();
+  }
+
+  /**
+   * @return whether the header of the index file matches the layout of this store
+   */
+  private boolean readHeader() throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(RECORD_SIZE);
+    if (mIndexChannel.read(header, 0) < RECORD_SIZE) {
+      return false;
+    }
+    header.flip();
+    boolean matches = header.getLong() == INDEX_MAGIC
+        && header.getInt() == INDEX_VERSION
+        && header.getLong() == mPageSize
+        && header.getInt() == mNumSlots
+        && header.getInt() == mSlotsPerSlab;
+    if (!matches) {
+      LOG.warn("Slab page store at {} was created with a different layout, recreating it",
+          mRoot);
+    }
+    return matches;
+  }
+
+  private void writeHeader() throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(RECORD_SIZE);
+    header.putLong(INDEX_MAGIC).putInt(INDEX_VERSION).putLong(mPageSize).putInt(mNumSlots)
+        .putInt(mSlotsPerSlab);
+    header.clear();
+    writeFully(mIndexChannel, header, 0);
+    mIndexChannel.force(false);
+  }
+
+  /**
+   * Loads the slot records of the index file into memory. Temporary pages of an earlier run
+   * and torn records are discarded. The data of the pages loaded is checked when first read.
+   */
+  private void loadIndex() throws IOException {
+    ByteBuffer batch = ByteBuffer.allocate(RECORD_SIZE * INDEX_READ_BATCH);
+    byte[] record = new byte[RECORD_SIZE];
+    int discarded = 0;
+    for (int start = 0; start < mNumSlots; start += INDEX_READ_BATCH) {
+      int count = Math.min(INDEX_READ_BATCH, mNumSlots - start);
+      batch.clear();
+      batch.limit(count * RECORD_SIZE);
+      long position = getRecordOffset(start);
+      while (batch.hasRemaining()) {
+        if (mIndexChannel.read(batch, position + batch.position()) < 0) {
+          break;
+        }
+      }
+      batch.flip();
+      for (int i = 0; i < count && batch.remaining() >= RECORD_SIZE; i++) {
+        batch.get(record);
+        ByteBuffer buf = ByteBuffer.wrap(record);
+        int crc = buf.getInt();
+        byte state = buf.get();
+        if (state == STATE_FREE) {
+          continue;
+        }
+        if (state != STATE_PAGE || crc != checksum(record)) {
+          // temporary pages of an earlier run are never committed
+          discarded++;
+          continue;
+        }
+        int slot = start + i;
+        int length = buf.getInt();
+        int dataCrc = buf.getInt();
+        long pageIndex = buf.getLong();
+        long createdTime = buf.getLong();
+        int fileIdLength = buf.getShort();
+        if (length < 0 || length > mPageSize || fileIdLength < 0
+            || fileIdLength > MAX_FILE_ID_BYTES) {
+          discarded++;
+          continue;
+        }
+        String fileId = new String(record, buf.position(), fileIdLength, StandardCharsets.UTF_8);
+        mSlotLengths[slot] = length;
+        mSlotCreatedTimes[slot] = createdTime;
+        mSlotDataCrcs[slot] = dataCrc;
+        mPageSlots.put(new PageId(fileId, pageIndex), slot);
+        synchronized (mUsedSlots) {
+          mUsedSlots.set(slot);
+        }
+        synchronized (mUnverifiedSlots) {
+          mUnverifiedSlots.set(slot);
+        }
+      }
+    }
+    LOG.info("Loaded {} pages from slab page store at {}, discarded {} records",
+        mPageSlots.size(), mRoot, discarded);
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buf, long position)
+      throws IOException {
+    long offset = position;
+    while (buf.hasRemaining()) {
+      offset += channel.write(buf, offset);
+    }
+  }
+}
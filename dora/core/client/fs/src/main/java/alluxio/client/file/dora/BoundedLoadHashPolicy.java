@@ -0,0 +1,227 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import static com.google.common.hash.Hashing.murmur3_32_fixed;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import alluxio.Constants;
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.membership.WorkerClusterView;
+import alluxio.wire.WorkerIdentity;
+import alluxio.wire.WorkerInfo;
+import alluxio.wire.WorkerState;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An implementation of WorkerLocationPolicy.
+ *
+ * A policy where a file path is matched to worker(s) by consistent hashing with bounded loads.
+ * The file path is hashed on the same hash ring as {@link ConsistentHashPolicy}, but the workers
+ * loaded above the average are skipped for some of the files, which go to the next worker on the
+ * ring instead. The load of a worker is the ratio of its used cache to its cache capacity, as
+ * reported by the worker, so a worker with a larger cache takes proportionally more files.
+ * The fraction of the files skipping a worker grows with its load, from none at the average load
+ * of the cluster to all at alluxio.user.bounded.load.hash.load.factor times the average, which
+ * bounds the load of the workers.
+ *
+ * Each file skips a worker depending on a hash of its path, so a small change of the load of a
+ * worker only moves a small fraction of its files, instead of all of them once it crosses the
+ * bound. Workers reporting no cache usage, such as workers that just joined, are left out of the
+ * average, so that they do not push the other workers above it. The skipped workers are still
+ * returned after the others, so that the required number of workers can be found as long as the
+ * cluster has that many workers.
+ *
+ * The worker reading a file depends on the loads of the workers in the cluster view of the
+ * client, not only on the workers in it, so two clients with views reported at different times
+ * may read a file from different workers. Bounded loads therefore only apply to reading the data
+ * of files, which any worker can serve. Creating, writing and completing files, and the metadata
+ * operations, always go to the worker the file hashes to, as with {@link ConsistentHashPolicy},
+ * so that all the clients reach the same worker for them.
+ *
+ * Relevant paper:
+ * https://arxiv.org/pdf/1608.01350.pdf
+ */
+public class BoundedLoadHashPolicy implements WorkerLocationPolicy {
+  private static final Logger LOG = LoggerFactory.getLogger(BoundedLoadHashPolicy.class);
+  private static final HashFunction HASH_FUNCTION = murmur3_32_fixed();
+  private final ConsistentHashProvider mHashProvider;
+  private final double mLoadFactor;
+  /** The fractions of the files skipping each worker, computed for the last cluster view. */
+  private final AtomicReference<SkippedFractions> mSkippedFractions =
+      new AtomicReference<>(new SkippedFractions(null, ImmutableMap.of()));
+
+  /**
+   * Constructs a new {@link BoundedLoadHashPolicy}.
+   *
+   * @param conf the configuration used by the policy
+   */
+  public BoundedLoadHashPolicy(AlluxioConfiguration conf) {
+    LOG.debug("{} is chosen for user worker hash algorithm",
+        conf.getString(PropertyKey.USER_WORKER_SELECTION_POLICY));
+    mHashProvider = new ConsistentHashProvider(100, Constants.SECOND_MS,
+        conf.getInt(PropertyKey.USER_CONSISTENT_HASH_VIRTUAL_NODE_COUNT_PER_WORKER));
+    mLoadFactor = conf.getDouble(PropertyKey.USER_BOUNDED_LOAD_HASH_LOAD_FACTOR);
+    Preconditions.checkArgument(mLoadFactor > 1, "%s must be greater than 1, but is %s",
+        PropertyKey.Name.USER_BOUNDED_LOAD_HASH_LOAD_FACTOR, mLoadFactor);
+  }
+
+  @Override
+  public List<BlockWorkerInfo> getPreferredWorkers(WorkerClusterView workerClusterView,
+      String fileId, int count) throws ResourceExhaustedException {
+    return getWorkers(workerClusterView, fileId, count, false);
+  }
+
+  @Override
+  public List<BlockWorkerInfo> getPreferredReadWorkers(WorkerClusterView workerClusterView,
+      String fileId, int count) throws ResourceExhaustedException {
+    return getWorkers(workerClusterView, fileId, count, true);
+  }
+
+  /**
+   * @param workerClusterView the cluster view
+   * @param fileId the id of the file
+   * @param count the number of workers to find
+   * @param boundedLoad whether to skip the workers loaded above the average
+   * @return the workers of the file
+   */
+  private List<BlockWorkerInfo> getWorkers(WorkerClusterView workerClusterView,
+      String fileId, int count, boolean boundedLoad) throws ResourceExhaustedException {
+    if (workerClusterView.size() < count) {
+      throw new ResourceExhaustedException(String.format(
+          "Not enough workers in the cluster %d workers in the cluster but %d required",
+          workerClusterView.size(), count));
+    }
+    Set<WorkerIdentity> workerIdentities = workerClusterView.workerIds();
+    mHashProvider.refresh(workerIdentities);
+    Map<WorkerIdentity, Double> skippedFractions = boundedLoad
+        ? getSkippedFractions(workerClusterView) : ImmutableMap.of();
+    // enough workers are walked on the ring to skip all the workers loaded above the average
+    List<WorkerIdentity> candidates = mHashProvider.getMultiple(fileId,
+        Math.min(workerClusterView.size(), count + skippedFractions.size()));
+    // the same value for all the workers, so that a file skipping a worker also skips the
+    // workers loaded more
+    double fileHash = (HASH_FUNCTION.hashString(fileId, UTF_8).asInt() & Integer.MAX_VALUE)
+        / (double) Integer.MAX_VALUE;
+    List<WorkerIdentity> workers = new ArrayList<>(candidates.size());
+    List<WorkerIdentity> skipped = new ArrayList<>();
+    for (WorkerIdentity worker : candidates) {
+      if (skippedFractions.getOrDefault(worker, 0.0) > fileHash) {
+        skipped.add(worker);
+      } else {
+        workers.add(worker);
+      }
+    }
+    workers.addAll(skipped);
+    if (workers.size() < count) {
+      throw new ResourceExhaustedException(String.format(
+          "Found %d workers from the hash ring but %d required", workers.size(), count));
+    }
+    ImmutableList.Builder<BlockWorkerInfo> builder = ImmutableList.builder();
+    for (WorkerIdentity worker : workers.subList(0, count)) {
+      Optional<WorkerInfo> optionalWorkerInfo = workerClusterView.getWorkerById(worker);
+      final WorkerInfo workerInfo;
+      if (optionalWorkerInfo.isPresent()) {
+        workerInfo = optionalWorkerInfo.get();
+      } else {
+        // the worker returned by the policy does not exist in the cluster view
+        // supplied by the client.
+        // this can happen when the membership changes and some callers fail to update
+        // to the latest worker cluster view.
+        // in this case, just skip this worker
+        LOG.debug("Inconsistency between caller's view of cluster and that of "
+            + "the bounded load hash policy's: worker {} selected by policy does not exist in "
+            + "caller's view {}. Skipping this worker.",
+            worker, workerClusterView);
+        continue;
+      }
+
+      BlockWorkerInfo blockWorkerInfo = new BlockWorkerInfo(
+          worker, workerInfo.getAddress(), workerInfo.getCapacityBytes(),
+          workerInfo.getUsedBytes(), workerInfo.getState() == WorkerState.LIVE
+      );
+      builder.add(blockWorkerInfo);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Gets the fractions of the files skipping the workers loaded above the average, computed
+   * once for each cluster view.
+   *
+   * @param workerClusterView the cluster view
+   * @return the fractions of the files skipping each worker loaded above the average
+   */
+  private Map<WorkerIdentity, Double> getSkippedFractions(WorkerClusterView workerClusterView) {
+    SkippedFractions last = mSkippedFractions.get();
+    if (last.mClusterView == workerClusterView) {
+      return last.mFractions;
+    }
+    long usedBytes = 0;
+    long capacityBytes = 0;
+    for (WorkerInfo worker : workerClusterView) {
+      if (worker.getCapacityBytes() > 0 && worker.getUsedBytes() > 0) {
+        usedBytes += worker.getUsedBytes();
+        capacityBytes += worker.getCapacityBytes();
+      }
+    }
+    ImmutableMap.Builder<WorkerIdentity, Double> fractions = ImmutableMap.builder();
+    if (usedBytes > 0) {
+      double averageLoad = (double) usedBytes / capacityBytes;
+      for (WorkerInfo worker : workerClusterView) {
+        if (worker.getCapacityBytes() <= 0) {
+          continue;
+        }
+        double relativeLoad =
+            (double) worker.getUsedBytes() / worker.getCapacityBytes() / averageLoad;
+        if (relativeLoad > 1) {
+          fractions.put(worker.getIdentity(),
+              Math.min(1, (relativeLoad - 1) / (mLoadFactor - 1)));
+        }
+      }
+    }
+    Map<WorkerIdentity, Double> result = fractions.build();
+    LOG.debug("Fractions of the files skipping the workers loaded above the average: {}",
+        result);
+    mSkippedFractions.set(new SkippedFractions(workerClusterView, result));
+    return result;
+  }
+
+  /**
+   * The fractions of the files skipping the workers in a cluster view.
+   */
+  private static final class SkippedFractions {
+    private final WorkerClusterView mClusterView;
+    private final Map<WorkerIdentity, Double> mFractions;
+
+    SkippedFractions(WorkerClusterView clusterView, Map<WorkerIdentity, Double> fractions) {
+      mClusterView = clusterView;
+      mFractions = fractions;
+    }
+  }
+}
@@ -33,6 +33,8 @@ import alluxio.exception.AlluxioException;
 import alluxio.exception.FileDoesNotExistException;
 import alluxio.exception.InvalidPathException;
 import alluxio.exception.status.PermissionDeniedException;
+import alluxio.grpc.BatchGetStatusRequest;
+import alluxio.grpc.BatchGetStatusResponse;
 import alluxio.grpc.CacheDataRequest;
 import alluxio.grpc.CompleteFilePOptions;
 import alluxio.grpc.CompleteFilePRequest;
@@ -47,11 +49,14 @@ import alluxio.grpc.ExistsPOptions;
 import alluxio.grpc.ExistsPRequest;
 import alluxio.grpc.ExistsPResponse;
 import alluxio.grpc.FileInfo;
+import alluxio.grpc.GetRevokedMetadataLeasesRequest;
+import alluxio.grpc.GetRevokedMetadataLeasesResponse;
 import alluxio.grpc.GetStatusPOptions;
 import alluxio.grpc.GetStatusPRequest;
 import alluxio.grpc.GrpcUtils;
 import alluxio.grpc.ListStatusPOptions;
 import alluxio.grpc.ListStatusPRequest;
+import alluxio.grpc.PathFailure;
 import alluxio.grpc.ReadRequest;
 import alluxio.grpc.RenamePOptions;
 import alluxio.grpc.RenamePRequest;
@@ -64,6 +69,9 @@ import alluxio.resource.CloseableResource;
 import alluxio.wire.WorkerInfo;
 import alluxio.wire.WorkerNetAddress;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,6 +81,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
@@ -89,7 +98,13 @@ public class DoraCacheClient {
 
   private final int mPreferredWorkerCount;
 
+  private final int mBatchGetStatusSize;
+
   private final boolean mEnableDynamicHashRing;
+
+  /** Spreads the reads of hot files across workers, null if disabled. */
+  @Nullable
+  private final HotFileReadSpreader mReadSpreader;
   private static final Logger LOG = LoggerFactory.getLogger(DoraCacheClient.class);
 
   /**
@@ -108,6 +123,9 @@ public class DoraCacheClient {
         context.getClusterConf().getBoolean(PropertyKey.USER_DYNAMIC_CONSISTENT_HASH_RING_ENABLED);
     int minReplicaCount = context.getClusterConf().getInt(PropertyKey.USER_FILE_REPLICATION_MIN);
     mPreferredWorkerCount = Math.max(1, minReplicaCount);
+    mBatchGetStatusSize =
+        context.getClusterConf().getInt(PropertyKey.USER_FILE_BATCH_GET_STATUS_SIZE);
+    mReadSpreader = HotFileReadSpreader.create(context.getClusterConf());
   }
 
   /**
@@ -119,7 +137,7 @@ public class DoraCacheClient {
    */
   public PositionReadFileInStream getInStream(URIStatus status,
       Protocol.OpenUfsBlockOptions ufsOptions) {
-    WorkerNetAddress workerNetAddress = getWorkerNetAddress(status.getUfsPath());
+    WorkerNetAddress workerNetAddress = getWorkerNetAddress(status.getUfsPath(), true);
     // Construct the partial read request
     NettyDataReader reader;
     if (mNettyTransEnabled) {
@@ -163,7 +181,7 @@ public class DoraCacheClient {
   public DoraCachePositionReader createNettyPositionReader(URIStatus status,
       Protocol.OpenUfsBlockOptions ufsOptions,
       Optional<CloseableSupplier<PositionReader>> externalPositionReader) {
-    WorkerNetAddress workerNetAddress = getWorkerNetAddress(status.toString());
+    WorkerNetAddress workerNetAddress = getWorkerNetAddress(status.toString(), true);
     // Construct the partial read request
     NettyDataReader reader = createNettyDataReader(workerNetAddress, ufsOptions);
     return new DoraCachePositionReader(reader, status.getLength(), externalPositionReader);
@@ -240,6 +258,84 @@ public class DoraCacheClient {
     }
   }
 
+  /**
+   * Gets the metadata leases revoked by a worker since the last call.
+   *
+   * @param worker the worker the metadata leases are held from
+   * @param epoch the epoch of the worker returned by the last call, 0 for the first call
+   * @param sinceSequence the sequence number of the last revocation returned by the last call
+   * @return the leases revoked
+   */
+  public GetRevokedMetadataLeasesResponse getRevokedMetadataLeases(WorkerNetAddress worker,
+      long epoch, long sinceSequence) {
+    try (CloseableResource<BlockWorkerClient> client =
+             mContext.acquireBlockWorkerClient(worker)) {
+      return client.get().getRevokedMetadataLeases(GetRevokedMetadataLeasesRequest.newBuilder()
+          .setEpoch(epoch)
+          .setSinceSequence(sinceSequence)
+          .build());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Gets status of multiple paths. The paths are grouped by the workers they are located on, and
+   * the status of each group is requested in batches, sent to all the workers concurrently.
+   *
+   * @param paths the ufs paths
+   * @param options the get status options
+   * @return the status of the paths found, keyed by the ufs paths
+   */
+  public Map<String, URIStatus> getStatuses(List<String> paths, GetStatusPOptions options) {
+    Map<WorkerNetAddress, List<String>> pathsByWorker = new HashMap<>();
+    for (String path : paths) {
+      pathsByWorker.computeIfAbsent(getWorkerNetAddress(path), k -> new ArrayList<>()).add(path);
+    }
+    List<CloseableResource<BlockWorkerClient>> clients = new ArrayList<>();
+    try {
+      List<ListenableFuture<BatchGetStatusResponse>> responses = new ArrayList<>();
+      for (Map.Entry<WorkerNetAddress, List<String>> entry : pathsByWorker.entrySet()) {
+        CloseableResource<BlockWorkerClient> client =
+            mContext.acquireBlockWorkerClient(entry.getKey());
+        clients.add(client);
+        for (List<String> batch : Lists.partition(entry.getValue(), mBatchGetStatusSize)) {
+          BatchGetStatusRequest request = BatchGetStatusRequest.newBuilder()
+              .addAllPaths(batch)
+              .setOptions(options)
+              .build();
+          responses.add(client.get().batchGetStatus(request));
+        }
+      }
+      Map<String, URIStatus> statuses = new HashMap<>(paths.size());
+      for (ListenableFuture<BatchGetStatusResponse> future : responses) {
+        BatchGetStatusResponse response = future.get();
+        if (response.getFailuresCount() > 0) {
+          PathFailure failure = response.getFailures(0);
+          throw Status.fromCodeValue(failure.getCode())
+              .withDescription(String.format("Failed to get status of %s: %s",
+                  failure.getPath(), failure.getMessage()))
+              .asRuntimeException();
+        }
+        response.getFileInfosMap().forEach((path, fileInfo) ->
+            statuses.put(path, new URIStatus(GrpcUtils.fromProto(fileInfo))));
+      }
+      return statuses;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    } finally {
+      clients.forEach(CloseableResource::close);
+    }
+  }
+
   /**
    * Create File.
    * @param path the file path
@@ -440,18 +536,36 @@ public class DoraCacheClient {
    * @return the related worker net address where file locates
    */
   public WorkerNetAddress getWorkerNetAddress(String path) {
+    return getWorkerNetAddress(path, false);
+  }
+
+  /**
+   * Get the worker net address of the specific file path. The reads of the files read often are
+   * spread across several workers if enabled, and the worker location policy may place the reads
+   * differently from the other requests, which always go to the first worker the file hashes to.
+   *
+   * @param path the file path
+   * @param read whether the address is used to read the file data
+   * @return the related worker net address where file locates
+   */
+  private WorkerNetAddress getWorkerNetAddress(String path, boolean read) {
     try {
       WorkerClusterView workers = mEnableDynamicHashRing ? mContext.getCachedWorkers(
           FileSystemContext.GetWorkerListType.LIVE) : mContext.getCachedWorkers(
           FileSystemContext.GetWorkerListType.ALL);
       checkState(!workers.isEmpty(), "No workers available in the cluster. Lost workers %s",
           mEnableDynamicHashRing ? "excluded" : "included");
-      List<BlockWorkerInfo> preferredWorkers =
-          mWorkerLocationPolicy.getPreferredWorkers(workers,
-              path, mPreferredWorkerCount);
+      int replicas = read && mReadSpreader != null
+          ? Math.min(mReadSpreader.recordRead(path), workers.size()) : 1;
+      int count = Math.max(mPreferredWorkerCount, replicas);
+      List<BlockWorkerInfo> preferredWorkers = read
+          ? mWorkerLocationPolicy.getPreferredReadWorkers(workers, path, count)
+          : mWorkerLocationPolicy.getPreferredWorkers(workers, path, count);
       checkState(!preferredWorkers.isEmpty(),
           "Worker location policy returned no usable worker. Workers available are %s", workers);
-      BlockWorkerInfo worker = choosePreferredWorker(preferredWorkers);
+      BlockWorkerInfo worker = replicas > 1
+          ? mReadSpreader.chooseWorker(preferredWorkers, replicas)
+          : choosePreferredWorker(preferredWorkers);
       if (!worker.isActive()) {
         throw new RuntimeException("The preferred worker is not active.");
       }
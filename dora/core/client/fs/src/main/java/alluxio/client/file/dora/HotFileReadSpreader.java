@@ -0,0 +1,131 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.collections.FrequencySketch;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Spreads the reads of the files a client reads often across several of the workers the files
+ * hash to, so that a hot file does not saturate the first worker it hashes to. Each worker read
+ * from caches its own replica of the file, so the number of workers a file is spread across
+ * bounds the number of its replicas.
+ *
+ * The recent reads of the files are counted by a count-min sketch, whose counters are halved
+ * periodically so that files no longer read often cool down. A file read more than the hot
+ * threshold is spread across one more worker for each multiple of the threshold, up to the max
+ * number of replicas. Each read of a hot file picks one of those workers at random, so the reads
+ * of many clients spread evenly without coordination.
+ */
+@ThreadSafe
+public final class HotFileReadSpreader {
+  private static final int WIDTH = 8192;
+  /**
+   * Number of reads counted before the counters are halved, as a multiple of the width. It is
+   * kept to the width so that the counters of files read once stay low, and do not add up to a
+   * hot file.
+   */
+  private static final int SAMPLE_FACTOR = 1;
+
+  private final int mHotThreshold;
+  private final int mMaxReplicas;
+  @GuardedBy("this")
+  private final FrequencySketch<String> mSketch;
+
+  /**
+   * Creates a read spreader if read spreading is enabled.
+   *
+   * @param conf the configuration
+   * @return the read spreader, or null if read spreading is disabled
+   */
+  @Nullable
+  public static HotFileReadSpreader create(AlluxioConfiguration conf) {
+    if (!conf.getBoolean(PropertyKey.USER_FILE_READ_SPREAD_ENABLED)) {
+      return null;
+    }
+    return new HotFileReadSpreader(conf.getInt(PropertyKey.USER_FILE_READ_SPREAD_HOT_THRESHOLD),
+        conf.getInt(PropertyKey.USER_FILE_READ_SPREAD_REPLICAS_MAX));
+  }
+
+  /**
+   * @param hotThreshold the number of recent reads for a file to be spread across another worker
+   * @param maxReplicas the max number of workers the reads of a file are spread across
+   */
+  @VisibleForTesting
+  HotFileReadSpreader(int hotThreshold, int maxReplicas) {
+    Preconditions.checkArgument(hotThreshold > 0, "hot threshold must be positive: %s",
+        hotThreshold);
+    Preconditions.checkArgument(maxReplicas > 0, "max replicas must be positive: %s",
+        maxReplicas);
+    mHotThreshold = hotThreshold;
+    mMaxReplicas = maxReplicas;
+    // counting past the reads spreading a file across all the replicas makes no difference
+    mSketch = new FrequencySketch<>(WIDTH,
+        (int) Math.min(Short.MAX_VALUE, (long) hotThreshold * maxReplicas), SAMPLE_FACTOR);
+  }
+
+  /**
+   * Records a read of a file, and decides the number of workers to spread its reads across.
+   *
+   * @param path the path of the file
+   * @return the number of workers to spread the reads across, 1 if the file is not hot
+   */
+  public int recordRead(String path) {
+    int frequency;
+    synchronized (this) {
+      frequency = mSketch.increment(path);
+    }
+    return (int) Math.min(mMaxReplicas, 1L + frequency / mHotThreshold);
+  }
+
+  /**
+   * Chooses the worker to read a file from, among the first workers the file hashes to.
+   *
+   * @param workers the workers the file hashes to, in the order of preference
+   * @param replicas the number of workers to spread the reads across
+   * @return the worker to read from
+   */
+  public BlockWorkerInfo chooseWorker(List<BlockWorkerInfo> workers, int replicas) {
+    int candidates = Math.min(replicas, workers.size());
+    // start from a random candidate, skipping the inactive ones
+    int start = candidates > 1 ? ThreadLocalRandom.current().nextInt(candidates) : 0;
+    for (int i = 0; i < candidates; i++) {
+      int index = (start + i) % candidates;
+      if (workers.get(index).isActive()) {
+        if (index > 0) {
+          Metrics.REPLICA_READS.inc();
+        }
+        return workers.get(index);
+      }
+    }
+    return workers.get(0);
+  }
+
+  private static final class Metrics {
+    private static final Counter REPLICA_READS =
+        MetricsSystem.counter(MetricKey.CLIENT_READ_SPREAD_REPLICA_READS.getName());
+  }
+}
@@ -0,0 +1,371 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import alluxio.AlluxioURI;
+import alluxio.client.file.URIStatus;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.grpc.FileSystemMasterCommonPOptions;
+import alluxio.grpc.GetRevokedMetadataLeasesResponse;
+import alluxio.grpc.RevokedMetadataLease;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.util.CommonUtils;
+import alluxio.util.ThreadFactoryUtils;
+import alluxio.wire.WorkerNetAddress;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Caches the metadata a client gets from the workers under short leases, so that repeated get
+ * status and list status calls are served without a worker RPC.
+ *
+ * A lease on the metadata of a path is held from the worker serving it, and expires after
+ * alluxio.dora.client.metadata.lease.duration. The worker revokes the leases on the paths whose
+ * metadata it sees change, see {@code MetadataRevocationLog} of the worker. As a worker has no
+ * channel to push to the clients, the client polls the workers it holds leases from for the
+ * leases revoked, every alluxio.dora.client.metadata.lease.revocation.poll.interval. The metadata
+ * cached is therefore stale for at most the poll interval after a change seen by the worker, and
+ * for at most the lease duration otherwise, e.g. after a change made directly in the UFS or when
+ * the worker is unreachable.
+ *
+ * The revocation of the metadata of a path drops the cached status and listing of the path, and
+ * the cached listing of its parent. The metadata fetched before a revocation is applied is not
+ * cached, as the revocation may be for it.
+ */
+@ThreadSafe
+public final class MetadataLeaseCache implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(MetadataLeaseCache.class);
+  /** The lease returned when the revocations of a worker cannot be tracked. */
+  public static final long NO_LEASE = -1;
+
+  private final DoraCacheClient mClient;
+  private final long mLeaseDurationMs;
+  private final Cache<String, Leased<URIStatus>> mStatuses;
+  private final Cache<String, Leased<List<URIStatus>>> mListings;
+  /** The revocations polled from the workers holding leases. */
+  private final Map<WorkerNetAddress, RevocationCursor> mCursors = new ConcurrentHashMap<>();
+  /**
+   * The number of polls revoking leases, incremented before the leases are dropped, so that the
+   * metadata fetched before a revocation can tell it might be revoked.
+   */
+  private final AtomicLong mRevocations = new AtomicLong();
+  @Nullable
+  private final ScheduledExecutorService mPoller;
+
+  /**
+   * Creates a metadata lease cache if metadata leases are enabled.
+   *
+   * @param conf the configuration
+   * @param client the client to poll the workers with
+   * @return the metadata lease cache, or null if metadata leases are disabled
+   */
+  @Nullable
+  public static MetadataLeaseCache create(AlluxioConfiguration conf, DoraCacheClient client) {
+    if (!conf.getBoolean(PropertyKey.DORA_CLIENT_METADATA_LEASE_ENABLED)) {
+      return null;
+    }
+    return new MetadataLeaseCache(client,
+        conf.getMs(PropertyKey.DORA_CLIENT_METADATA_LEASE_DURATION),
+        conf.getInt(PropertyKey.DORA_CLIENT_METADATA_LEASE_CACHE_SIZE),
+        conf.getMs(PropertyKey.DORA_CLIENT_METADATA_LEASE_REVOCATION_POLL_INTERVAL));
+  }
+
+  /**
+   * @param client the client to poll the workers with
+   * @param leaseDurationMs the duration of the leases
+   * @param maxSize the max number of statuses and of listings cached
+   * @param pollIntervalMs the interval of the polls of the revocations, or 0 not to poll them
+   *                       periodically
+   */
+  @VisibleForTesting
+  MetadataLeaseCache(DoraCacheClient client, long leaseDurationMs, int maxSize,
+      long pollIntervalMs) {
+    mClient = client;
+    mLeaseDurationMs = leaseDurationMs;
+    mStatuses = CacheBuilder.newBuilder().maximumSize(maxSize)
+        .expireAfterWrite(leaseDurationMs, TimeUnit.MILLISECONDS).build();
+    mListings = CacheBuilder.newBuilder().maximumSize(maxSize)
+        .expireAfterWrite(leaseDurationMs, TimeUnit.MILLISECONDS).build();
+    if (pollIntervalMs > 0) {
+      mPoller = Executors.newSingleThreadScheduledExecutor(
+          ThreadFactoryUtils.build("metadata-lease-revocation-%d", true));
+      mPoller.scheduleWithFixedDelay(this::pollRevocations, pollIntervalMs, pollIntervalMs,
+          TimeUnit.MILLISECONDS);
+    } else {
+      mPoller = null;
+    }
+  }
+
+  /**
+   * Checks whether metadata requested with the options can be served under a lease, i.e. the
+   * caller does not require metadata more recent than the lease duration.
+   *
+   * @param commonOptions the common options of the request
+   * @return whether the metadata can be served under a lease
+   */
+  public boolean isLeasable(FileSystemMasterCommonPOptions commonOptions) {
+    return !commonOptions.hasSyncIntervalMs() || commonOptions.getSyncIntervalMs() < 0
+        || commonOptions.getSyncIntervalMs() >= mLeaseDurationMs;
+  }
+
+  /**
+   * @param path the full ufs path
+   * @return the status of the path cached under a lease, or null if not cached
+   */
+  @Nullable
+  public URIStatus getStatus(String path) {
+    Leased<URIStatus> status = mStatuses.getIfPresent(path);
+    if (status == null) {
+      return null;
+    }
+    Metrics.HITS.inc();
+    return status.mValue;
+  }
+
+  /**
+   * @param path the full ufs path of a directory
+   * @return the statuses of the paths under the directory cached under a lease, or null if not
+   *         cached
+   */
+  @Nullable
+  public List<URIStatus> listStatus(String path) {
+    Leased<List<URIStatus>> listing = mListings.getIfPresent(listingKey(path));
+    if (listing == null) {
+      return null;
+    }
+    Metrics.HITS.inc();
+    return listing.mValue;
+  }
+
+  /**
+   * Acquires a lease on metadata about to be fetched from a worker. It starts tracking the
+   * revocations of the worker if not tracked yet, and must be called before the metadata is
+   * fetched, so that the revocations after are applied to it.
+   *
+   * @param worker the worker the metadata is fetched from
+   * @return the lease to cache the metadata under, or {@link #NO_LEASE} if the revocations of
+   *         the worker cannot be tracked
+   */
+  public long acquireLease(WorkerNetAddress worker) {
+    while (true) {
+      RevocationCursor cursor = mCursors.get(worker);
+      if (cursor == null) {
+        RevocationCursor newCursor = new RevocationCursor(worker);
+        try {
+          poll(newCursor);
+        } catch (RuntimeException e) {
+          LOG.debug("Failed to get the revoked metadata leases of worker {}", worker, e);
+          return NO_LEASE;
+        }
+        cursor = mCursors.putIfAbsent(worker, newCursor);
+        if (cursor == null) {
+          cursor = newCursor;
+        }
+      }
+      synchronized (cursor) {
+        if (!cursor.mRemoved) {
+          cursor.mLastLeaseMs = CommonUtils.getCurrentMs();
+          return mRevocations.get();
+        }
+      }
+      // the worker was just left untracked as its leases expired, track it again
+    }
+  }
+
+  /**
+   * Caches the status of a path under a lease. Incomplete files are not cached, as their
+   * status changes once they are completed.
+   *
+   * @param path the full ufs path
+   * @param status the status of the path
+   * @param worker the worker the status is fetched from
+   * @param lease the lease acquired before the status is fetched
+   */
+  public void putStatus(String path, URIStatus status, WorkerNetAddress worker, long lease) {
+    if (lease == NO_LEASE || !status.isCompleted()) {
+      return;
+    }
+    mStatuses.put(path, new Leased<>(status, worker));
+    if (mRevocations.get() != lease) {
+      // a revocation applied while the status was fetched may be for it
+      mStatuses.invalidate(path);
+    }
+  }
+
+  /**
+   * Caches the statuses of the paths under a directory under a lease. Listings including
+   * incomplete files are not cached, as their statuses change once they are completed.
+   *
+   * @param path the full ufs path of the directory
+   * @param statuses the statuses of the paths under the directory
+   * @param worker the worker the statuses are fetched from
+   * @param lease the lease acquired before the statuses are fetched
+   */
+  public void putListing(String path, List<URIStatus> statuses, WorkerNetAddress worker,
+      long lease) {
+    if (lease == NO_LEASE || !statuses.stream().allMatch(URIStatus::isCompleted)) {
+      return;
+    }
+    String key = listingKey(path);
+    mListings.put(key, new Leased<>(statuses, worker));
+    if (mRevocations.get() != lease) {
+      mListings.invalidate(key);
+    }
+  }
+
+  /**
+   * Drops the metadata of a path changed by the client itself, without waiting for the worker
+   * to revoke it.
+   *
+   * @param path the full ufs path
+   * @param recursive whether the metadata of the paths under the path is dropped as well
+   */
+  public void invalidate(String path, boolean recursive) {
+    mRevocations.incrementAndGet();
+    revoke(path, recursive);
+  }
+
+  /**
+   * Polls the workers holding leases for the leases revoked, and drops the metadata of the
+   * paths revoked. The workers no lease was acquired from within the lease duration are no
+   * longer polled, as all their leases expired.
+   */
+  @VisibleForTesting
+  void pollRevocations() {
+    long now = CommonUtils.getCurrentMs();
+    for (RevocationCursor cursor : mCursors.values()) {
+      synchronized (cursor) {
+        if (now - cursor.mLastLeaseMs > mLeaseDurationMs) {
+          cursor.mRemoved = true;
+          mCursors.remove(cursor.mWorker, cursor);
+          continue;
+        }
+      }
+      try {
+        poll(cursor);
+      } catch (RuntimeException e) {
+        // the leases of the worker expire if the worker stays unreachable
+        LOG.debug("Failed to get the revoked metadata leases of worker {}", cursor.mWorker, e);
+      }
+    }
+  }
+
+  private void poll(RevocationCursor cursor) {
+    GetRevokedMetadataLeasesResponse response =
+        mClient.getRevokedMetadataLeases(cursor.mWorker, cursor.mEpoch, cursor.mSequence);
+    if (response.getAllRevoked()) {
+      mRevocations.incrementAndGet();
+      LOG.debug("All metadata leases of worker {} are revoked", cursor.mWorker);
+      mStatuses.asMap().values().removeIf(status -> status.mWorker.equals(cursor.mWorker));
+      mListings.asMap().values().removeIf(listing -> listing.mWorker.equals(cursor.mWorker));
+      Metrics.REVOCATIONS.inc();
+    } else if (response.getLeasesCount() > 0) {
+      mRevocations.incrementAndGet();
+      for (RevokedMetadataLease lease : response.getLeasesList()) {
+        revoke(lease.getPath(), lease.getRecursive());
+      }
+      Metrics.REVOCATIONS.inc(response.getLeasesCount());
+    }
+    cursor.mEpoch = response.getEpoch();
+    cursor.mSequence = response.getSequence();
+  }
+
+  private void revoke(String path, boolean recursive) {
+    mStatuses.invalidate(path);
+    AlluxioURI uri = new AlluxioURI(path);
+    mListings.invalidate(uri.toString());
+    AlluxioURI parent = uri.getParent();
+    if (parent != null) {
+      mListings.invalidate(parent.toString());
+    }
+    if (recursive) {
+      String prefix = path.endsWith(AlluxioURI.SEPARATOR) ? path : path + AlluxioURI.SEPARATOR;
+      mStatuses.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+      mListings.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+  }
+
+  /**
+   * The listings are keyed the way the workers name the parents of the paths revoked.
+   */
+  private static String listingKey(String path) {
+    return new AlluxioURI(path).toString();
+  }
+
+  @VisibleForTesting
+  int getTrackedWorkerCount() {
+    return mCursors.size();
+  }
+
+  @Override
+  public void close() {
+    if (mPoller != null) {
+      mPoller.shutdownNow();
+    }
+  }
+
+  /**
+   * Metadata cached under a lease held from a worker.
+   */
+  private static final class Leased<T> {
+    private final T mValue;
+    private final WorkerNetAddress mWorker;
+
+    Leased(T value, WorkerNetAddress worker) {
+      mValue = value;
+      mWorker = worker;
+    }
+  }
+
+  /**
+   * The last revocation polled from a worker.
+   */
+  private static final class RevocationCursor {
+    private final WorkerNetAddress mWorker;
+    private volatile long mEpoch;
+    private volatile long mSequence;
+    @GuardedBy("this")
+    private long mLastLeaseMs;
+    @GuardedBy("this")
+    private boolean mRemoved;
+
+    RevocationCursor(WorkerNetAddress worker) {
+      mWorker = worker;
+    }
+  }
+
+  private static final class Metrics {
+    private static final Counter HITS =
+        MetricsSystem.counter(MetricKey.CLIENT_METADATA_LEASE_HITS.getName());
+    private static final Counter REVOCATIONS =
+        MetricsSystem.counter(MetricKey.CLIENT_METADATA_LEASE_REVOCATIONS.getName());
+  }
+}
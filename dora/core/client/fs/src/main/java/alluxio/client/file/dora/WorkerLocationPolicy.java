@@ -53,6 +53,23 @@ public interface WorkerLocationPolicy {
   List<BlockWorkerInfo> getPreferredWorkers(WorkerClusterView workers,
       String fileId, int count) throws ResourceExhaustedException;
 
+  /**
+   * Find a specified number of workers to read the data of a file from. The workers found for a
+   * file by {@link #getPreferredWorkers} serve all the requests of the file, while a policy may
+   * spread the reads of the file data differently, as any worker can read the data of a file.
+   * By default, the same workers as {@link #getPreferredWorkers} are returned.
+   *
+   * @param workers the workers in the cluster
+   * @param fileId the id of the file to read
+   * @param count the number of workers to find
+   * @return a list of preferred workers to read the file from
+   * @throws ResourceExhaustedException if unable to return exactly #{count} workers
+   */
+  default List<BlockWorkerInfo> getPreferredReadWorkers(WorkerClusterView workers,
+      String fileId, int count) throws ResourceExhaustedException {
+    return getPreferredWorkers(workers, fileId, count);
+  }
+
   /**
    * The factory for the {@link WorkerLocationPolicy}.
    */
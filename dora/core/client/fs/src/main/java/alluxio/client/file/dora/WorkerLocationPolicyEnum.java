@@ -20,6 +20,7 @@ public enum WorkerLocationPolicyEnum {
   KETAMA("alluxio.client.file.dora.KetamaHashPolicy"),
   MAGLEV("alluxio.client.file.dora.MaglevHashPolicy"),
   MULTI_PROBE("alluxio.client.file.dora.MultiProbeHashPolicy"),
+  BOUNDED_LOAD("alluxio.client.file.dora.BoundedLoadHashPolicy"),
   LOCAL("alluxio.client.file.dora.LocalWorkerPolicy"),
   REMOTE_ONLY("alluxio.client.file.dora.RemoteOnlyPolicy");
 
@@ -13,6 +13,8 @@ package alluxio.client.file.dora.netty;
 
 import alluxio.PositionReader;
 import alluxio.client.file.FileSystemContext;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
 import alluxio.file.ReadTargetBuffer;
 import alluxio.metrics.MetricKey;
 import alluxio.metrics.MetricsSystem;
@@ -20,17 +22,42 @@ import alluxio.proto.dataserver.Protocol;
 import alluxio.wire.WorkerNetAddress;
 
 import com.codahale.metrics.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 
 /**
  * Positioned Netty data reader.
+ * <br>
+ * Each read is sent as a separate request, except for small reads continuing where the previous
+ * read ended. These open a {@link NettyReadSession} streaming the file from that position, which
+ * serves the following sequential or near-sequential reads until a read falls outside of it.
+ * Reads issued concurrently with a read served by the session are sent as separate requests.
  */
 public class NettyDataReader implements PositionReader {
+  private static final Logger LOG = LoggerFactory.getLogger(NettyDataReader.class);
+
   private final FileSystemContext mContext;
   private final WorkerNetAddress mAddress;
   private final Supplier<Protocol.ReadRequest.Builder> mRequestBuilder;
+  private final boolean mStreamingEnabled;
+  private final long mStreamingRangeSize;
+
+  private final Lock mSessionLock = new ReentrantLock();
+  @GuardedBy("mSessionLock")
+  @Nullable
+  private NettyReadSession mSession;
+  /** The position right after the data of the last read, or -1 if unknown. */
+  @GuardedBy("mSessionLock")
+  private long mNextPosition = -1;
+  @GuardedBy("mSessionLock")
+  private boolean mClosed;
 
   /**
    * Constructor.
@@ -45,10 +72,64 @@ public class NettyDataReader implements PositionReader {
     mAddress = address;
     // clone the builder so that the initial values does not get overridden
     mRequestBuilder = requestBuilder::clone;
+    AlluxioConfiguration conf = context.getClusterConf();
+    mStreamingEnabled = conf.getBoolean(PropertyKey.USER_NETWORK_NETTY_READER_STREAMING_ENABLED);
+    mStreamingRangeSize =
+        conf.getBytes(PropertyKey.USER_NETWORK_NETTY_READER_STREAMING_RANGE_SIZE);
   }
 
   @Override
   public int readInternal(long position, ReadTargetBuffer buffer, int length) throws IOException {
+    int bytesRead;
+    if (mStreamingEnabled && mSessionLock.tryLock()) {
+      try {
+        bytesRead = readWithSession(position, buffer, length);
+      } finally {
+        mSessionLock.unlock();
+      }
+    } else {
+      bytesRead = readWithRequest(position, buffer, length);
+    }
+    if (bytesRead == 0) {
+      return -1;
+    }
+    Metrics.BYTES_READ_FROM_WORKERS.inc(bytesRead);
+    return bytesRead;
+  }
+
+  @GuardedBy("mSessionLock")
+  private int readWithSession(long position, ReadTargetBuffer buffer, int length)
+      throws IOException {
+    boolean sequential = position == mNextPosition;
+    mNextPosition = -1;
+    if (mSession != null && !mSession.canRead(position)) {
+      closeSession();
+    }
+    if (mSession == null && !mClosed && sequential && length < mStreamingRangeSize) {
+      try {
+        mSession = NettyReadSession.open(mContext, mAddress, mRequestBuilder, position);
+      } catch (IOException e) {
+        // fall back to a single request, which reports the failure if the worker is unreachable
+        LOG.debug("Failed to open a read session to {}", mAddress, e);
+      }
+    }
+    int bytesRead;
+    if (mSession != null) {
+      try {
+        bytesRead = mSession.read(position, buffer, length);
+      } catch (PartialReadException e) {
+        closeSession();
+        throw e;
+      }
+    } else {
+      bytesRead = readWithRequest(position, buffer, length);
+    }
+    mNextPosition = position + bytesRead;
+    return bytesRead;
+  }
+
+  private int readWithRequest(long position, ReadTargetBuffer buffer, int length)
+      throws PartialReadException {
     Protocol.ReadRequest.Builder builder = mRequestBuilder.get()
         .setLength(length)
         .setOffset(position)
@@ -60,12 +141,26 @@ public class NettyDataReader implements PositionReader {
     PartialReadException exception = clientStateMachine.getException();
     if (exception != null) {
       throw exception;
-    } else {
-      if (bytesRead == 0) {
-        return -1;
-      }
-      Metrics.BYTES_READ_FROM_WORKERS.inc(bytesRead);
-      return bytesRead;
+    }
+    return bytesRead;
+  }
+
+  @GuardedBy("mSessionLock")
+  private void closeSession() {
+    if (mSession != null) {
+      mSession.close();
+      mSession = null;
+    }
+  }
+
+  @Override
+  public void close() {
+    mSessionLock.lock();
+    try {
+      mClosed = true;
+      closeSession();
+    } finally {
+      mSessionLock.unlock();
     }
   }
 
@@ -0,0 +1,499 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora.netty;
+
+import static alluxio.client.file.dora.netty.PartialReadException.CauseType;
+
+import alluxio.client.file.FileSystemContext;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.status.AlluxioStatusException;
+import alluxio.exception.status.UnavailableException;
+import alluxio.file.ReadTargetBuffer;
+import alluxio.network.protocol.RPCProtoMessage;
+import alluxio.network.protocol.databuffer.DataBuffer;
+import alluxio.proto.dataserver.Protocol;
+import alluxio.util.CommonUtils;
+import alluxio.util.network.NettyUtils;
+import alluxio.util.proto.ProtoMessage;
+import alluxio.util.proto.ProtoUtils;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.base.Preconditions;
+import io.grpc.Status;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A read session streaming a file sequentially from a worker over a channel held until the
+ * session is closed.
+ * <br>
+ * The session requests the file in consecutive ranges of a fixed size. As the worker serves one
+ * request at a time on a channel, the next range is requested as soon as the worker finishes the
+ * previous one, as long as the ranges not consumed yet do not exceed a limit. Small sequential
+ * reads are therefore served from the data already streamed instead of waiting for a round trip
+ * each. Like {@link NettyDataReaderStateMachine}, the session stops reading from the channel when
+ * too many packets are buffered, so that the worker is paused until the client catches up.
+ * <br>
+ * Reads are expected to be issued by a single thread, while the responses are received on the
+ * event loop of the channel.
+ */
+@NotThreadSafe
+final class NettyReadSession implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(NettyReadSession.class);
+
+  private final FileSystemContext mContext;
+  private final WorkerNetAddress mAddress;
+  private final Supplier<Protocol.ReadRequest.Builder> mRequestBuilder;
+  private final long mRangeSize;
+  private final int mMaxRangesAhead;
+  private final long mReadTimeoutMs;
+  private final int mMaxPacketsInFlight;
+  private final BlockingQueue<Response> mResponseQueue = new LinkedBlockingQueue<>();
+  private final ResponseHandler mHandler = new ResponseHandler();
+  private final Channel mChannel;
+
+  /** Position in the file of the next byte to consume. */
+  private long mPosition;
+  /** End of the range the data being consumed belongs to. */
+  private long mConsumedRangeEnd;
+  /** The rest of the packet being consumed. */
+  @Nullable
+  private ByteBuf mPacket;
+  private boolean mEndOfFile;
+  private boolean mFailed;
+
+  @GuardedBy("this")
+  private Protocol.ReadRequest.Builder mLastRequest;
+  /** End of the last range requested. */
+  @GuardedBy("this")
+  private long mRequestedEnd;
+  /** Number of ranges requested whose end has not been consumed. */
+  @GuardedBy("this")
+  private int mRangesAhead;
+  /** Whether the worker has not finished sending the last range requested. */
+  @GuardedBy("this")
+  private boolean mRequestInProgress;
+  @GuardedBy("this")
+  private long mBytesReceivedInRange;
+  @GuardedBy("this")
+  private boolean mEndOfFileReceived;
+  @GuardedBy("this")
+  private boolean mClosed;
+
+  /**
+   * Opens a read session on a channel to the worker, and requests the first range.
+   *
+   * @param context the file system context
+   * @param address the address of the worker
+   * @param requestBuilder supplier of the read requests of the file
+   * @param position the position in the file to start streaming from
+   * @return the read session
+   */
+  static NettyReadSession open(FileSystemContext context, WorkerNetAddress address,
+      Supplier<Protocol.ReadRequest.Builder> requestBuilder, long position) throws IOException {
+    NettyReadSession session = new NettyReadSession(
+        context, address, requestBuilder, context.acquireNettyChannel(address), position);
+    session.mChannel.pipeline().addLast(session.mHandler);
+    session.requestNextRange();
+    return session;
+  }
+
+  private NettyReadSession(FileSystemContext context, WorkerNetAddress address,
+      Supplier<Protocol.ReadRequest.Builder> requestBuilder, Channel channel, long position) {
+    AlluxioConfiguration conf = context.getClusterConf();
+    mContext = context;
+    mAddress = address;
+    mRequestBuilder = requestBuilder;
+    mChannel = channel;
+    mRangeSize = conf.getBytes(PropertyKey.USER_NETWORK_NETTY_READER_STREAMING_RANGE_SIZE);
+    mMaxRangesAhead = Math.max(1,
+        conf.getInt(PropertyKey.USER_NETWORK_NETTY_READER_STREAMING_RANGES_AHEAD));
+    mReadTimeoutMs = conf.getMs(PropertyKey.USER_NETWORK_NETTY_TIMEOUT_MS);
+    mMaxPacketsInFlight = conf.getInt(PropertyKey.USER_NETWORK_NETTY_READER_BUFFER_SIZE_PACKETS);
+    mPosition = position;
+    mConsumedRangeEnd = position + mRangeSize;
+    mRequestedEnd = position;
+  }
+
+  /**
+   * @param position position in the file
+   * @return whether a read at the given position can be served by this session, i.e. the session
+   *         is healthy and the position is at most one range ahead of the data consumed
+   */
+  boolean canRead(long position) {
+    return !mFailed && position >= mPosition && position - mPosition <= mRangeSize;
+  }
+
+  /**
+   * Reads from the stream, skipping the data before the given position.
+   * Once this throws, the session is broken and can only be closed.
+   *
+   * @param position position in the file to read from, see {@link #canRead(long)}
+   * @param buffer target buffer
+   * @param length bytes to read
+   * @return bytes read, less than the length only when the end of the file is reached
+   */
+  int read(long position, ReadTargetBuffer buffer, int length) throws PartialReadException {
+    Preconditions.checkArgument(canRead(position),
+        "position %s cannot be read by the session at %s", position, mPosition);
+    int bytesRead = 0;
+    try {
+      while (bytesRead < length) {
+        if (mPacket == null && !nextPacket()) {
+          break;
+        }
+        if (mPosition < position) {
+          int bytesToSkip = (int) Math.min(position - mPosition, mPacket.readableBytes());
+          mPacket.skipBytes(bytesToSkip);
+          mPosition += bytesToSkip;
+        } else {
+          int bytesToWrite = Math.min(length - bytesRead, mPacket.readableBytes());
+          try {
+            buffer.writeBytes(mPacket.readSlice(bytesToWrite));
+          } catch (RuntimeException e) {
+            throw new PartialReadException(length, bytesRead, CauseType.OUTPUT,
+                new IOException("Failed to write data to the output buffer", e));
+          }
+          mPosition += bytesToWrite;
+          bytesRead += bytesToWrite;
+        }
+        if (!mPacket.isReadable()) {
+          mPacket.release();
+          mPacket = null;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      mFailed = true;
+      throw new PartialReadException(length, bytesRead, CauseType.INTERRUPT, e);
+    } catch (TimeoutException e) {
+      mFailed = true;
+      throw new PartialReadException(length, bytesRead, CauseType.TIMEOUT, e);
+    } catch (AlluxioStatusException e) {
+      mFailed = true;
+      throw new PartialReadException(length, bytesRead, CauseType.SERVER_ERROR, e);
+    } catch (ChannelException e) {
+      mFailed = true;
+      throw new PartialReadException(length, bytesRead, CauseType.TRANSPORT_ERROR, e.getCause());
+    } catch (PartialReadException e) {
+      mFailed = true;
+      throw e;
+    }
+    return bytesRead;
+  }
+
+  /**
+   * Takes the next packet of data from the stream into {@link #mPacket}.
+   *
+   * @return false if the end of the file is reached
+   */
+  private boolean nextPacket()
+      throws InterruptedException, TimeoutException, AlluxioStatusException, ChannelException {
+    while (!mEndOfFile) {
+      Response response = pollResponse();
+      switch (response.mType) {
+        case DATA:
+          mPacket = response.mData;
+          return true;
+        case HEART_BEAT:
+          break;
+        case EOF:
+          if (mPosition < mConsumedRangeEnd) {
+            // the worker sent less than the range, so the file ends here
+            mEndOfFile = true;
+          }
+          mConsumedRangeEnd += mRangeSize;
+          synchronized (this) {
+            mRangesAhead--;
+          }
+          requestNextRange();
+          break;
+        case SERVER_ERROR:
+          throw (AlluxioStatusException) response.mError;
+        case CHANNEL_ERROR:
+          throw new ChannelException(response.mError);
+        default:
+          throw new ChannelException(new IllegalStateException(
+              "Unexpected response from server: " + response.mType));
+      }
+    }
+    return false;
+  }
+
+  private Response pollResponse() throws InterruptedException, TimeoutException {
+    if (mResponseQueue.size() < mMaxPacketsInFlight) {
+      NettyUtils.enableAutoRead(mChannel);
+    }
+    Response response = mResponseQueue.poll(mReadTimeoutMs, TimeUnit.MILLISECONDS);
+    if (response == null) {
+      throw new TimeoutException(
+          "Timed out when waiting for server response for " + mReadTimeoutMs + " ms");
+    }
+    return response;
+  }
+
+  /**
+   * Requests the next range if the worker is idle and not too many ranges are unconsumed.
+   */
+  private synchronized void requestNextRange() {
+    if (mClosed || mEndOfFileReceived || mRequestInProgress || mRangesAhead >= mMaxRangesAhead) {
+      return;
+    }
+    mLastRequest = mRequestBuilder.get()
+        .setOffset(mRequestedEnd)
+        .setLength(mRangeSize)
+        .clearCancel();
+    mRequestedEnd += mRangeSize;
+    mRangesAhead++;
+    mRequestInProgress = true;
+    mBytesReceivedInRange = 0;
+    send(mLastRequest.build());
+  }
+
+  private void send(Protocol.ReadRequest request) {
+    mChannel.writeAndFlush(new RPCProtoMessage(new ProtoMessage(request)))
+        .addListener((ChannelFutureListener) future -> {
+          if (!future.isSuccess()) {
+            mResponseQueue.offer(Response.channelError(future.cause()));
+          }
+        });
+  }
+
+  /**
+   * Closes the session and releases its channel. A range being sent by the worker is cancelled,
+   * and the channel is only closed if the session has failed or the cancellation does not
+   * complete, otherwise it is returned to the pool for reuse.
+   */
+  @Override
+  public void close() {
+    boolean cancelled;
+    synchronized (this) {
+      if (mClosed) {
+        return;
+      }
+      mClosed = true;
+      cancelled = mRequestInProgress && !mFailed;
+      if (cancelled) {
+        send(mLastRequest.clone().setCancel(true).build());
+      }
+    }
+    if (mPacket != null) {
+      mPacket.release();
+      mPacket = null;
+    }
+    boolean reusable = !mFailed && drain(cancelled);
+    if (reusable && mChannel.isOpen()) {
+      mChannel.pipeline().remove(mHandler);
+      NettyUtils.enableAutoRead(mChannel);
+    } else {
+      CommonUtils.closeChannel(mChannel);
+    }
+    releaseQueuedData();
+    mContext.releaseNettyChannel(mAddress, mChannel);
+  }
+
+  /**
+   * Waits until the worker is idle after a cancellation.
+   *
+   * @param cancelled whether a cancel request has been sent
+   * @return whether the channel can be reused
+   */
+  private boolean drain(boolean cancelled) {
+    if (!cancelled) {
+      return true;
+    }
+    // if the worker has finished the range before receiving the cancel request,
+    // the cancel request is answered with an error once the worker is idle
+    boolean requestDone = false;
+    try {
+      while (true) {
+        Response response = pollResponse();
+        switch (response.mType) {
+          case DATA:
+            response.mData.release();
+            break;
+          case HEART_BEAT:
+            break;
+          case CANCELLED:
+            return true;
+          case EOF:
+            requestDone = true;
+            break;
+          case SERVER_ERROR:
+            if (requestDone) {
+              return true;
+            }
+            requestDone = true;
+            break;
+          default:
+            return false;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (TimeoutException e) {
+      LOG.warn("Timed out when cancelling read session on channel {}", mChannel);
+      return false;
+    }
+  }
+
+  private void releaseQueuedData() {
+    for (Response response = mResponseQueue.poll(); response != null;
+         response = mResponseQueue.poll()) {
+      if (response.mData != null) {
+        response.mData.release();
+      }
+    }
+  }
+
+  /**
+   * Error of the channel, thrown to distinguish it from the other exceptions of a read.
+   */
+  private static final class ChannelException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    ChannelException(Throwable cause) {
+      super(cause);
+    }
+  }
+
+  private static final class Response {
+    enum Type {
+      DATA,
+      HEART_BEAT,
+      EOF,
+      CANCELLED,
+      SERVER_ERROR,
+      CHANNEL_ERROR,
+    }
+
+    private static final Response HEART_BEAT = new Response(Type.HEART_BEAT, null, null);
+    private static final Response EOF = new Response(Type.EOF, null, null);
+    private static final Response CANCELLED = new Response(Type.CANCELLED, null, null);
+
+    private final Type mType;
+    @Nullable
+    private final ByteBuf mData;
+    @Nullable
+    private final Throwable mError;
+
+    private Response(Type type, @Nullable ByteBuf data, @Nullable Throwable error) {
+      mType = type;
+      mData = data;
+      mError = error;
+    }
+
+    static Response data(ByteBuf data) {
+      return new Response(Type.DATA, data, null);
+    }
+
+    static Response serverError(AlluxioStatusException error) {
+      return new Response(Type.SERVER_ERROR, null, error);
+    }
+
+    static Response channelError(Throwable error) {
+      return new Response(Type.CHANNEL_ERROR, null, error);
+    }
+  }
+
+  private final class ResponseHandler extends ChannelInboundHandlerAdapter {
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      if (!(msg instanceof RPCProtoMessage)) {
+        throw new IllegalStateException(String
+            .format("Incorrect response type %s, %s.", msg.getClass().getCanonicalName(), msg));
+      }
+      RPCProtoMessage rpcProtoMessage = (RPCProtoMessage) msg;
+      ProtoMessage message = rpcProtoMessage.getMessage();
+      Response response;
+      boolean rangeDone = false;
+      if (message.isReadResponse()) {
+        Preconditions.checkState(
+            message.asReadResponse().getType() == Protocol.ReadResponse.Type.UFS_READ_HEARTBEAT);
+        response = Response.HEART_BEAT;
+      } else if (message.isResponse()) {
+        Protocol.Response protoResponse = message.asResponse();
+        switch (protoResponse.getStatus()) {
+          case CANCELLED:
+            response = Response.CANCELLED;
+            break;
+          case OK:
+            DataBuffer dataBuffer = rpcProtoMessage.getPayloadDataBuffer();
+            if (dataBuffer != null) {
+              Preconditions.checkState(dataBuffer.getNettyOutput() instanceof ByteBuf,
+                  "dataBuffer.getNettyOutput is not of type ByteBuf");
+              ByteBuf data = (ByteBuf) dataBuffer.getNettyOutput();
+              synchronized (NettyReadSession.this) {
+                mBytesReceivedInRange += data.readableBytes();
+              }
+              response = Response.data(data);
+            } else {
+              synchronized (NettyReadSession.this) {
+                mRequestInProgress = false;
+                mEndOfFileReceived |= mBytesReceivedInRange < mRangeSize;
+              }
+              response = Response.EOF;
+              rangeDone = true;
+            }
+            break;
+          default:
+            Status status = ProtoUtils.fromProto(protoResponse.getStatus());
+            response = Response.serverError(AlluxioStatusException.from(
+                status.withDescription(String.format("Error from server %s: %s",
+                    ctx.channel().remoteAddress(), protoResponse.getMessage()))));
+        }
+      } else {
+        throw new IllegalStateException(
+            String.format("Incorrect response type %s.", message));
+      }
+      if (mResponseQueue.size() >= mMaxPacketsInFlight) {
+        NettyUtils.disableAutoRead(ctx.channel());
+      }
+      mResponseQueue.offer(response);
+      if (rangeDone) {
+        requestNextRange();
+      }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      LOG.error("Exception is caught while streaming data from channel {}:", ctx.channel(), cause);
+      mResponseQueue.offer(Response.channelError(cause));
+      ctx.fireExceptionCaught(cause);
+    }
+
+    @Override
+    public void channelUnregistered(ChannelHandlerContext ctx) {
+      mResponseQueue.offer(Response.channelError(
+          new UnavailableException(String.format("Channel %s is closed.", ctx.channel()))));
+      ctx.fireChannelUnregistered();
+    }
+  }
+}
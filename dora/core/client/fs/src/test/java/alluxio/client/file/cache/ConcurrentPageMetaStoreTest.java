@@ -0,0 +1,249 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import static alluxio.client.file.cache.CacheUsage.PartitionDescriptor.file;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.exception.PageNotFoundException;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.test.util.ConcurrencyUtils;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for the {@link ConcurrentPageMetaStore} class.
+ */
+public class ConcurrentPageMetaStoreTest {
+  private static final int NUM_THREADS = 16;
+  private static final int PAGES_PER_THREAD = 1000;
+
+  private final PageId mPage = new PageId("1L", 2L);
+  private PageStoreDir mPageStoreDir;
+  private PageInfo mPageInfo;
+  private ConcurrentPageMetaStore mMetaStore;
+  private Gauge mCachedPageGauge;
+
+  @Rule
+  public TemporaryFolder mTempFolder = new TemporaryFolder();
+
+  /**
+   * Sets up the instances.
+   */
+  @Before
+  public void before() {
+    MetricsSystem.clearAllMetrics();
+    mPageStoreDir =
+        PageStoreDir.createPageStoreDir(
+            new CacheEvictorOptions().setEvictorClass(LRUCacheEvictor.class),
+            new PageStoreOptions().setRootDir(
+                Paths.get(mTempFolder.getRoot().getAbsolutePath())));
+    mPageInfo = new PageInfo(mPage, 1024, mPageStoreDir);
+    mMetaStore = new ConcurrentPageMetaStore(ImmutableList.of(mPageStoreDir));
+    mCachedPageGauge =
+        MetricsSystem.METRIC_REGISTRY.getGauges().get(MetricKey.CLIENT_CACHE_PAGES.getName());
+  }
+
+  @Test
+  public void commitFile() throws PageNotFoundException {
+    String newTempFile = "newTempFile";
+    long pageIndex = 2L;
+    PageId newTempPage = new PageId(newTempFile, pageIndex);
+    mMetaStore.addPage(mPage, mPageInfo);
+    mMetaStore.commitFile(mPage.getFileId(), newTempFile);
+    assertFalse(mMetaStore.hasPage(mPage));
+    assertEquals(mPageStoreDir, mMetaStore.getPageInfo(newTempPage).getLocalCacheDir());
+    assertEquals(newTempFile, mMetaStore.getPageInfo(newTempPage).getPageId().getFileId());
+    assertEquals(pageIndex, mMetaStore.getPageInfo(newTempPage).getPageId().getPageIndex());
+    assertEquals(mPageStoreDir, mMetaStore.getStoreDirOfFile(newTempFile));
+  }
+
+  @Test
+  public void addExist() {
+    mMetaStore.addPage(mPage, mPageInfo);
+    mMetaStore.addPage(mPage, mPageInfo);
+    assertTrue(mMetaStore.hasPage(mPage));
+    assertEquals(1, mCachedPageGauge.getValue());
+    assertEquals(mPageInfo.getPageSize(), mMetaStore.bytes());
+    assertEquals(mPageInfo.getPageSize(), mPageStoreDir.getCachedBytes());
+  }
+
+  @Test
+  public void removeExist() throws Exception {
+    mMetaStore.addPage(mPage, mPageInfo);
+    assertEquals(mPageInfo, mMetaStore.removePage(mPage));
+    assertFalse(mMetaStore.hasPage(mPage));
+    assertEquals(0, mCachedPageGauge.getValue());
+    assertEquals(0, mMetaStore.bytes());
+    assertTrue(mMetaStore.getAllPagesByFileId(mPage.getFileId()).isEmpty());
+  }
+
+  @Test
+  public void removeNotExist() {
+    assertThrows(PageNotFoundException.class, () -> mMetaStore.removePage(mPage));
+    assertEquals(0, mCachedPageGauge.getValue());
+  }
+
+  @Test
+  public void getPageInfoNotExist() {
+    assertThrows(PageNotFoundException.class, () -> mMetaStore.getPageInfo(mPage));
+  }
+
+  @Test
+  public void evict() throws Exception {
+    mMetaStore.addPage(mPage, mPageInfo);
+    assertEquals(mPageInfo, mMetaStore.evict(mPageStoreDir));
+    mMetaStore.removePage(mPageInfo.getPageId());
+    assertNull(mMetaStore.evict(mPageStoreDir));
+    assertEquals(0, mCachedPageGauge.getValue());
+  }
+
+  @Test
+  public void evictAfterGet() throws Exception {
+    PageId other = new PageId("1L", 3L);
+    PageInfo otherInfo = new PageInfo(other, 1024, mPageStoreDir);
+    mMetaStore.addPage(mPage, mPageInfo);
+    mMetaStore.addPage(other, otherInfo);
+    mMetaStore.getPageInfo(mPage);
+    assertEquals(otherInfo, mMetaStore.evict(mPageStoreDir));
+  }
+
+  @Test
+  public void getAfterRemove() throws Exception {
+    mMetaStore.addPage(mPage, mPageInfo);
+    mMetaStore.getPageInfo(mPage);
+    mMetaStore.removePage(mPage);
+    assertNull(mMetaStore.evict(mPageStoreDir));
+    assertNull(mPageStoreDir.getEvictor().evict());
+  }
+
+  @Test
+  public void fileCacheUsage() {
+    final int numPages = 5;
+    for (int i = 0; i < numPages; i++) {
+      PageId page = new PageId("1", i);
+      mMetaStore.addPage(page, new PageInfo(page, Constants.KB, mPageStoreDir));
+    }
+    Optional<CacheUsage> fileUsage = mMetaStore.getUsage()
+        .flatMap(usage -> usage.partitionedBy(file("1")));
+    assertEquals(Optional.of((long) (Constants.KB * numPages)),
+        fileUsage.map(CacheUsage::used));
+  }
+
+  @Test
+  public void concurrentAddAndRemove() throws Exception {
+    List<Runnable> runnables = new ArrayList<>();
+    for (int t = 0; t < NUM_THREADS; t++) {
+      String fileId = Integer.toString(t);
+      runnables.add(() -> {
+        for (int i = 0; i < PAGES_PER_THREAD; i++) {
+          PageId pageId = new PageId(fileId, i);
+          mMetaStore.addPage(pageId, new PageInfo(pageId, Constants.KB, mPageStoreDir));
+        }
+        for (int i = 0; i < PAGES_PER_THREAD; i += 2) {
+          try {
+            mMetaStore.removePage(new PageId(fileId, i));
+          } catch (PageNotFoundException e) {
+            throw new RuntimeException(e);
+          }
+        }
+      });
+    }
+    ConcurrencyUtils.assertConcurrent(runnables, 30);
+    long expectedPages = (long) NUM_THREADS * PAGES_PER_THREAD / 2;
+    assertEquals(expectedPages, mMetaStore.numPages());
+    assertEquals(expectedPages * Constants.KB, mMetaStore.bytes());
+    assertEquals(expectedPages * Constants.KB, mPageStoreDir.getCachedBytes());
+    for (int t = 0; t < NUM_THREADS; t++) {
+      assertEquals(PAGES_PER_THREAD / 2,
+          mMetaStore.getAllPagesByFileId(Integer.toString(t)).size());
+    }
+  }
+
+  @Test
+  public void concurrentGetAndRemove() throws Exception {
+    List<Runnable> runnables = new ArrayList<>();
+    for (int t = 0; t < NUM_THREADS; t++) {
+      String fileId = Integer.toString(t);
+      String otherFileId = Integer.toString((t + 1) % NUM_THREADS);
+      runnables.add(() -> {
+        for (int i = 0; i < PAGES_PER_THREAD; i++) {
+          PageId pageId = new PageId(fileId, i);
+          mMetaStore.addPage(pageId, new PageInfo(pageId, Constants.KB, mPageStoreDir));
+        }
+        // reads the pages of another thread, which may be removed concurrently
+        for (int i = 0; i < PAGES_PER_THREAD; i++) {
+          try {
+            mMetaStore.getPageInfo(new PageId(otherFileId, i));
+          } catch (PageNotFoundException e) {
+            // the page is not added yet or already removed
+          }
+        }
+        for (int i = 0; i < PAGES_PER_THREAD; i++) {
+          try {
+            mMetaStore.removePage(new PageId(fileId, i));
+          } catch (PageNotFoundException e) {
+            throw new RuntimeException(e);
+          }
+        }
+      });
+    }
+    ConcurrencyUtils.assertConcurrent(runnables, 30);
+    assertEquals(0, mMetaStore.numPages());
+    assertEquals(0, mPageStoreDir.getCachedBytes());
+    // no read of a removed page is passed to the evictor
+    assertNull(mMetaStore.evict(mPageStoreDir));
+    assertNull(mPageStoreDir.getEvictor().evict());
+  }
+
+  @Test
+  public void concurrentRemoveSamePage() throws Exception {
+    mMetaStore.addPage(mPage, mPageInfo);
+    AtomicInteger removed = new AtomicInteger();
+    List<Runnable> runnables = new ArrayList<>();
+    for (int t = 0; t < NUM_THREADS; t++) {
+      runnables.add(() -> {
+        try {
+          mMetaStore.removePage(mPage);
+          removed.incrementAndGet();
+        } catch (PageNotFoundException e) {
+          // expected for all but one thread
+        }
+      });
+    }
+    ConcurrencyUtils.assertConcurrent(runnables, 30);
+    assertEquals(1, removed.get());
+    assertEquals(0, mMetaStore.bytes());
+    assertEquals(0, mPageStoreDir.getCachedBytes());
+  }
+}
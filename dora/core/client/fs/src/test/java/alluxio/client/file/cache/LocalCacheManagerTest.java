@@ -25,6 +25,7 @@ import alluxio.client.file.cache.evictor.CacheEvictor;
 import alluxio.client.file.cache.evictor.FIFOCacheEvictor;
 import alluxio.client.file.cache.evictor.LRUCacheEvictor;
 import alluxio.client.file.cache.evictor.UnevictableCacheEvictor;
+import alluxio.client.file.cache.filter.ShadowCacheAdmissionFilter;
 import alluxio.client.file.cache.store.LocalPageStore;
 import alluxio.client.file.cache.store.LocalPageStoreDir;
 import alluxio.client.file.cache.store.PageStoreDir;
@@ -65,11 +66,15 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
@@ -625,6 +630,26 @@ public final class LocalCacheManagerTest {
     assertArrayEquals(PAGE2, mBuf);
   }
 
+  @Test
+  public void restoreFromPageIndex() throws Exception {
+    mCacheManager.close();
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_LOCAL_STORE_INDEX_ENABLED, true);
+    mCacheManager = createLocalCacheManager();
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE1));
+    assertTrue(mCacheManager.put(PAGE_ID2, PAGE2));
+    assertTrue(mCacheManager.delete(PAGE_ID2));
+    mCacheManager.close();
+    // the page files are not walked through, so a page missing from the index is not restored
+    PageId unindexedPageId = new PageId(UUID.randomUUID().toString(), 0);
+    PageStore.create(mPageStoreOptions).put(unindexedPageId, PAGE2);
+    mCacheManager = createLocalCacheManager();
+    assertTrue(mCacheManager.hasPageUnsafe(PAGE_ID1));
+    assertFalse(mCacheManager.hasPageUnsafe(PAGE_ID2));
+    assertFalse(mCacheManager.hasPageUnsafe(unindexedPageId));
+    assertEquals(PAGE1.length, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertArrayEquals(PAGE1, mBuf);
+  }
+
   @Test
   public void asyncRestore() throws Exception {
     mCacheManager.close();
@@ -1181,6 +1206,57 @@ public final class LocalCacheManagerTest {
             0).get(0));
   }
 
+  @Test
+  public void invalidateFile() throws Exception {
+    PageId pageId1Index1 = new PageId(PAGE_ID1.getFileId(), 1);
+    mCacheManager.put(PAGE_ID1, PAGE1);
+    mCacheManager.put(pageId1Index1, PAGE1);
+    mCacheManager.put(PAGE_ID2, PAGE2);
+    mCacheManager.invalidateFile(PAGE_ID1.getFileId());
+    // the pages are no longer read even if they have not been deleted yet
+    assertEquals(0, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    assertEquals(0, mCacheManager.get(pageId1Index1, PAGE1.length, mBuf, 0));
+    assertEquals(0,
+        mCacheManager.getCachedPageIdsByFileId(PAGE_ID1.getFileId(), 2 * PAGE_SIZE_BYTES).size());
+    assertEquals(PAGE2.length, mCacheManager.get(PAGE_ID2, PAGE2.length, mBuf, 0));
+    assertArrayEquals(PAGE2, mBuf);
+    // pages of the new version of the file are cached
+    assertTrue(mCacheManager.put(PAGE_ID1, PAGE2));
+    assertEquals(PAGE2.length, mCacheManager.get(PAGE_ID1, PAGE2.length, mBuf, 0));
+    assertArrayEquals(PAGE2, mBuf);
+    CommonUtils.waitFor("stale pages deleted", () -> mPageMetaStore.numPages() == 2,
+        WaitForOptions.defaults().setTimeoutMs(10000));
+    assertEquals(PAGE2.length, mCacheManager.get(PAGE_ID1, PAGE2.length, mBuf, 0));
+    assertArrayEquals(PAGE2, mBuf);
+    assertEquals(0, mCacheManager.get(pageId1Index1, PAGE1.length, mBuf, 0));
+  }
+
+  @Test
+  public void invalidateFileWithoutPageIndex() throws Exception {
+    mCacheManager.put(PAGE_ID1, PAGE1);
+    mCacheManager.put(PAGE_ID2, PAGE2);
+    // the stale pages would be restored after a restart, so they are deleted before returning
+    mCacheManager.invalidateFile(PAGE_ID1.getFileId());
+    assertEquals(1, mPageMetaStore.numPages());
+    assertFalse(mCacheManager.hasPageUnsafe(PAGE_ID1));
+  }
+
+  @Test
+  public void invalidateFileWithPageIndex() throws Exception {
+    mCacheManager.close();
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_LOCAL_STORE_INDEX_ENABLED, true);
+    mCacheManager = createLocalCacheManager();
+    mCacheManager.put(PAGE_ID1, PAGE1);
+    mCacheManager.put(PAGE_ID2, PAGE2);
+    mCacheManager.invalidateFile(PAGE_ID1.getFileId());
+    mCacheManager.close();
+    // the stale page is not restored whether or not it was deleted before closing
+    mCacheManager = createLocalCacheManager();
+    assertFalse(mCacheManager.hasPageUnsafe(PAGE_ID1));
+    assertTrue(mCacheManager.hasPageUnsafe(PAGE_ID2));
+    assertEquals(1, mPageMetaStore.numPages());
+  }
+
   @Test
   public void getDataFileChannel() throws Exception {
     mCacheManager = createLocalCacheManager();
@@ -1203,6 +1279,282 @@ public final class LocalCacheManagerTest {
     assertArrayEquals(PAGE1, bytes);
   }
 
+  @Test
+  public void getBatch() throws Exception {
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_BATCH_READ_THREADS, 2);
+    mCacheManager = createLocalCacheManager();
+    int numPages = 4;
+    for (int i = 0; i < numPages; i++) {
+      if (i != 2) {
+        mCacheManager.put(pageId(0, i), page(i, PAGE_SIZE_BYTES));
+      }
+    }
+    int halfPage = PAGE_SIZE_BYTES / 2;
+    byte[] buf = new byte[numPages * halfPage];
+    ByteArrayTargetBuffer target = new ByteArrayTargetBuffer(buf, 0);
+    List<PageReadRequest> requests = new ArrayList<>();
+    for (int i = 0; i < numPages; i++) {
+      requests.add(new PageReadRequest(pageId(0, i), halfPage, halfPage,
+          target.slice(i * halfPage, halfPage)));
+    }
+    int[] bytesRead = mCacheManager.get(requests, CacheContext.defaults());
+    assertArrayEquals(new int[] {halfPage, halfPage, 0, halfPage}, bytesRead);
+    assertEquals(0, target.offset());
+    for (int i = 0; i < numPages; i++) {
+      if (i != 2) {
+        assertTrue(BufferUtils.equalIncreasingByteArray(i + halfPage, halfPage,
+            Arrays.copyOfRange(buf, i * halfPage, (i + 1) * halfPage)));
+      }
+    }
+  }
+
+  @Test
+  public void getAndLoadAdmittedOnSecondRead() throws Exception {
+    mCacheManager = LocalCacheManager.create(mCacheManagerOptions, mPageMetaStore,
+        new ShadowCacheAdmissionFilter(mConf, null));
+    CommonUtils.waitFor("restore completed",
+        () -> mCacheManager.state() == CacheManager.State.READ_WRITE,
+        WaitForOptions.defaults().setTimeoutMs(10000));
+    AtomicInteger externalReads = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      byte[] buf = new byte[PAGE_SIZE_BYTES];
+      assertEquals(PAGE_SIZE_BYTES, mCacheManager.getAndLoad(PAGE_ID1, 0, PAGE_SIZE_BYTES,
+          new ByteArrayTargetBuffer(buf, 0), CacheContext.defaults(), () -> {
+            externalReads.incrementAndGet();
+            return PAGE1;
+          }));
+      assertArrayEquals(PAGE1, buf);
+      // the page read once is not cached, the page read again is
+      assertEquals(i > 0, mCacheManager.hasPageUnsafe(PAGE_ID1));
+    }
+    assertEquals(2, externalReads.get());
+  }
+
+  @Test
+  public void getAndLoadCoalescesConcurrentMisses() throws Exception {
+    int numReaders = 4;
+    AtomicInteger externalReads = new AtomicInteger();
+    CountDownLatch readBlocked = new CountDownLatch(1);
+    List<byte[]> bufs = new ArrayList<>();
+    List<Thread> readers = new ArrayList<>();
+    for (int i = 0; i < numReaders; i++) {
+      byte[] buf = new byte[PAGE_SIZE_BYTES];
+      bufs.add(buf);
+      readers.add(new Thread(() -> mCacheManager.getAndLoad(PAGE_ID1, 0, PAGE_SIZE_BYTES,
+          new ByteArrayTargetBuffer(buf, 0), CacheContext.defaults(), () -> {
+            externalReads.incrementAndGet();
+            try {
+              readBlocked.await();
+            } catch (InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+            return PAGE1;
+          })));
+    }
+    readers.forEach(Thread::start);
+    // one reader blocks reading the page, the others wait for its read
+    CommonUtils.waitFor("readers blocked",
+        () -> readers.stream().allMatch(t -> t.getState() == Thread.State.WAITING
+            || t.getState() == Thread.State.TIMED_WAITING),
+        WaitForOptions.defaults().setTimeoutMs(10000));
+    readBlocked.countDown();
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    assertEquals(1, externalReads.get());
+    for (byte[] buf : bufs) {
+      assertArrayEquals(PAGE1, buf);
+    }
+    assertTrue(mCacheManager.hasPageUnsafe(PAGE_ID1));
+  }
+
+  @Test
+  public void getAndLoadCoalescedTimeout() throws Exception {
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_LOAD_COALESCING_TIMEOUT, "100ms");
+    mCacheManager = createLocalCacheManager();
+    CountDownLatch readBlocked = new CountDownLatch(1);
+    CountDownLatch reading = new CountDownLatch(1);
+    Thread stuckReader = new Thread(() -> mCacheManager.getAndLoad(PAGE_ID1, 0, PAGE_SIZE_BYTES,
+        new ByteArrayTargetBuffer(new byte[PAGE_SIZE_BYTES], 0), CacheContext.defaults(),
+        () -> {
+          reading.countDown();
+          try {
+            readBlocked.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          return PAGE1;
+        }));
+    stuckReader.start();
+    reading.await();
+    // the read of the page does not complete, so the miss reads the page on its own
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.getAndLoad(PAGE_ID1, 0, PAGE_SIZE_BYTES,
+        new ByteArrayTargetBuffer(mBuf, 0), CacheContext.defaults(), () -> PAGE1));
+    assertArrayEquals(PAGE1, mBuf);
+    readBlocked.countDown();
+    stuckReader.join();
+  }
+
+  @Test
+  public void getAndLoadCoalescedInterrupted() throws Exception {
+    CountDownLatch readBlocked = new CountDownLatch(1);
+    CountDownLatch reading = new CountDownLatch(1);
+    Thread stuckReader = new Thread(() -> mCacheManager.getAndLoad(PAGE_ID1, 0, PAGE_SIZE_BYTES,
+        new ByteArrayTargetBuffer(new byte[PAGE_SIZE_BYTES], 0), CacheContext.defaults(),
+        () -> {
+          reading.countDown();
+          try {
+            readBlocked.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          return PAGE1;
+        }));
+    stuckReader.start();
+    reading.await();
+    AtomicBoolean interrupted = new AtomicBoolean();
+    Thread waitingReader = new Thread(() -> {
+      try {
+        mCacheManager.getAndLoad(PAGE_ID1, 0, PAGE_SIZE_BYTES,
+            new ByteArrayTargetBuffer(new byte[PAGE_SIZE_BYTES], 0), CacheContext.defaults(),
+            () -> PAGE1);
+      } catch (RuntimeException e) {
+        interrupted.set(Thread.currentThread().isInterrupted());
+      }
+    });
+    waitingReader.start();
+    CommonUtils.waitFor("reader waiting",
+        () -> waitingReader.getState() == Thread.State.TIMED_WAITING,
+        WaitForOptions.defaults().setTimeoutMs(10000));
+    waitingReader.interrupt();
+    waitingReader.join();
+    assertTrue(interrupted.get());
+    readBlocked.countDown();
+    stuckReader.join();
+  }
+
+  @Test
+  public void getAndLoadRangesSplitByGap() throws Exception {
+    List<long[]> ranges = new ArrayList<>();
+    byte[] buf = new byte[3 * PAGE_SIZE_BYTES];
+    // page 2 is not part of the reads, as if it were cached
+    assertArrayEquals(new int[] {PAGE_SIZE_BYTES, PAGE_SIZE_BYTES, PAGE_SIZE_BYTES},
+        mCacheManager.getAndLoad(pageRequests(buf, 0, 1, 3), CacheContext.defaults(), 0,
+            (first, last) -> readRange(ranges, first, last)));
+    assertEquals(2, ranges.size());
+    assertArrayEquals(new long[] {0, 1}, ranges.get(0));
+    assertArrayEquals(new long[] {3, 3}, ranges.get(1));
+    assertPagesRead(buf, 0, 1, 3);
+    for (long pageIndex : new long[] {0, 1, 3}) {
+      assertTrue(mCacheManager.hasPageUnsafe(pageId(0, (int) pageIndex)));
+    }
+    ranges.clear();
+    buf = new byte[3 * PAGE_SIZE_BYTES];
+    assertArrayEquals(new int[] {PAGE_SIZE_BYTES, PAGE_SIZE_BYTES, PAGE_SIZE_BYTES},
+        mCacheManager.getAndLoad(pageRequests(buf, 4, 5, 7), CacheContext.defaults(),
+            PAGE_SIZE_BYTES, (first, last) -> readRange(ranges, first, last)));
+    assertEquals(1, ranges.size());
+    assertArrayEquals(new long[] {4, 7}, ranges.get(0));
+    assertPagesRead(buf, 4, 5, 7);
+  }
+
+  @Test
+  public void getAndLoadRangesCoalescesConcurrentMisses() throws Exception {
+    List<long[]> firstRanges = Collections.synchronizedList(new ArrayList<>());
+    List<long[]> secondRanges = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch secondReading = new CountDownLatch(1);
+    byte[] secondBuf = new byte[3 * PAGE_SIZE_BYTES];
+    Thread second = new Thread(() -> mCacheManager.getAndLoad(pageRequests(secondBuf, 0, 1, 2),
+        CacheContext.defaults(), PAGE_SIZE_BYTES, (first, last) -> {
+          secondRanges.add(new long[] {first, last});
+          secondReading.countDown();
+          return BufferUtils.getIncreasingByteArray((int) first * PAGE_SIZE_BYTES,
+              (int) (last - first + 1) * PAGE_SIZE_BYTES);
+        }));
+    byte[] firstBuf = new byte[2 * PAGE_SIZE_BYTES];
+    mCacheManager.getAndLoad(pageRequests(firstBuf, 0, 1), CacheContext.defaults(),
+        PAGE_SIZE_BYTES, (first, last) -> {
+          // the second reader finds pages 0 and 1 claimed, and reads page 2 only
+          second.start();
+          try {
+            secondReading.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          return readRange(firstRanges, first, last);
+        });
+    second.join();
+    assertEquals(1, firstRanges.size());
+    assertArrayEquals(new long[] {0, 1}, firstRanges.get(0));
+    assertEquals(1, secondRanges.size());
+    assertArrayEquals(new long[] {2, 2}, secondRanges.get(0));
+    assertPagesRead(firstBuf, 0, 1);
+    assertPagesRead(secondBuf, 0, 1, 2);
+  }
+
+  private List<PageReadRequest> pageRequests(byte[] buf, long... pageIndexes) {
+    ByteArrayTargetBuffer target = new ByteArrayTargetBuffer(buf, 0);
+    List<PageReadRequest> requests = new ArrayList<>();
+    for (int i = 0; i < pageIndexes.length; i++) {
+      requests.add(new PageReadRequest(pageId(0, (int) pageIndexes[i]), 0, PAGE_SIZE_BYTES,
+          target.slice(i * PAGE_SIZE_BYTES, PAGE_SIZE_BYTES)));
+    }
+    return requests;
+  }
+
+  private static byte[] readRange(List<long[]> ranges, long first, long last) {
+    ranges.add(new long[] {first, last});
+    return BufferUtils.getIncreasingByteArray((int) first * PAGE_SIZE_BYTES,
+        (int) (last - first + 1) * PAGE_SIZE_BYTES);
+  }
+
+  private static void assertPagesRead(byte[] buf, long... pageIndexes) {
+    for (int i = 0; i < pageIndexes.length; i++) {
+      assertTrue(BufferUtils.equalIncreasingByteArray((int) pageIndexes[i] * PAGE_SIZE_BYTES,
+          PAGE_SIZE_BYTES,
+          Arrays.copyOfRange(buf, i * PAGE_SIZE_BYTES, (i + 1) * PAGE_SIZE_BYTES)));
+    }
+  }
+
+  @Test
+  public void deletePinnedPage() throws Exception {
+    mCacheManager = createLocalCacheManager();
+    mCacheManager.put(PAGE_ID1, PAGE1);
+    DataFileChannel dataFileChannel = mCacheManager.getDataFileChannel(PAGE_ID1,
+        0, PAGE1.length, CacheContext.defaults()).get();
+    assertTrue(mCacheManager.delete(PAGE_ID1));
+    assertEquals(0, mCacheManager.get(PAGE_ID1, PAGE1.length, mBuf, 0));
+    // the page file stays in place until the transfer is done
+    assertEquals(PAGE1.length, mPageStore.get(PAGE_ID1, 0, PAGE1.length,
+        new ByteArrayTargetBuffer(mBuf, 0), false));
+    assertArrayEquals(PAGE1, mBuf);
+    assertFalse(mCacheManager.put(PAGE_ID1, PAGE2));
+    dataFileChannel.release();
+    // the page file is deleted in the background once the transfer is done
+    CommonUtils.waitFor("page deleted", () -> mCacheManager.put(PAGE_ID1, PAGE2),
+        WaitForOptions.defaults().setTimeoutMs(10000));
+    assertEquals(PAGE2.length, mCacheManager.get(PAGE_ID1, PAGE2.length, mBuf, 0));
+    assertArrayEquals(PAGE2, mBuf);
+  }
+
+  @Test
+  public void evictUnpinnedPage() throws Exception {
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_SIZE, String.valueOf(2 * PAGE_SIZE_BYTES));
+    mCacheManager = createLocalCacheManager();
+    assertTrue(mCacheManager.put(pageId(0, 0), page(0, PAGE_SIZE_BYTES)));
+    assertTrue(mCacheManager.put(pageId(1, 0), page(1, PAGE_SIZE_BYTES)));
+    DataFileChannel dataFileChannel = mCacheManager.getDataFileChannel(pageId(0, 0),
+        0, PAGE_SIZE_BYTES, CacheContext.defaults()).get();
+    // FIFO would evict page 0, which is pinned
+    assertTrue(mCacheManager.put(pageId(2, 0), page(2, PAGE_SIZE_BYTES)));
+    assertEquals(PAGE_SIZE_BYTES, mCacheManager.get(pageId(0, 0), PAGE_SIZE_BYTES, mBuf, 0));
+    assertArrayEquals(page(0, PAGE_SIZE_BYTES), mBuf);
+    assertEquals(0, mCacheManager.get(pageId(1, 0), PAGE_SIZE_BYTES, mBuf, 0));
+    dataFileChannel.release();
+    assertTrue(mCacheManager.put(pageId(3, 0), page(3, PAGE_SIZE_BYTES)));
+    assertEquals(0, mCacheManager.get(pageId(0, 0), PAGE_SIZE_BYTES, mBuf, 0));
+  }
+
   /**
    * A PageStore where put can throw IOException on put or delete.
    */
@@ -11,6 +11,9 @@
 
 package alluxio.client.file.cache;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 import alluxio.AlluxioURI;
 import alluxio.CloseableSupplier;
 import alluxio.Constants;
@@ -30,6 +33,7 @@ import alluxio.conf.Configuration;
 import alluxio.conf.InstancedConfiguration;
 import alluxio.conf.PropertyKey;
 import alluxio.file.FileId;
+import alluxio.file.ReadTargetBuffer;
 import alluxio.underfs.UnderFileSystem;
 import alluxio.underfs.UnderFileSystemConfiguration;
 import alluxio.underfs.local.LocalPositionReader;
@@ -54,6 +58,7 @@ import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Tests for the {@link LocalCacheManager} class.
@@ -104,6 +109,7 @@ public final class LocalCachePositionReaderTest {
     mConf.set(PropertyKey.USER_CLIENT_CACHE_QUOTA_ENABLED, false);
     mConf.set(PropertyKey.USER_CLIENT_CACHE_STORE_OVERHEAD, 0);
     mConf.set(PropertyKey.USER_CLIENT_CACHE_STORE_TYPE, PageStoreType.MEM);
+    mConf.set(PropertyKey.USER_CLIENT_CACHE_BATCH_READ_THREADS, 4);
     PageStoreOptions pageStoreOptions = PageStoreOptions.create(mConf).get(0);
     CacheEvictor evictor = new FIFOCacheEvictor(new CacheEvictorOptions());
     PageStoreDir pageStoreDir = new MemoryPageStoreDir(pageStoreOptions,
@@ -149,6 +155,80 @@ public final class LocalCachePositionReaderTest {
     mPositionReaderTest.concurrentReadPart();
   }
 
+  @Test
+  public void testRangeReadMissingPages() throws IOException {
+    int pageSize = Constants.KB;
+    // stays within the cache capacity
+    int length = Math.min(mFileLen, 8 * pageSize);
+    int numPages = (length + pageSize - 1) / pageSize;
+    // cache every other page
+    byte[] buf = new byte[1];
+    for (int page = 0; page < numPages; page += 2) {
+      mPositionReader.read((long) page * pageSize, buf, 0, 1);
+    }
+    AtomicInteger externalReads = new AtomicInteger();
+    PositionReader localReader = new LocalPositionReader(mTestFile, mFileLen);
+    PositionReader countingReader = new PositionReader() {
+      @Override
+      public int readInternal(long position, ReadTargetBuffer buffer, int bytesToRead)
+          throws IOException {
+        externalReads.incrementAndGet();
+        return localReader.readInternal(position, buffer, bytesToRead);
+      }
+    };
+    try (PositionReader reader = LocalCachePositionReader.create(mCacheManager,
+        new CloseableSupplier<>(() -> countingReader),
+        FileId.of(new AlluxioURI(mTestFile).hash()), mFileLen, pageSize,
+        CacheContext.defaults(), pageSize)) {
+      byte[] data = new byte[length];
+      if (length > 0) {
+        assertEquals(length, reader.read(0, data, 0, length));
+      }
+      assertTrue(BufferUtils.equalIncreasingByteArray(length, data));
+    }
+    // the missing pages are each one cached page apart, and read with one ranged read
+    assertEquals(numPages >= 2 ? 1 : 0, externalReads.get());
+  }
+
+  @Test
+  public void testRangeReadSkipsCachedPages() throws IOException {
+    int pageSize = Constants.KB;
+    int length = Math.min(mFileLen, 8 * pageSize);
+    int numPages = (length + pageSize - 1) / pageSize;
+    // cache every other page
+    byte[] buf = new byte[1];
+    for (int page = 0; page < numPages; page += 2) {
+      mPositionReader.read((long) page * pageSize, buf, 0, 1);
+    }
+    int missingBytes = 0;
+    for (int page = 1; page < numPages; page += 2) {
+      missingBytes += Math.min(pageSize, length - page * pageSize);
+    }
+    AtomicInteger externalBytes = new AtomicInteger();
+    PositionReader localReader = new LocalPositionReader(mTestFile, mFileLen);
+    PositionReader countingReader = new PositionReader() {
+      @Override
+      public int readInternal(long position, ReadTargetBuffer buffer, int bytesToRead)
+          throws IOException {
+        int bytesRead = localReader.readInternal(position, buffer, bytesToRead);
+        externalBytes.addAndGet(Math.max(bytesRead, 0));
+        return bytesRead;
+      }
+    };
+    try (PositionReader reader = LocalCachePositionReader.create(mCacheManager,
+        new CloseableSupplier<>(() -> countingReader),
+        FileId.of(new AlluxioURI(mTestFile).hash()), mFileLen, pageSize,
+        CacheContext.defaults(), 0)) {
+      byte[] data = new byte[length];
+      if (length > 0) {
+        assertEquals(length, reader.read(0, data, 0, length));
+      }
+      assertTrue(BufferUtils.equalIncreasingByteArray(length, data));
+    }
+    // only the missing pages are read from external storage
+    assertEquals(missingBytes, externalBytes.get());
+  }
+
   /**
    * Creates a manager and waits until it is ready.
    */
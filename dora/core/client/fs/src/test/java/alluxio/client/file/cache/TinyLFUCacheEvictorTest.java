@@ -0,0 +1,203 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache;
+
+import alluxio.client.file.cache.evictor.CacheEvictor;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+import alluxio.client.file.cache.evictor.TinyLFUCacheEvictor;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tests for the {@link TinyLFUCacheEvictor} class.
+ */
+public final class TinyLFUCacheEvictorTest {
+  private static final int CACHE_PAGES = 100;
+  private static final int HOT_PAGES = 20;
+  private static final int SCAN_PAGES = 10 * CACHE_PAGES;
+
+  private TinyLFUCacheEvictor mEvictor;
+  private final PageId mFirst = new PageId("1L", 2L);
+  private final PageId mSecond = new PageId("3L", 4L);
+  private final PageId mThird = new PageId("5L", 6L);
+
+  /**
+   * Sets up the instances.
+   */
+  @Before
+  public void before() {
+    mEvictor = new TinyLFUCacheEvictor(new CacheEvictorOptions());
+  }
+
+  @Test
+  public void evictEmpty() {
+    Assert.assertNull(mEvictor.evict());
+  }
+
+  @Test
+  public void evictAllGone() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnPut(mThird);
+    mEvictor.updateOnDelete(mFirst);
+    mEvictor.updateOnDelete(mSecond);
+    mEvictor.updateOnDelete(mThird);
+    Assert.assertNull(mEvictor.evict());
+  }
+
+  @Test
+  public void evictAfterDelete() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnPut(mThird);
+    mEvictor.updateOnDelete(mFirst);
+    PageId victim = mEvictor.evict();
+    Assert.assertNotNull(victim);
+    Assert.assertNotEquals(mFirst, victim);
+  }
+
+  @Test
+  public void evictMatching() {
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnPut(mThird);
+    Assert.assertEquals(mSecond, mEvictor.evictMatching(mSecond::equals));
+    Assert.assertNull(mEvictor.evictMatching(pageId -> false));
+  }
+
+  @Test
+  public void abortedEvictionKeepsCandidateInWindow() {
+    mEvictor = new TinyLFUCacheEvictor(new CacheEvictorOptions().setTinyLFUWindowRatio(0.5));
+    PageId fourth = new PageId("7L", 8L);
+    mEvictor.updateOnPut(mFirst);
+    mEvictor.updateOnPut(mSecond);
+    mEvictor.updateOnPut(mThird);
+    // the window candidate is accessed more often than the probation victim
+    mEvictor.updateOnGet(mThird);
+    mEvictor.updateOnGet(mThird);
+    mEvictor.updateOnPut(fourth);
+    Assert.assertEquals(mFirst, mEvictor.evict());
+    // the eviction is aborted, the candidate stays in the window and competes again
+    Assert.assertEquals(mThird, mEvictor.evictMatching(mThird::equals));
+    Assert.assertEquals(mFirst, mEvictor.evict());
+    mEvictor.updateOnDelete(mFirst);
+    // the candidate has been admitted into the main cache, the next window page competes now
+    Assert.assertEquals(fourth, mEvictor.evict());
+  }
+
+  @Test
+  public void evictLessFrequentCandidate() {
+    CacheSimulator cache = new CacheSimulator(mEvictor, CACHE_PAGES);
+    for (int i = 0; i < CACHE_PAGES; i++) {
+      cache.access(new PageId("warm", i));
+      cache.access(new PageId("warm", i));
+    }
+    // a page accessed once does not replace any page accessed twice
+    cache.access(new PageId("cold", 0));
+    cache.access(new PageId("cold", 1));
+    cache.access(new PageId("cold", 2));
+    int warmPages = 0;
+    for (int i = 0; i < CACHE_PAGES; i++) {
+      if (cache.contains(new PageId("warm", i))) {
+        warmPages++;
+      }
+    }
+    Assert.assertEquals(CACHE_PAGES - 1, warmPages);
+  }
+
+  @Test
+  public void scanResistant() {
+    CacheSimulator cache = new CacheSimulator(mEvictor, CACHE_PAGES);
+    warmUp(cache);
+    int hotPages = cache.countHotPages();
+    Assert.assertTrue(hotPages > HOT_PAGES / 2);
+    scan(cache);
+    Assert.assertEquals(hotPages, cache.countHotPages());
+  }
+
+  @Test
+  public void lruNotScanResistant() {
+    CacheSimulator cache =
+        new CacheSimulator(new LRUCacheEvictor(new CacheEvictorOptions()), CACHE_PAGES);
+    warmUp(cache);
+    scan(cache);
+    Assert.assertEquals(0, cache.countHotPages());
+  }
+
+  /**
+   * Accesses hot pages interleaved with rounds of pages accessed once.
+   */
+  private static void warmUp(CacheSimulator cache) {
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < HOT_PAGES; i++) {
+        cache.access(new PageId("hot", i));
+      }
+      for (int i = 0; i < CACHE_PAGES; i++) {
+        cache.access(new PageId("warm" + round, i));
+      }
+    }
+  }
+
+  private static void scan(CacheSimulator cache) {
+    for (int i = 0; i < SCAN_PAGES; i++) {
+      cache.access(new PageId("scan", i));
+    }
+  }
+
+  /**
+   * Drives an evictor the way the cache manager does for a cache holding a fixed number of pages.
+   */
+  private static final class CacheSimulator {
+    private final CacheEvictor mEvictor;
+    private final int mCapacity;
+    private final Set<PageId> mPages = new HashSet<>();
+
+    CacheSimulator(CacheEvictor evictor, int capacity) {
+      mEvictor = evictor;
+      mCapacity = capacity;
+    }
+
+    void access(PageId pageId) {
+      if (mPages.contains(pageId)) {
+        mEvictor.updateOnGet(pageId);
+        return;
+      }
+      if (mPages.size() >= mCapacity) {
+        PageId victim = mEvictor.evict();
+        mPages.remove(victim);
+        mEvictor.updateOnDelete(victim);
+      }
+      mPages.add(pageId);
+      mEvictor.updateOnPut(pageId);
+    }
+
+    boolean contains(PageId pageId) {
+      return mPages.contains(pageId);
+    }
+
+    int countHotPages() {
+      int hotPages = 0;
+      for (int i = 0; i < HOT_PAGES; i++) {
+        if (contains(new PageId("hot", i))) {
+          hotPages++;
+        }
+      }
+      return hotPages;
+    }
+  }
+}
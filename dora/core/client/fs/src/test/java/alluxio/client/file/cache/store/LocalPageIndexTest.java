@@ -0,0 +1,240 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.client.quota.CacheScope;
+import alluxio.util.CommonUtils;
+import alluxio.util.WaitForOptions;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class LocalPageIndexTest {
+  private static final int PAGE_SIZE = 1024;
+
+  private Path mDir;
+  private LocalPageIndex mIndex;
+
+  @Rule
+  public TemporaryFolder mTemp = new TemporaryFolder();
+
+  @Before
+  public void before() {
+    mDir = mTemp.getRoot().toPath().resolve("index");
+    mIndex = new LocalPageIndex(mDir, PAGE_SIZE);
+  }
+
+  @After
+  public void after() {
+    mIndex.close();
+  }
+
+  @Test
+  public void loadMissing() {
+    assertFalse(mIndex.load(null).isPresent());
+  }
+
+  @Test
+  public void loadIncomplete() {
+    mIndex.reset();
+    mIndex.add(pageInfo(0));
+    mIndex.close();
+    assertFalse(mIndex.load(null).isPresent());
+  }
+
+  @Test
+  public void loadAfterAddAndDelete() {
+    mIndex.reset();
+    mIndex.markComplete();
+    for (int i = 0; i < 10; i++) {
+      mIndex.add(pageInfo(i));
+    }
+    mIndex.delete(pageId(3));
+    mIndex.close();
+    Optional<Collection<PageInfo>> pages = mIndex.load(null);
+    assertTrue(pages.isPresent());
+    assertEquals(9, pages.get().size());
+    assertFalse(pageIds(pages.get()).contains(pageId(3)));
+    for (PageInfo pageInfo : pages.get()) {
+      assertEquals(PAGE_SIZE, pageInfo.getPageSize());
+      assertEquals(pageInfo.getPageId().getPageIndex(), pageInfo.getCreatedTimestamp());
+    }
+    // pages added after loading are appended to a new log
+    mIndex.add(pageInfo(10));
+    mIndex.close();
+    assertEquals(10, mIndex.load(null).get().size());
+  }
+
+  @Test
+  public void loadScope() {
+    mIndex.reset();
+    mIndex.markComplete();
+    CacheScope scope = CacheScope.create("schema.table");
+    mIndex.add(new PageInfo(pageId(0), PAGE_SIZE, scope, null, 0));
+    mIndex.add(pageInfo(1));
+    mIndex.close();
+    Optional<Collection<PageInfo>> pages = mIndex.load(null);
+    assertTrue(pages.isPresent());
+    for (PageInfo pageInfo : pages.get()) {
+      assertEquals(pageInfo.getPageId().equals(pageId(0)) ? scope : CacheScope.GLOBAL,
+          pageInfo.getScope());
+    }
+  }
+
+  @Test
+  public void invalidate() {
+    mIndex.reset();
+    mIndex.markComplete();
+    PageId otherPageId = new PageId("other", 0);
+    mIndex.add(pageInfo(0));
+    mIndex.add(pageInfo(1));
+    mIndex.add(new PageInfo(otherPageId, PAGE_SIZE, CacheScope.GLOBAL, null, 0));
+    assertTrue(mIndex.invalidate("file"));
+    mIndex.delete(pageId(0));
+    // a page of the new version of the file
+    mIndex.add(pageInfo(2));
+    mIndex.close();
+    Optional<Collection<PageInfo>> pages = mIndex.load(null);
+    assertTrue(pages.isPresent());
+    assertEquals(new HashSet<>(Arrays.asList(pageId(2), otherPageId)), pageIds(pages.get()));
+    // the deletion of the stale page 1 was not recorded
+    assertEquals(Collections.singleton(pageId(1)), pageIds(mIndex.takeStalePages()));
+    assertTrue(mIndex.takeStalePages().isEmpty());
+  }
+
+  @Test
+  public void invalidateIncomplete() {
+    mIndex.reset();
+    mIndex.add(pageInfo(0));
+    assertFalse(mIndex.invalidate("file"));
+  }
+
+  @Test
+  public void closedCleanly() {
+    mIndex.reset();
+    mIndex.markComplete();
+    mIndex.add(pageInfo(0));
+    assertFalse(mIndex.isClosedCleanly());
+    mIndex.close();
+    assertTrue(mIndex.isClosedCleanly());
+    // the index is no longer closed cleanly once loaded, until it is closed again
+    assertTrue(mIndex.load(null).isPresent());
+    assertFalse(mIndex.isClosedCleanly());
+    mIndex.close();
+    assertTrue(mIndex.isClosedCleanly());
+  }
+
+  @Test
+  public void changeAfterClose() {
+    mIndex.reset();
+    mIndex.markComplete();
+    mIndex.close();
+    assertTrue(mIndex.isClosedCleanly());
+    // the page is not recorded by the closed index, which then misses it
+    mIndex.add(pageInfo(0));
+    assertFalse(mIndex.isClosedCleanly());
+  }
+
+  @Test
+  public void loadTornLog() throws Exception {
+    mIndex.reset();
+    mIndex.markComplete();
+    mIndex.add(pageInfo(0));
+    mIndex.add(pageInfo(1));
+    mIndex.close();
+    // a record cut short by a crash
+    Path log = mDir.resolve("log.1");
+    Files.write(log, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+    Optional<Collection<PageInfo>> pages = mIndex.load(null);
+    assertTrue(pages.isPresent());
+    assertEquals(2, pages.get().size());
+  }
+
+  @Test
+  public void loadCorruptedSnapshot() throws Exception {
+    mIndex.reset();
+    mIndex.markComplete();
+    mIndex.close();
+    Path snapshot = mDir.resolve("snapshot");
+    byte[] bytes = Files.readAllBytes(snapshot);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(snapshot, bytes);
+    assertFalse(mIndex.load(null).isPresent());
+  }
+
+  @Test
+  public void loadDifferentPageSize() {
+    mIndex.reset();
+    mIndex.markComplete();
+    mIndex.close();
+    assertFalse(new LocalPageIndex(mDir, PAGE_SIZE * 2).load(null).isPresent());
+  }
+
+  @Test
+  public void compact() throws Exception {
+    mIndex = new LocalPageIndex(mDir, PAGE_SIZE, 10);
+    mIndex.reset();
+    mIndex.markComplete();
+    for (int i = 0; i < 100; i++) {
+      mIndex.add(pageInfo(i));
+    }
+    for (int i = 0; i < 100; i += 2) {
+      mIndex.delete(pageId(i));
+    }
+    CommonUtils.waitFor("logs compacted", () -> {
+      File[] logs = mDir.toFile().listFiles((dir, name) -> name.startsWith("log."));
+      return logs != null && logs.length == 1;
+    }, WaitForOptions.defaults().setTimeoutMs(10000));
+    // the snapshot written by the compaction replaced the previous one
+    assertFalse(new File(mDir.toFile(), "snapshot.compaction").exists());
+    mIndex.close();
+    Optional<Collection<PageInfo>> pages = mIndex.load(null);
+    assertTrue(pages.isPresent());
+    assertEquals(50, pages.get().size());
+    for (int i = 1; i < 100; i += 2) {
+      assertTrue(pageIds(pages.get()).contains(pageId(i)));
+    }
+  }
+
+  private static PageId pageId(long pageIndex) {
+    return new PageId("file", pageIndex);
+  }
+
+  private static PageInfo pageInfo(long pageIndex) {
+    return new PageInfo(pageId(pageIndex), PAGE_SIZE, CacheScope.GLOBAL, null, pageIndex);
+  }
+
+  private static Set<PageId> pageIds(Collection<PageInfo> pages) {
+    return pages.stream().map(PageInfo::getPageId).collect(Collectors.toSet());
+  }
+}
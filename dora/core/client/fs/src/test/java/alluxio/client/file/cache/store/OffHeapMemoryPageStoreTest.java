@@ -0,0 +1,118 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.exception.PageNotFoundException;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.network.protocol.databuffer.DataBuffer;
+import alluxio.util.io.BufferUtils;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+
+public class OffHeapMemoryPageStoreTest {
+  private static final int PAGE_SIZE = 1024;
+  private static final int NUM_PAGES = 16;
+
+  private OffHeapMemoryPageStore mPageStore;
+
+  @Before
+  public void before() {
+    PageStoreOptions options = new PageStoreOptions()
+        .setStoreType(PageStoreType.OFF_HEAP_MEM)
+        .setPageSize(PAGE_SIZE)
+        .setCacheSize(PAGE_SIZE * NUM_PAGES)
+        .setRootDir(Paths.get("/tmp"));
+    mPageStore = new OffHeapMemoryPageStore(options);
+  }
+
+  @After
+  public void after() {
+    mPageStore.close();
+  }
+
+  @Test
+  public void putGetDelete() throws Exception {
+    byte[] data = BufferUtils.getIncreasingByteArray(PAGE_SIZE);
+    PageId id = new PageId("0", 0);
+    mPageStore.put(id, data);
+    byte[] buf = new byte[PAGE_SIZE];
+    assertEquals(PAGE_SIZE, mPageStore.get(id, 0, PAGE_SIZE, new ByteArrayTargetBuffer(buf, 0)));
+    assertArrayEquals(data, buf);
+    mPageStore.delete(id);
+    assertThrows(PageNotFoundException.class,
+        () -> mPageStore.get(id, 0, PAGE_SIZE, new ByteArrayTargetBuffer(buf, 0)));
+  }
+
+  @Test
+  public void noFreeMemory() throws Exception {
+    for (int i = 0; i < NUM_PAGES; i++) {
+      mPageStore.put(new PageId("0", i), new byte[PAGE_SIZE]);
+    }
+    assertEquals(PAGE_SIZE * NUM_PAGES, mPageStore.getAllocatedBytes());
+    assertThrows(ResourceExhaustedException.class,
+        () -> mPageStore.put(new PageId("0", NUM_PAGES), new byte[PAGE_SIZE]));
+    mPageStore.delete(new PageId("0", 0));
+    mPageStore.put(new PageId("0", NUM_PAGES), new byte[PAGE_SIZE]);
+  }
+
+  @Test
+  public void dataBufferIsZeroCopy() throws Exception {
+    PageId id = new PageId("0", 0);
+    mPageStore.put(id, BufferUtils.getIncreasingByteArray(PAGE_SIZE));
+    DataBuffer dataBuffer = mPageStore.getDataBuffer(id, 16, 32, false);
+    assertEquals(32, dataBuffer.getLength());
+    ByteBuf buf = (ByteBuf) dataBuffer.getNettyOutput();
+    assertTrue(buf.isDirect());
+    assertTrue(BufferUtils.equalIncreasingByteBuffer(16, 32, buf.nioBuffer()));
+    dataBuffer.release();
+  }
+
+  @Test
+  public void dataBufferOutlivesDelete() throws Exception {
+    for (int i = 0; i < NUM_PAGES; i++) {
+      mPageStore.put(new PageId("0", i), BufferUtils.getIncreasingByteArray(i, PAGE_SIZE));
+    }
+    PageId id = new PageId("0", 3);
+    DataBuffer dataBuffer = mPageStore.getDataBuffer(id, 0, PAGE_SIZE, false);
+    mPageStore.delete(id);
+    // the slot of the deleted page is still referenced by the data buffer
+    assertThrows(ResourceExhaustedException.class,
+        () -> mPageStore.put(new PageId("1", 0), new byte[PAGE_SIZE]));
+    ByteBuf buf = (ByteBuf) dataBuffer.getNettyOutput();
+    assertTrue(BufferUtils.equalIncreasingByteBuffer(3, PAGE_SIZE, buf.nioBuffer()));
+    dataBuffer.release();
+    mPageStore.put(new PageId("1", 0), new byte[PAGE_SIZE]);
+  }
+
+  @Test
+  public void commitTempFile() throws Exception {
+    byte[] data = BufferUtils.getIncreasingByteArray(PAGE_SIZE);
+    mPageStore.putTemporary(new PageId("temp", 0), data);
+    mPageStore.commit("temp", "file");
+    byte[] buf = new byte[PAGE_SIZE];
+    assertEquals(PAGE_SIZE, mPageStore.get(new PageId("file", 0), 0, PAGE_SIZE,
+        new ByteArrayTargetBuffer(buf, 0)));
+    assertArrayEquals(data, buf);
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.cache.store;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.ProjectConstants;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.exception.PageCorruptedException;
+import alluxio.exception.PageNotFoundException;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.file.ByteArrayTargetBuffer;
+import alluxio.util.io.BufferUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+
+public class SlabPageStoreTest {
+  private static final int PAGE_SIZE = 1024;
+  private static final int NUM_PAGES = 16;
+
+  private PageStoreOptions mOptions;
+  private SlabPageStore mPageStore;
+
+  @Rule
+  public TemporaryFolder mTemp = new TemporaryFolder();
+
+  @Before
+  public void before() {
+    mOptions = new PageStoreOptions()
+        .setStoreType(PageStoreType.SLAB)
+        .setPageSize(PAGE_SIZE)
+        .setCacheSize(PAGE_SIZE * NUM_PAGES)
+        .setSlabFileSize(PAGE_SIZE * NUM_PAGES / 4)
+        .setAlluxioVersion(ProjectConstants.VERSION)
+        .setRootDir(Paths.get(mTemp.getRoot().getAbsolutePath()));
+    mPageStore = new SlabPageStore(mOptions);
+  }
+
+  @After
+  public void after() throws Exception {
+    mPageStore.close();
+  }
+
+  @Test
+  public void preallocateSlabs() {
+    assertEquals(NUM_PAGES, mPageStore.getNumSlots());
+    File[] slabs = mTemp.getRoot().toPath().resolve(Integer.toString(PAGE_SIZE)).toFile()
+        .listFiles((dir, name) -> name.startsWith("slab_"));
+    assertEquals(4, slabs.length);
+    for (File slab : slabs) {
+      assertEquals(PAGE_SIZE * NUM_PAGES / 4, slab.length());
+    }
+  }
+
+  @Test
+  public void putGetDelete() throws Exception {
+    byte[] data = BufferUtils.getIncreasingByteArray(PAGE_SIZE);
+    PageId id = new PageId("0", 0);
+    mPageStore.put(id, data);
+    assertEquals(1, mPageStore.getNumUsedSlots());
+    byte[] buf = new byte[PAGE_SIZE];
+    assertEquals(PAGE_SIZE, mPageStore.get(id, 0, PAGE_SIZE, new ByteArrayTargetBuffer(buf, 0)));
+    assertArrayEquals(data, buf);
+    mPageStore.delete(id);
+    assertEquals(0, mPageStore.getNumUsedSlots());
+    assertThrows(PageNotFoundException.class,
+        () -> mPageStore.get(id, 0, PAGE_SIZE, new ByteArrayTargetBuffer(buf, 0)));
+  }
+
+  @Test
+  public void overwrite() throws Exception {
+    PageId id = new PageId("0", 0);
+    mPageStore.put(id, BufferUtils.getIncreasingByteArray(PAGE_SIZE));
+    byte[] data = BufferUtils.getIncreasingByteArray(7, 32);
+    mPageStore.put(id, data);
+    assertEquals(1, mPageStore.getNumUsedSlots());
+    byte[] buf = new byte[32];
+    assertEquals(32, mPageStore.get(id, 0, 32, new ByteArrayTargetBuffer(buf, 0)));
+    assertArrayEquals(data, buf);
+  }
+
+  @Test
+  public void pageTooLarge() {
+    assertThrows(Exception.class,
+        () -> mPageStore.put(new PageId("0", 0), new byte[PAGE_SIZE + 1]));
+    assertEquals(0, mPageStore.getNumUsedSlots());
+  }
+
+  @Test
+  public void noFreeSlot() throws Exception {
+    for (int i = 0; i < NUM_PAGES; i++) {
+      mPageStore.put(new PageId("0", i), BufferUtils.getIncreasingByteArray(i, PAGE_SIZE));
+    }
+    assertThrows(ResourceExhaustedException.class,
+        () -> mPageStore.put(new PageId("0", NUM_PAGES), new byte[PAGE_SIZE]));
+    mPageStore.delete(new PageId("0", 3));
+    mPageStore.put(new PageId("0", NUM_PAGES), new byte[PAGE_SIZE]);
+    assertEquals(NUM_PAGES, mPageStore.getNumUsedSlots());
+  }
+
+  @Test
+  public void commitTempFile() throws Exception {
+    byte[] data = BufferUtils.getIncreasingByteArray(PAGE_SIZE);
+    mPageStore.putTemporary(new PageId("temp", 0), data);
+    mPageStore.commit("temp", "file");
+    byte[] buf = new byte[PAGE_SIZE];
+    assertEquals(PAGE_SIZE, mPageStore.get(new PageId("file", 0), 0, PAGE_SIZE,
+        new ByteArrayTargetBuffer(buf, 0)));
+    assertArrayEquals(data, buf);
+    assertThrows(PageNotFoundException.class, () -> mPageStore.get(new PageId("temp", 0), 0,
+        PAGE_SIZE, new ByteArrayTargetBuffer(buf, 0)));
+  }
+
+  @Test
+  public void restore() throws Exception {
+    Set<PageId> committed = new HashSet<>();
+    for (int i = 0; i < NUM_PAGES / 2; i++) {
+      PageId id = new PageId(Integer.toString(i), i);
+      mPageStore.put(id, BufferUtils.getIncreasingByteArray(i, PAGE_SIZE - i));
+      committed.add(id);
+    }
+    mPageStore.putTemporary(new PageId("temp", 0), new byte[PAGE_SIZE]);
+    mPageStore.close();
+
+    mPageStore = new SlabPageStore(mOptions);
+    assertEquals(committed.size(), mPageStore.getNumUsedSlots());
+    Set<PageId> restored = new HashSet<>();
+    mPageStore.scanPages(null, pageInfo -> {
+      assertTrue(pageInfo.isPresent());
+      PageInfo info = pageInfo.get();
+      int i = (int) info.getPageId().getPageIndex();
+      assertEquals(PAGE_SIZE - i, info.getPageSize());
+      restored.add(info.getPageId());
+    });
+    assertEquals(committed, restored);
+    for (PageId id : committed) {
+      int i = (int) id.getPageIndex();
+      byte[] buf = new byte[PAGE_SIZE - i];
+      mPageStore.get(id, 0, PAGE_SIZE - i, new ByteArrayTargetBuffer(buf, 0));
+      assertArrayEquals(BufferUtils.getIncreasingByteArray(i, PAGE_SIZE - i), buf);
+    }
+  }
+
+  @Test
+  public void restoreTornPage() throws Exception {
+    PageId torn = new PageId("0", 0);
+    PageId intact = new PageId("0", 1);
+    mPageStore.put(torn, BufferUtils.getIncreasingByteArray(PAGE_SIZE));
+    mPageStore.put(intact, BufferUtils.getIncreasingByteArray(1, PAGE_SIZE));
+    mPageStore.close();
+    // the data of the first slot did not reach the disk before its record
+    File slab = mTemp.getRoot().toPath().resolve(Integer.toString(PAGE_SIZE))
+        .resolve("slab_0").toFile();
+    try (RandomAccessFile raf = new RandomAccessFile(slab, "rw")) {
+      raf.seek(PAGE_SIZE / 2);
+      raf.write(0xff);
+    }
+
+    mPageStore = new SlabPageStore(mOptions);
+    assertEquals(2, mPageStore.getNumUsedSlots());
+    byte[] buf = new byte[PAGE_SIZE];
+    assertThrows(PageCorruptedException.class,
+        () -> mPageStore.get(torn, 0, 16, new ByteArrayTargetBuffer(buf, 0)));
+    assertThrows(PageNotFoundException.class,
+        () -> mPageStore.getDataFileChannel(torn, 0, PAGE_SIZE, false));
+    assertEquals(1, mPageStore.getNumUsedSlots());
+    assertEquals(PAGE_SIZE,
+        mPageStore.get(intact, 0, PAGE_SIZE, new ByteArrayTargetBuffer(buf, 0)));
+    assertArrayEquals(BufferUtils.getIncreasingByteArray(1, PAGE_SIZE), buf);
+  }
+
+  @Test
+  public void restoreWithDifferentLayout() throws Exception {
+    mPageStore.put(new PageId("0", 0), new byte[PAGE_SIZE]);
+    mPageStore.close();
+
+    mOptions.setCacheSize(PAGE_SIZE * NUM_PAGES * 2);
+    mPageStore = new SlabPageStore(mOptions);
+    assertEquals(NUM_PAGES * 2, mPageStore.getNumSlots());
+    assertEquals(0, mPageStore.getNumUsedSlots());
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.Constants;
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.membership.WorkerClusterView;
+import alluxio.wire.WorkerIdentity;
+import alluxio.wire.WorkerIdentityTestUtils;
+import alluxio.wire.WorkerInfo;
+import alluxio.wire.WorkerNetAddress;
+import alluxio.wire.WorkerState;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class BoundedLoadHashPolicyTest {
+  private static final Logger LOG = LoggerFactory.getLogger(BoundedLoadHashPolicyTest.class);
+  private static final double LOAD_FACTOR = 1.25;
+  private static final int NUM_WORKERS = 20;
+  private static final int NUM_FILES = 20_000;
+  /** Number of files placed between two reports of the cache usage of the workers. */
+  private static final int FILES_PER_REPORT = 500;
+  private static final long CAPACITY = Constants.TB;
+
+  InstancedConfiguration mConf;
+
+  @Before
+  public void setup() {
+    mConf = new InstancedConfiguration(Configuration.copyProperties());
+    mConf.set(PropertyKey.USER_WORKER_SELECTION_POLICY, "BOUNDED_LOAD");
+    mConf.set(PropertyKey.USER_CONSISTENT_HASH_VIRTUAL_NODE_COUNT_PER_WORKER, 5);
+    mConf.set(PropertyKey.USER_BOUNDED_LOAD_HASH_LOAD_FACTOR, LOAD_FACTOR);
+  }
+
+  @Test
+  public void getMultipleWorkers() throws Exception {
+    WorkerLocationPolicy policy = WorkerLocationPolicy.Factory.create(mConf);
+    assertTrue(policy instanceof BoundedLoadHashPolicy);
+    WorkerClusterView workers = clusterView(ImmutableList.of(1L, 2L), new HashMap<>());
+
+    List<BlockWorkerInfo> assignedWorkers = policy.getPreferredWorkers(workers, "hdfs://a/b/c", 2);
+    assertEquals(2, assignedWorkers.size());
+    assertNotEquals(assignedWorkers.get(0).getIdentity(), assignedWorkers.get(1).getIdentity());
+    assertTrue(assignedWorkers.stream().allMatch(BlockWorkerInfo::isActive));
+
+    assertThrows(ResourceExhaustedException.class, () -> {
+      // Getting 3 out of 2 workers will result in an error
+      policy.getPreferredWorkers(workers, "hdfs://a/b/c", 3);
+    });
+  }
+
+  @Test
+  public void skipOverloadedWorker() throws Exception {
+    WorkerLocationPolicy policy = WorkerLocationPolicy.Factory.create(mConf);
+    Map<WorkerIdentity, Long> usedBytes = new HashMap<>();
+    usedBytes.put(WorkerIdentityTestUtils.ofLegacyId(1), 10L * Constants.GB);
+    usedBytes.put(WorkerIdentityTestUtils.ofLegacyId(2), (long) Constants.GB);
+    usedBytes.put(WorkerIdentityTestUtils.ofLegacyId(3), (long) Constants.GB);
+    WorkerClusterView workers = clusterView(ImmutableList.of(1L, 2L, 3L), usedBytes);
+    for (int i = 0; i < 100; i++) {
+      List<BlockWorkerInfo> assignedWorkers =
+          policy.getPreferredReadWorkers(workers, "hdfs://a/b/c" + i, 3);
+      // the worker loaded far above the bound is always the last choice
+      assertEquals(WorkerIdentityTestUtils.ofLegacyId(1), assignedWorkers.get(2).getIdentity());
+    }
+  }
+
+  @Test
+  public void writeToConsistentHashWorker() throws Exception {
+    WorkerLocationPolicy policy = WorkerLocationPolicy.Factory.create(mConf);
+    mConf.set(PropertyKey.USER_WORKER_SELECTION_POLICY, "CONSISTENT");
+    WorkerLocationPolicy consistentPolicy = WorkerLocationPolicy.Factory.create(mConf);
+    Map<WorkerIdentity, Long> usedBytes = new HashMap<>();
+    usedBytes.put(WorkerIdentityTestUtils.ofLegacyId(1), 10L * Constants.GB);
+    usedBytes.put(WorkerIdentityTestUtils.ofLegacyId(2), (long) Constants.GB);
+    usedBytes.put(WorkerIdentityTestUtils.ofLegacyId(3), (long) Constants.GB);
+    WorkerClusterView workers = clusterView(ImmutableList.of(1L, 2L, 3L), usedBytes);
+    for (int i = 0; i < 100; i++) {
+      String file = "hdfs://a/b/c" + i;
+      // the files are written to and their metadata served by the same worker whatever the
+      // loads of the workers seen by the clients
+      List<WorkerIdentity> expected =
+          identities(consistentPolicy.getPreferredWorkers(workers, file, 3));
+      assertEquals(expected, identities(policy.getPreferredWorkers(workers, file, 3)));
+      assertEquals(expected, identities(policy.getPreferredWorkers(
+          clusterView(ImmutableList.of(1L, 2L, 3L), new HashMap<>()), file, 3)));
+    }
+  }
+
+  /**
+   * Places files of skewed sizes on a simulated cluster, the workers reporting their cache usage
+   * periodically, then adds and removes a worker, and reports the max to average load ratio and
+   * the fraction of the files moved, against plain consistent hashing.
+   */
+  @Test
+  public void simulateSkewedFiles() throws Exception {
+    Random random = new Random(0);
+    long[] fileSizes = new long[NUM_FILES];
+    for (int i = 0; i < NUM_FILES; i++) {
+      // log-normal sizes, a few files being tens of times the median
+      fileSizes[i] = (long) (Math.exp(random.nextGaussian()) * 64 * Constants.MB);
+    }
+    List<Long> workerIds = new ArrayList<>();
+    for (long i = 0; i < NUM_WORKERS; i++) {
+      workerIds.add(i);
+    }
+    List<Long> addedWorkerIds = new ArrayList<>(workerIds);
+    addedWorkerIds.add((long) NUM_WORKERS);
+    List<Long> removedWorkerIds = workerIds.subList(1, NUM_WORKERS);
+
+    SimulationResult consistent = simulate("CONSISTENT", fileSizes, workerIds, addedWorkerIds,
+        removedWorkerIds);
+    SimulationResult boundedLoad = simulate("BOUNDED_LOAD", fileSizes, workerIds,
+        addedWorkerIds, removedWorkerIds);
+    LOG.info("CONSISTENT: {}, BOUNDED_LOAD: {}", consistent, boundedLoad);
+
+    assertTrue(boundedLoad.mMaxToAverageLoad <= LOAD_FACTOR);
+    assertTrue(boundedLoad.mMaxToAverageLoad < consistent.mMaxToAverageLoad);
+    // the files moved stay in the order of the files of one worker
+    assertTrue(boundedLoad.mMovedOnAdd <= 3.0 / NUM_WORKERS);
+    assertTrue(boundedLoad.mMovedOnRemove <= 3.0 / NUM_WORKERS);
+  }
+
+  private SimulationResult simulate(String policyName, long[] fileSizes, List<Long> workerIds,
+      List<Long> addedWorkerIds, List<Long> removedWorkerIds) throws Exception {
+    mConf.set(PropertyKey.USER_WORKER_SELECTION_POLICY, policyName);
+    WorkerLocationPolicy policy = WorkerLocationPolicy.Factory.create(mConf);
+    Map<WorkerIdentity, Long> usedBytes = new HashMap<>();
+    WorkerClusterView workers = null;
+    for (int i = 0; i < fileSizes.length; i++) {
+      if (i % FILES_PER_REPORT == 0) {
+        workers = clusterView(workerIds, usedBytes);
+      }
+      WorkerIdentity worker =
+          policy.getPreferredReadWorkers(workers, file(i), 1).get(0).getIdentity();
+      usedBytes.merge(worker, fileSizes[i], Long::sum);
+    }
+    SimulationResult result = new SimulationResult();
+    long maxUsedBytes = usedBytes.values().stream().max(Long::compare).orElse(0L);
+    long totalUsedBytes = usedBytes.values().stream().mapToLong(Long::longValue).sum();
+    result.mMaxToAverageLoad = (double) maxUsedBytes * workerIds.size() / totalUsedBytes;
+
+    List<WorkerIdentity> placement = place(policy, clusterView(workerIds, usedBytes),
+        fileSizes.length);
+    // new policies, as the hash ring is only refreshed periodically
+    List<WorkerIdentity> placementOnAdd = place(WorkerLocationPolicy.Factory.create(mConf),
+        clusterView(addedWorkerIds, usedBytes), fileSizes.length);
+    List<WorkerIdentity> placementOnRemove = place(WorkerLocationPolicy.Factory.create(mConf),
+        clusterView(removedWorkerIds, usedBytes), fileSizes.length);
+    result.mMovedOnAdd = movedFraction(placement, placementOnAdd);
+    result.mMovedOnRemove = movedFraction(placement, placementOnRemove);
+    return result;
+  }
+
+  private static List<WorkerIdentity> place(WorkerLocationPolicy policy,
+      WorkerClusterView workers, int numFiles) throws Exception {
+    List<WorkerIdentity> placement = new ArrayList<>(numFiles);
+    for (int i = 0; i < numFiles; i++) {
+      placement.add(policy.getPreferredReadWorkers(workers, file(i), 1).get(0).getIdentity());
+    }
+    return placement;
+  }
+
+  private static double movedFraction(List<WorkerIdentity> before, List<WorkerIdentity> after) {
+    int moved = 0;
+    for (int i = 0; i < before.size(); i++) {
+      if (!before.get(i).equals(after.get(i))) {
+        moved++;
+      }
+    }
+    return (double) moved / before.size();
+  }
+
+  private static List<WorkerIdentity> identities(List<BlockWorkerInfo> workers) {
+    return workers.stream().map(BlockWorkerInfo::getIdentity).collect(Collectors.toList());
+  }
+
+  private static String file(int index) {
+    return "s3://bucket/dataset/part-" + index;
+  }
+
+  private static WorkerClusterView clusterView(List<Long> workerIds,
+      Map<WorkerIdentity, Long> usedBytes) {
+    return new WorkerClusterView(workerIds.stream()
+        .map(id -> {
+          WorkerIdentity identity = WorkerIdentityTestUtils.ofLegacyId(id);
+          return new WorkerInfo()
+              .setIdentity(identity)
+              .setAddress(new WorkerNetAddress()
+                  .setHost("worker" + id).setRpcPort(29998).setDataPort(29999).setWebPort(30000))
+              .setCapacityBytes(CAPACITY)
+              .setUsedBytes(usedBytes.getOrDefault(identity, 0L))
+              .setState(WorkerState.LIVE);
+        })
+        .collect(Collectors.toList()));
+  }
+
+  private static final class SimulationResult {
+    private double mMaxToAverageLoad;
+    private double mMovedOnAdd;
+    private double mMovedOnRemove;
+
+    @Override
+    public String toString() {
+      return String.format("max/avg load %.3f, moved on worker add %.3f, moved on worker "
+          + "remove %.3f", mMaxToAverageLoad, mMovedOnAdd, mMovedOnRemove);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.wire.WorkerIdentityTestUtils;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class HotFileReadSpreaderTest {
+  private static final int HOT_THRESHOLD = 4;
+  private static final int MAX_REPLICAS = 3;
+
+  @Test
+  public void coldFileReadFromFirstWorker() {
+    HotFileReadSpreader spreader = new HotFileReadSpreader(HOT_THRESHOLD, MAX_REPLICAS);
+    for (int i = 0; i < HOT_THRESHOLD - 1; i++) {
+      assertEquals(1, spreader.recordRead("/cold"));
+    }
+  }
+
+  @Test
+  public void hotFileSpreadUpToMaxReplicas() {
+    HotFileReadSpreader spreader = new HotFileReadSpreader(HOT_THRESHOLD, MAX_REPLICAS);
+    for (int i = 1; i < HOT_THRESHOLD; i++) {
+      spreader.recordRead("/hot");
+    }
+    assertEquals(2, spreader.recordRead("/hot"));
+    for (int i = 1; i < HOT_THRESHOLD; i++) {
+      spreader.recordRead("/hot");
+    }
+    assertEquals(3, spreader.recordRead("/hot"));
+    for (int i = 0; i < 100 * HOT_THRESHOLD; i++) {
+      assertTrue(spreader.recordRead("/hot") <= MAX_REPLICAS);
+    }
+    // other files are not affected by the hot file
+    assertEquals(1, spreader.recordRead("/cold"));
+  }
+
+  @Test
+  public void hotFileCoolsDown() {
+    HotFileReadSpreader spreader = new HotFileReadSpreader(HOT_THRESHOLD, MAX_REPLICAS);
+    for (int i = 0; i < 10 * HOT_THRESHOLD; i++) {
+      spreader.recordRead("/hot");
+    }
+    // reads of many other files decay the counters of the file
+    for (int i = 0; i < 1_000_000; i++) {
+      spreader.recordRead("/other" + i);
+    }
+    assertEquals(1, spreader.recordRead("/hot"));
+  }
+
+  @Test
+  public void chooseAmongFirstWorkers() {
+    HotFileReadSpreader spreader = new HotFileReadSpreader(HOT_THRESHOLD, MAX_REPLICAS);
+    List<BlockWorkerInfo> workers = ImmutableList.of(
+        worker(1, true), worker(2, true), worker(3, true), worker(4, true));
+    Set<BlockWorkerInfo> chosen = new HashSet<>();
+    for (int i = 0; i < 1000; i++) {
+      chosen.add(spreader.chooseWorker(workers, 2));
+    }
+    assertEquals(2, chosen.size());
+    assertTrue(chosen.contains(workers.get(0)));
+    assertTrue(chosen.contains(workers.get(1)));
+    assertEquals(workers.get(0), spreader.chooseWorker(workers, 1));
+  }
+
+  @Test
+  public void skipInactiveWorkers() {
+    HotFileReadSpreader spreader = new HotFileReadSpreader(HOT_THRESHOLD, MAX_REPLICAS);
+    List<BlockWorkerInfo> workers = ImmutableList.of(
+        worker(1, true), worker(2, false), worker(3, true));
+    for (int i = 0; i < 1000; i++) {
+      assertNotEquals(workers.get(1), spreader.chooseWorker(workers, 3));
+    }
+  }
+
+  private static BlockWorkerInfo worker(long id, boolean active) {
+    return new BlockWorkerInfo(WorkerIdentityTestUtils.ofLegacyId(id),
+        new WorkerNetAddress().setHost("worker" + id).setRpcPort(29998).setDataPort(29999)
+            .setWebPort(30000), 1024, 0, active);
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.client.file.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import alluxio.Constants;
+import alluxio.client.file.URIStatus;
+import alluxio.grpc.FileSystemMasterCommonPOptions;
+import alluxio.grpc.GetRevokedMetadataLeasesResponse;
+import alluxio.grpc.RevokedMetadataLease;
+import alluxio.wire.FileInfo;
+import alluxio.wire.WorkerNetAddress;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class MetadataLeaseCacheTest {
+  private static final long EPOCH = 1;
+  private static final WorkerNetAddress WORKER = new WorkerNetAddress().setHost("worker1")
+      .setRpcPort(29998).setDataPort(29999).setWebPort(30000);
+  private static final WorkerNetAddress WORKER2 = new WorkerNetAddress().setHost("worker2")
+      .setRpcPort(29998).setDataPort(29999).setWebPort(30000);
+  private static final String DIR = "s3://bucket/dir";
+  private static final String FILE = "s3://bucket/dir/file";
+  private static final URIStatus FILE_STATUS =
+      new URIStatus(new FileInfo().setPath(FILE).setUfsPath(FILE).setCompleted(true));
+
+  private DoraCacheClient mClient;
+  private MetadataLeaseCache mCache;
+
+  @Before
+  public void before() {
+    mClient = mock(DoraCacheClient.class);
+    // the first poll of a worker revokes all the leases
+    when(mClient.getRevokedMetadataLeases(any(), eq(0L), anyLong())).thenReturn(
+        GetRevokedMetadataLeasesResponse.newBuilder()
+            .setEpoch(EPOCH).setSequence(0).setAllRevoked(true).build());
+    when(mClient.getRevokedMetadataLeases(any(), eq(EPOCH), eq(0L))).thenReturn(
+        GetRevokedMetadataLeasesResponse.newBuilder().setEpoch(EPOCH).setSequence(0).build());
+    mCache = new MetadataLeaseCache(mClient, Constants.MINUTE_MS, 100, 0);
+  }
+
+  @Test
+  public void cacheUnderLease() {
+    assertNull(mCache.getStatus(FILE));
+    long lease = mCache.acquireLease(WORKER);
+    mCache.putStatus(FILE, FILE_STATUS, WORKER, lease);
+    assertEquals(FILE_STATUS, mCache.getStatus(FILE));
+    assertEquals(1, mCache.getTrackedWorkerCount());
+
+    // incomplete files are not cached
+    String incomplete = "s3://bucket/dir/incomplete";
+    mCache.putStatus(incomplete, new URIStatus(new FileInfo().setPath(incomplete)), WORKER,
+        mCache.acquireLease(WORKER));
+    assertNull(mCache.getStatus(incomplete));
+  }
+
+  @Test
+  public void revokedByWorker() {
+    mCache.putStatus(FILE, FILE_STATUS, WORKER, mCache.acquireLease(WORKER));
+    List<URIStatus> listing = ImmutableList.of(FILE_STATUS);
+    mCache.putListing(DIR + "/", listing, WORKER, mCache.acquireLease(WORKER));
+    assertEquals(listing, mCache.listStatus(DIR));
+
+    when(mClient.getRevokedMetadataLeases(any(), eq(EPOCH), eq(0L))).thenReturn(
+        GetRevokedMetadataLeasesResponse.newBuilder().setEpoch(EPOCH).setSequence(1)
+            .addLeases(RevokedMetadataLease.newBuilder().setPath(FILE)).build());
+    mCache.pollRevocations();
+    assertNull(mCache.getStatus(FILE));
+    // the listing of the parent is revoked along
+    assertNull(mCache.listStatus(DIR));
+  }
+
+  @Test
+  public void revokedRecursively() {
+    mCache.putStatus(FILE, FILE_STATUS, WORKER, mCache.acquireLease(WORKER));
+    when(mClient.getRevokedMetadataLeases(eq(WORKER2), anyLong(), anyLong())).thenReturn(
+        GetRevokedMetadataLeasesResponse.newBuilder().setEpoch(EPOCH).setSequence(0)
+            .setAllRevoked(true).build());
+    mCache.acquireLease(WORKER2);
+    when(mClient.getRevokedMetadataLeases(eq(WORKER2), eq(EPOCH), eq(0L))).thenReturn(
+        GetRevokedMetadataLeasesResponse.newBuilder().setEpoch(EPOCH).setSequence(1)
+            .addLeases(RevokedMetadataLease.newBuilder().setPath(DIR).setRecursive(true))
+            .build());
+    // the revocation of a directory by any worker revokes the files under it
+    mCache.pollRevocations();
+    assertNull(mCache.getStatus(FILE));
+  }
+
+  @Test
+  public void allRevokedByWorker() {
+    mCache.putStatus(FILE, FILE_STATUS, WORKER, mCache.acquireLease(WORKER));
+    when(mClient.getRevokedMetadataLeases(any(), eq(EPOCH), eq(0L))).thenReturn(
+        GetRevokedMetadataLeasesResponse.newBuilder().setEpoch(EPOCH + 1).setSequence(0)
+            .setAllRevoked(true).build());
+    mCache.pollRevocations();
+    assertNull(mCache.getStatus(FILE));
+  }
+
+  @Test
+  public void notCachedWhenRevokedWhileFetched() {
+    long lease = mCache.acquireLease(WORKER);
+    // a change made by the client while the status is fetched
+    mCache.invalidate(FILE, false);
+    mCache.putStatus(FILE, FILE_STATUS, WORKER, lease);
+    assertNull(mCache.getStatus(FILE));
+
+    mCache.putStatus(FILE, FILE_STATUS, WORKER, mCache.acquireLease(WORKER));
+    assertNotNull(mCache.getStatus(FILE));
+  }
+
+  @Test
+  public void notCachedWhenWorkerUnreachable() {
+    when(mClient.getRevokedMetadataLeases(eq(WORKER2), anyLong(), anyLong()))
+        .thenThrow(new RuntimeException("unreachable"));
+    long lease = mCache.acquireLease(WORKER2);
+    assertEquals(MetadataLeaseCache.NO_LEASE, lease);
+    mCache.putStatus(FILE, FILE_STATUS, WORKER2, lease);
+    assertNull(mCache.getStatus(FILE));
+  }
+
+  @Test
+  public void leasableSyncInterval() {
+    assertTrue(mCache.isLeasable(FileSystemMasterCommonPOptions.getDefaultInstance()));
+    assertTrue(mCache.isLeasable(
+        FileSystemMasterCommonPOptions.newBuilder().setSyncIntervalMs(-1).build()));
+    assertFalse(mCache.isLeasable(
+        FileSystemMasterCommonPOptions.newBuilder().setSyncIntervalMs(0).build()));
+    assertTrue(mCache.isLeasable(FileSystemMasterCommonPOptions.newBuilder()
+        .setSyncIntervalMs(Constants.HOUR_MS).build()));
+  }
+}
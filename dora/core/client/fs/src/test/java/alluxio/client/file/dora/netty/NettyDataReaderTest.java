@@ -18,6 +18,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -60,6 +61,7 @@ public class NettyDataReaderTest {
   private FileSystemContext mFsContext;
 
   private NettyDataReader mReader;
+  private int mChannelReleases = 1;
 
   @Before
   public void setup() throws Exception {
@@ -75,7 +77,7 @@ public class NettyDataReaderTest {
 
   @After
   public void verifyChannelReleased() {
-    verify(mFsContext).releaseNettyChannel(mWorkerAddress, mChannel);
+    verify(mFsContext, times(mChannelReleases)).releaseNettyChannel(mWorkerAddress, mChannel);
   }
 
   @Test
@@ -221,6 +223,82 @@ public class NettyDataReaderTest {
     checkResult("helloworld".getBytes(), byteArray);
   }
 
+  @Test
+  public void streamSequentialReads() throws Exception {
+    byte[] byteArray = new byte[5];
+    InstancedConfiguration conf = Configuration.copyGlobal();
+    conf.set(PropertyKey.USER_NETWORK_NETTY_READER_STREAMING_RANGE_SIZE, 10);
+    conf.set(PropertyKey.USER_NETWORK_NETTY_READER_STREAMING_RANGES_AHEAD, 1);
+    when(mFsContext.getClusterConf())
+        .thenReturn(conf);
+    mReader = new NettyDataReader(mFsContext, mWorkerAddress, mRequestBuilder);
+    // the first read is sent as a single request, the second one continuing where the first
+    // one ended opens a session which streams the following reads in ranges of 10 bytes
+    ServerState start = new WaitForRequestState(
+        mRequestBuilder.clone().setLength(5).setOffset(0).build());
+    start.andThen(new SendDataState("hello".getBytes()))
+        .andThen(new EofState())
+        .andThen(new WaitForRequestState(
+            mRequestBuilder.clone().setLength(10).setOffset(5).build()))
+        .andThen(new SendDataState("world".getBytes()))
+        .andThen(new SendDataState("01234".getBytes()))
+        .andThen(new EofState())
+        .andThen(new WaitForRequestState(
+            mRequestBuilder.clone().setLength(10).setOffset(15).build()))
+        .andThen(new SendDataState("abc".getBytes()))
+        .andThen(new EofState());
+    Future<Throwable> serverFault = mStateDriver.run(start);
+
+    assertEquals(5, mReader.read(0, byteArray, 5));
+    checkResult("hello".getBytes(), byteArray);
+    assertEquals(5, mReader.read(5, byteArray, 5));
+    checkResult("world".getBytes(), byteArray);
+    // skips the data before the position
+    assertEquals(3, mReader.read(12, byteArray, 3));
+    checkResult("234".getBytes(), byteArray);
+    // the file ends within the second range
+    assertEquals(3, mReader.read(15, byteArray, 5));
+    checkResult("abc".getBytes(), byteArray);
+    assertEquals(-1, mReader.read(18, byteArray, 5));
+    mReader.close();
+    assertNull(serverFault.get());
+    mChannelReleases = 2;
+  }
+
+  @Test
+  public void cancelSessionOnRandomRead() throws Exception {
+    byte[] byteArray = new byte[5];
+    InstancedConfiguration conf = Configuration.copyGlobal();
+    conf.set(PropertyKey.USER_NETWORK_NETTY_READER_STREAMING_RANGE_SIZE, 10);
+    when(mFsContext.getClusterConf())
+        .thenReturn(conf);
+    mReader = new NettyDataReader(mFsContext, mWorkerAddress, mRequestBuilder);
+    Protocol.ReadRequest.Builder rangeRequest =
+        mRequestBuilder.clone().setLength(10).setOffset(5);
+    ServerState start = new WaitForRequestState(
+        mRequestBuilder.clone().setLength(5).setOffset(0).build());
+    start.andThen(new SendDataState("hello".getBytes()))
+        .andThen(new EofState())
+        .andThen(new WaitForRequestState(rangeRequest.clone().build()))
+        .andThen(new SendDataState("world".getBytes()))
+        // the range is cancelled by the read going backwards
+        .andThen(new WaitForRequestState(rangeRequest.clone().setCancel(true).build()))
+        .andThen(new CancelState())
+        .andThen(new WaitForRequestState(
+            mRequestBuilder.clone().setLength(5).setOffset(0).build()))
+        .andThen(new SendDataState("hello".getBytes()))
+        .andThen(new EofState());
+    Future<Throwable> serverFault = mStateDriver.run(start);
+
+    assertEquals(5, mReader.read(0, byteArray, 5));
+    assertEquals(5, mReader.read(5, byteArray, 5));
+    checkResult("world".getBytes(), byteArray);
+    assertEquals(5, mReader.read(0, byteArray, 5));
+    checkResult("hello".getBytes(), byteArray);
+    assertNull(serverFault.get());
+    mChannelReleases = 3;
+  }
+
   private void checkResult(byte[] expected, byte[] actual) {
     assertTrue(expected.length <= actual.length);
     for (int i = 0; i < expected.length; i++) {
@@ -22,7 +22,16 @@ public enum PageStoreType {
   /**
    * A simple store with pages on the memory (HeapByteBuffer).
    */
-  MEM(PageStoreType.MEMORY_OVERHEAD_RATIO);
+  MEM(PageStoreType.MEMORY_OVERHEAD_RATIO),
+  /**
+   * A store with pages in slabs of direct memory, outside of the Java heap.
+   */
+  OFF_HEAP_MEM(PageStoreType.OFF_HEAP_MEMORY_OVERHEAD_RATIO),
+  /**
+   * A store with pages in fixed-size slots of a few large preallocated files on the local
+   * filesystem.
+   */
+  SLAB(PageStoreType.SLAB_OVERHEAD_RATIO);
 
   // We assume there will be some overhead using ByteBuffer as a page store,
   // i.e., with 1GB space allocated, we
@@ -32,6 +41,11 @@ public enum PageStoreType {
   // i.e., with 1GB space allocated, we
   // expect no more than 1024MB / (1 + LOCAL_OVERHEAD_RATIO) logical data stored
   private static final double LOCAL_OVERHEAD_RATIO = 0.05;
+  // Pages are allocated in page-sized slots of direct memory slabs, there is no per-object
+  // overhead but a slot is not shared by small pages
+  private static final double OFF_HEAP_MEMORY_OVERHEAD_RATIO = 0.05;
+  // The slab files are preallocated, the only overhead is the slot index file
+  private static final double SLAB_OVERHEAD_RATIO = 0.01;
   private final double mOverheadRatio;
 
   /**
@@ -0,0 +1,403 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.ObjLongConsumer;
+import java.util.function.UnaryOperator;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A concurrent hash map from primitive longs to objects.
+ *
+ * Unlike a {@link java.util.concurrent.ConcurrentHashMap} keyed by {@link Long}, the map
+ * allocates no object per entry: the keys and values are kept in the arrays of open addressing
+ * tables, which the garbage collector does not need to trace beyond the values. The map is cut
+ * into segments, each guarded by a {@link StampedLock}. Reads are optimistic and only take the
+ * lock of their segment when they race with a write of the segment.
+ *
+ * Null values are not supported.
+ *
+ * @param <V> the type of the values
+ */
+@ThreadSafe
+public class ConcurrentLongObjectHashMap<V> {
+  private static final int DEFAULT_SEGMENTS = 64;
+  private static final int MIN_CAPACITY = 16;
+  /** The bytes of an object reference, assuming compressed references. */
+  private static final int REFERENCE_BYTES = 4;
+  /** The bytes of the header of an array. */
+  private static final int ARRAY_HEADER_BYTES = 16;
+
+  private final Segment<V>[] mSegments;
+  private final int mSegmentShift;
+
+  /**
+   * Creates a map with the default number of segments.
+   */
+  public ConcurrentLongObjectHashMap() {
+    this(DEFAULT_SEGMENTS);
+  }
+
+  /**
+   * @param segments the number of segments, rounded up to a power of 2
+   */
+  @SuppressWarnings("unchecked")
+  public ConcurrentLongObjectHashMap(int segments) {
+    Preconditions.checkArgument(segments > 0, "segments must be positive: %s", segments);
+    int count = segments == 1 ? 1 : Integer.highestOneBit(segments - 1) << 1;
+    mSegments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      mSegments[i] = new Segment<>();
+    }
+    mSegmentShift = Long.SIZE - Integer.numberOfTrailingZeros(count);
+  }
+
+  /**
+   * @param key the key
+   * @return the value of the key, or null if the key is absent
+   */
+  @Nullable
+  public V get(long key) {
+    long hash = hash(key);
+    return segment(hash).get(key, hash);
+  }
+
+  /**
+   * @param key the key
+   * @return whether the map contains the key
+   */
+  public boolean containsKey(long key) {
+    return get(key) != null;
+  }
+
+  /**
+   * @param key the key
+   * @param value the value
+   * @return the previous value of the key, or null if the key was absent
+   */
+  @Nullable
+  public V put(long key, V value) {
+    Preconditions.checkNotNull(value, "value");
+    long hash = hash(key);
+    return segment(hash).compute(key, hash, existing -> value);
+  }
+
+  /**
+   * @param key the key
+   * @param value the value, set if the key is absent
+   * @return the value of the key before the call, or null if the key was absent
+   */
+  @Nullable
+  public V putIfAbsent(long key, V value) {
+    Preconditions.checkNotNull(value, "value");
+    long hash = hash(key);
+    return segment(hash).compute(key, hash, existing -> existing == null ? value : existing);
+  }
+
+  /**
+   * @param key the key
+   * @return the previous value of the key, or null if the key was absent
+   */
+  @Nullable
+  public V remove(long key) {
+    long hash = hash(key);
+    return segment(hash).compute(key, hash, existing -> null);
+  }
+
+  /**
+   * Computes the new value of a key atomically. The function runs under the lock of the segment
+   * of the key, so it should be short and must not access the map.
+   *
+   * @param key the key
+   * @param remappingFunction the function computing the new value from the current value of the
+   *        key, or from null if the key is absent, a null result removing the key
+   * @return the new value of the key, or null if the key is absent after the call
+   */
+  @Nullable
+  public V compute(long key, UnaryOperator<V> remappingFunction) {
+    long hash = hash(key);
+    Segment<V> segment = segment(hash);
+    long stamp = segment.mLock.writeLock();
+    try {
+      V value = remappingFunction.apply(segment.getLocked(key, hash));
+      segment.setLocked(key, hash, value);
+      return value;
+    } finally {
+      segment.mLock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * @return the number of entries of the map
+   */
+  public long size() {
+    long size = 0;
+    for (Segment<V> segment : mSegments) {
+      long stamp = segment.mLock.readLock();
+      try {
+        size += segment.mSize;
+      } finally {
+        segment.mLock.unlockRead(stamp);
+      }
+    }
+    return size;
+  }
+
+  /**
+   * @return whether the map is empty
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Removes all the entries.
+   */
+  public void clear() {
+    for (Segment<V> segment : mSegments) {
+      long stamp = segment.mLock.writeLock();
+      try {
+        segment.reset();
+      } finally {
+        segment.mLock.unlockWrite(stamp);
+      }
+    }
+  }
+
+  /**
+   * Runs an action on the entries of the map. The entries of each segment are copied before the
+   * action runs on them, so the action may access the map, and sees the entries of a segment as
+   * they were at some point during the call.
+   *
+   * @param action the action run on each value and its key
+   */
+  public void forEach(ObjLongConsumer<? super V> action) {
+    for (Segment<V> segment : mSegments) {
+      long[] keys;
+      List<V> values;
+      long stamp = segment.mLock.readLock();
+      try {
+        keys = new long[segment.mSize];
+        values = new ArrayList<>(segment.mSize);
+        for (int i = 0; i < segment.mValues.length; i++) {
+          if (segment.mValues[i] != null) {
+            keys[values.size()] = segment.mKeys[i];
+            values.add(segment.value(i));
+          }
+        }
+      } finally {
+        segment.mLock.unlockRead(stamp);
+      }
+      for (int i = 0; i < keys.length; i++) {
+        action.accept(values.get(i), keys[i]);
+      }
+    }
+  }
+
+  /**
+   * @return the values of the map
+   */
+  public List<V> values() {
+    List<V> values = new ArrayList<>();
+    forEach((value, key) -> values.add(value));
+    return values;
+  }
+
+  /**
+   * @return an estimate of the bytes of the tables of the map, excluding the values
+   */
+  public long getTableBytes() {
+    long bytes = 0;
+    for (Segment<V> segment : mSegments) {
+      long stamp = segment.mLock.readLock();
+      try {
+        bytes += 2 * ARRAY_HEADER_BYTES
+            + (long) segment.mKeys.length * (Long.BYTES + REFERENCE_BYTES);
+      } finally {
+        segment.mLock.unlockRead(stamp);
+      }
+    }
+    return bytes;
+  }
+
+  private Segment<V> segment(long hash) {
+    return mSegments.length == 1 ? mSegments[0] : mSegments[(int) (hash >>> mSegmentShift)];
+  }
+
+  /**
+   * Spreads the bits of the key, the high bits choosing the segment and the low bits the slot.
+   */
+  private static long hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return h ^ (h >>> 32);
+  }
+
+  /**
+   * A segment of the map, an open addressing table with linear probing, an absent entry being
+   * marked by a null value.
+   */
+  private static final class Segment<V> {
+    private final StampedLock mLock = new StampedLock();
+    private long[] mKeys = new long[MIN_CAPACITY];
+    private Object[] mValues = new Object[MIN_CAPACITY];
+    private int mSize;
+
+    @Nullable
+    V get(long key, long hash) {
+      long stamp = mLock.tryOptimisticRead();
+      if (stamp != 0) {
+        // the arrays may be replaced or modified concurrently, in which case the validation fails
+        long[] keys = mKeys;
+        Object[] values = mValues;
+        if (keys.length == values.length) {
+          Object value = find(keys, values, key, hash);
+          if (mLock.validate(stamp)) {
+            return cast(value);
+          }
+        }
+      }
+      stamp = mLock.readLock();
+      try {
+        return getLocked(key, hash);
+      } finally {
+        mLock.unlockRead(stamp);
+      }
+    }
+
+    @Nullable
+    V compute(long key, long hash, UnaryOperator<V> remappingFunction) {
+      long stamp = mLock.writeLock();
+      try {
+        V previous = getLocked(key, hash);
+        setLocked(key, hash, remappingFunction.apply(previous));
+        return previous;
+      } finally {
+        mLock.unlockWrite(stamp);
+      }
+    }
+
+    @Nullable
+    V getLocked(long key, long hash) {
+      return cast(find(mKeys, mValues, key, hash));
+    }
+
+    /**
+     * Sets the value of a key, removing the key if the value is null.
+     */
+    void setLocked(long key, long hash, @Nullable V value) {
+      int mask = mKeys.length - 1;
+      int slot = (int) hash & mask;
+      while (mValues[slot] != null && mKeys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      if (mValues[slot] != null) {
+        if (value != null) {
+          mValues[slot] = value;
+        } else {
+          delete(slot);
+          mSize--;
+          if (mKeys.length > MIN_CAPACITY && mSize < mKeys.length / 8) {
+            resize(mKeys.length / 2);
+          }
+        }
+      } else if (value != null) {
+        mKeys[slot] = key;
+        mValues[slot] = value;
+        mSize++;
+        if (mSize > mKeys.length / 4 * 3) {
+          resize(mKeys.length * 2);
+        }
+      }
+    }
+
+    void reset() {
+      mKeys = new long[MIN_CAPACITY];
+      mValues = new Object[MIN_CAPACITY];
+      mSize = 0;
+    }
+
+    V value(int slot) {
+      return cast(mValues[slot]);
+    }
+
+    /**
+     * Empties a slot, shifting back the entries following it which would not be found anymore.
+     */
+    private void delete(int slot) {
+      int mask = mKeys.length - 1;
+      int next = slot;
+      while (true) {
+        next = (next + 1) & mask;
+        if (mValues[next] == null) {
+          break;
+        }
+        int ideal = (int) hash(mKeys[next]) & mask;
+        // the entry can be moved if its ideal slot is not cyclically in (slot, next]
+        if (((next - ideal) & mask) >= ((next - slot) & mask)) {
+          mKeys[slot] = mKeys[next];
+          mValues[slot] = mValues[next];
+          slot = next;
+        }
+      }
+      mValues[slot] = null;
+    }
+
+    private void resize(int capacity) {
+      long[] keys = mKeys;
+      Object[] values = mValues;
+      long[] newKeys = new long[capacity];
+      Object[] newValues = new Object[capacity];
+      int mask = capacity - 1;
+      for (int i = 0; i < keys.length; i++) {
+        if (values[i] != null) {
+          int slot = (int) hash(keys[i]) & mask;
+          while (newValues[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          newKeys[slot] = keys[i];
+          newValues[slot] = values[i];
+        }
+      }
+      mKeys = newKeys;
+      mValues = newValues;
+    }
+
+    @Nullable
+    private static Object find(long[] keys, Object[] values, long key, long hash) {
+      int mask = keys.length - 1;
+      int slot = (int) hash & mask;
+      // bounds the probes of an optimistic read racing with a write
+      for (int probes = 0; probes < keys.length; probes++) {
+        Object value = values[slot];
+        if (value == null) {
+          return null;
+        }
+        if (keys[slot] == key) {
+          return value;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V cast(Object value) {
+      return (V) value;
+    }
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A count-min sketch estimating how often items were seen recently. Each item increments one
+ * saturating counter in each row of the sketch, and its frequency is estimated by the smallest
+ * of its counters. All counters are halved once the number of increments reaches a multiple of
+ * the width of the sketch, so that the estimates age out items which used to be frequent.
+ *
+ * @param <T> the type of the items
+ */
+@NotThreadSafe
+public final class FrequencySketch<T> {
+  private static final int DEPTH = 4;
+  private static final int[] SEEDS = {0x97cb3127, 0xc2b2ae35, 0x85ebca6b, 0x27d4eb2f};
+
+  private final int mMaxCount;
+  private final int mSampleFactor;
+  private short[][] mCounters;
+  private int mMask;
+  private int mAdditions;
+
+  /**
+   * @param width the initial number of counters of each row, a power of two
+   * @param maxCount the max value of the counters, at most {@link Short#MAX_VALUE}
+   * @param sampleFactor the number of increments before the counters are halved, as a multiple
+   *        of the width
+   */
+  public FrequencySketch(int width, int maxCount, int sampleFactor) {
+    Preconditions.checkArgument(width > 0 && Integer.bitCount(width) == 1,
+        "width must be a positive power of two: %s", width);
+    Preconditions.checkArgument(maxCount > 0 && maxCount <= Short.MAX_VALUE,
+        "max count must be between 1 and %s: %s", Short.MAX_VALUE, maxCount);
+    Preconditions.checkArgument(sampleFactor > 0, "sample factor must be positive: %s",
+        sampleFactor);
+    mMaxCount = maxCount;
+    mSampleFactor = sampleFactor;
+    resize(width);
+  }
+
+  /**
+   * Grows the sketch so that it can tell apart the given number of items. Only the estimates of
+   * the given items are carried over.
+   *
+   * @param items the items tracked
+   * @param numItems the number of items tracked
+   */
+  public void ensureCapacity(Iterable<? extends T> items, int numItems) {
+    if (numItems <= mMask + 1) {
+      return;
+    }
+    short[][] counters = mCounters;
+    int mask = mMask;
+    resize(Integer.highestOneBit(numItems - 1) << 1);
+    for (T item : items) {
+      int hash = item.hashCode();
+      short frequency = (short) mMaxCount;
+      for (int i = 0; i < DEPTH; i++) {
+        frequency = (short) Math.min(frequency, counters[i][index(hash, i, mask)]);
+      }
+      for (int i = 0; i < DEPTH; i++) {
+        int index = index(hash, i, mMask);
+        mCounters[i][index] = (short) Math.max(mCounters[i][index], frequency);
+      }
+    }
+  }
+
+  /**
+   * Records an occurrence of an item.
+   *
+   * @param item the item
+   * @return the estimated frequency of the item, including this occurrence
+   */
+  public int increment(T item) {
+    int hash = item.hashCode();
+    boolean added = false;
+    int frequency = mMaxCount;
+    for (int i = 0; i < DEPTH; i++) {
+      int index = index(hash, i, mMask);
+      if (mCounters[i][index] < mMaxCount) {
+        mCounters[i][index]++;
+        added = true;
+      }
+      frequency = Math.min(frequency, mCounters[i][index]);
+    }
+    if (added && ++mAdditions >= (long) mSampleFactor * (mMask + 1)) {
+      halve();
+    }
+    return frequency;
+  }
+
+  /**
+   * @param item the item
+   * @return the estimated frequency of the item
+   */
+  public int frequency(T item) {
+    int hash = item.hashCode();
+    int frequency = mMaxCount;
+    for (int i = 0; i < DEPTH; i++) {
+      frequency = Math.min(frequency, mCounters[i][index(hash, i, mMask)]);
+    }
+    return frequency;
+  }
+
+  /**
+   * Resets the estimates of all the items.
+   */
+  public void clear() {
+    for (short[] row : mCounters) {
+      Arrays.fill(row, (short) 0);
+    }
+    mAdditions = 0;
+  }
+
+  private void resize(int width) {
+    mCounters = new short[DEPTH][width];
+    mMask = width - 1;
+    mAdditions = 0;
+  }
+
+  private void halve() {
+    for (short[] row : mCounters) {
+      for (int i = 0; i < row.length; i++) {
+        row[i] >>= 1;
+      }
+    }
+    mAdditions /= 2;
+  }
+
+  private static int index(int hash, int row, int mask) {
+    int h = hash * SEEDS[row];
+    h ^= h >>> 16;
+    return h & mask;
+  }
+}
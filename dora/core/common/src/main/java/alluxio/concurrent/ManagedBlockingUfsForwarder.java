@@ -36,12 +36,15 @@ import alluxio.underfs.options.ListOptions;
 import alluxio.underfs.options.MkdirsOptions;
 import alluxio.underfs.options.OpenOptions;
 
+import io.netty.buffer.ByteBuf;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
 
@@ -609,6 +612,13 @@ public class ManagedBlockingUfsForwarder implements UnderFileSystem {
         checkStatus, onComplete, onError);
   }
 
+  @Override
+  public CompletableFuture<ByteBuf> readAsync(String path, long fileLength, long position,
+      int length) {
+    // given this is an async function, we do not execute it in the thread pool
+    return mUfs.readAsync(path, fileLength, position, length);
+  }
+
   /**
    * Utility class used to isolate calls into underlying UFS from concurrency compensation logic.
    * Note: This class used to make calls with a return value.
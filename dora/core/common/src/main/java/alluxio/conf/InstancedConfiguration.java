@@ -393,6 +393,7 @@ public class InstancedConfiguration implements AlluxioConfiguration {
     checkUserFileBufferBytes();
     checkZkConfiguration();
     checkCheckpointZipConfig();
+    checkJournalFlushMaxInFlight();
   }
 
   @Override
@@ -541,6 +542,22 @@ public class InstancedConfiguration implements AlluxioConfiguration {
     }
   }
 
+  /**
+   * Validates the number of journal flushes in flight. When a flush fails while a later flush
+   * is committed by the embedded journal, the entries of the later flush are applied after a gap
+   * in the sequence numbers, which fails the master. The later flushes are not held back until
+   * the earlier ones are committed, so only one flush is allowed in flight.
+   *
+   * @throws IllegalStateException if an invalid number of flushes in flight is configured
+   */
+  private void checkJournalFlushMaxInFlight() {
+    int maxInFlight = getInt(PropertyKey.MASTER_JOURNAL_FLUSH_MAX_IN_FLIGHT);
+    checkState(maxInFlight == 1,
+        "%s must be 1, but is %s: the journal entries of a flush committed after an earlier "
+            + "flush failed would be applied out of order",
+        PropertyKey.Name.MASTER_JOURNAL_FLUSH_MAX_IN_FLIGHT, maxInFlight);
+  }
+
   /**
    * @return the last update time
    */
@@ -1255,6 +1255,26 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
           .setScope(Scope.SERVER)
           .build();
+  public static final PropertyKey UNDERFS_ASYNC_READ_THREADS =
+      intBuilder(Name.UNDERFS_ASYNC_READ_THREADS)
+          .setDefaultValue(32)
+          .setDescription("Number of threads of each under storage without a native "
+              + "asynchronous client to perform asynchronous reads with. Reads beyond this "
+              + "number are queued.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.SERVER)
+          .build();
+  public static final PropertyKey UNDERFS_CONCURRENT_CALLS_MAX =
+      intBuilder(Name.UNDERFS_CONCURRENT_CALLS_MAX)
+          .setDefaultValue(0)
+          .setDescription("The maximum number of calls in progress to each under storage, "
+              + "including the positional reads of the files opened from it. Calls beyond this "
+              + "number wait for a call to finish. 0 means unlimited. Set this when the callers "
+              + "are not bounded by thread pools, e.g. with "
+              + Name.WORKER_NETWORK_VIRTUAL_THREADS_ENABLED + ".")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.SERVER)
+          .build();
   public static final PropertyKey UNDERFS_IO_THREADS =
       intBuilder(Name.UNDERFS_IO_THREADS)
           .setDefaultSupplier(() -> Math.max(4, 3 * Runtime.getRuntime().availableProcessors()),
@@ -2780,6 +2800,19 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_METASTORE_INODE_CACHE_SEGMENTS =
+      intBuilder(Name.MASTER_METASTORE_INODE_CACHE_SEGMENTS)
+          .setDefaultSupplier(() -> Math.min(16,
+              Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+              "Use {CPU core count} / 2 segments, up to 16.")
+          .setDescription("The number of segments the inode and edge caches are partitioned "
+              + "into. Each segment holds its share of the cache size and evicts its entries to "
+              + "the backing store with its own thread, so that eviction keeps up with bursts of "
+              + "writes from many threads. The number of segments is lowered for small caches, "
+              + "so that each segment holds at least a few eviction batches.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_METASTORE_INODE_CACHE_HIGH_WATER_MARK_RATIO =
       doubleBuilder(Name.MASTER_METASTORE_INODE_CACHE_HIGH_WATER_MARK_RATIO)
           .setDefaultValue(0.85)
@@ -2815,6 +2848,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_METASTORE_INODE_HEAP_COMPACT_ENABLED =
+      booleanBuilder(Name.MASTER_METASTORE_INODE_HEAP_COMPACT_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether the heap inode metastore indexes the inodes and the children "
+              + "of the directories by their primitive ids, which uses less memory and causes "
+              + "less garbage collection than the default index. The checkpoints of the two "
+              + "indexes are compatible.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   // In Java8 in container environment Runtime.availableProcessors() always returns 1,
   // which is not the actual number of cpus, so we set a safe default value 4.
   public static final PropertyKey MASTER_METASTORE_INODE_ITERATION_CRAWLER_COUNT =
@@ -3170,6 +3213,20 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_JOURNAL_FLUSH_MAX_IN_FLIGHT =
+      intBuilder(Name.MASTER_JOURNAL_FLUSH_MAX_IN_FLIGHT)
+          .setDefaultValue(1)
+          .setDescription("The max number of journal flushes waiting for the entries to be "
+              + "committed by the embedded journal. The entries appended while the flushes are "
+              + "in flight are written into the next batch, which is flushed once a flush "
+              + "completes. The batches are sized from the rate the entries are appended at "
+              + "and the latency of the flushes, so that the flushes in flight together "
+              + "commit about the entries appended during a flush. Only 1 is accepted for "
+              + "now, as the entries of a flush committed after an earlier flush failed would "
+              + "be applied out of order.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_JOURNAL_FLUSH_TIMEOUT_MS =
       durationBuilder(Name.MASTER_JOURNAL_FLUSH_TIMEOUT_MS)
           .setAlias("alluxio.master.journal.flush.timeout.ms")
@@ -3302,6 +3359,27 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_JOURNAL_CHECKPOINT_CHUNK_SIZE =
+      dataSizeBuilder(Name.MASTER_JOURNAL_CHECKPOINT_CHUNK_SIZE)
+          .setDefaultValue("0")
+          .setDescription("The size of the chunks the checkpoint files of the embedded journal "
+              + "are cut into, which are compressed, checksummed and restored concurrently. "
+              + "0 writes each checkpoint file as a single stream. Masters of earlier versions "
+              + "cannot restore chunked checkpoints, so only set it (e.g. to 8MB) once every "
+              + "master of the cluster has been upgraded to a version that reads them.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
+  public static final PropertyKey MASTER_JOURNAL_CHECKPOINT_PARALLELISM =
+      intBuilder(Name.MASTER_JOURNAL_CHECKPOINT_PARALLELISM)
+          .setDefaultSupplier(() -> Math.max(2, Runtime.getRuntime().availableProcessors()),
+              "The number of cpu cores, at least 2")
+          .setDescription("The number of threads compressing and restoring the chunks of the "
+              + "checkpoint files of the embedded journal, which is also the max number of "
+              + "chunks of a file compressed or restored ahead of the one written or read.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_JOURNAL_LOCAL_LOG_COMPACTION =
       booleanBuilder(Name.MASTER_JOURNAL_LOCAL_LOG_COMPACTION)
           .setDefaultValue(true)
@@ -3483,6 +3561,14 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_TTL_CHECKER_BATCH_SIZE =
+      intBuilder(Name.MASTER_TTL_CHECKER_BATCH_SIZE)
+          .setDefaultValue(1000)
+          .setDescription("The number of expired inodes the ttl checker resolves or expires "
+              + "in a single task of its pipeline.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
   public static final PropertyKey MASTER_TTL_CHECKER_INTERVAL_MS =
       durationBuilder(Name.MASTER_TTL_CHECKER_INTERVAL_MS)
           .setAlias("alluxio.master.ttl.checker.interval.ms")
@@ -3492,6 +3578,14 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.MASTER)
           .build();
+  public static final PropertyKey MASTER_TTL_CHECKER_PARALLELISM =
+      intBuilder(Name.MASTER_TTL_CHECKER_PARALLELISM)
+          .setDefaultValue(8)
+          .setDescription("The number of threads the ttl checker uses to resolve and "
+              + "delete or free the files with expired ttl value.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.MASTER)
+          .build();
 
   public static final PropertyKey MASTER_UFS_BLOCK_LOCATION_CACHE_CAPACITY =
       intBuilder(Name.MASTER_UFS_BLOCK_LOCATION_CACHE_CAPACITY)
@@ -3788,7 +3882,9 @@ public final class PropertyKey implements Comparable<PropertyKey> {
       enumBuilder(Name.MASTER_RPC_EXECUTOR_TYPE, RpcExecutorType.class)
           .setDefaultValue(RpcExecutorType.TPE)
           .setDescription("Type of ExecutorService for Alluxio master gRPC server. "
-              + "Supported values are TPE (for ThreadPoolExecutor) and FJP (for ForkJoinPool).")
+              + "Supported values are TPE (for ThreadPoolExecutor), FJP (for ForkJoinPool) and "
+              + "VIRTUAL (for a virtual thread per call, which requires Java 21 and falls back to "
+              + "TPE on older runtimes).")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.MASTER)
           .build();
@@ -4139,6 +4235,17 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_NETWORK_VIRTUAL_THREADS_ENABLED =
+      booleanBuilder(Name.WORKER_NETWORK_VIRTUAL_THREADS_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether the blocking read and write handlers of the gRPC and netty "
+              + "data servers run each request on a new virtual thread instead of the thread "
+              + "pools bounded by the *.threads.max properties. The concurrency of the calls to "
+              + "each under storage is then bounded by " + Name.UNDERFS_CONCURRENT_CALLS_MAX
+              + " instead. Requires Java 21, the thread pools are used on older runtimes.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_NETWORK_GRPC_READER_THREADS_MAX =
       intBuilder(Name.WORKER_NETWORK_GRPC_READER_THREADS_MAX)
           .setDefaultValue(2048)
@@ -4437,6 +4544,37 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_ADMISSION_FILTER_CLASS =
+      classBuilder(Name.WORKER_PAGE_STORE_ADMISSION_FILTER_CLASS)
+          .setDefaultValue("alluxio.client.file.cache.filter.DefaultCacheFilter")
+          .setDescription("The cache filter deciding whether a page read from the under storage "
+              + "on a cache miss is written into the worker page store. The default cache filter "
+              + "caches every page. Set it to "
+              + "alluxio.client.file.cache.filter.ShadowCacheAdmissionFilter to only cache pages "
+              + "which were already read recently, so that pages read only once do not wear the "
+              + "cache storage. The pages read are tracked by a shadow cache configured with the "
+              + "alluxio.user.client.cache.shadow.* properties.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_ASYNC_LOAD_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_ASYNC_LOAD_ENABLED)
+          .setDefaultValue(true)
+          .setDescription("If this is enabled, the pages missing from the cache for the gRPC "
+              + "readers are read from the under storage asynchronously, so that the readers "
+              + "waiting for them do not hold a thread.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_ASYNC_LOAD_THREADS =
+      intBuilder(Name.WORKER_PAGE_STORE_ASYNC_LOAD_THREADS)
+          .setDefaultValue(8)
+          .setDescription("Number of threads caching the pages read asynchronously from the "
+              + "under storage when " + Name.WORKER_PAGE_STORE_ASYNC_LOAD_ENABLED
+              + " is enabled.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_ASYNC_RESTORE_ENABLED =
       booleanBuilder(Name.WORKER_PAGE_STORE_ASYNC_RESTORE_ENABLED)
           .setDefaultValue(true)
@@ -4458,6 +4596,25 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_BATCH_READ_THREADS =
+      intBuilder(Name.WORKER_PAGE_STORE_BATCH_READ_THREADS)
+          .setDefaultValue(8)
+          .setDescription("Number of threads to concurrently read the cached pages of a read "
+              + "spanning multiple pages. If this is 0, the pages are read one after another "
+              + "in the thread serving the read.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_CONCURRENT_METASTORE_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_CONCURRENT_METASTORE_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If this is enabled, the worker page store tracks page metadata in a "
+              + "concurrent index which does not take a global lock on lookups, and "
+              + "coordinates eviction per cache directory. Ignored when "
+              + Name.WORKER_PAGE_STORE_QUOTA_ENABLED + " is enabled.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_DIRS =
       listBuilder(Name.WORKER_PAGE_STORE_DIRS)
           .setDefaultValue("/tmp/alluxio_cache")
@@ -4478,7 +4635,9 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setDescription("The strategy that worker uses to evict local cached pages when running "
               + "out of space. Currently valid options include "
               + "`alluxio.client.file.cache.evictor.LRUCacheEvictor`,"
-              + "`alluxio.client.file.cache.evictor.LFUCacheEvictor`.")
+              + "`alluxio.client.file.cache.evictor.LFUCacheEvictor`,"
+              + "`alluxio.client.file.cache.evictor.TinyLFUCacheEvictor`. The TinyLFU evictor "
+              + "keeps frequently used pages cached during large scans.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
@@ -4498,6 +4657,32 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_EVICTOR_TINYLFU_WINDOW_RATIO =
+      doubleBuilder(Name.WORKER_PAGE_STORE_EVICTOR_TINYLFU_WINDOW_RATIO)
+          .setDefaultValue(0.01)
+          .setDescription("The share of the cache used as the admission window of the TinyLFU "
+              + "evictor. Pages in the window are evicted in LRU order, other pages are only "
+              + "replaced by pages accessed more often.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_LOAD_COALESCING_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_LOAD_COALESCING_ENABLED)
+          .setDefaultValue(true)
+          .setDescription("If true, concurrent reads missing the same page in the worker page "
+              + "store share a single read of the page from the under storage, instead of each "
+              + "reading it on its own.")
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_LOAD_COALESCING_TIMEOUT =
+      durationBuilder(Name.WORKER_PAGE_STORE_LOAD_COALESCING_TIMEOUT)
+          .setDefaultValue("30s")
+          .setDescription("The max time a read missing a page in the worker page store waits for "
+              + "another read of the page from the under storage when "
+              + Name.WORKER_PAGE_STORE_LOAD_COALESCING_ENABLED + " is true. Once it is exceeded, "
+              + "the read reads the page on its own.")
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_LOCAL_STORE_FILE_BUCKETS =
       intBuilder(Name.WORKER_PAGE_STORE_LOCAL_STORE_FILE_BUCKETS)
           .setDefaultValue(1000)
@@ -4507,6 +4692,17 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_LOCAL_STORE_INDEX_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_LOCAL_STORE_INDEX_ENABLED)
+          .setDefaultValue(true)
+          .setDescription("If this is enabled, the page store on local file system keeps an "
+              + "index of its pages on disk, made of a snapshot and a log of the pages added "
+              + "and deleted since, so that the worker restores the cache on startup from the "
+              + "index instead of walking through all the page files. The page files are only "
+              + "walked through when the index is missing or cannot be read.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_OVERHEAD =
       doubleBuilder(Name.WORKER_PAGE_STORE_OVERHEAD)
           .setDefaultValue(0.1)
@@ -4530,6 +4726,36 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
+  public static final PropertyKey WORKER_PAGE_STORE_RANGE_READ_ENABLED =
+      booleanBuilder(Name.WORKER_PAGE_STORE_RANGE_READ_ENABLED)
+          .setDefaultValue(true)
+          .setDescription("Whether a read spanning several pages missing from the page store "
+              + "reads the missing pages from the under storage with as few ranged reads as "
+              + "possible, instead of one read per page. Missing pages separated by at most "
+              + Name.WORKER_PAGE_STORE_RANGE_READ_MAX_GAP + " of cached pages are read together.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_RANGE_READ_MAX_GAP =
+      dataSizeBuilder(Name.WORKER_PAGE_STORE_RANGE_READ_MAX_GAP)
+          .setDefaultValue("0")
+          .setDescription("The max size of the pages between two pages missing from the "
+              + "page store for them to be read from the under storage with one ranged read. "
+              + "The pages in between, cached or being loaded by another read, are read again "
+              + "and discarded, trading bandwidth for fewer requests. By default, only "
+              + "consecutive missing pages are read together.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_PAGE_STORE_SLAB_FILE_SIZE =
+      dataSizeBuilder(Name.WORKER_PAGE_STORE_SLAB_FILE_SIZE)
+          .setDefaultValue("64GB")
+          .setDescription("The maximum size of a single slab file when "
+              + Name.WORKER_PAGE_STORE_TYPE + " is `SLAB`. The cache space of each directory "
+              + "is preallocated as one or more slab files of at most this size.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_PAGE_STORE_SIZES =
       listBuilder(Name.WORKER_PAGE_STORE_SIZES)
           .setDefaultValue("512MB")
@@ -4560,8 +4786,11 @@ public final class PropertyKey implements Comparable<PropertyKey> {
       enumBuilder(Name.WORKER_PAGE_STORE_TYPE, PageStoreType.class)
           .setDefaultValue(PageStoreType.LOCAL)
           .setDescription("The type of page store to use for worker page store. Can be either "
-              + "`LOCAL` or `MEM`. The `LOCAL` page store stores all pages in a directory, "
-              + "the `MEM` page store stores all pages in memory.")
+              + "`LOCAL`, `MEM`, `OFF_HEAP_MEM` or `SLAB`. The `LOCAL` page store stores all "
+              + "pages in a directory, the `MEM` page store stores all pages in heap memory, "
+              + "the `OFF_HEAP_MEM` page store stores all pages in direct memory outside of "
+              + "the heap and serves reads without copying, the `SLAB` page store stores all "
+              + "pages in fixed-size slots of a few preallocated files.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
@@ -4577,6 +4806,37 @@ public final class PropertyKey implements Comparable<PropertyKey> {
       .setConsistencyCheckLevel(ConsistencyCheckLevel.ENFORCE)
       .setScope(Scope.WORKER)
       .build();
+  public static final PropertyKey WORKER_READ_AHEAD_ENABLED =
+      booleanBuilder(Name.WORKER_READ_AHEAD_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If true, the worker detects files read sequentially and reads the "
+              + "pages ahead of the readers from the under storage into the page store "
+              + "asynchronously. Files read at random are not read ahead.")
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_READ_AHEAD_WINDOW_INITIAL =
+      dataSizeBuilder(Name.WORKER_READ_AHEAD_WINDOW_INITIAL)
+          .setDefaultValue("4MB")
+          .setDescription("The size of data read ahead of a reader once its file is detected to "
+              + "be read sequentially. The window doubles each time the reader catches up with "
+              + "half of it, up to alluxio.worker.read.ahead.window.max.")
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_READ_AHEAD_WINDOW_MAX =
+      dataSizeBuilder(Name.WORKER_READ_AHEAD_WINDOW_MAX)
+          .setDefaultValue("64MB")
+          .setDescription("The max size of data read ahead of a sequential reader.")
+          .setScope(Scope.WORKER)
+          .build();
+  public static final PropertyKey WORKER_READ_AHEAD_THREADS =
+      intBuilder(Name.WORKER_READ_AHEAD_THREADS)
+          .setDefaultValue(8)
+          .setDescription("The number of threads caching the pages read ahead of sequential "
+              + "readers. The pages are read from the under storage asynchronously. The pages "
+              + "pending read-ahead are bounded to the max window of each thread, read-ahead "
+              + "beyond that is skipped.")
+          .setScope(Scope.WORKER)
+          .build();
   public static final PropertyKey WORKER_REGISTER_LEASE_ENABLED =
       booleanBuilder(Name.WORKER_REGISTER_LEASE_ENABLED)
           .setDefaultValue(format("${%s}", Name.MASTER_WORKER_REGISTER_LEASE_ENABLED))
@@ -4742,7 +5002,9 @@ public final class PropertyKey implements Comparable<PropertyKey> {
       enumBuilder(Name.WORKER_RPC_EXECUTOR_TYPE, RpcExecutorType.class)
           .setDefaultValue(RpcExecutorType.TPE)
           .setDescription("Type of ExecutorService for Alluxio worker gRPC server. "
-              + "Supported values are TPE (for ThreadPoolExecutor) and FJP (for ForkJoinPool).")
+              + "Supported values are TPE (for ThreadPoolExecutor), FJP (for ForkJoinPool) and "
+              + "VIRTUAL (for a virtual thread per call, which requires Java 21 and falls back to "
+              + "TPE on older runtimes).")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.WORKER)
           .build();
@@ -5199,6 +5461,35 @@ public final class PropertyKey implements Comparable<PropertyKey> {
               + "this property to a negative value means no upper limit.")
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_FILE_READ_SPREAD_ENABLED =
+      booleanBuilder(Name.USER_FILE_READ_SPREAD_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If true, the client spreads the reads of the files it reads often "
+              + "across several of the workers the files hash to, each caching a replica of the "
+              + "file, instead of reading them all from the first worker. The files are detected "
+              + "by the accesses of the client, see "
+              + Name.USER_FILE_READ_SPREAD_HOT_THRESHOLD + ".")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_FILE_READ_SPREAD_HOT_THRESHOLD =
+      intBuilder(Name.USER_FILE_READ_SPREAD_HOT_THRESHOLD)
+          .setDefaultValue(16)
+          .setDescription("The number of recent reads of a file by the client for the reads of "
+              + "the file to be spread across another worker. The reads are spread across one "
+              + "more worker for each multiple of the threshold, up to "
+              + Name.USER_FILE_READ_SPREAD_REPLICAS_MAX + " workers. Only effective when "
+              + Name.USER_FILE_READ_SPREAD_ENABLED + " is true.")
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_FILE_READ_SPREAD_REPLICAS_MAX =
+      intBuilder(Name.USER_FILE_READ_SPREAD_REPLICAS_MAX)
+          .setDefaultValue(3)
+          .setDescription("The max number of workers the reads of a file are spread across, "
+              + "which bounds the number of replicas of the file cached by the workers. Only "
+              + "effective when " + Name.USER_FILE_READ_SPREAD_ENABLED + " is true.")
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_FILE_REPLICATION_MIN =
       intBuilder(Name.USER_FILE_REPLICATION_MIN)
           .setDefaultValue(0)
@@ -5404,6 +5695,18 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_CLIENT_CACHE_ADMISSION_FILTER_CLASS =
+      classBuilder(Name.USER_CLIENT_CACHE_ADMISSION_FILTER_CLASS)
+          .setDefaultValue("alluxio.client.file.cache.filter.DefaultCacheFilter")
+          .setDescription("The cache filter deciding whether a page read from the under storage "
+              + "on a cache miss is written into the client cache. The default cache filter "
+              + "caches every page. Set it to "
+              + "alluxio.client.file.cache.filter.ShadowCacheAdmissionFilter to only cache pages "
+              + "which were already read recently, as tracked by a shadow cache configured "
+              + "with the alluxio.user.client.cache.shadow.* properties.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED =
       booleanBuilder(Name.USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED)
           .setDefaultValue(true)
@@ -5425,6 +5728,25 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_CLIENT_CACHE_BATCH_READ_THREADS =
+      intBuilder(Name.USER_CLIENT_CACHE_BATCH_READ_THREADS)
+          .setDefaultValue(0)
+          .setDescription("Number of threads to concurrently read the cached pages of a read "
+              + "spanning multiple pages. If this is 0, the pages are read one after another "
+              + "in the thread serving the read.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_CONCURRENT_METASTORE_ENABLED =
+      booleanBuilder(Name.USER_CLIENT_CACHE_CONCURRENT_METASTORE_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If this is enabled, the client cache tracks page metadata in a "
+              + "concurrent index which does not take a global lock on lookups, and "
+              + "coordinates eviction per cache directory. Ignored when "
+              + Name.USER_CLIENT_CACHE_QUOTA_ENABLED + " is enabled.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CLIENT_CACHE_ENABLED =
       booleanBuilder(Name.USER_CLIENT_CACHE_ENABLED)
           .setDefaultValue(false)
@@ -5459,7 +5781,9 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setDescription("The strategy that client uses to evict local cached pages when running "
               + "out of space. Currently valid options include "
               + "`alluxio.client.file.cache.evictor.LRUCacheEvictor`,"
-              + "`alluxio.client.file.cache.evictor.LFUCacheEvictor`.")
+              + "`alluxio.client.file.cache.evictor.LFUCacheEvictor`,"
+              + "`alluxio.client.file.cache.evictor.TinyLFUCacheEvictor`. The TinyLFU evictor "
+              + "keeps frequently used pages cached during large scans.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
@@ -5479,6 +5803,15 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_CLIENT_CACHE_EVICTOR_TINYLFU_WINDOW_RATIO =
+      doubleBuilder(Name.USER_CLIENT_CACHE_EVICTOR_TINYLFU_WINDOW_RATIO)
+          .setDefaultValue(0.01)
+          .setDescription("The share of the cache used as the admission window of the TinyLFU "
+              + "evictor. Pages in the window are evicted in LRU order, other pages are only "
+              + "replaced by pages accessed more often.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CLIENT_CACHE_SHADOW_ENABLED =
       booleanBuilder(Name.USER_CLIENT_CACHE_SHADOW_ENABLED)
           .setDefaultValue(false)
@@ -5608,11 +5941,30 @@ public final class PropertyKey implements Comparable<PropertyKey> {
       enumBuilder(Name.USER_CLIENT_CACHE_STORE_TYPE, PageStoreType.class)
           .setDefaultValue(PageStoreType.LOCAL)
           .setDescription("The type of page store to use for client-side cache. Can be either "
-              + "`LOCAL` or `ROCKS`. The `LOCAL` page store stores all pages in a directory, "
-              + "the `ROCKS` page store utilizes rocksDB to persist the data.")
+              + "`LOCAL`, `ROCKS` or `SLAB`. The `LOCAL` page store stores all pages in a "
+              + "directory, the `ROCKS` page store utilizes rocksDB to persist the data, the "
+              + "`SLAB` page store stores all pages in fixed-size slots of a few preallocated "
+              + "files.")
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_CLIENT_CACHE_LOAD_COALESCING_ENABLED =
+      booleanBuilder(Name.USER_CLIENT_CACHE_LOAD_COALESCING_ENABLED)
+          .setDefaultValue(true)
+          .setDescription("If true, concurrent reads missing the same page in the client cache "
+              + "share a single read of the page from the external storage, instead of each "
+              + "reading it on its own.")
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_LOAD_COALESCING_TIMEOUT =
+      durationBuilder(Name.USER_CLIENT_CACHE_LOAD_COALESCING_TIMEOUT)
+          .setDefaultValue("30s")
+          .setDescription("The max time a read missing a page in the client cache waits for "
+              + "another read of the page from the external storage when "
+              + Name.USER_CLIENT_CACHE_LOAD_COALESCING_ENABLED + " is true. Once it is exceeded, "
+              + "the read reads the page on its own.")
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CLIENT_CACHE_LOCAL_STORE_FILE_BUCKETS =
       intBuilder(Name.USER_CLIENT_CACHE_LOCAL_STORE_FILE_BUCKETS)
           .setDefaultValue(1000)
@@ -5622,6 +5974,17 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_CLIENT_CACHE_LOCAL_STORE_INDEX_ENABLED =
+      booleanBuilder(Name.USER_CLIENT_CACHE_LOCAL_STORE_INDEX_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("If this is enabled, the local page store of the client-side cache "
+              + "keeps an index of its pages on disk, made of a snapshot and a log of the pages "
+              + "added and deleted since, so that the cache is restored on startup from the "
+              + "index instead of walking through all the page files. The page files are only "
+              + "walked through when the index is missing or cannot be read.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CLIENT_CACHE_QUOTA_ENABLED =
       booleanBuilder(Name.USER_CLIENT_CACHE_QUOTA_ENABLED)
           .setDefaultValue(false)
@@ -5650,6 +6013,37 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_CLIENT_CACHE_RANGE_READ_ENABLED =
+      booleanBuilder(Name.USER_CLIENT_CACHE_RANGE_READ_ENABLED)
+          .setDefaultValue(true)
+          .setDescription("Whether a read spanning several pages missing from the local cache "
+              + "reads the missing pages from external storage with as few ranged reads as "
+              + "possible, instead of one read per page. Missing pages separated by at most "
+              + Name.USER_CLIENT_CACHE_RANGE_READ_MAX_GAP + " of cached pages are read "
+              + "together.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_RANGE_READ_MAX_GAP =
+      dataSizeBuilder(Name.USER_CLIENT_CACHE_RANGE_READ_MAX_GAP)
+          .setDefaultValue("0")
+          .setDescription("The max size of the pages between two pages missing from the "
+              + "local cache for them to be read from external storage with one ranged read. "
+              + "The pages in between, cached or being loaded by another read, are read again "
+              + "and discarded, trading bandwidth for fewer requests. By default, only "
+              + "consecutive missing pages are read together.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.IGNORE)
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_CLIENT_CACHE_SLAB_FILE_SIZE =
+      dataSizeBuilder(Name.USER_CLIENT_CACHE_SLAB_FILE_SIZE)
+          .setDefaultValue("64GB")
+          .setDescription("The maximum size of a single slab file when "
+              + Name.USER_CLIENT_CACHE_STORE_TYPE + " is `SLAB`. The cache space of each "
+              + "directory is preallocated as one or more slab files of at most this size.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CLIENT_CACHE_SIZE =
       listBuilder(Name.USER_CLIENT_CACHE_SIZE)
           .setDefaultValue("512MB")
@@ -5687,6 +6081,20 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
           .setScope(Scope.CLIENT)
           .build();
+  public static final PropertyKey USER_BOUNDED_LOAD_HASH_LOAD_FACTOR =
+      doubleBuilder(Name.USER_BOUNDED_LOAD_HASH_LOAD_FACTOR)
+          .setDefaultValue(1.25)
+          .setDescription("The max load of a worker relative to the average load of the cluster "
+              + "in the bounded-load consistent hashing algorithm, where the load of a worker is "
+              + "the ratio of its used cache to its cache capacity, as reported by the worker. "
+              + "Files hashed to a worker loaded above the bound go to the next worker on the "
+              + "hash ring instead. The smaller the factor, the more even the cache usage, but "
+              + "the more files move as the usage of the workers changes. As the worker of a "
+              + "file depends on the usage of the workers, clients may pick different workers "
+              + "for the same file over time. Must be greater than 1.")
+          .setConsistencyCheckLevel(ConsistencyCheckLevel.WARN)
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_CONSISTENT_HASH_VIRTUAL_NODE_COUNT_PER_WORKER =
       intBuilder(Name.USER_CONSISTENT_HASH_VIRTUAL_NODE_COUNT_PER_WORKER)
           .setDefaultValue(5)
@@ -7061,6 +7469,14 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setScope(Scope.WORKER)
           .build();
 
+  public static final PropertyKey USER_FILE_BATCH_GET_STATUS_SIZE =
+      intBuilder(Name.USER_FILE_BATCH_GET_STATUS_SIZE)
+          .setDefaultValue(1000)
+          .setDescription("The max number of paths sent to a worker in a single batched "
+              + "get status request. Status of multiple paths is requested from the workers "
+              + "holding them in batches of this size.")
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_DYNAMIC_CONSISTENT_HASH_RING_ENABLED =
       booleanBuilder(Name.USER_DYNAMIC_CONSISTENT_HASH_RING_ENABLED)
           .setDefaultValue(true)
@@ -7118,6 +7534,30 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setDescription("When a client reads from a remote worker, the maximum number of packets "
               + "to buffer by the client.")
           .build();
+  public static final PropertyKey USER_NETWORK_NETTY_READER_STREAMING_ENABLED =
+      booleanBuilder(Name.USER_NETWORK_NETTY_READER_STREAMING_ENABLED)
+          .setDefaultValue(true)
+          .setDescription("Whether a client streams sequential reads of a file from a worker "
+              + "over a read session which keeps its channel across reads, instead of sending "
+              + "one request per read. A session is opened once a small read continues "
+              + "where the previous read of the file ended.")
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_NETWORK_NETTY_READER_STREAMING_RANGE_SIZE =
+      dataSizeBuilder(Name.USER_NETWORK_NETTY_READER_STREAMING_RANGE_SIZE)
+          .setDefaultValue("1MB")
+          .setDescription("The size of each range a read session requests from a worker. "
+              + "Reads no smaller than this are sent as individual requests.")
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey USER_NETWORK_NETTY_READER_STREAMING_RANGES_AHEAD =
+      intBuilder(Name.USER_NETWORK_NETTY_READER_STREAMING_RANGES_AHEAD)
+          .setDefaultValue(4)
+          .setDescription("The maximum number of ranges a read session requests from a worker "
+              + "ahead of the data consumed by the client. The next range is requested as soon "
+              + "as the worker finishes the previous one, while this many are not consumed yet.")
+          .setScope(Scope.CLIENT)
+          .build();
   public static final PropertyKey USER_NETWORK_NETTY_CHANNEL_POOL_DISABLED =
       booleanBuilder(Name.USER_NETWORK_NETTY_CHANNEL_POOL_DISABLED)
           .setDefaultValue(false)
@@ -7180,6 +7620,49 @@ public final class PropertyKey implements Comparable<PropertyKey> {
           .setScope(Scope.ALL)
           .build();
 
+  public static final PropertyKey DORA_CLIENT_METADATA_LEASE_ENABLED =
+      booleanBuilder(Name.DORA_CLIENT_METADATA_LEASE_ENABLED)
+          .setDefaultValue(false)
+          .setDescription("Whether the dora client caches the metadata it gets from the "
+              + "workers under short leases. A lease is revoked when the worker serving the "
+              + "metadata sees it change, so repeated get status and list status calls are "
+              + "served by the client with bounded staleness. Changes not seen by the worker "
+              + "serving the metadata, such as changes made directly in the UFS, are visible "
+              + "once the lease expires.")
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey DORA_CLIENT_METADATA_LEASE_DURATION =
+      durationBuilder(Name.DORA_CLIENT_METADATA_LEASE_DURATION)
+          .setDefaultValue("10s")
+          .setDescription("The duration of a metadata lease of the dora client, which bounds "
+              + "the staleness of the metadata cached by the client when the lease is not "
+              + "revoked, e.g. when the worker is unreachable.")
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey DORA_CLIENT_METADATA_LEASE_REVOCATION_POLL_INTERVAL =
+      durationBuilder(Name.DORA_CLIENT_METADATA_LEASE_REVOCATION_POLL_INTERVAL)
+          .setDefaultValue("1s")
+          .setDescription("The interval at which the dora client polls the workers holding its "
+              + "metadata leases for the leases revoked, which bounds the staleness of the "
+              + "metadata cached by the client after a change seen by the workers.")
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey DORA_CLIENT_METADATA_LEASE_CACHE_SIZE =
+      intBuilder(Name.DORA_CLIENT_METADATA_LEASE_CACHE_SIZE)
+          .setDefaultValue(100000)
+          .setDescription("The max number of file statuses and directory listings cached by "
+              + "the dora client under metadata leases.")
+          .setScope(Scope.CLIENT)
+          .build();
+  public static final PropertyKey DORA_WORKER_METADATA_REVOCATION_LOG_SIZE =
+      intBuilder(Name.DORA_WORKER_METADATA_REVOCATION_LOG_SIZE)
+          .setDefaultValue(10000)
+          .setDescription("The number of recent metadata changes a dora worker keeps to revoke "
+              + "the metadata leases of the clients. A client missing more changes than this "
+              + "between two polls has all its leases from the worker revoked.")
+          .setScope(Scope.WORKER)
+          .build();
+
   public static final PropertyKey DORA_WORKER_METASTORE_ROCKSDB_DIR =
       stringBuilder(Name.DORA_WORKER_METASTORE_ROCKSDB_DIR)
           .setDefaultValue(format("${%s}/metastore", Name.WORK_DIR))
@@ -7421,6 +7904,10 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String UNDERFS_OZONE_PREFIXES = "alluxio.underfs.ozone.prefixes";
     public static final String UNDERFS_HDFS_REMOTE = "alluxio.underfs.hdfs.remote";
     public static final String UNDERFS_HDFS_TRASH_ENABLED = "alluxio.underfs.hdfs.trash.enabled";
+    public static final String UNDERFS_ASYNC_READ_THREADS =
+        "alluxio.underfs.async.read.threads";
+    public static final String UNDERFS_CONCURRENT_CALLS_MAX =
+        "alluxio.underfs.concurrent.calls.max";
     public static final String UNDERFS_IO_THREADS = "alluxio.underfs.io.threads";
     public static final String UNDERFS_LOCAL_SKIP_BROKEN_SYMLINKS =
         "alluxio.underfs.local.skip.broken.symlinks";
@@ -7705,6 +8192,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.journal.exit.on.demotion";
     public static final String MASTER_JOURNAL_FLUSH_BATCH_TIME_MS =
         "alluxio.master.journal.flush.batch.time";
+    public static final String MASTER_JOURNAL_FLUSH_MAX_IN_FLIGHT =
+        "alluxio.master.journal.flush.max.in.flight";
     public static final String MASTER_JOURNAL_FLUSH_TIMEOUT_MS =
         "alluxio.master.journal.flush.timeout";
     public static final String MASTER_JOURNAL_FLUSH_RETRY_INTERVAL =
@@ -7822,12 +8311,16 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.metastore.rocks.parallel.backup.threads";
     public static final String MASTER_METASTORE_INODE_CACHE_EVICT_BATCH_SIZE =
         "alluxio.master.metastore.inode.cache.evict.batch.size";
+    public static final String MASTER_METASTORE_INODE_CACHE_SEGMENTS =
+        "alluxio.master.metastore.inode.cache.segments";
     public static final String MASTER_METASTORE_INODE_CACHE_HIGH_WATER_MARK_RATIO =
         "alluxio.master.metastore.inode.cache.high.water.mark.ratio";
     public static final String MASTER_METASTORE_INODE_CACHE_LOW_WATER_MARK_RATIO =
         "alluxio.master.metastore.inode.cache.low.water.mark.ratio";
     public static final String MASTER_METASTORE_INODE_CACHE_MAX_SIZE =
         "alluxio.master.metastore.inode.cache.max.size";
+    public static final String MASTER_METASTORE_INODE_HEAP_COMPACT_ENABLED =
+        "alluxio.master.metastore.inode.heap.compact.enabled";
     public static final String MASTER_METASTORE_INODE_ITERATION_CRAWLER_COUNT =
         "alluxio.master.metastore.inode.iteration.crawler.count";
     public static final String MASTER_METASTORE_INODE_ENUMERATOR_BUFFER_COUNT =
@@ -7936,8 +8429,12 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.tieredstore.global.levels";
     public static final String MASTER_TIERED_STORE_GLOBAL_MEDIUMTYPE =
         "alluxio.master.tieredstore.global.mediumtype";
+    public static final String MASTER_TTL_CHECKER_BATCH_SIZE =
+        "alluxio.master.ttl.checker.batch.size";
     public static final String MASTER_TTL_CHECKER_INTERVAL_MS =
         "alluxio.master.ttl.checker.interval";
+    public static final String MASTER_TTL_CHECKER_PARALLELISM =
+        "alluxio.master.ttl.checker.parallelism";
     public static final String MASTER_UFS_BLOCK_LOCATION_CACHE_CAPACITY =
         "alluxio.master.ufs.block.location.cache.capacity";
     public static final String MASTER_UFS_JOURNAL_MAX_CATCHUP_TIME =
@@ -7973,6 +8470,10 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.master.lost.worker.deletion.timeout";
     public static final String MASTER_JOURNAL_CHECKPOINT_PERIOD_ENTRIES =
         "alluxio.master.journal.checkpoint.period.entries";
+    public static final String MASTER_JOURNAL_CHECKPOINT_CHUNK_SIZE =
+        "alluxio.master.journal.checkpoint.chunk.size";
+    public static final String MASTER_JOURNAL_CHECKPOINT_PARALLELISM =
+        "alluxio.master.journal.checkpoint.parallelism";
     public static final String MASTER_JOURNAL_LOCAL_LOG_COMPACTION =
         "alluxio.master.journal.local.log.compaction";
     public static final String MASTER_JOURNAL_GC_PERIOD_MS = "alluxio.master.journal.gc.period";
@@ -8047,6 +8548,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String WORKER_MASTER_PERIODICAL_RPC_TIMEOUT =
         "alluxio.worker.master.periodical.rpc.timeout";
     public static final String WORKER_MEMORY_SIZE = "alluxio.worker.memory.size";
+    public static final String WORKER_NETWORK_VIRTUAL_THREADS_ENABLED =
+        "alluxio.worker.network.virtual.threads.enabled";
     public static final String WORKER_NETWORK_GRPC_READER_THREADS_MAX =
         "alluxio.worker.network.grpc.reader.threads.max";
     public static final String WORKER_NETWORK_GRPC_WRITER_THREADS_MAX =
@@ -8128,12 +8631,22 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String WORKER_BLOCK_MASTER_CLIENT_POOL_SIZE =
         "alluxio.worker.block.master.client.pool.size";
     public static final String WORKER_PRINCIPAL = "alluxio.worker.principal";
+    public static final String WORKER_PAGE_STORE_ADMISSION_FILTER_CLASS =
+        "alluxio.worker.page.store.admission.filter.class";
+    public static final String WORKER_PAGE_STORE_ASYNC_LOAD_ENABLED =
+        "alluxio.worker.page.store.async.load.enabled";
+    public static final String WORKER_PAGE_STORE_ASYNC_LOAD_THREADS =
+        "alluxio.worker.page.store.async.load.threads";
     public static final String WORKER_PAGE_STORE_ASYNC_RESTORE_ENABLED =
         "alluxio.worker.page.store.async.restore.enabled";
     public static final String WORKER_PAGE_STORE_ASYNC_WRITE_ENABLED =
         "alluxio.worker.page.store.async.write.enabled";
     public static final String WORKER_PAGE_STORE_ASYNC_WRITE_THREADS =
         "alluxio.worker.page.store.async.write.threads";
+    public static final String WORKER_PAGE_STORE_BATCH_READ_THREADS =
+        "alluxio.worker.page.store.batch.read.threads";
+    public static final String WORKER_PAGE_STORE_CONCURRENT_METASTORE_ENABLED =
+        "alluxio.worker.page.store.concurrent.metastore.enabled";
     public static final String WORKER_PAGE_STORE_DIRS =
         "alluxio.worker.page.store.dirs";
     public static final String WORKER_PAGE_STORE_EVICTION_RETRIES =
@@ -8144,14 +8657,28 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.worker.page.store.evictor.lfu.logbase";
     public static final String WORKER_PAGE_STORE_EVICTOR_NONDETERMINISTIC_ENABLED =
         "alluxio.worker.page.store.evictor.nondeterministic.enabled";
+    public static final String WORKER_PAGE_STORE_EVICTOR_TINYLFU_WINDOW_RATIO =
+        "alluxio.worker.page.store.evictor.tinylfu.window.ratio";
+    public static final String WORKER_PAGE_STORE_LOAD_COALESCING_ENABLED =
+        "alluxio.worker.page.store.load.coalescing.enabled";
+    public static final String WORKER_PAGE_STORE_LOAD_COALESCING_TIMEOUT =
+        "alluxio.worker.page.store.load.coalescing.timeout";
     public static final String WORKER_PAGE_STORE_LOCAL_STORE_FILE_BUCKETS =
         "alluxio.worker.page.store.local.store.file.buckets";
+    public static final String WORKER_PAGE_STORE_LOCAL_STORE_INDEX_ENABLED =
+        "alluxio.worker.page.store.local.store.index.enabled";
     public static final String WORKER_PAGE_STORE_OVERHEAD =
         "alluxio.worker.page.store.overhead";
     public static final String WORKER_PAGE_STORE_PAGE_SIZE =
         "alluxio.worker.page.store.page.size";
     public static final String WORKER_PAGE_STORE_QUOTA_ENABLED =
         "alluxio.worker.page.store.quota.enabled";
+    public static final String WORKER_PAGE_STORE_RANGE_READ_ENABLED =
+        "alluxio.worker.page.store.range.read.enabled";
+    public static final String WORKER_PAGE_STORE_RANGE_READ_MAX_GAP =
+        "alluxio.worker.page.store.range.read.max.gap";
+    public static final String WORKER_PAGE_STORE_SLAB_FILE_SIZE =
+        "alluxio.worker.page.store.slab.file.size";
     public static final String WORKER_PAGE_STORE_SIZES =
         "alluxio.worker.page.store.sizes";
     public static final String WORKER_PAGE_STORE_TIMEOUT_DURATION =
@@ -8163,6 +8690,14 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String WORKER_PRELOAD_DATA_THREAD_POOL_SIZE =
         "alluxio.worker.preload.data.thread.pool.size";
     public static final String WORKER_RAMDISK_SIZE = "alluxio.worker.ramdisk.size";
+    public static final String WORKER_READ_AHEAD_ENABLED =
+        "alluxio.worker.read.ahead.enabled";
+    public static final String WORKER_READ_AHEAD_WINDOW_INITIAL =
+        "alluxio.worker.read.ahead.window.initial";
+    public static final String WORKER_READ_AHEAD_WINDOW_MAX =
+        "alluxio.worker.read.ahead.window.max";
+    public static final String WORKER_READ_AHEAD_THREADS =
+        "alluxio.worker.read.ahead.threads";
     public static final String WORKER_REGISTER_LEASE_ENABLED =
         "alluxio.worker.register.lease.enabled";
     public static final String WORKER_RPC_PORT = "alluxio.worker.rpc.port";
@@ -8311,12 +8846,18 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.user.block.worker.client.pool.min";
     public static final String USER_BLOCK_WORKER_CLIENT_POOL_MAX =
         "alluxio.user.block.worker.client.pool.max";
+    public static final String USER_CLIENT_CACHE_ADMISSION_FILTER_CLASS =
+        "alluxio.user.client.cache.admission.filter.class";
     public static final String USER_CLIENT_CACHE_ASYNC_RESTORE_ENABLED =
         "alluxio.user.client.cache.async.restore.enabled";
     public static final String USER_CLIENT_CACHE_ASYNC_WRITE_ENABLED =
         "alluxio.user.client.cache.async.write.enabled";
     public static final String USER_CLIENT_CACHE_ASYNC_WRITE_THREADS =
         "alluxio.user.client.cache.async.write.threads";
+    public static final String USER_CLIENT_CACHE_BATCH_READ_THREADS =
+        "alluxio.user.client.cache.batch.read.threads";
+    public static final String USER_CLIENT_CACHE_CONCURRENT_METASTORE_ENABLED =
+        "alluxio.user.client.cache.concurrent.metastore.enabled";
     public static final String USER_CLIENT_CACHE_ENABLED =
         "alluxio.user.client.cache.enabled";
     public static final String USER_CLIENT_CACHE_FALLBACK_ENABLED =
@@ -8333,6 +8874,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.user.client.cache.evictor.lfu.logbase";
     public static final String USER_CLIENT_CACHE_EVICTOR_NONDETERMINISTIC_ENABLED =
         "alluxio.user.client.cache.evictor.nondeterministic.enabled";
+    public static final String USER_CLIENT_CACHE_EVICTOR_TINYLFU_WINDOW_RATIO =
+        "alluxio.user.client.cache.evictor.tinylfu.window.ratio";
     public static final String USER_CLIENT_CACHE_SHADOW_ENABLED =
         "alluxio.user.client.cache.shadow.enabled";
     public static final String USER_CLIENT_CACHE_SHADOW_TYPE =
@@ -8357,12 +8900,18 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.user.client.cache.shadow.cuckoo.size.suffix.bits";
     public static final String USER_CLIENT_CACHE_DIRS =
         "alluxio.user.client.cache.dirs";
+    public static final String USER_CLIENT_CACHE_LOAD_COALESCING_ENABLED =
+        "alluxio.user.client.cache.load.coalescing.enabled";
+    public static final String USER_CLIENT_CACHE_LOAD_COALESCING_TIMEOUT =
+        "alluxio.user.client.cache.load.coalescing.timeout";
     public static final String USER_CLIENT_CACHE_LOCAL_STORE_FILE_BUCKETS =
         "alluxio.user.client.cache.local.store.file.buckets";
     public static final String USER_CLIENT_CACHE_IN_STREAM_BUFFER_SIZE =
         "alluxio.user.client.cache.instream_buffer_size";
     public static final String USER_CLIENT_CACHE_PAGE_SIZE =
         "alluxio.user.client.cache.page.size";
+    public static final String USER_CLIENT_CACHE_LOCAL_STORE_INDEX_ENABLED =
+        "alluxio.user.client.cache.local.store.index.enabled";
     public static final String USER_CLIENT_CACHE_QUOTA_ENABLED =
         "alluxio.user.client.cache.quota.enabled";
     public static final String USER_CLIENT_CACHE_TTL_ENABLED =
@@ -8371,6 +8920,12 @@ public final class PropertyKey implements Comparable<PropertyKey> {
             "alluxio.user.client.cache.ttl.check.interval.seconds";
     public static final String USER_CLIENT_CACHE_TTL_THRESHOLD_SECONDS =
             "alluxio.user.client.cache.ttl.threshold.seconds";
+    public static final String USER_CLIENT_CACHE_RANGE_READ_ENABLED =
+        "alluxio.user.client.cache.range.read.enabled";
+    public static final String USER_CLIENT_CACHE_RANGE_READ_MAX_GAP =
+        "alluxio.user.client.cache.range.read.max.gap";
+    public static final String USER_CLIENT_CACHE_SLAB_FILE_SIZE =
+        "alluxio.user.client.cache.slab.file.size";
     public static final String USER_CLIENT_CACHE_SIZE =
         "alluxio.user.client.cache.size";
     public static final String USER_CLIENT_CACHE_STORE_OVERHEAD =
@@ -8391,6 +8946,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
         "alluxio.user.maglev.hash.lookup.size";
     public static final String USER_MULTI_PROBE_HASH_PROBE_NUM =
         "alluxio.user.multi.probe.hash.probe.num";
+    public static final String USER_BOUNDED_LOAD_HASH_LOAD_FACTOR =
+        "alluxio.user.bounded.load.hash.load.factor";
     public static final String USER_CONSISTENT_HASH_VIRTUAL_NODE_COUNT_PER_WORKER =
         "alluxio.user.consistent.hash.virtual.node.count.per.worker";
     public static final String USER_CONF_CLUSTER_DEFAULT_ENABLED =
@@ -8422,6 +8979,12 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String USER_FILE_PERSISTENCE_INITIAL_WAIT_TIME =
         "alluxio.user.file.persistence.initial.wait.time";
     public static final String USER_FILE_REPLICATION_MAX = "alluxio.user.file.replication.max";
+    public static final String USER_FILE_READ_SPREAD_ENABLED =
+        "alluxio.user.file.read.spread.enabled";
+    public static final String USER_FILE_READ_SPREAD_HOT_THRESHOLD =
+        "alluxio.user.file.read.spread.hot.threshold";
+    public static final String USER_FILE_READ_SPREAD_REPLICAS_MAX =
+        "alluxio.user.file.read.spread.replicas.max";
     public static final String USER_FILE_REPLICATION_MIN = "alluxio.user.file.replication.min";
     public static final String USER_FILE_TARGET_MEDIA = "alluxio.user.file.target.media";
     public static final String USER_FILE_REPLICATION_DURABLE =
@@ -8739,6 +9302,8 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String USER_NETTY_DATA_TRANSMISSION_ENABLED =
         "alluxio.user.netty.data.transmission.enabled";
 
+    public static final String USER_FILE_BATCH_GET_STATUS_SIZE =
+        "alluxio.user.file.batch.get.status.size";
     public static final String USER_DYNAMIC_CONSISTENT_HASH_RING_ENABLED =
         "alluxio.user.dynamic.consistent.hash.ring.enabled";
     public static final String WORKER_HTTP_SERVER_ENABLED =
@@ -8747,6 +9312,12 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String WORKER_HTTP_SERVER_PORT =
         "alluxio.worker.http.server.port";
 
+    public static final String USER_NETWORK_NETTY_READER_STREAMING_ENABLED =
+        "alluxio.user.network.netty.reader.streaming.enabled";
+    public static final String USER_NETWORK_NETTY_READER_STREAMING_RANGE_SIZE =
+        "alluxio.user.network.netty.reader.streaming.range.size";
+    public static final String USER_NETWORK_NETTY_READER_STREAMING_RANGES_AHEAD =
+        "alluxio.user.network.netty.reader.streaming.ranges.ahead";
     public static final String USER_NETWORK_NETTY_CHANNEL_POOL_DISABLED =
         "alluxio.user.network.netty.channel.pool.disabled";
 
@@ -8766,6 +9337,17 @@ public final class PropertyKey implements Comparable<PropertyKey> {
     public static final String DORA_CLIENT_METADATA_CACHE_ENABLED
         = "alluxio.dora.client.metadata.cache.enabled";
 
+    public static final String DORA_CLIENT_METADATA_LEASE_ENABLED =
+        "alluxio.dora.client.metadata.lease.enabled";
+    public static final String DORA_CLIENT_METADATA_LEASE_DURATION =
+        "alluxio.dora.client.metadata.lease.duration";
+    public static final String DORA_CLIENT_METADATA_LEASE_REVOCATION_POLL_INTERVAL =
+        "alluxio.dora.client.metadata.lease.revocation.poll.interval";
+    public static final String DORA_CLIENT_METADATA_LEASE_CACHE_SIZE =
+        "alluxio.dora.client.metadata.lease.cache.size";
+    public static final String DORA_WORKER_METADATA_REVOCATION_LOG_SIZE =
+        "alluxio.dora.worker.metadata.revocation.log.size";
+
     public static final String DORA_WORKER_METASTORE_ROCKSDB_DIR =
         "alluxio.dora.worker.metastore.rocksdb.dir";
 
@@ -16,5 +16,6 @@ package alluxio.executor;
  */
 public enum RpcExecutorType {
   TPE, // ThreadPoolExecutor.
-  FJP  // ForkJoinPool.
+  FJP, // ForkJoinPool.
+  VIRTUAL // A virtual thread per task, requires Java 21.
 }
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
 
 /**
@@ -63,6 +64,11 @@ public class ByteArrayTargetBuffer implements ReadTargetBuffer {
     mOffset = newOffset;
   }
 
+  @Override
+  public ReadTargetBuffer slice(int index, int length) {
+    return new ByteBufferTargetBuffer(ByteBuffer.wrap(mTarget, mOffset + index, length));
+  }
+
   @Override
   public long remaining() {
     return mTarget.length - mOffset;
@@ -90,6 +96,16 @@ public class ByteArrayTargetBuffer implements ReadTargetBuffer {
     return bytesRead;
   }
 
+  @Override
+  public int readFromFile(FileChannel channel, long position, int length) throws IOException {
+    int bytesToRead = Math.min(length, mTarget.length - mOffset);
+    int bytesRead = channel.read(ByteBuffer.wrap(mTarget, mOffset, bytesToRead), position);
+    if (bytesRead > 0) {
+      mOffset += bytesRead;
+    }
+    return bytesRead;
+  }
+
   @Override
   public int readFromInputStream(InputStream is, int length) throws IOException {
     int bytesRead = is.read(mTarget, mOffset, length);
@@ -21,6 +21,7 @@ import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 
@@ -61,6 +62,14 @@ public class ByteBufferTargetBuffer implements ReadTargetBuffer {
     mTarget.position(newOffset);
   }
 
+  @Override
+  public ReadTargetBuffer slice(int index, int length) {
+    ByteBuffer slice = mTarget.duplicate();
+    slice.position(mTarget.position() + index);
+    slice.limit(mTarget.position() + index + length);
+    return new ByteBufferTargetBuffer(slice);
+  }
+
   @Override
   public WritableByteChannel byteChannel() {
     return ChannelAdapters.intoByteBuffer(mTarget);
@@ -100,6 +109,18 @@ public class ByteBufferTargetBuffer implements ReadTargetBuffer {
     return bytesRead;
   }
 
+  @Override
+  public int readFromFile(FileChannel channel, long position, int length) throws IOException {
+    int bytesToRead = Math.min(length, mTarget.remaining());
+    ByteBuffer slice = mTarget.slice();
+    slice.limit(bytesToRead);
+    int bytesRead = channel.read(slice, position);
+    if (bytesRead > 0) {
+      mTarget.position(mTarget.position() + bytesRead);
+    }
+    return bytesRead;
+  }
+
   @Override
   public int readFromInputStream(InputStream is, int length) throws IOException {
     int bytesToRead = Math.min(length, mTarget.remaining());
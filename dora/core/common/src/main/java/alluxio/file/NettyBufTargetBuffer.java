@@ -55,6 +55,11 @@ public class NettyBufTargetBuffer implements ReadTargetBuffer {
     mTarget.writerIndex(newOffset);
   }
 
+  @Override
+  public ReadTargetBuffer slice(int index, int length) {
+    return new NettyBufTargetBuffer(mTarget.slice(mTarget.writerIndex() + index, length).clear());
+  }
+
   @Override
   public WritableByteChannel byteChannel() {
     return new WritableByteChannel() {
@@ -98,6 +103,11 @@ public class NettyBufTargetBuffer implements ReadTargetBuffer {
     }
   }
 
+  @Override
+  public int readFromFile(FileChannel channel, long position, int length) throws IOException {
+    return mTarget.writeBytes(channel, position, Math.min(length, mTarget.writableBytes()));
+  }
+
   @Override
   public int readFromInputStream(InputStream is, int length) throws IOException {
     int bytesToRead = Math.min(length, mTarget.writableBytes());
@@ -17,6 +17,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.WritableByteChannel;
 
 /**
@@ -47,6 +48,18 @@ public interface ReadTargetBuffer {
    */
   void offset(int newOffset);
 
+  /**
+   * Returns an independent view of a region of this buffer, so that several regions can be
+   * filled concurrently. The view starts at {@code index} bytes after the current offset of this
+   * buffer and has {@code length} bytes remaining. Writing to the view does not change the
+   * offset of this buffer.
+   *
+   * @param index the start of the region relative to the current offset
+   * @param length the length of the region
+   * @return a target buffer of the region
+   */
+  ReadTargetBuffer slice(int index, int length);
+
   /**
    * @return the writable channel
    */
@@ -76,6 +89,17 @@ public interface ReadTargetBuffer {
    */
   int readFromFile(RandomAccessFile file, int length) throws IOException;
 
+  /**
+   * Reads from a file channel at the given position, without changing the position of the
+   * channel. This is safe to call concurrently on the same channel.
+   *
+   * @param channel the file channel
+   * @param position the position in the file to start reading from
+   * @param length the number of bytes to read
+   * @return bytes read from the file, or -1 if the position is beyond the end of the file
+   */
+  int readFromFile(FileChannel channel, long position, int length) throws IOException;
+
   /**
    * @param is
    * @param length
@@ -446,6 +446,12 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setDescription("An estimate of the inode heap size")
           .setMetricType(MetricType.GAUGE)
           .build();
+  public static final MetricKey MASTER_INODE_INDEX_BYTES_PER_INODE =
+      new Builder("Master.InodeIndexBytesPerInode")
+          .setDescription("An estimate of the bytes per inode of the inode and edge indexes of "
+              + "the compact heap inode store, excluding the inodes themselves")
+          .setMetricType(MetricType.GAUGE)
+          .build();
   public static final MetricKey MASTER_BLOCK_HEAP_SIZE =
       new Builder("Master.BlockHeapSize")
           .setDescription("An estimate of the blocks heap size")
@@ -1033,9 +1039,15 @@ public final class MetricKey implements Comparable<MetricKey> {
           .build();
   public static final MetricKey MASTER_JOURNAL_FLUSH_TIMER =
       new Builder("Master.JournalFlushTimer")
-          .setDescription("The timer statistics of journal flush")
+          .setDescription("The timer statistics of journal flush, from the submission of a "
+              + "batch of journal entries to their commit")
           .setMetricType(MetricType.TIMER)
           .build();
+  public static final MetricKey MASTER_JOURNAL_FLUSH_BATCH_SIZE =
+      new Builder("Master.JournalFlushBatchSize")
+          .setDescription("The number of journal entries flushed in a batch")
+          .setMetricType(MetricType.HISTOGRAM)
+          .build();
   public static final MetricKey MASTER_JOURNAL_SEQUENCE_NUMBER =
       new Builder("Master.JournalSequenceNumber")
           .setDescription("Current journal sequence number")
@@ -1899,6 +1911,36 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.METER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey WORKER_BYTES_READ_ZERO_COPY =
+      new Builder("Worker.BytesReadZeroCopy")
+          .setDescription("Total number of bytes of cached pages sent by this worker without "
+              + "copying, i.e. as file regions or direct memory slices of the pages, when "
+              + "the file transfer type is TRANSFER")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_BYTES_READ_COPIED =
+      new Builder("Worker.BytesReadCopied")
+          .setDescription("Total number of bytes sent by this worker by copying them into "
+              + "network buffers when the file transfer type is TRANSFER, because the pages "
+              + "were not cached")
+          .setMetricType(MetricType.METER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_PAGES_READ_AHEAD =
+      new Builder("Worker.PagesReadAhead")
+          .setDescription("Total number of pages read by this worker from the under storage "
+              + "into the page store ahead of sequential readers")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey WORKER_PAGES_READ_AHEAD_SKIPPED =
+      new Builder("Worker.PagesReadAheadSkipped")
+          .setDescription("Total number of pages not read ahead of sequential readers because "
+              + "too many pages were already pending read-ahead")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey WORKER_BYTES_WRITTEN_DIRECT =
       new Builder("Worker.BytesWrittenDirect")
           .setDescription("Total number of bytes written to this worker "
@@ -2276,6 +2318,27 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.COUNTER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey CLIENT_CACHE_EXTERNAL_REQUESTS_COALESCED =
+      new Builder("Client.CacheExternalRequestsCoalesced")
+          .setDescription("Total number of cache misses served by a read of the same page from "
+              + "external storage already in progress, instead of a read of their own.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_EXTERNAL_RANGE_READS =
+      new Builder("Client.CacheExternalRangeReads")
+          .setDescription("Total number of ranged reads from external storage, each serving "
+              + "several pages missing from the cache of one read.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_EXTERNAL_RANGE_READ_PAGES =
+      new Builder("Client.CacheExternalRangeReadPages")
+          .setDescription("Total number of pages missing from the cache read from external "
+              + "storage by ranged reads serving several pages.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey CLIENT_CACHE_PAGE_READ_CACHE_TIME_NS =
       new Builder("Client.CachePageReadCacheTimeNanos")
           .setDescription("Time in nanoseconds taken to read a page from the client cache "
@@ -2326,6 +2389,13 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.METER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey CLIENT_CACHE_RESTORE_TIME_MS =
+      new Builder("Client.CacheRestoreTimeMs")
+          .setDescription("Time in milliseconds taken by the last restore of the cache from the "
+              + "page stores on startup.")
+          .setMetricType(MetricType.GAUGE)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey CLIENT_CACHE_PAGES_INVALIDATED =
       new Builder("Client.CachePagesInvalidated")
           .setDescription("Total number of pages invalidated by TTL rules")
@@ -2339,6 +2409,20 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.METER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey CLIENT_CACHE_PINNED_BYTES =
+      new Builder("Client.CachePinnedBytes")
+          .setDescription("Amount of bytes of the pages in the client cache which are pinned "
+              + "by in-flight zero-copy transfers and cannot be evicted or deleted.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_CACHE_PINNED_PAGES =
+      new Builder("Client.CachePinnedPages")
+          .setDescription("Number of pages in the client cache which are pinned by in-flight "
+              + "zero-copy transfers and cannot be evicted or deleted.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey CLIENT_CACHE_BYTES_WRITTEN_CACHE =
       new Builder("Client.CacheBytesWrittenCache")
           .setDescription("Total number of bytes written to the client cache.")
@@ -2482,6 +2566,13 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setMetricType(MetricType.COUNTER)
           .setIsClusterAggregated(false)
           .build();
+  public static final MetricKey CLIENT_CACHE_PUT_ADMISSION_REJECTIONS =
+      new Builder("Client.CachePutAdmissionRejections")
+          .setDescription("Number of pages read from the under storage on a cache miss which "
+              + "were not cached because the admission filter rejected them.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
   public static final MetricKey CLIENT_CACHE_PUT_ASYNC_REJECTION_ERRORS =
       new Builder("Client.CachePutAsyncRejectionErrors")
           .setDescription("Number of failures when putting cached data in the client cache due to"
@@ -2610,6 +2701,29 @@ public final class MetricKey implements Comparable<MetricKey> {
           .setIsClusterAggregated(false)
           .build();
 
+  public static final MetricKey CLIENT_READ_SPREAD_REPLICA_READS =
+      new Builder("Client.ReadSpreadReplicaReads")
+          .setDescription("Total number of reads of files read often by the client sent to a "
+              + "worker other than the first worker the file hashes to.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+
+  public static final MetricKey CLIENT_METADATA_LEASE_HITS =
+      new Builder("Client.MetadataLeaseHits")
+          .setDescription("Total number of get status and list status calls served by the "
+              + "metadata cached by the dora client under leases, without a worker RPC.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+  public static final MetricKey CLIENT_METADATA_LEASE_REVOCATIONS =
+      new Builder("Client.MetadataLeaseRevocations")
+          .setDescription("Total number of metadata leases of the dora client revoked by the "
+              + "workers, including the paths revoked that are not cached by the client.")
+          .setMetricType(MetricType.COUNTER)
+          .setIsClusterAggregated(false)
+          .build();
+
   public static final MetricKey CLIENT_UFS_FALLBACK_COUNT =
       new Builder("Client.UfsFallbackCount")
           .setDescription("The number of fallbacks to UFS when failing to open file in Alluxio "
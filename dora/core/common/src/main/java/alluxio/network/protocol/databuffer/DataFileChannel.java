@@ -13,20 +13,31 @@ package alluxio.network.protocol.databuffer;
 
 import com.google.common.base.Preconditions;
 import io.netty.channel.DefaultFileRegion;
+import io.netty.channel.FileRegion;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
 
 /**
  * A DataBuffer with the underlying data being a {@link FileChannel}.
+ * <br>
+ * An optional release callback is invoked exactly once, either when the {@link FileRegion}
+ * handed to Netty is released after being sent, or when this buffer is released without being
+ * sent. This allows the owner of the file to keep it in place while it is being transferred.
  */
 public final class DataFileChannel implements DataBuffer {
   private final File mFile;
   private final long mOffset;
   private final long mLength;
+  @Nullable
+  private final Runnable mReleaseCallback;
+  private final AtomicBoolean mReleased = new AtomicBoolean(false);
+  private volatile boolean mHandedOff = false;
 
   /**
    *
@@ -35,14 +46,48 @@ public final class DataFileChannel implements DataBuffer {
    * @param length The length of the data to read
    */
   public DataFileChannel(File file, long offset, long length) {
+    this(file, offset, length, null);
+  }
+
+  /**
+   *
+   * @param file The file
+   * @param offset The offset into the FileChannel
+   * @param length The length of the data to read
+   * @param releaseCallback callback to invoke once the data is no longer read from the file
+   */
+  public DataFileChannel(File file, long offset, long length,
+      @Nullable Runnable releaseCallback) {
     mFile = Preconditions.checkNotNull(file, "file");
     mOffset = offset;
     mLength = length;
+    mReleaseCallback = releaseCallback;
+  }
+
+  /**
+   * @param releaseCallback callback to invoke once the data is no longer read from the file
+   * @return a copy of this buffer with the given release callback
+   */
+  public DataFileChannel withReleaseCallback(Runnable releaseCallback) {
+    return new DataFileChannel(mFile, mOffset, mLength, releaseCallback);
   }
 
   @Override
   public Object getNettyOutput() {
-    return new DefaultFileRegion(mFile, mOffset, mLength);
+    if (mReleaseCallback == null) {
+      return new DefaultFileRegion(mFile, mOffset, mLength);
+    }
+    mHandedOff = true;
+    return new DefaultFileRegion(mFile, mOffset, mLength) {
+      @Override
+      protected void deallocate() {
+        try {
+          super.deallocate();
+        } finally {
+          runReleaseCallback();
+        }
+      }
+    };
   }
 
   @Override
@@ -82,5 +127,15 @@ public final class DataFileChannel implements DataBuffer {
   @Override
   public void release() {
     // Nothing we need to release explicitly, let GC take care of all objects.
+    // Once handed off to Netty, the callback runs when Netty releases the file region.
+    if (!mHandedOff) {
+      runReleaseCallback();
+    }
+  }
+
+  private void runReleaseCallback() {
+    if (mReleaseCallback != null && mReleased.compareAndSet(false, true)) {
+      mReleaseCallback.run();
+    }
   }
 }
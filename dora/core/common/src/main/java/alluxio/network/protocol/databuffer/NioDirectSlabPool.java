@@ -0,0 +1,155 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.network.protocol.databuffer;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A pool of fixed-size slots carved out of a few large direct memory slabs.
+ * Slots are handed out as reference counted {@link ByteBuf}s, a slot goes back to the pool
+ * only after the buffer and all its retained slices have been released, so that a slot still
+ * being sent by Netty is never reused.
+ * <br>
+ * Slabs are allocated lazily up to the capacity of the pool and are never returned to the
+ * operating system before the pool is garbage collected. Unlike {@link NioDirectBufferPool},
+ * this does not allocate one direct buffer per request, which keeps the number of direct
+ * buffers small when the pool holds many gigabytes of data.
+ */
+@ThreadSafe
+public class NioDirectSlabPool implements Closeable {
+  private final int mSlotSize;
+  private final int mSlotsPerSlab;
+  private final int mMaxSlabs;
+  private final ConcurrentLinkedDeque<ByteBuffer> mFreeSlots = new ConcurrentLinkedDeque<>();
+  @GuardedBy("mSlabs")
+  private final List<ByteBuffer> mSlabs = new ArrayList<>();
+  private volatile boolean mClosed = false;
+
+  /**
+   * @param slotSize the size of each slot, which is the largest buffer that can be allocated
+   * @param slabSize the size of each direct memory slab, rounded down to a multiple of slotSize
+   * @param capacity the total size of memory of the pool, rounded up to a multiple of slabSize
+   */
+  public NioDirectSlabPool(int slotSize, int slabSize, long capacity) {
+    Preconditions.checkArgument(slotSize > 0, "slot size should be positive");
+    Preconditions.checkArgument(slabSize >= slotSize,
+        "slab size %s should not be less than slot size %s", slabSize, slotSize);
+    mSlotSize = slotSize;
+    mSlotsPerSlab = slabSize / slotSize;
+    long slabBytes = (long) mSlotsPerSlab * mSlotSize;
+    mMaxSlabs = (int) Math.max(1, (capacity + slabBytes - 1) / slabBytes);
+  }
+
+  /**
+   * Allocates a buffer from a free slot. The reader and writer indices of the returned buffer
+   * are both 0 and its reference count is 1.
+   *
+   * @param length the capacity of the buffer, must not be greater than the slot size
+   * @return the allocated buffer, or null if all slots are in use
+   */
+  @Nullable
+  public ByteBuf allocate(int length) {
+    Preconditions.checkArgument(length >= 0 && length <= mSlotSize,
+        "length %s exceeds slot size %s", length, mSlotSize);
+    Preconditions.checkState(!mClosed, "slab pool is closed");
+    ByteBuffer slot = mFreeSlots.poll();
+    if (slot == null) {
+      slot = allocateSlab();
+      if (slot == null) {
+        return null;
+      }
+    }
+    return new SlotByteBuf(slot, length);
+  }
+
+  /**
+   * @return the size of each slot
+   */
+  public int getSlotSize() {
+    return mSlotSize;
+  }
+
+  /**
+   * @return the number of bytes of direct memory allocated by this pool
+   */
+  public long getAllocatedBytes() {
+    synchronized (mSlabs) {
+      return (long) mSlabs.size() * mSlotsPerSlab * mSlotSize;
+    }
+  }
+
+  /**
+   * Allocates a new slab, keeping its first slot for the caller and putting the others into the
+   * free list.
+   *
+   * @return a free slot, or null if the pool is full
+   */
+  @Nullable
+  private ByteBuffer allocateSlab() {
+    synchronized (mSlabs) {
+      // another thread may have allocated a slab while we were waiting for the lock
+      ByteBuffer slot = mFreeSlots.poll();
+      if (slot != null || mSlabs.size() >= mMaxSlabs) {
+        return slot;
+      }
+      ByteBuffer slab = ByteBuffer.allocateDirect(mSlotsPerSlab * mSlotSize);
+      mSlabs.add(slab);
+      for (int i = 1; i < mSlotsPerSlab; i++) {
+        mFreeSlots.push(sliceSlot(slab, i));
+      }
+      return sliceSlot(slab, 0);
+    }
+  }
+
+  private ByteBuffer sliceSlot(ByteBuffer slab, int index) {
+    ByteBuffer dup = slab.duplicate();
+    dup.position(index * mSlotSize);
+    dup.limit((index + 1) * mSlotSize);
+    return dup.slice();
+  }
+
+  /**
+   * Drops all slabs. Buffers which are still referenced remain valid until they are released
+   * and their memory is reclaimed once they are garbage collected.
+   */
+  @Override
+  public void close() {
+    mClosed = true;
+    synchronized (mSlabs) {
+      mSlabs.clear();
+      mFreeSlots.clear();
+    }
+  }
+
+  private final class SlotByteBuf extends RefCountedNioByteBuf {
+    private SlotByteBuf(ByteBuffer slot, int length) {
+      super(slot, length, slot.capacity());
+    }
+
+    @Override
+    protected void deallocate() {
+      if (!mClosed) {
+        mFreeSlots.push(mDelegate);
+      }
+    }
+  }
+}
@@ -13,6 +13,9 @@ package alluxio.underfs;
 
 import alluxio.file.options.DescendantType;
 
+import io.netty.buffer.ByteBuf;
+
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
 
@@ -43,4 +46,18 @@ public interface AsyncUfsClient {
       String path, @Nullable String continuationToken, @Nullable String startAfter,
       DescendantType descendantType, boolean checkStatus, Consumer<UfsLoadResult> onComplete,
       Consumer<Throwable> onError);
+
+  /**
+   * Reads a range of a file. The function should return immediately, and perform the read
+   * asynchronously, without tying up a thread of the caller while waiting for the data.
+   * The caller owns the returned buffer and must release it.
+   *
+   * @param path the path of the file in ufs
+   * @param fileLength the length of the file
+   * @param position the position in the file to read from
+   * @param length the number of bytes to read
+   * @return the future of the data read, shorter than the length only at the end of the file,
+   *         completed exceptionally with the {@link java.io.IOException} on failure
+   */
+  CompletableFuture<ByteBuf> readAsync(String path, long fileLength, long position, int length);
 }
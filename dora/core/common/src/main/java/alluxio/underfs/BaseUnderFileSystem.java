@@ -13,8 +13,10 @@ package alluxio.underfs;
 
 import alluxio.AlluxioURI;
 import alluxio.Constants;
+import alluxio.PositionReader;
 import alluxio.collections.Pair;
 import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
 import alluxio.file.options.DescendantType;
 import alluxio.security.authorization.AccessControlList;
 import alluxio.security.authorization.AclEntry;
@@ -30,6 +32,8 @@ import alluxio.util.io.PathUtils;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import com.google.common.io.Closer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,8 +49,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
@@ -68,6 +77,8 @@ public abstract class BaseUnderFileSystem implements UnderFileSystem {
   protected final UnderFileSystemConfiguration mUfsConf;
 
   private final ExecutorService mAsyncIOExecutor;
+  /** Bounded pool performing the async reads of under storages without an async client. */
+  private final ThreadPoolExecutor mAsyncReadExecutor;
 
   /**
    * Constructs an {@link BaseUnderFileSystem}.
@@ -80,6 +91,12 @@ public abstract class BaseUnderFileSystem implements UnderFileSystem {
     mUfsConf = Preconditions.checkNotNull(ufsConf, "ufsConf");
     mAsyncIOExecutor = Executors.newCachedThreadPool(
         ThreadFactoryUtils.build(uri.getPath() + "IOThread", true));
+    int asyncReadThreads = ufsConf.getInt(PropertyKey.UNDERFS_ASYNC_READ_THREADS);
+    mAsyncReadExecutor = new ThreadPoolExecutor(asyncReadThreads, asyncReadThreads,
+        60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        ThreadFactoryUtils.build(uri.getPath() + "AsyncReadThread", true));
+    // idle under storages do not keep the threads
+    mAsyncReadExecutor.allowCoreThreadTimeOut(true);
   }
 
   @Override
@@ -90,6 +107,11 @@ public abstract class BaseUnderFileSystem implements UnderFileSystem {
           mAsyncIOExecutor.shutdown();
         }
       });
+      closer.register(() -> {
+        if (mAsyncReadExecutor != null) {
+          mAsyncReadExecutor.shutdown();
+        }
+      });
     }
   }
 
@@ -275,6 +297,37 @@ public abstract class BaseUnderFileSystem implements UnderFileSystem {
     });
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * The default implementation performs a blocking positional read on a bounded pool, so that
+   * the callers do not block, but the number of reads in progress is bounded by the pool.
+   */
+  @Override
+  public CompletableFuture<ByteBuf> readAsync(String path, long fileLength, long position,
+      int length) {
+    return CompletableFuture.supplyAsync(() -> {
+      int bytesToRead = (int) Math.max(0, Math.min(length, fileLength - position));
+      ByteBuf buf = Unpooled.buffer(bytesToRead);
+      try (PositionReader reader = openPositionRead(path, fileLength)) {
+        while (buf.readableBytes() < bytesToRead) {
+          int bytesRead = reader.read(position + buf.readableBytes(), buf,
+              bytesToRead - buf.readableBytes());
+          if (bytesRead <= 0) {
+            break;
+          }
+        }
+        return buf;
+      } catch (IOException e) {
+        buf.release();
+        throw new CompletionException(e);
+      } catch (RuntimeException e) {
+        buf.release();
+        throw e;
+      }
+    }, mAsyncReadExecutor);
+  }
+
   @Override
   @Nullable
   public UfsStatus[] listStatus(String path, ListOptions options) throws IOException {
@@ -20,6 +20,7 @@ import alluxio.conf.PropertyKey;
 import alluxio.exception.runtime.AlluxioRuntimeException;
 import alluxio.exception.runtime.InternalRuntimeException;
 import alluxio.exception.status.UnimplementedException;
+import alluxio.file.ReadTargetBuffer;
 import alluxio.file.options.DescendantType;
 import alluxio.metrics.Metric;
 import alluxio.metrics.MetricInfo;
@@ -40,6 +41,7 @@ import alluxio.util.SecurityUtils;
 import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
+import io.netty.buffer.ByteBuf;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,6 +52,8 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
 import java.util.function.Consumer;
 import javax.annotation.Nullable;
 
@@ -68,6 +72,9 @@ public class UnderFileSystemWithLogging implements UnderFileSystem {
   private final String mPath;
   private final String mEscapedPath;
   private final long mLoggingThreshold;
+  /** Permits of the calls in progress to the under storage, or null if unlimited. */
+  @Nullable
+  private final Semaphore mCallPermits;
 
   /**
    * Creates a new {@link UnderFileSystemWithLogging} which forwards all calls to the provided
@@ -86,6 +93,8 @@ public class UnderFileSystemWithLogging implements UnderFileSystem {
     mConf = conf;
     mEscapedPath = MetricsSystem.escape(new AlluxioURI(path));
     mLoggingThreshold = mConf.getMs(PropertyKey.UNDERFS_LOGGING_THRESHOLD);
+    int maxCalls = mConf.getInt(PropertyKey.UNDERFS_CONCURRENT_CALLS_MAX);
+    mCallPermits = maxCalls > 0 ? new Semaphore(maxCalls) : null;
   }
 
   @Override
@@ -1011,7 +1020,8 @@ public class UnderFileSystemWithLogging implements UnderFileSystem {
       return call(new UfsCallable<PositionReader>() {
         @Override
         public PositionReader call() {
-          return mUnderFileSystem.openPositionRead(path, fileLength);
+          PositionReader reader = mUnderFileSystem.openPositionRead(path, fileLength);
+          return mCallPermits == null ? reader : new LimitedPositionReader(reader);
         }
 
         @Override
@@ -1264,6 +1274,32 @@ public class UnderFileSystemWithLogging implements UnderFileSystem {
     }
   }
 
+  @Override
+  public CompletableFuture<ByteBuf> readAsync(String path, long fileLength, long position,
+      int length) {
+    try {
+      return call(new UfsCallable<CompletableFuture<ByteBuf>>() {
+        @Override
+        public CompletableFuture<ByteBuf> call() {
+          return mUnderFileSystem.readAsync(path, fileLength, position, length);
+        }
+
+        @Override
+        public String methodName() {
+          return "ReadAsync";
+        }
+
+        @Override
+        public String toString() {
+          return String.format("path=%s, fileLength=%s, position=%s, length=%s",
+              path, fileLength, position, length);
+        }
+      });
+    } catch (IOException e) {
+      throw new InternalRuntimeException("should not reach");
+    }
+  }
+
   /**
    * Interface representing a callable to the under storage system which throws an
    * {@link IOException} if an error occurs during the external communication.
@@ -1298,6 +1334,7 @@ public class UnderFileSystemWithLogging implements UnderFileSystem {
     long startMs = System.currentTimeMillis();
     long durationMs;
     LOG.debug("Enter: {}({})", methodName, callable);
+    acquireCallPermit();
     try (Timer.Context ctx = MetricsSystem.timer(getQualifiedMetricName(methodName)).time()) {
       T ret = callable.call();
       durationMs = System.currentTimeMillis() - startMs;
@@ -1317,6 +1354,47 @@ public class UnderFileSystemWithLogging implements UnderFileSystem {
             callable, e, durationMs, mLoggingThreshold);
       }
       throw e;
+    } finally {
+      releaseCallPermit();
+    }
+  }
+
+  private void acquireCallPermit() {
+    if (mCallPermits != null) {
+      mCallPermits.acquireUninterruptibly();
+    }
+  }
+
+  private void releaseCallPermit() {
+    if (mCallPermits != null) {
+      mCallPermits.release();
+    }
+  }
+
+  /**
+   * A {@link PositionReader} whose reads take a permit of the calls to the under storage.
+   */
+  private final class LimitedPositionReader implements PositionReader {
+    private final PositionReader mReader;
+
+    private LimitedPositionReader(PositionReader reader) {
+      mReader = reader;
+    }
+
+    @Override
+    public int readInternal(long position, ReadTargetBuffer buffer, int length)
+        throws IOException {
+      acquireCallPermit();
+      try {
+        return mReader.read(position, buffer, length);
+      } finally {
+        releaseCallPermit();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      mReader.close();
     }
   }
 
@@ -0,0 +1,85 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.util.executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import javax.annotation.Nullable;
+
+/**
+ * Util class for executors running each task on a new virtual thread.
+ *
+ * Virtual threads are only available from Java 21, while Alluxio is built for Java 8, so they
+ * are created through reflection. On older runtimes, {@link #isSupported()} returns false and
+ * the callers are expected to fall back to their thread pools.
+ */
+public final class VirtualThreads {
+  private static final Logger LOG = LoggerFactory.getLogger(VirtualThreads.class);
+
+  @Nullable
+  private static final Method OF_VIRTUAL = getMethod(Thread.class, "ofVirtual");
+  @Nullable
+  private static final Method NEW_THREAD_PER_TASK_EXECUTOR =
+      getMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+  /**
+   * @return whether the runtime supports virtual threads
+   */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+  }
+
+  /**
+   * Creates an executor starting a new virtual thread for each task. The executor does not
+   * bound the number of tasks running, the callers limit the concurrency of the resources the
+   * tasks block on instead.
+   *
+   * @param namePrefix the prefix of the names of the threads, followed by a counter
+   * @return the executor
+   * @throws UnsupportedOperationException if the runtime does not support virtual threads
+   */
+  public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+    if (!isSupported()) {
+      throw new UnsupportedOperationException(String.format(
+          "Virtual threads are not supported by Java %s",
+          System.getProperty("java.specification.version")));
+    }
+    try {
+      Object builder = OF_VIRTUAL.invoke(null);
+      Class<?> builderClass = OF_VIRTUAL.getReturnType();
+      builder = builderClass.getMethod("name", String.class, long.class)
+          .invoke(builder, namePrefix, 0L);
+      ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+      return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to create virtual thread executor", e);
+    }
+  }
+
+  @Nullable
+  private static Method getMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+    try {
+      return clazz.getMethod(name, parameterTypes);
+    } catch (NoSuchMethodException e) {
+      LOG.debug("{}#{} is not available, virtual threads are not supported", clazz.getName(),
+          name);
+      return null;
+    }
+  }
+
+  private VirtualThreads() {} // prevent instantiation
+}
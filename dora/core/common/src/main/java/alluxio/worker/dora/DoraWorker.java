@@ -12,11 +12,13 @@
 package alluxio.worker.dora;
 
 import alluxio.exception.AccessControlException;
+import alluxio.grpc.BatchGetStatusResponse;
 import alluxio.grpc.CompleteFilePOptions;
 import alluxio.grpc.CreateDirectoryPOptions;
 import alluxio.grpc.CreateFilePOptions;
 import alluxio.grpc.DeletePOptions;
 import alluxio.grpc.ExistsPOptions;
+import alluxio.grpc.GetRevokedMetadataLeasesResponse;
 import alluxio.grpc.GetStatusPOptions;
 import alluxio.grpc.ListStatusPOptions;
 import alluxio.grpc.LoadFileResponse;
@@ -56,6 +58,28 @@ public interface DoraWorker extends DataWorker, SessionCleanable {
   FileInfo getFileInfo(String fileId, GetStatusPOptions options)
       throws IOException, AccessControlException;
 
+  /**
+   * Gets the information of multiple files in bulk.
+   * The metadata kept by the worker is read in a single batch, and only the files missing from it
+   * or out of date are loaded from the UFS.
+   *
+   * @param ufsFullPaths the full UFS paths of the files
+   * @param options the options for the GetStatusPRequest
+   * @return the info of the files found, and the failures of the files not resolved
+   */
+  BatchGetStatusResponse getFileInfos(List<String> ufsFullPaths, GetStatusPOptions options);
+
+  /**
+   * Gets the metadata leases revoked since the last call of a client, as the metadata of their
+   * paths changed on the worker. A client caching the metadata served by the worker drops the
+   * metadata of the paths revoked.
+   *
+   * @param epoch the epoch of the worker returned by the last call, 0 for the first call
+   * @param sinceSequence the sequence number of the last revocation returned by the last call
+   * @return the leases revoked, or whether all the leases are revoked
+   */
+  GetRevokedMetadataLeasesResponse getRevokedMetadataLeases(long epoch, long sinceSequence);
+
   /**
    * List status from Under File System.
    *
@@ -0,0 +1,117 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConcurrentLongObjectHashMapTest {
+
+  private ConcurrentLongObjectHashMap<String> mMap;
+
+  @Before
+  public void before() {
+    mMap = new ConcurrentLongObjectHashMap<>(4);
+  }
+
+  @Test
+  public void basicOperations() {
+    assertNull(mMap.put(0, "zero"));
+    assertNull(mMap.put(-1, "minus one"));
+    assertNull(mMap.put(Long.MIN_VALUE, "min"));
+    assertEquals("zero", mMap.put(0, "zero again"));
+    assertEquals("zero again", mMap.get(0));
+    assertEquals("minus one", mMap.putIfAbsent(-1, "other"));
+    assertEquals("minus one", mMap.get(-1));
+    assertEquals("min", mMap.get(Long.MIN_VALUE));
+    assertEquals(3, mMap.size());
+    assertEquals("min", mMap.remove(Long.MIN_VALUE));
+    assertNull(mMap.remove(Long.MIN_VALUE));
+    assertFalse(mMap.containsKey(Long.MIN_VALUE));
+    assertEquals("zero again!", mMap.compute(0, value -> value + "!"));
+    assertNull(mMap.compute(0, value -> null));
+    assertFalse(mMap.containsKey(0));
+    mMap.clear();
+    assertTrue(mMap.isEmpty());
+  }
+
+  @Test
+  public void randomOperations() {
+    Map<Long, String> expected = new HashMap<>();
+    Random random = new Random();
+    for (int i = 0; i < 100_000; i++) {
+      long key = random.nextInt(5_000);
+      String value = Integer.toString(i);
+      switch (random.nextInt(3)) {
+        case 0:
+          assertEquals(expected.put(key, value), mMap.put(key, value));
+          break;
+        case 1:
+          assertEquals(expected.remove(key), mMap.remove(key));
+          break;
+        default:
+          assertEquals(expected.get(key), mMap.get(key));
+      }
+    }
+    assertEquals(expected.size(), mMap.size());
+    Map<Long, String> entries = new HashMap<>();
+    mMap.forEach((value, key) -> entries.put(key, value));
+    assertEquals(expected, entries);
+    // the tables shrink back as the entries are removed
+    long bytes = mMap.getTableBytes();
+    expected.keySet().forEach(mMap::remove);
+    assertTrue(mMap.isEmpty());
+    assertTrue(mMap.getTableBytes() < bytes);
+  }
+
+  @Test
+  public void concurrentReads() throws Exception {
+    for (long key = 0; key < 1_000; key++) {
+      mMap.put(key * 2, Long.toString(key * 2));
+    }
+    AtomicBoolean done = new AtomicBoolean();
+    // keeps resizing the tables by adding and removing the odd keys
+    Thread writer = new Thread(() -> {
+      Random random = new Random();
+      while (!done.get()) {
+        long key = random.nextInt(100_000) * 2L + 1;
+        mMap.put(key, Long.toString(key));
+        mMap.remove(random.nextInt(100_000) * 2L + 1);
+      }
+    });
+    writer.start();
+    AtomicLong misses = new AtomicLong();
+    try {
+      for (int i = 0; i < 1_000_000; i++) {
+        long key = (i % 1_000) * 2L;
+        if (!Long.toString(key).equals(mMap.get(key))) {
+          misses.incrementAndGet();
+        }
+      }
+    } finally {
+      done.set(true);
+      writer.join();
+    }
+    assertEquals(0, misses.get());
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for {@link FrequencySketch}.
+ */
+public final class FrequencySketchTest {
+  @Test
+  public void increment() {
+    FrequencySketch<String> sketch = new FrequencySketch<>(64, 15, 10);
+    assertEquals(0, sketch.frequency("a"));
+    for (int i = 1; i <= 5; i++) {
+      assertEquals(i, sketch.increment("a"));
+    }
+    assertEquals(5, sketch.frequency("a"));
+    assertEquals(0, sketch.frequency("b"));
+  }
+
+  @Test
+  public void saturate() {
+    FrequencySketch<String> sketch = new FrequencySketch<>(64, 15, 10);
+    for (int i = 0; i < 20; i++) {
+      sketch.increment("a");
+    }
+    assertEquals(15, sketch.frequency("a"));
+  }
+
+  @Test
+  public void age() {
+    FrequencySketch<String> sketch = new FrequencySketch<>(64, 100, 1);
+    for (int i = 1; i < 64; i++) {
+      assertEquals(i, sketch.increment("a"));
+    }
+    // the counters are halved once 64 increments are counted
+    assertEquals(64, sketch.increment("a"));
+    assertEquals(32, sketch.frequency("a"));
+  }
+
+  @Test
+  public void ensureCapacity() {
+    FrequencySketch<Integer> sketch = new FrequencySketch<>(64, 15, 10);
+    List<Integer> items = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      items.add(i);
+    }
+    for (int i = 0; i < 3; i++) {
+      sketch.increment(7);
+    }
+    sketch.ensureCapacity(items, items.size());
+    // the estimates of the items tracked are carried over
+    assertTrue(sketch.frequency(7) >= 3);
+  }
+
+  @Test
+  public void invalidWidth() {
+    assertThrows(IllegalArgumentException.class, () -> new FrequencySketch<String>(100, 15, 10));
+  }
+}
@@ -1033,6 +1033,14 @@ public class InstancedConfigurationTest {
     mConfiguration.validate();
   }
 
+  @Test
+  public void journalFlushMaxInFlight() {
+    mConfiguration.set(PropertyKey.MASTER_JOURNAL_FLUSH_MAX_IN_FLIGHT, 2);
+    assertThrows(IllegalStateException.class, () -> mConfiguration.validate());
+    mConfiguration.set(PropertyKey.MASTER_JOURNAL_FLUSH_MAX_IN_FLIGHT, 1);
+    mConfiguration.validate();
+  }
+
   @Test
   public void removedKeyThrowsException() {
     try {
@@ -0,0 +1,103 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.network.protocol.databuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.util.io.BufferUtils;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NioDirectSlabPoolTest {
+  private static final int SLOT_SIZE = 1024;
+  private static final int SLOTS_PER_SLAB = 4;
+  private static final int NUM_SLABS = 2;
+
+  private NioDirectSlabPool mPool;
+
+  @Before
+  public void before() {
+    mPool = new NioDirectSlabPool(SLOT_SIZE, SLOT_SIZE * SLOTS_PER_SLAB,
+        (long) SLOT_SIZE * SLOTS_PER_SLAB * NUM_SLABS);
+  }
+
+  @After
+  public void after() {
+    mPool.close();
+  }
+
+  @Test
+  public void allocateLazily() {
+    assertEquals(0, mPool.getAllocatedBytes());
+    ByteBuf buf = mPool.allocate(SLOT_SIZE);
+    assertNotNull(buf);
+    assertTrue(buf.isDirect());
+    assertEquals(SLOT_SIZE * SLOTS_PER_SLAB, mPool.getAllocatedBytes());
+    buf.release();
+  }
+
+  @Test
+  public void allocateUntilFull() {
+    List<ByteBuf> bufs = new ArrayList<>();
+    for (int i = 0; i < SLOTS_PER_SLAB * NUM_SLABS; i++) {
+      ByteBuf buf = mPool.allocate(SLOT_SIZE / 2);
+      assertNotNull(buf);
+      assertEquals(SLOT_SIZE / 2, buf.capacity());
+      bufs.add(buf);
+    }
+    assertNull(mPool.allocate(1));
+    assertEquals(SLOT_SIZE * SLOTS_PER_SLAB * NUM_SLABS, mPool.getAllocatedBytes());
+    bufs.remove(0).release();
+    assertNotNull(mPool.allocate(1));
+  }
+
+  @Test
+  public void slotsDoNotOverlap() {
+    List<ByteBuf> bufs = new ArrayList<>();
+    for (int i = 0; i < SLOTS_PER_SLAB * NUM_SLABS; i++) {
+      ByteBuf buf = mPool.allocate(SLOT_SIZE);
+      buf.writeBytes(BufferUtils.getIncreasingByteArray(i, SLOT_SIZE));
+      bufs.add(buf);
+    }
+    for (int i = 0; i < bufs.size(); i++) {
+      assertTrue(BufferUtils.equalIncreasingByteBuffer(i, SLOT_SIZE, bufs.get(i).nioBuffer()));
+    }
+  }
+
+  @Test
+  public void slotReusedOnlyAfterAllReferencesReleased() {
+    List<ByteBuf> bufs = new ArrayList<>();
+    for (int i = 0; i < SLOTS_PER_SLAB * NUM_SLABS; i++) {
+      bufs.add(mPool.allocate(SLOT_SIZE));
+    }
+    ByteBuf slice = bufs.get(0).retainedSlice(0, 16);
+    bufs.get(0).release();
+    assertNull(mPool.allocate(SLOT_SIZE));
+    slice.release();
+    assertNotNull(mPool.allocate(SLOT_SIZE));
+  }
+
+  @Test
+  public void allocateTooLarge() {
+    assertThrows(IllegalArgumentException.class, () -> mPool.allocate(SLOT_SIZE + 1));
+  }
+}
@@ -16,9 +16,12 @@ import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.master.AlluxioExecutorService;
 import alluxio.util.ThreadFactoryUtils;
+import alluxio.util.executor.VirtualThreads;
 
 import com.codahale.metrics.Counter;
 import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -33,6 +36,8 @@ import javax.annotation.Nullable;
  * Used to create {@link ExecutorService} instances dynamically by configuration.
  */
 public class ExecutorServiceBuilder {
+  private static final Logger LOG = LoggerFactory.getLogger(ExecutorServiceBuilder.class);
+
   /**
    * Creates an {@link ExecutorService} for given Alluxio process dynamically by configuration.
    *
@@ -56,6 +61,16 @@ public class ExecutorServiceBuilder {
     RpcExecutorType executorType = Configuration.getEnum(
         PropertyKey.Template.RPC_EXECUTOR_TYPE.format(executorHost.toString()),
         RpcExecutorType.class);
+    if (executorType == RpcExecutorType.VIRTUAL) {
+      if (VirtualThreads.isSupported()) {
+        return new AlluxioExecutorService(VirtualThreads.newThreadPerTaskExecutor(
+            String.format("%s-rpc-executor-virtual-thread-", executorHost)), rpcCounter);
+      }
+      LOG.warn("Virtual threads are not supported by Java {}, falling back to {} for the {} "
+          + "RPC executor", System.getProperty("java.specification.version"),
+          RpcExecutorType.TPE, executorHost);
+      executorType = RpcExecutorType.TPE;
+    }
     // Build thread name format.
     String threadNameFormat =
         String.format("%s-rpc-executor-%s-thread", executorHost, executorType) + "-%d";
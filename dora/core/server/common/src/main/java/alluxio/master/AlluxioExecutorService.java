@@ -64,8 +64,8 @@ public class AlluxioExecutorService implements ExecutorService {
     } else if (mExecutor instanceof ForkJoinPool) {
       return ((ForkJoinPool) mExecutor).getQueuedSubmissionCount();
     } else {
-      throw new IllegalArgumentException(
-          String.format("Not supported internal executor: %s", mExecutor.getClass().getName()));
+      // a thread per task executor never queues tasks
+      return 0;
     }
   }
 
@@ -78,8 +78,8 @@ public class AlluxioExecutorService implements ExecutorService {
     } else if (mExecutor instanceof ForkJoinPool) {
       return ((ForkJoinPool) mExecutor).getActiveThreadCount();
     } else {
-      throw new IllegalArgumentException(
-          String.format("Not supported internal executor: %s", mExecutor.getClass().getName()));
+      // a thread per task executor does not track its threads
+      return 0;
     }
   }
 
@@ -92,8 +92,8 @@ public class AlluxioExecutorService implements ExecutorService {
     } else if (mExecutor instanceof ForkJoinPool) {
       return ((ForkJoinPool) mExecutor).getPoolSize();
     } else {
-      throw new IllegalArgumentException(
-          String.format("Not supported internal executor: %s", mExecutor.getClass().getName()));
+      // a thread per task executor does not pool threads
+      return 0;
     }
   }
 
@@ -14,6 +14,7 @@ package alluxio.master.journal;
 import alluxio.Constants;
 import alluxio.annotation.SuppressFBWarnings;
 import alluxio.collections.ConcurrentHashSet;
+import alluxio.concurrent.jsr.CompletableFuture;
 import alluxio.concurrent.ForkJoinPoolHelper;
 import alluxio.concurrent.jsr.ForkJoinPool;
 import alluxio.conf.Configuration;
@@ -27,7 +28,6 @@ import alluxio.proto.journal.Journal.JournalEntry;
 import alluxio.util.logging.SamplingLogger;
 
 import com.codahale.metrics.Counter;
-import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.SettableFuture;
@@ -36,6 +36,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -48,6 +50,13 @@ import javax.annotation.concurrent.ThreadSafe;
 
 /**
  * This enables async journal writing, as well as some batched journal flushing.
+ *
+ * For a {@link PipelinedJournalWriter}, up to alluxio.master.journal.flush.max.in.flight batches
+ * are flushed without waiting for the previous ones to be committed, and the entries appended
+ * meanwhile are written into the next batch. The batches are cut at the number of entries
+ * expected to be appended during a flush, spread over the flushes in flight, as estimated by a
+ * {@link BatchSizer}. The configuration only accepts one flush in flight for now, see
+ * {@link alluxio.conf.InstancedConfiguration#validate}.
  */
 @ThreadSafe
 @SuppressFBWarnings("RV_RETURN_VALUE_IGNORED")
@@ -114,7 +123,71 @@ public final class AsyncJournalWriter {
     }
   }
 
+  /**
+   * A flush submitted to the journal writer.
+   */
+  private static final class InFlightFlush {
+    /** The count of entries written to the journal writer when flushed. */
+    private final long mCounter;
+    /** The number of entries in the batch. */
+    private final long mEntries;
+    private CompletableFuture<Void> mFuture;
+    /** The time the flush took to complete, set before the future completes. */
+    private volatile long mLatencyNs;
+
+    InFlightFlush(long counter, long entries) {
+      mCounter = counter;
+      mEntries = entries;
+    }
+  }
+
+  /**
+   * Estimates the number of entries to flush in a batch, from moving averages of the rate the
+   * entries are appended at and of the latency of the flushes.
+   */
+  @VisibleForTesting
+  static final class BatchSizer {
+    /** The weight of a new sample in the moving averages. */
+    private static final double SAMPLE_WEIGHT = 0.2;
+
+    /** Entries appended per nanosecond. */
+    private double mAppendRate = 0;
+    private double mFlushLatencyNs = 0;
+    private long mLastCounter = 0;
+    private long mLastTimeNs = -1;
+
+    /**
+     * @param counter the count of entries appended
+     * @param timeNs the current time in nanoseconds
+     */
+    void recordAppends(long counter, long timeNs) {
+      if (mLastTimeNs >= 0 && timeNs > mLastTimeNs) {
+        double rate = (double) (counter - mLastCounter) / (timeNs - mLastTimeNs);
+        mAppendRate += SAMPLE_WEIGHT * (rate - mAppendRate);
+      }
+      mLastCounter = counter;
+      mLastTimeNs = timeNs;
+    }
+
+    /**
+     * @param latencyNs the time a flush took to complete in nanoseconds
+     */
+    void recordFlushLatency(long latencyNs) {
+      mFlushLatencyNs += SAMPLE_WEIGHT * (latencyNs - mFlushLatencyNs);
+    }
+
+    /**
+     * @param maxFlushesInFlight the max number of flushes in flight
+     * @return the number of entries to flush in a batch, at least 1
+     */
+    long getTargetBatchSize(int maxFlushesInFlight) {
+      return Math.max(1, (long) (mAppendRate * mFlushLatencyNs / maxFlushesInFlight));
+    }
+  }
+
   private final JournalWriter mJournalWriter;
+  /** The journal writer if it flushes asynchronously, otherwise null. */
+  private final PipelinedJournalWriter mPipelinedJournalWriter;
   private final ConcurrentLinkedQueue<JournalEntry> mQueue;
   /** Represents the count of entries added to the journal queue. */
   private final AtomicLong mCounter;
@@ -126,8 +199,23 @@ public final class AsyncJournalWriter {
    * Invariant: {@code mWriteCounter >= mFlushCounter}
    */
   private long mWriteCounter;
+  /**
+   * Represents the count of entries submitted for flushing to the journal writer.
+   * This counter is only accessed by the dedicated journal thread.
+   * Invariant: {@code mWriteCounter >= mSubmitCounter >= mFlushCounter}
+   */
+  private long mSubmitCounter;
   /** Maximum number of nanoseconds for a batch flush. */
   private final long mFlushBatchTimeNs;
+  /** Maximum number of flushes in flight, for a {@link PipelinedJournalWriter}. */
+  private final int mMaxFlushesInFlight;
+  /**
+   * The flushes submitted and not yet completed, in submission order.
+   * This is only accessed by the dedicated journal thread.
+   */
+  private final Deque<InFlightFlush> mFlushesInFlight = new ArrayDeque<>();
+  /** This is only accessed by the dedicated journal thread. */
+  private final BatchSizer mBatchSizer = new BatchSizer();
 
   /**
    * Set of flush tickets submitted by ::flush() method.
@@ -169,13 +257,19 @@ public final class AsyncJournalWriter {
    */
   public AsyncJournalWriter(JournalWriter journalWriter, Supplier<Set<JournalSink>> journalSinks) {
     mJournalWriter = Preconditions.checkNotNull(journalWriter, "journalWriter");
+    mPipelinedJournalWriter = journalWriter instanceof PipelinedJournalWriter
+        ? (PipelinedJournalWriter) journalWriter : null;
     mQueue = new ConcurrentLinkedQueue<>();
     mCounter = new AtomicLong(0);
     mFlushCounter = new AtomicLong(0);
     mWriteCounter = 0L;
+    mSubmitCounter = 0L;
     mFlushBatchTimeNs = TimeUnit.NANOSECONDS.convert(
         Configuration.getMs(PropertyKey.MASTER_JOURNAL_FLUSH_BATCH_TIME_MS),
         TimeUnit.MILLISECONDS);
+    mMaxFlushesInFlight = Configuration.getInt(PropertyKey.MASTER_JOURNAL_FLUSH_MAX_IN_FLIGHT);
+    Preconditions.checkArgument(mMaxFlushesInFlight > 0, "%s must be positive, but is %s",
+        PropertyKey.Name.MASTER_JOURNAL_FLUSH_MAX_IN_FLIGHT, mMaxFlushesInFlight);
     mJournalSinks = journalSinks;
     mFlushThread.start();
   }
@@ -274,11 +368,16 @@ public final class AsyncJournalWriter {
       /*
         Stand still unless;
         - queue has items
+        - the oldest flush in flight has completed
+        - entries of a failed pipelined flush are to be flushed again
         - permit is given by:
           - clients
+          - completed flushes
           -::stop()
        */
-      while (mQueue.isEmpty() && !mStopFlushing) {
+      while (mQueue.isEmpty() && !isOldestFlushDone()
+          && (mPipelinedJournalWriter == null || mSubmitCounter == mWriteCounter)
+          && !mStopFlushing) {
         try {
           // Wait for permit up to batch timeout.
           // PS: We don't wait for permit indefinitely in order to process
@@ -292,7 +391,11 @@ public final class AsyncJournalWriter {
       }
 
       try {
+        completeFlushes();
         long startTime = System.nanoTime();
+        mBatchSizer.recordAppends(mCounter.get(), startTime);
+        long batchSize = mBatchSizer.getTargetBatchSize(mMaxFlushesInFlight);
+        long batchStartCounter = mWriteCounter;
 
         // Write pending entries to journal.
         while (!mQueue.isEmpty()) {
@@ -313,32 +416,35 @@ public final class AsyncJournalWriter {
             // infinite while-loop.
             break;
           }
-        }
-
-        // Either written new entries or previous flush had been failed.
-        if (mFlushCounter.get() < mWriteCounter) {
-          try (Timer.Context ctx = MetricsSystem
-              .timer(MetricKey.MASTER_JOURNAL_FLUSH_TIMER.getName()).time()) {
-            mJournalWriter.flush();
+          if (mPipelinedJournalWriter != null) {
+            // Keep writing the next batch while all the flushes are in flight, and cut it once
+            // large enough when a flush can be submitted.
+            completeFlushes();
+            if (mWriteCounter - batchStartCounter >= batchSize
+                && mFlushesInFlight.size() < mMaxFlushesInFlight) {
+              break;
+            }
           }
-          JournalUtils.sinkFlush(mJournalSinks);
-          mFlushCounter.set(mWriteCounter);
         }
 
-        // Notify tickets that have been served to wake up.
-        Iterator<FlushTicket> ticketIterator = mTicketSet.iterator();
-        while (ticketIterator.hasNext()) {
-          FlushTicket ticket = ticketIterator.next();
-          if (ticket.getTargetCounter() <= mFlushCounter.get()) {
-            ticket.setCompleted();
-            ticketIterator.remove();
+        // Either written new entries or previous flush had been failed.
+        if (mSubmitCounter < mWriteCounter) {
+          while (mFlushesInFlight.size() >= mMaxFlushesInFlight) {
+            waitForFlush(mFlushesInFlight.peek());
+            completeFlushes();
           }
+          submitFlush();
         }
+        completeFlushes();
+        notifyTickets();
       } catch (IOException | JournalClosedException exc) {
         // Add the error logging here since the actual flush error may be overwritten
         // by the future meaningless ratis.protocol.AlreadyClosedException
         SAMPLING_LOG.warn("Failed to flush journal entry: " + exc.getMessage(), exc);
         Metrics.JOURNAL_FLUSH_FAILURE.inc();
+        // The entries written after the last completed flush are flushed again.
+        mFlushesInFlight.clear();
+        mSubmitCounter = mFlushCounter.get();
         // Release only tickets that have been flushed. Fail the rest.
         Iterator<FlushTicket> ticketIterator = mTicketSet.iterator();
         while (ticketIterator.hasNext()) {
@@ -354,6 +460,94 @@ public final class AsyncJournalWriter {
     }
   }
 
+  /**
+   * Flushes the entries written since the last flush submitted.
+   */
+  private void submitFlush() throws IOException, JournalClosedException {
+    InFlightFlush flush = new InFlightFlush(mWriteCounter, mWriteCounter - mSubmitCounter);
+    long startTime = System.nanoTime();
+    if (mPipelinedJournalWriter != null) {
+      flush.mFuture = mPipelinedJournalWriter.flushAsync().whenComplete((result, error) -> {
+        flush.mLatencyNs = System.nanoTime() - startTime;
+        // Wake up the flush thread to complete the flush.
+        mFlushSemaphore.release();
+      });
+    } else {
+      mJournalWriter.flush();
+      flush.mLatencyNs = System.nanoTime() - startTime;
+      flush.mFuture = CompletableFuture.completedFuture(null);
+    }
+    mFlushesInFlight.add(flush);
+    mSubmitCounter = mWriteCounter;
+  }
+
+  /**
+   * @return whether the oldest flush in flight has completed
+   */
+  private boolean isOldestFlushDone() {
+    InFlightFlush flush = mFlushesInFlight.peek();
+    return flush != null && flush.mFuture.isDone();
+  }
+
+  /**
+   * Notifies tickets that have been served to wake up.
+   */
+  private void notifyTickets() {
+    Iterator<FlushTicket> ticketIterator = mTicketSet.iterator();
+    while (ticketIterator.hasNext()) {
+      FlushTicket ticket = ticketIterator.next();
+      if (ticket.getTargetCounter() <= mFlushCounter.get()) {
+        ticket.setCompleted();
+        ticketIterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Completes the flushes done, in submission order, and notifies the tickets served.
+   */
+  private void completeFlushes() throws IOException, JournalClosedException {
+    if (!isOldestFlushDone()) {
+      return;
+    }
+    while (isOldestFlushDone()) {
+      InFlightFlush flush = mFlushesInFlight.peek();
+      waitForFlush(flush);
+      mFlushesInFlight.poll();
+      MetricsSystem.timer(MetricKey.MASTER_JOURNAL_FLUSH_TIMER.getName())
+          .update(flush.mLatencyNs, TimeUnit.NANOSECONDS);
+      MetricsSystem.histogram(MetricKey.MASTER_JOURNAL_FLUSH_BATCH_SIZE.getName())
+          .update(flush.mEntries);
+      mBatchSizer.recordFlushLatency(flush.mLatencyNs);
+      JournalUtils.sinkFlush(mJournalSinks);
+      mFlushCounter.set(flush.mCounter);
+    }
+    notifyTickets();
+  }
+
+  /**
+   * Waits for a flush to complete.
+   *
+   * @param flush the flush to wait for
+   */
+  private void waitForFlush(InFlightFlush flush) throws IOException, JournalClosedException {
+    try {
+      flush.mFuture.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof JournalClosedException) {
+        throw (JournalClosedException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
   /**
    * Submits a ticket to flush thread and waits until ticket is served.
    *
@@ -0,0 +1,32 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal;
+
+import alluxio.concurrent.jsr.CompletableFuture;
+import alluxio.exception.JournalClosedException;
+
+import java.io.IOException;
+
+/**
+ * A {@link JournalWriter} which can flush entries without waiting for them to be persisted, so
+ * that the next entries can be written while the entries flushed are persisted.
+ */
+public interface PipelinedJournalWriter extends JournalWriter {
+  /**
+   * Flushes all the entries written to the underlying storage, without waiting for them to be
+   * persisted. The entries of a flush failing are submitted again by the next flush.
+   *
+   * @return a future completing when the entries are persisted, or completing exceptionally with
+   *         an {@link IOException} or a {@link JournalClosedException} if the flush fails
+   */
+  CompletableFuture<Void> flushAsync() throws IOException, JournalClosedException;
+}
@@ -0,0 +1,50 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal.checkpoint;
+
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.util.ThreadFactoryUtils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The executor compressing and restoring the chunks of the checkpoint files, shared by all the
+ * checkpointed components.
+ *
+ * The executors running the components are not used, since a component waits for its chunks,
+ * which would never run if the executor is bounded and all its threads wait. The chunk tasks
+ * never wait for other tasks.
+ */
+final class CheckpointChunkExecutor {
+  private static final class Holder {
+    private static final ExecutorService INSTANCE = Executors.newFixedThreadPool(
+        getParallelism(), ThreadFactoryUtils.build("checkpoint-chunk-%d", true));
+  }
+
+  /**
+   * @return the executor of the chunk tasks
+   */
+  static ExecutorService get() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * @return the number of threads of the executor
+   */
+  static int getParallelism() {
+    return Configuration.getInt(PropertyKey.MASTER_JOURNAL_CHECKPOINT_PARALLELISM);
+  }
+
+  private CheckpointChunkExecutor() {} // prevent instantiation
+}
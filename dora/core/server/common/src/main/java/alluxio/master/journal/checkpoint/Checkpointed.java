@@ -11,6 +11,8 @@
 
 package alluxio.master.journal.checkpoint;
 
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
 import alluxio.exception.runtime.AlluxioRuntimeException;
 import alluxio.grpc.ErrorType;
 
@@ -39,6 +41,8 @@ public interface Checkpointed {
 
   /**
    * Writes a checkpoint to the specified directory asynchronously using the provided executor.
+   * Unless {@link PropertyKey#MASTER_JOURNAL_CHECKPOINT_CHUNK_SIZE} is 0, the checkpoint is
+   * written in chunks compressed concurrently by a dedicated executor.
    *
    * @param directory       where the checkpoint will be written
    * @param executorService to use when running tasks asynchronously
@@ -51,7 +55,12 @@ public interface Checkpointed {
       File file = new File(directory, getCheckpointName().toString());
       try {
         MessageDigest md5 = MD5Hash.getDigester();
-        try (OutputStream outputStream = new OptimizedCheckpointOutputStream(file, md5)) {
+        int chunkSize =
+            (int) Configuration.getBytes(PropertyKey.MASTER_JOURNAL_CHECKPOINT_CHUNK_SIZE);
+        try (OutputStream outputStream = chunkSize > 0
+            ? new ParallelCheckpointOutputStream(file, md5, CheckpointChunkExecutor.get(),
+                chunkSize, CheckpointChunkExecutor.getParallelism())
+            : new OptimizedCheckpointOutputStream(file, md5)) {
           writeToCheckpoint(outputStream);
         }
         MD5FileUtil.saveMD5File(file, new MD5Hash(md5.digest()));
@@ -87,7 +96,7 @@ public interface Checkpointed {
       File file = new File(directory, getCheckpointName().toString());
       try {
         MessageDigest md5 = MD5Hash.getDigester();
-        try (CheckpointInputStream is = new OptimizedCheckpointInputStream(file, md5)) {
+        try (CheckpointInputStream is = ParallelCheckpointInputStream.open(file, md5)) {
           restoreFromCheckpoint(is);
         }
         MD5FileUtil.verifySavedMD5(file, new MD5Hash(md5.digest()));
@@ -58,6 +58,11 @@ public class OptimizedCheckpointOutputStream extends OutputStream {
     mOutputStream.write(b);
   }
 
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    mOutputStream.write(b, off, len);
+  }
+
   @Override
   public void close() throws IOException {
     mOutputStream.close();
@@ -0,0 +1,357 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal.checkpoint;
+
+import static alluxio.master.journal.checkpoint.ParallelCheckpointOutputStream.CHUNK_HEADER_BYTES;
+import static alluxio.master.journal.checkpoint.ParallelCheckpointOutputStream.END_OF_CHUNKS;
+import static alluxio.master.journal.checkpoint.ParallelCheckpointOutputStream.MAGIC;
+import static alluxio.master.journal.checkpoint.ParallelCheckpointOutputStream.VERSION;
+
+import com.google.common.base.Preconditions;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
+
+/**
+ * InputStream to read checkpoint files written by {@link ParallelCheckpointOutputStream}.
+ *
+ * The chunks ahead of the one being read are read, decompressed and verified against their
+ * checksum by tasks of the executor, so that the reader only copies the data of the chunks.
+ * The digest is updated with the bytes of each chunk as the reader reaches it, so that it is
+ * updated with the bytes of the file in order.
+ */
+public class ParallelCheckpointInputStream extends CheckpointInputStream {
+  private static final LZ4SafeDecompressor DECOMPRESSOR =
+      LZ4Factory.fastestInstance().safeDecompressor();
+
+  /**
+   * @param file where the checkpoint will be read from
+   * @param digest that verifies the file has not been corrupted
+   * @param executor the executor reading the chunks
+   * @param parallelism the max number of chunks read concurrently
+   * @throws IOException propagates wrapped input stream exceptions
+   */
+  public ParallelCheckpointInputStream(File file, MessageDigest digest,
+      ExecutorService executor, int parallelism) throws IOException {
+    super(new ChunkInputStream(file, digest, executor, parallelism));
+  }
+
+  /**
+   * Opens a checkpoint file written either in chunks or as a single stream.
+   *
+   * @param file where the checkpoint will be read from
+   * @param digest that verifies the file has not been corrupted
+   * @return the stream reading the checkpoint
+   */
+  public static CheckpointInputStream open(File file, MessageDigest digest) throws IOException {
+    return isParallelCheckpoint(file)
+        ? new ParallelCheckpointInputStream(file, digest, CheckpointChunkExecutor.get(),
+            CheckpointChunkExecutor.getParallelism())
+        : new OptimizedCheckpointInputStream(file, digest);
+  }
+
+  /**
+   * @param file a checkpoint file
+   * @return whether the file was written by {@link ParallelCheckpointOutputStream}
+   */
+  public static boolean isParallelCheckpoint(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+      while (magic.hasRemaining() && channel.read(magic) >= 0) {
+        continue;
+      }
+      return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+    }
+  }
+
+  /**
+   * Reads the chunks of the file in order, the next chunks being read by the executor.
+   */
+  private static final class ChunkInputStream extends InputStream {
+    private final File mFile;
+    private final FileChannel mChannel;
+    private final MessageDigest mDigest;
+    private final ExecutorService mExecutor;
+    private final int mChunkSize;
+    private final int mParallelism;
+    /** The chunks being read, in the order of the file. */
+    private final Deque<CompletableFuture<Chunk>> mPending = new ArrayDeque<>();
+    /** The buffers of the chunks read, reused by the next chunks. */
+    private final Deque<Chunk> mFree = new ArrayDeque<>();
+    private final ByteBuffer mHeader = ByteBuffer.allocate(CHUNK_HEADER_BYTES);
+
+    /** The position of the next header in the file. */
+    private long mPosition;
+    /** The number of chunks submitted to be read. */
+    private int mChunkCount;
+    /** Whether the trailer has been read. */
+    private boolean mEnd;
+    /** Whether the digest has been updated with the trailer. */
+    private boolean mTrailerDigested;
+    private Chunk mChunk;
+    private int mChunkPosition;
+
+    ChunkInputStream(File file, MessageDigest digest, ExecutorService executor,
+        int parallelism) throws IOException {
+      Preconditions.checkArgument(parallelism > 0, "parallelism must be positive: %s",
+          parallelism);
+      mFile = file;
+      mChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+      mDigest = digest;
+      mExecutor = executor;
+      mParallelism = parallelism;
+      try {
+        ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES);
+        readFully(header, 0);
+        mDigest.update(header.array());
+        int magic = header.getInt();
+        int version = header.getInt();
+        mChunkSize = header.getInt();
+        if (magic != MAGIC || version != VERSION || mChunkSize <= 0) {
+          throw new IOException(String.format(
+              "Unexpected header of checkpoint %s: magic %x, version %d, chunk size %d",
+              file, magic, version, mChunkSize));
+        }
+        mPosition = header.capacity();
+        submitChunks();
+      } catch (IOException | RuntimeException e) {
+        mChannel.close();
+        throw e;
+      }
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (!nextChunk()) {
+        return -1;
+      }
+      return mChunk.mData[mChunkPosition++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      Preconditions.checkPositionIndexes(off, off + len, b.length);
+      if (len == 0) {
+        return 0;
+      }
+      if (!nextChunk()) {
+        return -1;
+      }
+      int n = Math.min(len, mChunk.mLength - mChunkPosition);
+      System.arraycopy(mChunk.mData, mChunkPosition, b, off, n);
+      mChunkPosition += n;
+      return n;
+    }
+
+    @Override
+    public int available() {
+      return mChunk == null ? 0 : mChunk.mLength - mChunkPosition;
+    }
+
+    /**
+     * Reads the remaining chunks, so that the digest covers the whole file, and waits for the
+     * pending chunks before closing the file.
+     */
+    @Override
+    public void close() throws IOException {
+      try {
+        while (nextChunk()) {
+          mChunkPosition = mChunk.mLength;
+        }
+      } finally {
+        for (CompletableFuture<Chunk> chunk : mPending) {
+          try {
+            chunk.join();
+          } catch (CompletionException e) {
+            // the chunk is not read anymore
+          }
+        }
+        mPending.clear();
+        mChannel.close();
+      }
+    }
+
+    /**
+     * Moves to the next chunk if the current one has been read.
+     *
+     * @return whether there is data left to read
+     */
+    private boolean nextChunk() throws IOException {
+      while (mChunk == null || mChunkPosition == mChunk.mLength) {
+        if (mChunk != null) {
+          mFree.addLast(mChunk);
+          mChunk = null;
+        }
+        if (mPending.isEmpty()) {
+          if (mEnd && !mTrailerDigested) {
+            digestHeader(END_OF_CHUNKS, 0, mChunkCount);
+            mTrailerDigested = true;
+          }
+          return false;
+        }
+        try {
+          mChunk = mPending.removeFirst().join();
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) e.getCause()).getCause();
+          }
+          throw new IOException(String.format("Failed to read checkpoint %s", mFile),
+              e.getCause());
+        }
+        digestHeader(mChunk.mLength, mChunk.mCompressedLength, mChunk.mChecksum);
+        // the chunks which do not compress are read into their data as is
+        mDigest.update(mChunk.mCompressedLength == mChunk.mLength ? mChunk.mData
+            : mChunk.mCompressed, 0, mChunk.mCompressedLength);
+        mChunkPosition = 0;
+        submitChunks();
+      }
+      return true;
+    }
+
+    /**
+     * Submits the chunks following the ones pending to be read.
+     */
+    private void submitChunks() throws IOException {
+      while (!mEnd && mPending.size() < mParallelism) {
+        Chunk chunk = readHeader();
+        if (chunk != null) {
+          mPending.addLast(CompletableFuture.supplyAsync(chunk::load, mExecutor));
+        }
+      }
+    }
+
+    /**
+     * Reads the header at the current position and moves to the next one.
+     *
+     * @return the chunk of the header, or null if it is the trailer
+     */
+    private Chunk readHeader() throws IOException {
+      mHeader.clear();
+      readFully(mHeader, mPosition);
+      int length = mHeader.getInt(0);
+      int compressedLength = mHeader.getInt(Integer.BYTES);
+      int checksum = mHeader.getInt(2 * Integer.BYTES);
+      mPosition += CHUNK_HEADER_BYTES;
+      if (length == END_OF_CHUNKS) {
+        if (checksum != mChunkCount) {
+          throw new IOException(String.format("Checkpoint %s has %d chunks, %d expected",
+              mFile, mChunkCount, checksum));
+        }
+        mEnd = true;
+        return null;
+      }
+      // the chunks which do not compress are stored as is
+      if (length < 0 || length > mChunkSize || compressedLength < 0
+          || compressedLength > length) {
+        throw new IOException(String.format(
+            "Invalid header of chunk %d of checkpoint %s: length %d, compressed length %d",
+            mChunkCount, mFile, length, compressedLength));
+      }
+      Chunk chunk = mFree.pollFirst();
+      if (chunk == null) {
+        chunk = new Chunk(mChunkSize);
+      }
+      chunk.set(mChunkCount, mPosition, length, compressedLength, checksum);
+      mPosition += compressedLength;
+      mChunkCount++;
+      return chunk;
+    }
+
+    /**
+     * Updates the digest with a header, once the chunks before it are digested.
+     */
+    private void digestHeader(int length, int compressedLength, int checksum) {
+      mHeader.clear();
+      mHeader.putInt(length).putInt(compressedLength).putInt(checksum);
+      mDigest.update(mHeader.array());
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+      while (buffer.hasRemaining()) {
+        int n = mChannel.read(buffer, position);
+        if (n < 0) {
+          throw new EOFException(String.format("Checkpoint %s is truncated at %d",
+              mFile, position));
+        }
+        position += n;
+      }
+      buffer.flip();
+    }
+
+    /**
+     * The buffers of a chunk, owned by the task reading it while it is pending.
+     */
+    private final class Chunk {
+      private final byte[] mData;
+      private final byte[] mCompressed;
+      private int mIndex;
+      private long mOffset;
+      private int mLength;
+      private int mCompressedLength;
+      private int mChecksum;
+
+      Chunk(int chunkSize) {
+        mData = new byte[chunkSize];
+        mCompressed = new byte[chunkSize];
+      }
+
+      void set(int index, long offset, int length, int compressedLength, int checksum) {
+        mIndex = index;
+        mOffset = offset;
+        mLength = length;
+        mCompressedLength = compressedLength;
+        mChecksum = checksum;
+      }
+
+      Chunk load() {
+        try {
+          if (mCompressedLength == mLength) {
+            readFully(ByteBuffer.wrap(mData, 0, mLength), mOffset);
+          } else {
+            readFully(ByteBuffer.wrap(mCompressed, 0, mCompressedLength), mOffset);
+            int length = DECOMPRESSOR.decompress(mCompressed, 0, mCompressedLength, mData, 0,
+                mLength);
+            if (length != mLength) {
+              throw new IOException(String.format(
+                  "Chunk %d of checkpoint %s has length %d, %d expected",
+                  mIndex, mFile, length, mLength));
+            }
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(mData, 0, mLength);
+        if ((int) crc.getValue() != mChecksum) {
+          throw new UncheckedIOException(new IOException(String.format(
+              "Checksum mismatch in chunk %d of checkpoint %s", mIndex, mFile)));
+        }
+        return this;
+      }
+    }
+  }
+}
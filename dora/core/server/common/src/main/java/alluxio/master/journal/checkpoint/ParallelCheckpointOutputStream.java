@@ -0,0 +1,212 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal.checkpoint;
+
+import com.google.common.base.Preconditions;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
+
+/**
+ * OutputStream to write checkpoint files in chunks compressed concurrently.
+ *
+ * The data written is cut into chunks of a fixed size, each of which is compressed and
+ * checksummed by a task of the executor while the next chunks are written. The chunks are then
+ * appended to the file in order, each preceded by a header holding its length, its compressed
+ * length and the checksum of its data. The file starts with {@link #MAGIC}, which tells it apart
+ * from the files written by {@link OptimizedCheckpointOutputStream}, and ends with a trailer
+ * holding the number of chunks, so that a truncated file is detected.
+ *
+ * The digest is updated with every byte written to the file, so that it verifies the whole file,
+ * while the checksums of the chunks verify the data of each chunk once decompressed.
+ *
+ * @see ParallelCheckpointInputStream
+ */
+public class ParallelCheckpointOutputStream extends OutputStream {
+  /** The first bytes of a file written by this stream. */
+  public static final int MAGIC = 0x414C5843;
+  static final int VERSION = 1;
+  /** The length of the header of a chunk: its length, compressed length and checksum. */
+  static final int CHUNK_HEADER_BYTES = 3 * Integer.BYTES;
+  /** The length written in place of the length of a chunk to start the trailer. */
+  static final int END_OF_CHUNKS = -1;
+
+  private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+
+  private final DataOutputStream mOutputStream;
+  private final MessageDigest mDigest;
+  private final ExecutorService mExecutor;
+  private final int mChunkSize;
+  private final int mParallelism;
+  /** The chunks being compressed, in the order they are written. */
+  private final Deque<CompletableFuture<Chunk>> mPending = new ArrayDeque<>();
+  /** The buffers of the chunks written, reused by the next chunks. */
+  private final Deque<Chunk> mFree = new ArrayDeque<>();
+  private final ByteBuffer mHeader = ByteBuffer.allocate(CHUNK_HEADER_BYTES);
+
+  private Chunk mChunk;
+  private int mChunkCount;
+  private boolean mClosed;
+
+  /**
+   * @param file where the checkpoint will be written
+   * @param digest to ensure uncorrupted data
+   * @param executor the executor compressing the chunks
+   * @param chunkSize the length of the data of a chunk
+   * @param parallelism the max number of chunks compressed concurrently
+   * @throws IOException propagates wrapped output stream exceptions
+   */
+  public ParallelCheckpointOutputStream(File file, MessageDigest digest,
+      ExecutorService executor, int chunkSize, int parallelism) throws IOException {
+    Preconditions.checkArgument(chunkSize > 0, "chunkSize must be positive: %s", chunkSize);
+    Preconditions.checkArgument(parallelism > 0, "parallelism must be positive: %s",
+        parallelism);
+    mOutputStream = new DataOutputStream(new BufferedOutputStream(
+        Files.newOutputStream(file.toPath()), OptimizedCheckpointOutputStream.BUFFER_SIZE));
+    mDigest = digest;
+    mExecutor = executor;
+    mChunkSize = chunkSize;
+    mParallelism = parallelism;
+    ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES);
+    header.putInt(MAGIC).putInt(VERSION).putInt(chunkSize);
+    mDigest.update(header.array());
+    mOutputStream.write(header.array());
+    mChunk = newChunk();
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (mChunk.mLength == mChunkSize) {
+      submitChunk();
+    }
+    mChunk.mData[mChunk.mLength++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    Preconditions.checkPositionIndexes(off, off + len, b.length);
+    while (len > 0) {
+      if (mChunk.mLength == mChunkSize) {
+        submitChunk();
+      }
+      int n = Math.min(len, mChunkSize - mChunk.mLength);
+      System.arraycopy(b, off, mChunk.mData, mChunk.mLength, n);
+      mChunk.mLength += n;
+      off += n;
+      len -= n;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (mClosed) {
+      return;
+    }
+    mClosed = true;
+    try {
+      if (mChunk.mLength > 0) {
+        submitChunk();
+      }
+      while (!mPending.isEmpty()) {
+        writeNextChunk();
+      }
+      writeHeader(END_OF_CHUNKS, 0, mChunkCount);
+    } finally {
+      mOutputStream.close();
+    }
+  }
+
+  /**
+   * Submits the current chunk to be compressed, and writes the chunks compressed first if too
+   * many chunks are pending.
+   */
+  private void submitChunk() throws IOException {
+    Chunk chunk = mChunk;
+    mPending.addLast(CompletableFuture.supplyAsync(chunk::compress, mExecutor));
+    while (mPending.size() > mParallelism) {
+      writeNextChunk();
+    }
+    mChunk = newChunk();
+  }
+
+  private void writeNextChunk() throws IOException {
+    Chunk chunk;
+    try {
+      chunk = mPending.removeFirst().join();
+    } catch (CompletionException e) {
+      throw new IOException(String.format("Failed to compress chunk %d", mChunkCount),
+          e.getCause());
+    }
+    writeHeader(chunk.mLength, chunk.mCompressedLength, chunk.mChecksum);
+    mDigest.update(chunk.mCompressed, 0, chunk.mCompressedLength);
+    mOutputStream.write(chunk.mCompressed, 0, chunk.mCompressedLength);
+    mChunkCount++;
+    chunk.mLength = 0;
+    mFree.addLast(chunk);
+  }
+
+  private void writeHeader(int length, int compressedLength, int checksum) throws IOException {
+    mHeader.clear();
+    mHeader.putInt(length).putInt(compressedLength).putInt(checksum);
+    mDigest.update(mHeader.array());
+    mOutputStream.write(mHeader.array());
+  }
+
+  private Chunk newChunk() {
+    Chunk chunk = mFree.pollFirst();
+    return chunk != null ? chunk : new Chunk(mChunkSize);
+  }
+
+  /**
+   * The buffers of a chunk, owned by the task compressing it while it is pending.
+   */
+  private static final class Chunk {
+    private final byte[] mData;
+    private final byte[] mCompressed;
+    private int mLength;
+    private int mCompressedLength;
+    private int mChecksum;
+
+    Chunk(int chunkSize) {
+      mData = new byte[chunkSize];
+      mCompressed = new byte[COMPRESSOR.maxCompressedLength(chunkSize)];
+    }
+
+    Chunk compress() {
+      CRC32 crc = new CRC32();
+      crc.update(mData, 0, mLength);
+      mChecksum = (int) crc.getValue();
+      mCompressedLength = COMPRESSOR.compress(mData, 0, mLength, mCompressed, 0,
+          mCompressed.length);
+      if (mCompressedLength >= mLength) {
+        // the data does not compress, the chunk is stored as is
+        System.arraycopy(mData, 0, mCompressed, 0, mLength);
+        mCompressedLength = mLength;
+      }
+      return this;
+    }
+  }
+}
@@ -14,7 +14,8 @@ package alluxio.master.journal.raft;
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.JournalClosedException;
-import alluxio.master.journal.JournalWriter;
+import alluxio.concurrent.jsr.CompletableFuture;
+import alluxio.master.journal.PipelinedJournalWriter;
 import alluxio.proto.journal.Journal.JournalEntry;
 import alluxio.util.FormatUtils;
 
@@ -26,19 +27,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * Class for writing entries to the Raft journal. Written entries are aggregated until flush is
  * called, then they are submitted as a single unit.
+ *
+ * The units submitted are kept until they are committed, and all of them are submitted again
+ * after a submission fails, as the units submitted after the one failing can not be applied
+ * without it.
  */
 @NotThreadSafe
-public class RaftJournalWriter implements JournalWriter {
+public class RaftJournalWriter implements PipelinedJournalWriter {
   private static final Logger LOG = LoggerFactory.getLogger(RaftJournalWriter.class);
   // How long to wait for a response from the cluster before giving up and trying again.
   private static final long MASTER_EMBEDDED_JOURNAL_WRITE_TIMEOUT =
@@ -58,6 +69,12 @@ public class RaftJournalWriter implements JournalWriter {
   private volatile boolean mClosed = false;
   private JournalEntry.Builder mJournalEntryBuilder; // gets build across successive writes
   private final AtomicLong mCurrentJournalEntrySize = new AtomicLong(0);
+  /** The units submitted and not yet committed, in submission order. */
+  @GuardedBy("mSubmittedFlushes")
+  private final Deque<SubmittedFlush> mSubmittedFlushes = new ArrayDeque<>();
+  /** Whether a submission failed, so that the units not committed must be submitted again. */
+  @GuardedBy("mSubmittedFlushes")
+  private boolean mResubmit = false;
 
   /**
    * @param nextSequenceNumberToWrite the sequence number for the writer to begin writing at
@@ -102,34 +119,176 @@ public class RaftJournalWriter implements JournalWriter {
     if (mClosed) {
       throw new JournalClosedException("Cannot flush. Journal writer has been closed");
     }
-    if (mJournalEntryBuilder != null) {
-      long flushSN = mNextSequenceNumberToWrite.get() - 1;
+    List<SubmittedFlush> toSubmit;
+    List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+    synchronized (mSubmittedFlushes) {
+      toSubmit = takeUnitsToSubmit();
+      for (SubmittedFlush flush : mSubmittedFlushes) {
+        if (flush.mFuture != null && !toSubmit.contains(flush)) {
+          inFlight.add(flush.mFuture);
+        }
+      }
+    }
+    for (SubmittedFlush flush : toSubmit) {
+      long flushSN = flush.mSequenceNumber;
       try {
-        // It is ok to submit the same entries multiple times because we de-duplicate by sequence
-        // number when applying them. This could happen if submit fails and we re-submit the same
-        // entry on retry.
-        JournalEntry entry = mJournalEntryBuilder.build();
-        Message message = Message.valueOf(UnsafeByteOperations.unsafeWrap(entry.toByteArray()));
         mLastSubmittedSequenceNumber.set(flushSN);
-        LOG.trace("Flushing entry {} ({})", entry, message);
-        RaftClientReply reply = mClient.sendAsync(message)
+        LOG.trace("Flushing message {} up to SN#{}", flush.mMessage, flushSN);
+        RaftClientReply reply = mClient.sendAsync(flush.mMessage)
             .get(MASTER_EMBEDDED_JOURNAL_WRITE_TIMEOUT, TimeUnit.MILLISECONDS);
         if (reply.getException() != null) {
           throw reply.getException();
         }
-        mLastCommittedSequenceNumber.set(flushSN);
+        onCommitted(flushSN);
+      } catch (InterruptedException e) {
+        onFailed();
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } catch (ExecutionException e) {
+        onFailed();
+        throw toIOException(e.getCause());
+      } catch (TimeoutException | IOException e) {
+        onFailed();
+        throw toIOException(e);
+      }
+    }
+    for (CompletableFuture<Void> future : inFlight) {
+      try {
+        future.get();
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
         throw new IOException(e);
       } catch (ExecutionException e) {
-        throw new IOException(e.getCause());
-      } catch (TimeoutException e) {
-        throw new IOException(String.format(
-            "Timed out after waiting %s milliseconds for journal entries to be processed",
-            MASTER_EMBEDDED_JOURNAL_WRITE_TIMEOUT), e);
+        throw toIOException(e.getCause());
       }
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> flushAsync() throws JournalClosedException {
+    if (mClosed) {
+      throw new JournalClosedException("Cannot flush. Journal writer has been closed");
+    }
+    // the units are submitted under the lock, so that they are submitted in order
+    synchronized (mSubmittedFlushes) {
+      List<SubmittedFlush> toSubmit = takeUnitsToSubmit();
+      if (mSubmittedFlushes.isEmpty()) {
+        return CompletableFuture.completedFuture(null);
+      }
+      SubmittedFlush last = mSubmittedFlushes.getLast();
+      for (SubmittedFlush flush : toSubmit) {
+        submitAsync(flush);
+      }
+      return last.mFuture;
+    }
+  }
+
+  /**
+   * Adds the entries written since the last flush as a new unit, and takes the units to submit,
+   * which are all the units not committed if a submission failed.
+   *
+   * @return the units to submit, in order
+   */
+  @GuardedBy("mSubmittedFlushes")
+  private List<SubmittedFlush> takeUnitsToSubmit() {
+    if (mJournalEntryBuilder != null) {
+      // It is ok to submit the same entries multiple times because we de-duplicate by sequence
+      // number when applying them. This could happen if submit fails and we re-submit the same
+      // entry on retry.
+      JournalEntry entry = mJournalEntryBuilder.build();
+      LOG.trace("Flushing entry {}", entry);
+      mSubmittedFlushes.add(new SubmittedFlush(mNextSequenceNumberToWrite.get() - 1,
+          Message.valueOf(UnsafeByteOperations.unsafeWrap(entry.toByteArray()))));
       mJournalEntryBuilder = null;
     }
+    List<SubmittedFlush> toSubmit = new ArrayList<>();
+    for (SubmittedFlush flush : mSubmittedFlushes) {
+      if (mResubmit || flush.mFuture == null) {
+        toSubmit.add(flush);
+      }
+    }
+    mResubmit = false;
+    return toSubmit;
+  }
+
+  /**
+   * Submits a unit to the cluster without waiting for the reply.
+   *
+   * @param flush the unit to submit
+   */
+  @GuardedBy("mSubmittedFlushes")
+  private void submitAsync(SubmittedFlush flush) {
+    long flushSN = flush.mSequenceNumber;
+    CompletableFuture<RaftClientReply> reply = new CompletableFuture<>();
+    mLastSubmittedSequenceNumber.set(flushSN);
+    LOG.trace("Flushing message {} up to SN#{}", flush.mMessage, flushSN);
+    try {
+      mClient.sendAsync(flush.mMessage).whenComplete((result, error) -> {
+        if (error != null) {
+          reply.completeExceptionally(error);
+        } else {
+          reply.complete(result);
+        }
+      });
+    } catch (IOException e) {
+      reply.completeExceptionally(e);
+    }
+    flush.mFuture = reply.orTimeout(MASTER_EMBEDDED_JOURNAL_WRITE_TIMEOUT, TimeUnit.MILLISECONDS)
+        .handle((result, error) -> {
+          if (error == null && result.getException() != null) {
+            error = result.getException();
+          }
+          if (error != null) {
+            onFailed();
+            throw new CompletionException(toIOException(error));
+          }
+          onCommitted(flushSN);
+          return null;
+        });
+  }
+
+  /**
+   * Removes the units committed, which are the unit of the sequence number and all the units
+   * submitted before it. Even if an earlier unit failed or timed out, a unit is only committed
+   * once its entries are applied, and the state machine applies the entries strictly in
+   * sequence number order, failing on a gap (see {@link JournalStateMachine}). The entries of
+   * the earlier units have hence been applied too, either from their first submission or from a
+   * submission again before the unit.
+   *
+   * @param flushSN the sequence number of the last entry committed
+   */
+  private void onCommitted(long flushSN) {
+    synchronized (mSubmittedFlushes) {
+      while (!mSubmittedFlushes.isEmpty()
+          && mSubmittedFlushes.peek().mSequenceNumber <= flushSN) {
+        mSubmittedFlushes.poll();
+      }
+    }
+    mLastCommittedSequenceNumber.accumulateAndGet(flushSN, Math::max);
+  }
+
+  /**
+   * Makes the next flush submit all the units not committed again.
+   */
+  private void onFailed() {
+    synchronized (mSubmittedFlushes) {
+      mResubmit = true;
+    }
+  }
+
+  private static IOException toIOException(Throwable error) {
+    if (error instanceof CompletionException && error.getCause() != null) {
+      error = error.getCause();
+    }
+    if (error instanceof TimeoutException) {
+      return new IOException(String.format(
+          "Timed out after waiting %s milliseconds for journal entries to be processed",
+          MASTER_EMBEDDED_JOURNAL_WRITE_TIMEOUT), error);
+    }
+    if (error instanceof IOException) {
+      return (IOException) error;
+    }
+    return new IOException(error);
   }
 
   @Override
@@ -142,6 +301,16 @@ public class RaftJournalWriter implements JournalWriter {
         mNextSequenceNumberToWrite.get() - 1, mLastSubmittedSequenceNumber.get(),
         mLastCommittedSequenceNumber.get());
     closeClient();
+    synchronized (mSubmittedFlushes) {
+      // the replies of the units in flight are not waited for once the client is closed
+      JournalClosedException closed =
+          new JournalClosedException("Journal writer closed with the flush in flight");
+      for (SubmittedFlush flush : mSubmittedFlushes) {
+        if (flush.mFuture != null) {
+          flush.mFuture.completeExceptionally(closed);
+        }
+      }
+    }
   }
 
   /**
@@ -151,6 +320,22 @@ public class RaftJournalWriter implements JournalWriter {
     return mNextSequenceNumberToWrite.get();
   }
 
+  /**
+   * A unit of journal entries submitted to the cluster.
+   */
+  private static final class SubmittedFlush {
+    /** The sequence number of the last entry of the unit. */
+    private final long mSequenceNumber;
+    private final Message mMessage;
+    /** The future of the last submission of the unit, or null if not yet submitted. */
+    private CompletableFuture<Void> mFuture;
+
+    SubmittedFlush(long sequenceNumber, Message message) {
+      mSequenceNumber = sequenceNumber;
+      mMessage = message;
+    }
+  }
+
   private void closeClient() {
     try {
       mClient.close();
@@ -14,6 +14,7 @@ package alluxio.master.journal.checkpoint;
 import net.bytebuddy.utility.RandomString;
 import org.apache.ratis.io.MD5Hash;
 import org.apache.ratis.util.MD5FileUtil;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -23,10 +24,14 @@ import org.junit.runners.Parameterized;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.file.Files;
 import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @RunWith(Parameterized.class)
 public class CheckpointStreamTest {
@@ -41,6 +46,13 @@ public class CheckpointStreamTest {
   @Rule
   public TemporaryFolder mFolder = new TemporaryFolder();
 
+  private final ExecutorService mExecutor = Executors.newFixedThreadPool(2);
+
+  @After
+  public void after() {
+    mExecutor.shutdownNow();
+  }
+
   @Test
   public void regularStreamTest() throws IOException {
     File file = mFolder.newFile();
@@ -76,4 +88,106 @@ public class CheckpointStreamTest {
     MD5FileUtil.verifySavedMD5(file, new MD5Hash(md5In.digest()));
     Assert.assertArrayEquals(contents, retrieved);
   }
+
+  @Test
+  public void parallelStreamTest() throws IOException {
+    File file = mFolder.newFile();
+    byte[] contents = new byte[10_000];
+    byte[] random = new byte[1000];
+    // half of the chunks do not compress
+    for (int i = 0; i < contents.length; i += 2000) {
+      new Random().nextBytes(random);
+      System.arraycopy(random, 0, contents, i, random.length);
+    }
+    MessageDigest md5Out = MD5Hash.getDigester();
+    try (CheckpointOutputStream outputStream = new CheckpointOutputStream(
+        new ParallelCheckpointOutputStream(file, md5Out, mExecutor, 1000, 3), mType)) {
+      outputStream.write(contents, 0, 4321);
+      outputStream.write(contents[4321]);
+      outputStream.write(contents, 4322, contents.length - 4322);
+    }
+    MD5FileUtil.saveMD5File(file, new MD5Hash(md5Out.digest()));
+    Assert.assertTrue(ParallelCheckpointInputStream.isParallelCheckpoint(file));
+    MessageDigest md5In = MD5Hash.getDigester();
+    byte[] retrieved = new byte[contents.length];
+    try (CheckpointInputStream s =
+             new ParallelCheckpointInputStream(file, md5In, mExecutor, 3)) {
+      Assert.assertEquals(mType, s.getType());
+      s.readFully(retrieved);
+      Assert.assertEquals(-1, s.read());
+    }
+    MD5FileUtil.verifySavedMD5(file, new MD5Hash(md5In.digest()));
+    // the digests cover every byte of the file
+    MD5FileUtil.verifySavedMD5(file, MD5FileUtil.computeMd5ForFile(file));
+    Assert.assertArrayEquals(contents, retrieved);
+  }
+
+  @Test
+  public void parallelStreamCorruptedChunkFailsMd5() throws IOException {
+    File file = mFolder.newFile();
+    byte[] contents = new byte[10_000];
+    new Random().nextBytes(contents);
+    MessageDigest md5Out = MD5Hash.getDigester();
+    try (CheckpointOutputStream outputStream = new CheckpointOutputStream(
+        new ParallelCheckpointOutputStream(file, md5Out, mExecutor, 1000, 3), mType)) {
+      outputStream.write(contents);
+    }
+    MD5FileUtil.saveMD5File(file, new MD5Hash(md5Out.digest()));
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      // in the data of the second chunk, the headers of the file and of the chunks left intact
+      long position = 24 + 1000 + 12 + 500;
+      raf.seek(position);
+      int b = raf.read();
+      raf.seek(position);
+      raf.write(b ^ 1);
+    }
+    Assert.assertThrows(IOException.class,
+        () -> MD5FileUtil.verifySavedMD5(file, MD5FileUtil.computeMd5ForFile(file)));
+  }
+
+  @Test
+  public void parallelStreamCorruptedChunk() throws IOException {
+    File file = mFolder.newFile();
+    byte[] contents = new byte[10_000];
+    new Random().nextBytes(contents);
+    try (CheckpointOutputStream outputStream = new CheckpointOutputStream(
+        new ParallelCheckpointOutputStream(file, MD5Hash.getDigester(), mExecutor, 1000, 3),
+        mType)) {
+      outputStream.write(contents);
+    }
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      // in the data of the first chunk, after the headers of the file and of the chunk
+      raf.seek(24 + 500);
+      int b = raf.read();
+      raf.seek(24 + 500);
+      raf.write(b ^ 1);
+    }
+    byte[] retrieved = new byte[contents.length];
+    try (CheckpointInputStream s =
+             new ParallelCheckpointInputStream(file, MD5Hash.getDigester(), mExecutor, 3)) {
+      s.readFully(retrieved);
+      Assert.fail("the corrupted chunk should fail the read");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("Checksum mismatch"));
+    }
+  }
+
+  @Test
+  public void parallelStreamTruncated() throws IOException {
+    File file = mFolder.newFile();
+    try (CheckpointOutputStream outputStream = new CheckpointOutputStream(
+        new ParallelCheckpointOutputStream(file, MD5Hash.getDigester(), mExecutor, 1000, 3),
+        mType)) {
+      outputStream.write(new byte[10_000]);
+    }
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(file.length() - 1);
+    }
+    Assert.assertThrows(IOException.class, () -> {
+      try (CheckpointInputStream s = new ParallelCheckpointInputStream(file,
+          MD5Hash.getDigester(), mExecutor, 3)) {
+        s.readFully(new byte[10_000]);
+      }
+    });
+  }
 }
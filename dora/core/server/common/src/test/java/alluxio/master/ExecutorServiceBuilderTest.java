@@ -11,6 +11,8 @@
 
 package alluxio.master;
 
+import static org.junit.Assert.assertEquals;
+
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.executor.ExecutorServiceBuilder;
@@ -102,4 +104,18 @@ public class ExecutorServiceBuilderTest {
       ExecutorServiceBuilder.buildExecutorService(ExecutorServiceBuilder.RpcExecutorHost.MASTER);
     }
   }
+
+  @Test
+  public void createVirtualExecutor() throws Exception {
+    // falls back to TPE on runtimes without virtual threads
+    Configuration.set(PropertyKey.MASTER_RPC_EXECUTOR_TYPE, RpcExecutorType.VIRTUAL);
+    AlluxioExecutorService executor =
+        ExecutorServiceBuilder.buildExecutorService(ExecutorServiceBuilder.RpcExecutorHost.MASTER);
+    try {
+      assertEquals(1, (int) executor.submit(() -> 1).get());
+      assertEquals(0, executor.getRpcQueueLength());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
@@ -12,6 +12,8 @@
 package alluxio.master.journal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeastOnce;
@@ -19,7 +21,9 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import alluxio.concurrent.jsr.CompletableFuture;
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.proto.journal.Journal.JournalEntry;
@@ -29,6 +33,9 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Unit tests for {@link AsyncJournalWriter}.
@@ -200,4 +207,91 @@ public class AsyncJournalWriterTest {
   public void failedFlushWithBatching() throws Exception {
     failedFlushInternal(true);
   }
+
+  private BlockingQueue<CompletableFuture<Void>> setupPipelinedJournalWriter(int maxInFlight)
+      throws Exception {
+    Configuration.set(PropertyKey.MASTER_JOURNAL_FLUSH_BATCH_TIME_MS, "0ms");
+    Configuration.set(PropertyKey.MASTER_JOURNAL_FLUSH_MAX_IN_FLIGHT, maxInFlight);
+    PipelinedJournalWriter journalWriter = mock(PipelinedJournalWriter.class);
+    BlockingQueue<CompletableFuture<Void>> flushes = new LinkedBlockingQueue<>();
+    when(journalWriter.flushAsync()).thenAnswer(invocation -> {
+      CompletableFuture<Void> future = new CompletableFuture<>();
+      flushes.add(future);
+      return future;
+    });
+    mAsyncJournalWriter = new AsyncJournalWriter(journalWriter, Collections::emptySet);
+    return flushes;
+  }
+
+  @Test(timeout = 10000)
+  public void pipelinedFlushes() throws Exception {
+    BlockingQueue<CompletableFuture<Void>> flushes = setupPipelinedJournalWriter(2);
+
+    mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance());
+    CompletableFuture<Void> first = flushes.take();
+    // The next batch is flushed while the first one is in flight.
+    long secondCounter = mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance());
+    CompletableFuture<Void> second = flushes.take();
+    // Another batch waits for a flush to complete.
+    long thirdCounter = mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance());
+    assertNull(flushes.poll(100, TimeUnit.MILLISECONDS));
+
+    // The flushes complete in order.
+    second.complete(null);
+    assertNull(flushes.poll(100, TimeUnit.MILLISECONDS));
+    first.complete(null);
+    mAsyncJournalWriter.flush(secondCounter);
+    flushes.take().complete(null);
+    mAsyncJournalWriter.flush(thirdCounter);
+  }
+
+  @Test(timeout = 10000)
+  public void pipelinedFlushRetried() throws Exception {
+    BlockingQueue<CompletableFuture<Void>> flushes = setupPipelinedJournalWriter(1);
+
+    long counter = mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance());
+    flushes.take().completeExceptionally(new IOException("flush failed"));
+    // The entries of the failed flush are flushed again.
+    flushes.take().complete(null);
+    mAsyncJournalWriter.flush(counter);
+  }
+
+  @Test(timeout = 10000)
+  public void pipelinedFlushFailedBeforeLaterFlush() throws Exception {
+    BlockingQueue<CompletableFuture<Void>> flushes = setupPipelinedJournalWriter(2);
+
+    mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance());
+    CompletableFuture<Void> first = flushes.take();
+    long secondCounter = mAsyncJournalWriter.appendEntry(JournalEntry.getDefaultInstance());
+    CompletableFuture<Void> second = flushes.take();
+    // The later flush is committed while the earlier one fails.
+    second.complete(null);
+    first.completeExceptionally(new IOException("flush failed"));
+    // The entries of both flushes are flushed again, and are not acknowledged before.
+    CompletableFuture<Void> retry = flushes.take();
+    CompletableFuture<Void> flushed = CompletableFuture.runAsync(() -> {
+      try {
+        mAsyncJournalWriter.flush(secondCounter);
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    assertNull(flushes.poll(100, TimeUnit.MILLISECONDS));
+    assertFalse(flushed.isDone());
+    retry.complete(null);
+    flushed.get();
+  }
+
+  @Test
+  public void batchSize() {
+    AsyncJournalWriter.BatchSizer sizer = new AsyncJournalWriter.BatchSizer();
+    assertEquals(1, sizer.getTargetBatchSize(1));
+    // 1000 entries appended per millisecond, and flushes taking 2 milliseconds
+    for (int i = 0; i <= 100; i++) {
+      sizer.recordAppends(i * 1000L, i * 1_000_000L);
+      sizer.recordFlushLatency(2_000_000L);
+    }
+    assertEquals(2000, sizer.getTargetBatchSize(1), 10);
+    assertEquals(1000, sizer.getTargetBatchSize(2), 10);
+  }
 }
@@ -18,6 +18,7 @@ import alluxio.master.metastore.BlockMetaStore;
 import alluxio.master.metastore.InodeStore;
 import alluxio.master.metastore.MetastoreType;
 import alluxio.master.metastore.caching.CachingInodeStore;
+import alluxio.master.metastore.heap.CompactHeapInodeStore;
 import alluxio.master.metastore.heap.HeapBlockMetaStore;
 import alluxio.master.metastore.heap.HeapInodeStore;
 import alluxio.master.metastore.rocks.RocksBlockMetaStore;
@@ -85,6 +86,9 @@ public final class MasterUtils {
         Configuration.getEnum(PropertyKey.MASTER_METASTORE, MetastoreType.class);
     switch (type) {
       case HEAP:
+        if (Configuration.getBoolean(PropertyKey.MASTER_METASTORE_INODE_HEAP_COMPACT_ENABLED)) {
+          return lockManager -> new CompactHeapInodeStore();
+        }
         return lockManager -> new HeapInodeStore();
       case ROCKS:
         if (Configuration.getInt(PropertyKey.MASTER_METASTORE_INODE_CACHE_MAX_SIZE) == 0) {
@@ -13,6 +13,8 @@ package alluxio.master.file;
 
 import alluxio.AlluxioURI;
 import alluxio.Constants;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
 import alluxio.exception.FileDoesNotExistException;
 import alluxio.grpc.DeletePOptions;
 import alluxio.grpc.FreePOptions;
@@ -30,26 +32,50 @@ import alluxio.master.file.meta.TtlBucketList;
 import alluxio.master.journal.JournalContext;
 import alluxio.master.journal.NoopJournalContext;
 import alluxio.proto.journal.File.UpdateInodeEntry;
+import alluxio.security.authentication.AuthenticatedClientUser;
+import alluxio.security.user.User;
+import alluxio.util.ThreadFactoryUtils;
 import alluxio.util.ThreadUtils;
 
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * This class represents the executor for periodic inode ttl check.
+ *
+ * The inodes of the expired buckets go through a pipeline run by a pool of threads: they are
+ * resolved to their paths in batches, the expired directories are deleted from the top down, the
+ * inodes deleted along with a directory are dropped, and the remaining inodes are deleted or freed
+ * in batches.
  */
 @NotThreadSafe
 final class InodeTtlChecker implements HeartbeatExecutor {
   private static final Logger LOG = LoggerFactory.getLogger(InodeTtlChecker.class);
+  private static final long THREAD_KEEP_ALIVE_SECONDS = 60;
 
   private final FileSystemMaster mFileSystemMaster;
   private final InodeTree mInodeTree;
   private final TtlBucketList mTtlBuckets;
+  private final int mBatchSize;
+  private final ThreadPoolExecutor mExecutor;
 
   /**
    * Constructs a new {@link InodeTtlChecker}.
@@ -58,106 +84,83 @@ final class InodeTtlChecker implements HeartbeatExecutor {
     mFileSystemMaster = fileSystemMaster;
     mInodeTree = inodeTree;
     mTtlBuckets = inodeTree.getTtlBuckets();
+    mBatchSize = Configuration.getInt(PropertyKey.MASTER_TTL_CHECKER_BATCH_SIZE);
+    int parallelism = Configuration.getInt(PropertyKey.MASTER_TTL_CHECKER_PARALLELISM);
+    mExecutor = new ThreadPoolExecutor(parallelism, parallelism, THREAD_KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        ThreadFactoryUtils.build("ttl-checker-%d", true));
+    // the threads are only needed once per check
+    mExecutor.allowCoreThreadTimeOut(true);
   }
 
   @Override
   public void heartbeat(long timeLimitMs) throws InterruptedException {
     Set<TtlBucket> expiredBuckets = mTtlBuckets.pollExpiredBuckets(System.currentTimeMillis());
-    Map<Inode, Integer> failedInodesToRetryNum = new HashMap<>();
+    List<Map.Entry<Long, Integer>> inodeExpiries = new ArrayList<>();
     for (TtlBucket bucket : expiredBuckets) {
       for (Map.Entry<Long, Integer> inodeExpiryEntry : bucket.getInodeExpiries()) {
-        // Throw if interrupted.
-        if (Thread.interrupted()) {
-          throw new InterruptedException("InodeTtlChecker interrupted.");
-        }
-        long inodeId = inodeExpiryEntry.getKey();
-        int leftRetries = inodeExpiryEntry.getValue();
         // Exhausted retry attempt to expire this inode, bail.
-        if (leftRetries <= 0) {
-          continue;
+        if (inodeExpiryEntry.getValue() > 0) {
+          inodeExpiries.add(inodeExpiryEntry);
+        }
+      }
+    }
+    if (inodeExpiries.isEmpty()) {
+      return;
+    }
+    Map<Inode, Integer> failedInodesToRetryNum = new ConcurrentHashMap<>();
+    List<ExpiredInode> expiredInodes = runInBatches(inodeExpiries,
+        batch -> resolve(batch, failedInodesToRetryNum));
+    // a directory is deleted before the inodes under it, which are only dropped once it is gone
+    while (true) {
+      List<ExpiredInode> dirs = getTopDeletedDirs(expiredInodes);
+      if (dirs.isEmpty()) {
+        break;
+      }
+      Set<String> deletedDirs = ConcurrentHashMap.newKeySet();
+      Set<String> alluxioDeletedDirs = ConcurrentHashMap.newKeySet();
+      runInBatches(dirs, batch -> {
+        for (ExpiredInode dir : batch) {
+          if (Thread.currentThread().isInterrupted()) {
+            break;
+          }
+          if (!expire(dir, failedInodesToRetryNum)) {
+            // the inodes under it are expired on their own
+            continue;
+          }
+          if (dir.mInode.getTtlAction() == TtlAction.DELETE) {
+            deletedDirs.add(dir.mPath.getPath());
+          } else {
+            alluxioDeletedDirs.add(dir.mPath.getPath());
+          }
         }
-        AlluxioURI path = null;
-        try (LockedInodePath inodePath =
-            mInodeTree.lockFullInodePath(
-                inodeId, LockPattern.READ, NoopJournalContext.INSTANCE)
-        ) {
-          path = inodePath.getUri();
-        } catch (FileDoesNotExistException e) {
-          // The inode has already been deleted, nothing needs to be done.
+        return null;
+      });
+      Set<ExpiredInode> expiredDirs = Collections.newSetFromMap(new IdentityHashMap<>());
+      expiredDirs.addAll(dirs);
+      List<ExpiredInode> remaining = new ArrayList<>();
+      for (ExpiredInode expiredInode : expiredInodes) {
+        if (expiredDirs.contains(expiredInode)) {
           continue;
-        } catch (Exception e) {
-          LOG.error("Exception trying to clean up inode:{},path:{} for ttl check: {}", inodeId,
-              path, e.toString());
         }
-        if (path != null) {
-          Inode inode = null;
-          try {
-            inode = mTtlBuckets.loadInode(inodeId);
-            // Check again if this inode is indeed expired.
-            if (inode == null || inode.getTtl() == Constants.NO_TTL
-                || inode.getCreationTimeMs() + inode.getTtl() > System.currentTimeMillis()) {
-              continue;
-            }
-            TtlAction ttlAction = inode.getTtlAction();
-            LOG.info("Path {} TTL has expired, performing action {}", path.getPath(), ttlAction);
-            switch (ttlAction) {
-              case FREE: // Default: FREE
-                // public free method will lock the path, and check WRITE permission required at
-                // parent of file
-                if (inode.isDirectory()) {
-                  mFileSystemMaster.free(path, FreeContext
-                      .mergeFrom(FreePOptions.newBuilder().setForced(true).setRecursive(true)));
-                } else {
-                  mFileSystemMaster.free(path,
-                      FreeContext.mergeFrom(FreePOptions.newBuilder().setForced(true)));
-                }
-                try (JournalContext journalContext = mFileSystemMaster.createJournalContext()) {
-                  // Reset state
-                  mInodeTree.updateInode(journalContext, UpdateInodeEntry.newBuilder()
-                      .setId(inode.getId())
-                      .setTtl(Constants.NO_TTL)
-                      .setTtlAction(ProtobufUtils.toProtobuf(TtlAction.DELETE))
-                      .build());
-                }
-                break;
-              case DELETE:
-                // public delete method will lock the path, and check WRITE permission required at
-                // parent of file
-                if (inode.isDirectory()) {
-                  mFileSystemMaster.delete(path,
-                      DeleteContext.mergeFrom(DeletePOptions.newBuilder().setRecursive(true)));
-                } else {
-                  mFileSystemMaster.delete(path, DeleteContext.defaults());
-                }
-                break;
-              case DELETE_ALLUXIO:
-                // public delete method will lock the path, and check WRITE permission required at
-                // parent of file
-                if (inode.isDirectory()) {
-                  mFileSystemMaster.delete(path,
-                          DeleteContext.mergeFrom(DeletePOptions.newBuilder()
-                                  .setRecursive(true).setAlluxioOnly(true)));
-                } else {
-                  mFileSystemMaster.delete(path,
-                          DeleteContext.mergeFrom(DeletePOptions.newBuilder()
-                                  .setAlluxioOnly(true)));
-                }
-                break;
-              default:
-                LOG.error("Unknown ttl action {}", ttlAction);
-            }
-          } catch (Exception e) {
-            boolean retryExhausted = --leftRetries <= 0;
-            if (retryExhausted) {
-              LOG.error("Retry exhausted to clean up {} for ttl check. {}",
-                  path, ThreadUtils.formatStackTrace(e));
-            } else if (inode != null) {
-              failedInodesToRetryNum.put(inode, leftRetries);
-            }
-          }
+        if (isUnder(expiredInode, deletedDirs, alluxioDeletedDirs)) {
+          LOG.debug("Path {} TTL has expired, deleted with an expired ancestor",
+              expiredInode.mPath);
+        } else {
+          remaining.add(expiredInode);
         }
       }
+      expiredInodes = remaining;
     }
+    runInBatches(expiredInodes, batch -> {
+      for (ExpiredInode expiredInode : batch) {
+        if (Thread.currentThread().isInterrupted()) {
+          break;
+        }
+        expire(expiredInode, failedInodesToRetryNum);
+      }
+      return null;
+    });
     // Put back those failed-to-expire inodes for next round retry.
     if (!failedInodesToRetryNum.isEmpty()) {
       for (Map.Entry<Inode, Integer> failedInodeEntry : failedInodesToRetryNum.entrySet()) {
@@ -166,8 +169,249 @@ final class InodeTtlChecker implements HeartbeatExecutor {
     }
   }
 
+  /**
+   * Runs a task on each batch of a list with the pool of the checker, as the user of the
+   * heartbeat.
+   *
+   * @param list the list
+   * @param task the task, returning a list or null
+   * @return the concatenation of the lists returned by the tasks
+   */
+  private <T, R> List<R> runInBatches(List<T> list, Function<List<T>, List<R>> task)
+      throws InterruptedException {
+    // the permissions are checked against the user of the heartbeat thread
+    User user = AuthenticatedClientUser.getOrNull();
+    List<Future<List<R>>> futures = new ArrayList<>();
+    for (List<T> batch : Lists.partition(list, mBatchSize)) {
+      futures.add(mExecutor.submit(() -> {
+        if (user != null) {
+          AuthenticatedClientUser.set(user);
+        }
+        try {
+          return task.apply(batch);
+        } finally {
+          AuthenticatedClientUser.remove();
+        }
+      }));
+    }
+    List<R> results = new ArrayList<>();
+    for (Future<List<R>> future : futures) {
+      try {
+        List<R> result = future.get();
+        if (result != null) {
+          results.addAll(result);
+        }
+      } catch (InterruptedException e) {
+        futures.forEach(f -> f.cancel(true));
+        throw new InterruptedException("InodeTtlChecker interrupted.");
+      } catch (ExecutionException e) {
+        // the tasks handle the failures of each inode
+        LOG.error("Unexpected failure of the ttl check", e.getCause());
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Resolves the paths of the inodes which are still expired.
+   *
+   * @param inodeExpiries the ids of the inodes with their retries left
+   * @param failedInodesToRetryNum the inodes to retry, with their retries left
+   * @return the inodes which are still expired
+   */
+  private List<ExpiredInode> resolve(List<Map.Entry<Long, Integer>> inodeExpiries,
+      Map<Inode, Integer> failedInodesToRetryNum) {
+    List<ExpiredInode> expiredInodes = new ArrayList<>();
+    for (Map.Entry<Long, Integer> inodeExpiryEntry : inodeExpiries) {
+      if (Thread.currentThread().isInterrupted()) {
+        break;
+      }
+      long inodeId = inodeExpiryEntry.getKey();
+      int leftRetries = inodeExpiryEntry.getValue();
+      AlluxioURI path = null;
+      try (LockedInodePath inodePath =
+          mInodeTree.lockFullInodePath(
+              inodeId, LockPattern.READ, NoopJournalContext.INSTANCE)
+      ) {
+        path = inodePath.getUri();
+      } catch (FileDoesNotExistException e) {
+        // The inode has already been deleted, nothing needs to be done.
+        continue;
+      } catch (Exception e) {
+        LOG.error("Exception trying to clean up inode:{},path:{} for ttl check: {}", inodeId,
+            path, e.toString());
+      }
+      if (path != null) {
+        Inode inode = null;
+        try {
+          inode = mTtlBuckets.loadInode(inodeId);
+          // Check again if this inode is indeed expired.
+          if (inode == null || inode.getTtl() == Constants.NO_TTL
+              || inode.getCreationTimeMs() + inode.getTtl() > System.currentTimeMillis()) {
+            continue;
+          }
+          expiredInodes.add(new ExpiredInode(inode, path, leftRetries));
+        } catch (Exception e) {
+          onFailure(inode, path, leftRetries, e, failedInodesToRetryNum);
+        }
+      }
+    }
+    return expiredInodes;
+  }
+
+  /**
+   * Finds the expired directories to delete which are not under another expired directory whose
+   * deletion would delete them. An inode is deleted along with a directory if the directory is
+   * deleted from the under storage or the inode is not, and the inodes freed are never deleted
+   * along with a directory as their ttl is reset.
+   *
+   * @param expiredInodes the expired inodes
+   * @return the directories to delete first
+   */
+  private static List<ExpiredInode> getTopDeletedDirs(List<ExpiredInode> expiredInodes) {
+    Set<String> deletedDirs = new HashSet<>();
+    Set<String> alluxioDeletedDirs = new HashSet<>();
+    for (ExpiredInode expiredInode : expiredInodes) {
+      if (expiredInode.mInode.isDirectory()) {
+        if (expiredInode.mInode.getTtlAction() == TtlAction.DELETE) {
+          deletedDirs.add(expiredInode.mPath.getPath());
+        } else if (expiredInode.mInode.getTtlAction() == TtlAction.DELETE_ALLUXIO) {
+          alluxioDeletedDirs.add(expiredInode.mPath.getPath());
+        }
+      }
+    }
+    if (deletedDirs.isEmpty() && alluxioDeletedDirs.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<ExpiredInode> dirs = new ArrayList<>();
+    for (ExpiredInode expiredInode : expiredInodes) {
+      if (expiredInode.mInode.isDirectory()
+          && (deletedDirs.contains(expiredInode.mPath.getPath())
+              || alluxioDeletedDirs.contains(expiredInode.mPath.getPath()))
+          && !isUnder(expiredInode, deletedDirs, alluxioDeletedDirs)) {
+        dirs.add(expiredInode);
+      }
+    }
+    return dirs;
+  }
+
+  /**
+   * @param expiredInode an expired inode
+   * @param deletedDirs the paths of directories deleted from the under storage
+   * @param alluxioDeletedDirs the paths of directories only deleted from Alluxio
+   * @return whether the inode is deleted along with one of the directories
+   */
+  private static boolean isUnder(ExpiredInode expiredInode, Set<String> deletedDirs,
+      Set<String> alluxioDeletedDirs) {
+    TtlAction ttlAction = expiredInode.mInode.getTtlAction();
+    if (ttlAction != TtlAction.DELETE && ttlAction != TtlAction.DELETE_ALLUXIO) {
+      return false;
+    }
+    for (AlluxioURI dir = expiredInode.mPath.getParent(); dir != null; dir = dir.getParent()) {
+      String path = dir.getPath();
+      if (deletedDirs.contains(path)
+          || (ttlAction == TtlAction.DELETE_ALLUXIO && alluxioDeletedDirs.contains(path))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Performs the ttl action of an expired inode.
+   *
+   * @param expiredInode the expired inode
+   * @param failedInodesToRetryNum the inodes to retry, with their retries left
+   * @return whether the action was performed
+   */
+  private boolean expire(ExpiredInode expiredInode, Map<Inode, Integer> failedInodesToRetryNum) {
+    Inode inode = expiredInode.mInode;
+    AlluxioURI path = expiredInode.mPath;
+    try {
+      TtlAction ttlAction = inode.getTtlAction();
+      LOG.info("Path {} TTL has expired, performing action {}", path.getPath(), ttlAction);
+      switch (ttlAction) {
+        case FREE: // Default: FREE
+          // public free method will lock the path, and check WRITE permission required at
+          // parent of file
+          if (inode.isDirectory()) {
+            mFileSystemMaster.free(path, FreeContext
+                .mergeFrom(FreePOptions.newBuilder().setForced(true).setRecursive(true)));
+          } else {
+            mFileSystemMaster.free(path,
+                FreeContext.mergeFrom(FreePOptions.newBuilder().setForced(true)));
+          }
+          try (JournalContext journalContext = mFileSystemMaster.createJournalContext()) {
+            // Reset state
+            mInodeTree.updateInode(journalContext, UpdateInodeEntry.newBuilder()
+                .setId(inode.getId())
+                .setTtl(Constants.NO_TTL)
+                .setTtlAction(ProtobufUtils.toProtobuf(TtlAction.DELETE))
+                .build());
+          }
+          break;
+        case DELETE:
+          // public delete method will lock the path, and check WRITE permission required at
+          // parent of file
+          if (inode.isDirectory()) {
+            mFileSystemMaster.delete(path,
+                DeleteContext.mergeFrom(DeletePOptions.newBuilder().setRecursive(true)));
+          } else {
+            mFileSystemMaster.delete(path, DeleteContext.defaults());
+          }
+          break;
+        case DELETE_ALLUXIO:
+          // public delete method will lock the path, and check WRITE permission required at
+          // parent of file
+          if (inode.isDirectory()) {
+            mFileSystemMaster.delete(path,
+                    DeleteContext.mergeFrom(DeletePOptions.newBuilder()
+                            .setRecursive(true).setAlluxioOnly(true)));
+          } else {
+            mFileSystemMaster.delete(path,
+                    DeleteContext.mergeFrom(DeletePOptions.newBuilder()
+                            .setAlluxioOnly(true)));
+          }
+          break;
+        default:
+          LOG.error("Unknown ttl action {}", ttlAction);
+          return false;
+      }
+      return true;
+    } catch (Exception e) {
+      onFailure(inode, path, expiredInode.mLeftRetries, e, failedInodesToRetryNum);
+      return false;
+    }
+  }
+
+  private static void onFailure(@Nullable Inode inode, AlluxioURI path, int leftRetries,
+      Exception e, Map<Inode, Integer> failedInodesToRetryNum) {
+    boolean retryExhausted = --leftRetries <= 0;
+    if (retryExhausted) {
+      LOG.error("Retry exhausted to clean up {} for ttl check. {}",
+          path, ThreadUtils.formatStackTrace(e));
+    } else if (inode != null) {
+      failedInodesToRetryNum.put(inode, leftRetries);
+    }
+  }
+
   @Override
   public void close() {
-    // Nothing to clean up
+    mExecutor.shutdownNow();
+  }
+
+  /**
+   * An inode whose ttl has expired, with its path.
+   */
+  private static final class ExpiredInode {
+    private final Inode mInode;
+    private final AlluxioURI mPath;
+    private final int mLeftRetries;
+
+    ExpiredInode(Inode inode, AlluxioURI path, int leftRetries) {
+      mInode = inode;
+      mPath = path;
+      mLeftRetries = leftRetries;
+    }
   }
 }
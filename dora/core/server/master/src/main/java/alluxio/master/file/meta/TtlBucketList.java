@@ -19,6 +19,7 @@ import alluxio.master.journal.checkpoint.CheckpointType;
 import alluxio.master.journal.checkpoint.Checkpointed;
 import alluxio.master.metastore.ReadOnlyInodeStore;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,29 +27,61 @@ import org.slf4j.LoggerFactory;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentSkipListSet;
-import javax.annotation.Nullable;
+import java.util.TreeMap;
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
- * A list of non-empty {@link TtlBucket}s sorted by ttl interval start time of each bucket.
+ * The {@link TtlBucket}s of the inodes with a ttl, kept in a hierarchical timing wheel.
  * <p>
- * Two adjacent buckets may not have adjacent intervals since there may be no inodes with ttl value
- * in the skipped intervals.
+ * The time is cut into ticks of the length of the interval of the buckets, and each bucket holds
+ * the inodes expiring during a tick. The wheel has {@link #LEVELS} levels of {@link #SLOTS}
+ * slots, a slot of a level spanning {@link #SLOTS} times as many ticks as a slot of the level
+ * below. A bucket is in the lowest level whose slots span both its tick and the current tick,
+ * or in an overflow map past the last level. As the wheel moves past the span of a slot, the
+ * buckets of the next slot are moved down to the levels below, so that inserting, removing and
+ * expiring an inode cost a constant time whatever the number of buckets, and the buckets are
+ * only moved by a level at a time. The wheel moves over the ticks without a bucket.
  */
 @ThreadSafe
 public final class TtlBucketList implements Checkpointed {
   private static final Logger LOG = LoggerFactory.getLogger(TtlBucketList.class);
+  /** The number of bits of the index of a slot in a level. */
+  private static final int SLOT_BITS = 6;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final int LEVELS = 4;
+  /** The level of the buckets whose tick the wheel has moved past. */
+  private static final int EXPIRED_LEVEL = -1;
+  /** The level of the buckets past the last level. */
+  private static final int OVERFLOW_LEVEL = LEVELS;
 
-  /**
-   * List of buckets sorted by interval start time. SkipList is used for O(logn) insertion and
-   * retrieval, see {@link ConcurrentSkipListSet}.
-   */
-  private final ConcurrentSkipListSet<TtlBucket> mBucketList;
   private final ReadOnlyInodeStore mInodeStore;
+  /** The length of a tick, which is the interval of the buckets, or 1 if the interval is 0. */
+  private final long mTickMs;
+  /** The buckets of each slot of each level, by tick. */
+  @GuardedBy("this")
+  private final Map<Long, TtlBucket>[][] mSlots;
+  /** The number of buckets in each level. */
+  @GuardedBy("this")
+  private final int[] mLevelBucketCounts = new int[LEVELS];
+  /** The buckets past the last level, by tick. */
+  @GuardedBy("this")
+  private final TreeMap<Long, TtlBucket> mOverflow = new TreeMap<>();
+  /** The buckets of the ticks the wheel has moved past, by tick, waiting to be polled. */
+  @GuardedBy("this")
+  private final TreeMap<Long, TtlBucket> mExpired = new TreeMap<>();
+  /** The tick the wheel is at. */
+  @GuardedBy("this")
+  private long mCurrentTick;
 
   /**
    * Creates a new list of {@link TtlBucket}s.
@@ -56,8 +89,27 @@ public final class TtlBucketList implements Checkpointed {
    * @param inodeStore the inode store
    */
   public TtlBucketList(ReadOnlyInodeStore inodeStore) {
+    this(inodeStore, System.currentTimeMillis());
+  }
+
+  /**
+   * Creates a new list of {@link TtlBucket}s.
+   *
+   * @param inodeStore the inode store
+   * @param startTimeMs the time the wheel starts at
+   */
+  @VisibleForTesting
+  @SuppressWarnings("unchecked")
+  TtlBucketList(ReadOnlyInodeStore inodeStore, long startTimeMs) {
     mInodeStore = inodeStore;
-    mBucketList = new ConcurrentSkipListSet<>();
+    mTickMs = Math.max(1, TtlBucket.getTtlIntervalMs());
+    mSlots = new Map[LEVELS][SLOTS];
+    for (int level = 0; level < LEVELS; level++) {
+      for (int slot = 0; slot < SLOTS; slot++) {
+        mSlots[level][slot] = new HashMap<>();
+      }
+    }
+    mCurrentTick = Math.floorDiv(startTimeMs, mTickMs);
   }
 
   /**
@@ -66,50 +118,25 @@ public final class TtlBucketList implements Checkpointed {
    * @return Inode
    */
   public Inode loadInode(long inodeId) {
-    return mInodeStore.get(inodeId).orElseGet(null);
+    return mInodeStore.get(inodeId).orElse(null);
   }
 
   /**
    * @return the number of TTL buckets
    */
-  public int getNumBuckets() {
-    return mBucketList.size();
+  public synchronized int getNumBuckets() {
+    int count = mOverflow.size() + mExpired.size();
+    for (int levelCount : mLevelBucketCounts) {
+      count += levelCount;
+    }
+    return count;
   }
 
   /**
    * @return the total number of inodes in all the buckets
    */
   public long getNumInodes() {
-    return mBucketList.stream().mapToInt((bucket) -> bucket.size()).sum();
-  }
-
-  /**
-   * Gets the bucket in the list that contains the inode.
-   *
-   * @param inode the inode to be contained
-   * @return the bucket containing the inode, or null if no such bucket exists
-   */
-  @Nullable
-  private TtlBucket getBucketContaining(InodeView inode) {
-    if (inode.getTtl() == Constants.NO_TTL) {
-      // no bucket will contain a inode with NO_TTL.
-      return null;
-    }
-
-    long ttlEndTimeMs = inode.getCreationTimeMs() + inode.getTtl();
-    // Gets the last bucket with interval start time less than or equal to the inode's life end
-    // time.
-    TtlBucket bucket = mBucketList.floor(new TtlBucket(ttlEndTimeMs));
-    if (bucket == null || bucket.getTtlIntervalEndTimeMs() < ttlEndTimeMs
-        || (bucket.getTtlIntervalEndTimeMs() == ttlEndTimeMs
-            && TtlBucket.getTtlIntervalMs() != 0)) {
-      // 1. There is no bucket in the list, or
-      // 2. All buckets' interval start time is larger than the inode's life end time, or
-      // 3. No bucket actually contains ttlEndTimeMs in its interval.
-      return null;
-    }
-
-    return bucket;
+    return getBuckets().stream().mapToInt((bucket) -> bucket.size()).sum();
   }
 
   /**
@@ -121,10 +148,9 @@ public final class TtlBucketList implements Checkpointed {
   }
 
   /**
-   * Inserts an inode to the appropriate bucket where its ttl end time lies in the
-   * bucket's interval, if no appropriate bucket exists, a new bucket will be created to contain
-   * this inode, if ttl value is {@link Constants#NO_TTL}, the inode won't be inserted to any
-   * buckets and nothing will happen.
+   * Inserts an inode to the bucket of the tick its ttl end time lies in, if no such bucket
+   * exists, a new bucket will be created to contain this inode, if ttl value is
+   * {@link Constants#NO_TTL}, the inode won't be inserted to any buckets and nothing will happen.
    *
    * @param inode the inode to be inserted
    * @param numOfRetry number of retries left to process this inode
@@ -133,32 +159,20 @@ public final class TtlBucketList implements Checkpointed {
     if (inode.getTtl() == Constants.NO_TTL) {
       return;
     }
-
-    TtlBucket bucket;
-    while (true) {
-      bucket = getBucketContaining(inode);
+    long tick = getTick(inode);
+    synchronized (this) {
+      int level = getLevel(tick);
+      Map<Long, TtlBucket> buckets = getBuckets(level, tick);
+      TtlBucket bucket = buckets.get(tick);
       if (bucket == null) {
-        long ttlEndTimeMs = inode.getCreationTimeMs() + inode.getTtl();
-        // No bucket contains the inode, so a new bucket should be added with an appropriate
-        // interval start. Assume the list of buckets have continuous intervals, and the
-        // first interval starts at 0, then ttlEndTimeMs should be in number
-        // (ttlEndTimeMs / interval) interval, so the start time of this interval should be
-        // (ttlEndTimeMs / interval) * interval.
-        long interval = TtlBucket.getTtlIntervalMs();
-        bucket = new TtlBucket(interval == 0 ? ttlEndTimeMs : ttlEndTimeMs / interval * interval);
-        if (!mBucketList.add(bucket)) {
-          // If we reach here, it means the same bucket has been concurrently inserted by another
-          // thread, try again.
-          continue;
+        bucket = new TtlBucket(tick * mTickMs);
+        buckets.put(tick, bucket);
+        if (level >= 0 && level < LEVELS) {
+          mLevelBucketCounts[level]++;
         }
       }
+      // the bucket cannot be polled concurrently, so the inode is processed with the bucket
       bucket.addInode(inode, numOfRetry);
-      /* if we added to the bucket but it got concurrently polled by InodeTtlChecker,
-      we're not sure this newly-added inode will be processed by the checker,
-      so we need to try insert again. */
-      if (mBucketList.contains(bucket)) {
-        break;
-      }
     }
   }
 
@@ -175,29 +189,178 @@ public final class TtlBucketList implements Checkpointed {
    * @param inode the inode to be removed
    */
   public void remove(InodeView inode) {
-    TtlBucket bucket = getBucketContaining(inode);
-    if (bucket != null) {
-      bucket.removeInode(inode);
+    if (inode.getTtl() == Constants.NO_TTL) {
+      return;
+    }
+    long tick = getTick(inode);
+    synchronized (this) {
+      TtlBucket bucket = getBuckets(getLevel(tick), tick).get(tick);
+      if (bucket != null) {
+        bucket.removeInode(inode);
+      }
     }
   }
 
   /**
    * Polls buckets whose ttl interval has expired before the specified time, that is, the
    * bucket's interval start time should be less than or equal to (specified time - ttl interval).
-   * if concurrently there are new inodes added to those polled buckets, we check if after the
-   * moment it got added and the bucket got polled out, we're not sure if InodeTtlChecker will
-   * process it sa part of this batch, it will create a new bucket and added there to retry.
-   * Check {@link TtlBucketList#insert(Inode)}
+   * The wheel is moved to the specified time, the inodes inserted to the polled buckets later
+   * going to new buckets, so that they are processed by the next poll.
+   *
    * @param time the expiration time
    * @return a set of expired buckets or an empty set if no buckets have expired
    */
   public Set<TtlBucket> pollExpiredBuckets(long time) {
-    Set<TtlBucket> expiredBuckets = new HashSet<>();
-    TtlBucket upperBound = new TtlBucket(time - TtlBucket.getTtlIntervalMs());
-    while (!mBucketList.isEmpty() && mBucketList.first().compareTo(upperBound) <= 0) {
-      expiredBuckets.add(mBucketList.pollFirst());
+    // the first tick whose bucket has not expired
+    long endTick = Math.floorDiv(time - TtlBucket.getTtlIntervalMs(), mTickMs) + 1;
+    synchronized (this) {
+      advance(endTick);
+      Map<Long, TtlBucket> expired = mExpired.headMap(endTick);
+      Set<TtlBucket> expiredBuckets = new HashSet<>(expired.values());
+      expired.clear();
+      return expiredBuckets;
+    }
+  }
+
+  /**
+   * Moves the wheel to a tick, moving the buckets of the ticks passed to the expired buckets.
+   *
+   * @param endTick the tick to move to
+   */
+  private void advance(long endTick) {
+    while (mCurrentTick < endTick) {
+      TtlBucket bucket = getBuckets(0, mCurrentTick).remove(mCurrentTick);
+      if (bucket != null) {
+        mLevelBucketCounts[0]--;
+        mExpired.put(mCurrentTick, bucket);
+      }
+      long previousTick = mCurrentTick;
+      mCurrentTick = Math.min(getNextTick(), endTick);
+      cascade(previousTick);
+    }
+  }
+
+  /**
+   * @return the next tick the wheel needs to stop at, skipping the slots without buckets
+   */
+  private long getNextTick() {
+    for (int level = 0; level < LEVELS; level++) {
+      if (mLevelBucketCounts[level] > 0) {
+        // the buckets of a level are in the slots following the one of the current tick
+        int shift = SLOT_BITS * level;
+        return ((mCurrentTick >> shift) + 1) << shift;
+      }
+    }
+    if (!mOverflow.isEmpty()) {
+      int shift = SLOT_BITS * LEVELS;
+      return (mOverflow.firstKey() >> shift) << shift;
+    }
+    return Long.MAX_VALUE;
+  }
+
+  /**
+   * Moves down the buckets of the slots the wheel entered when moving from a tick to the current
+   * tick, from the highest level to the lowest.
+   *
+   * @param previousTick the tick the wheel moved from
+   */
+  private void cascade(long previousTick) {
+    int shift = SLOT_BITS * LEVELS;
+    if ((mCurrentTick >> shift) != (previousTick >> shift)) {
+      Map<Long, TtlBucket> entered = mOverflow.headMap(((mCurrentTick >> shift) + 1) << shift);
+      List<Map.Entry<Long, TtlBucket>> buckets = new ArrayList<>(entered.entrySet());
+      entered.clear();
+      for (Map.Entry<Long, TtlBucket> bucket : buckets) {
+        place(bucket.getKey(), bucket.getValue());
+      }
+    }
+    for (int level = LEVELS - 1; level > 0; level--) {
+      shift = SLOT_BITS * level;
+      if ((mCurrentTick >> shift) == (previousTick >> shift)) {
+        continue;
+      }
+      Map<Long, TtlBucket> entered = getBuckets(level, mCurrentTick);
+      if (entered.isEmpty()) {
+        continue;
+      }
+      // the buckets of the slot of the current tick all go to lower levels
+      List<Map.Entry<Long, TtlBucket>> buckets = new ArrayList<>(entered.entrySet());
+      entered.clear();
+      mLevelBucketCounts[level] -= buckets.size();
+      for (Map.Entry<Long, TtlBucket> bucket : buckets) {
+        place(bucket.getKey(), bucket.getValue());
+      }
+    }
+  }
+
+  private void place(long tick, TtlBucket bucket) {
+    int level = getLevel(tick);
+    getBuckets(level, tick).put(tick, bucket);
+    if (level >= 0 && level < LEVELS) {
+      mLevelBucketCounts[level]++;
+    }
+  }
+
+  /**
+   * @param tick a tick
+   * @return the level of the bucket of the tick, {@link #EXPIRED_LEVEL} if the wheel moved past
+   *         the tick, or {@link #OVERFLOW_LEVEL} if the tick is past the last level
+   */
+  private int getLevel(long tick) {
+    if (tick < mCurrentTick) {
+      return EXPIRED_LEVEL;
+    }
+    for (int level = 0; level < LEVELS; level++) {
+      int shift = SLOT_BITS * (level + 1);
+      if ((tick >> shift) == (mCurrentTick >> shift)) {
+        return level;
+      }
+    }
+    return OVERFLOW_LEVEL;
+  }
+
+  /**
+   * @param level the level of the bucket of a tick
+   * @param tick the tick
+   * @return the buckets which hold the bucket of the tick
+   */
+  private Map<Long, TtlBucket> getBuckets(int level, long tick) {
+    if (level == EXPIRED_LEVEL) {
+      return mExpired;
+    }
+    if (level == OVERFLOW_LEVEL) {
+      return mOverflow;
+    }
+    return mSlots[level][(int) (tick >> (SLOT_BITS * level)) & SLOT_MASK];
+  }
+
+  /**
+   * @return all the buckets
+   */
+  private synchronized List<TtlBucket> getBuckets() {
+    List<TtlBucket> buckets = new ArrayList<>(mExpired.values());
+    for (Map<Long, TtlBucket>[] level : mSlots) {
+      for (Map<Long, TtlBucket> slot : level) {
+        buckets.addAll(slot.values());
+      }
+    }
+    buckets.addAll(mOverflow.values());
+    return buckets;
+  }
+
+  private long getTick(InodeView inode) {
+    return Math.floorDiv(inode.getCreationTimeMs() + inode.getTtl(), mTickMs);
+  }
+
+  private synchronized void clear() {
+    for (Map<Long, TtlBucket>[] level : mSlots) {
+      for (Map<Long, TtlBucket> slot : level) {
+        slot.clear();
+      }
     }
-    return expiredBuckets;
+    Arrays.fill(mLevelBucketCounts, 0);
+    mOverflow.clear();
+    mExpired.clear();
   }
 
   @Override
@@ -213,7 +376,7 @@ public final class TtlBucketList implements Checkpointed {
   @Override
   public void writeToCheckpoint(OutputStream output) throws IOException, InterruptedException {
     CheckpointOutputStream cos = new CheckpointOutputStream(output, CheckpointType.LONGS);
-    for (TtlBucket bucket : mBucketList) {
+    for (TtlBucket bucket : getBuckets()) {
       for (long inodeId : bucket.getInodeIds()) {
         cos.writeLong(inodeId);
       }
@@ -222,7 +385,7 @@ public final class TtlBucketList implements Checkpointed {
 
   @Override
   public void restoreFromCheckpoint(CheckpointInputStream input) throws IOException {
-    mBucketList.clear();
+    clear();
     Preconditions.checkState(input.getType() == CheckpointType.LONGS,
         "Unexpected checkpoint type: %s", input.getType());
     while (true) {
@@ -12,13 +12,15 @@
 package alluxio.master.journal.tool;
 
 import alluxio.master.journal.JournalEntryAssociation;
-import alluxio.master.journal.checkpoint.OptimizedCheckpointInputStream;
+import alluxio.master.journal.checkpoint.CheckpointInputStream;
+import alluxio.master.journal.checkpoint.ParallelCheckpointInputStream;
 import alluxio.master.journal.raft.RaftJournalSystem;
 import alluxio.master.journal.raft.RaftJournalUtils;
 import alluxio.master.journal.raft.SnapshotDirStateMachineStorage;
 import alluxio.proto.journal.Journal;
 import alluxio.util.io.FileUtils;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import org.apache.ratis.io.MD5Hash;
 import org.apache.ratis.server.RaftServerConfigKeys;
@@ -142,19 +144,28 @@ public class RaftJournalDumper extends AbstractJournalDumper {
 
       for (FileInfo file : currentSnapshot.getFiles()) {
         if (file.getFileDigest() != null) {
-          File snapshotFile = new File(snapshotDir, file.getPath().toString());
-          Path humanReadableFile = Paths.get(checkpointPath, file.getPath().toString());
-          MessageDigest md5 = MD5Hash.getDigester();
-          try (OptimizedCheckpointInputStream is =
-                   new OptimizedCheckpointInputStream(snapshotFile, md5)) {
-            readCheckpoint(is, humanReadableFile);
-          }
-          MD5FileUtil.verifySavedMD5(snapshotFile, new MD5Hash(md5.digest()));
+          readSnapshotFile(new File(snapshotDir, file.getPath().toString()),
+              Paths.get(checkpointPath, file.getPath().toString()));
         }
       }
     }
   }
 
+  /**
+   * Reads a checkpoint file of a snapshot, written either in chunks or as a single stream.
+   *
+   * @param snapshotFile the checkpoint file
+   * @param humanReadableFile where the checkpoint is dumped to
+   */
+  @VisibleForTesting
+  void readSnapshotFile(File snapshotFile, Path humanReadableFile) throws IOException {
+    MessageDigest md5 = MD5Hash.getDigester();
+    try (CheckpointInputStream is = ParallelCheckpointInputStream.open(snapshotFile, md5)) {
+      readCheckpoint(is, humanReadableFile);
+    }
+    MD5FileUtil.verifySavedMD5(snapshotFile, new MD5Hash(md5.digest()));
+  }
+
   /**
    * Writes given entry after going through range and validity checks.
    *
@@ -46,6 +46,11 @@ import javax.annotation.concurrent.ThreadSafe;
  * best performance, maximum capacity should never be reached. This requires that the eviction
  * thread can keep up cache writes.
  *
+ * The cache is partitioned by key into segments, each holding its share of the cache size and
+ * water marks, with its own map, eviction thread and CLOCK hand. The segments evict in parallel,
+ * so that eviction keeps up with writes from many threads, and a segment reaching its high water
+ * mark does not wait for the eviction of the other segments.
+ *
  * Cache hit reads are served without any locking. Writes and cache miss reads take locks on their
  * cache key.
  *
@@ -58,18 +63,16 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 public abstract class Cache<K, V> implements Closeable {
   private static final Logger LOG = LoggerFactory.getLogger(Cache.class);
+  /**
+   * The min number of eviction batches a segment holds, the number of segments being lowered for
+   * small caches.
+   */
+  private static final int MIN_EVICT_BATCHES_PER_SEGMENT = 4;
 
-  private final int mMaxSize;
-  private final int mHighWaterMark;
-  private final int mLowWaterMark;
   private final int mEvictBatchSize;
   private final String mName;
   @VisibleForTesting
-  final ConcurrentHashMap<K, Entry> mMap;
-  // TODO(andrew): Support using multiple threads to speed up backing store writes.
-  // Thread for performing eviction to the backing store.
-  @VisibleForTesting
-  final EvictionThread mEvictionThread;
+  final List<Segment> mSegments;
 
   private final StatsCounter mStatsCounter;
 
@@ -84,18 +87,38 @@ public abstract class Cache<K, V> implements Closeable {
    */
   public Cache(CacheConfiguration conf, String name, MetricKey evictionsKey, MetricKey hitsKey,
                MetricKey loadTimesKey, MetricKey missesKey, MetricKey sizeKey) {
-    mMaxSize = conf.getMaxSize();
-    mHighWaterMark = conf.getHighWaterMark();
-    mLowWaterMark = conf.getLowWaterMark();
     mEvictBatchSize = conf.getEvictBatchSize();
     mName = name;
-    mMap = new ConcurrentHashMap<>(mMaxSize);
-    mEvictionThread = new EvictionThread();
-    mEvictionThread.setDaemon(true);
-    // The eviction thread is started lazily when we first reach the high water mark.
+    int segments = Math.max(1, Math.min(conf.getSegments(),
+        conf.getMaxSize() / Math.max(1, MIN_EVICT_BATCHES_PER_SEGMENT * mEvictBatchSize)));
+    List<Segment> segmentList = new ArrayList<>(segments);
+    for (int i = 0; i < segments; i++) {
+      segmentList.add(new Segment(segments == 1 ? mName : mName + "-" + i,
+          share(conf.getMaxSize(), i, segments), share(conf.getHighWaterMark(), i, segments),
+          share(conf.getLowWaterMark(), i, segments)));
+    }
+    mSegments = Collections.unmodifiableList(segmentList);
+    // The eviction threads are started lazily when the segments first reach the high water mark.
     mStatsCounter = new StatsCounter(evictionsKey, hitsKey, loadTimesKey, missesKey);
 
-    MetricsSystem.registerGaugeIfAbsent(sizeKey.getName(), mMap::size);
+    MetricsSystem.registerGaugeIfAbsent(sizeKey.getName(), this::size);
+  }
+
+  /**
+   * @return the share of a total of a segment, the shares of all segments adding up to the total
+   */
+  private static int share(int total, int segment, int segments) {
+    return total / segments + (segment < total % segments ? 1 : 0);
+  }
+
+  private Segment segmentFor(K key) {
+    if (mSegments.size() == 1) {
+      return mSegments.get(0);
+    }
+    // the high bits of the product are used, as the low bits of the hash pick the bin of the key
+    // in the map of the segment
+    long hash = (key.hashCode() * 0x9E3779B9) & 0xFFFFFFFFL;
+    return mSegments.get((int) ((hash * mSegments.size()) >>> 32));
   }
 
   /**
@@ -112,14 +135,15 @@ public abstract class Cache<K, V> implements Closeable {
    * @return the value, or empty if the key doesn't exist in the cache or in the backing store
    */
   public Optional<V> get(K key, ReadOption option) {
+    Segment segment = segmentFor(key);
     if (option.shouldSkipCache()) {
-      return getSkipCache(key);
+      return getSkipCache(segment, key);
     }
-    if (cacheIsFull()) {
-      wakeEvictionThreadIfNecessary();
-      return getSkipCache(key);
+    if (segment.cacheIsFull()) {
+      segment.wakeEvictionThreadIfNecessary();
+      return getSkipCache(segment, key);
     }
-    Entry result = mMap.compute(key, (k, entry) -> {
+    Entry result = segment.mMap.compute(key, (k, entry) -> {
       if (entry != null) {
         mStatsCounter.recordHit();
         entry.mReferenced = true;
@@ -140,7 +164,7 @@ public abstract class Cache<K, V> implements Closeable {
     if (result == null || result.mValue == null) {
       return Optional.empty();
     }
-    wakeEvictionThreadIfNecessary();
+    segment.wakeEvictionThreadIfNecessary();
     return Optional.of(result.mValue);
   }
 
@@ -156,11 +180,12 @@ public abstract class Cache<K, V> implements Closeable {
    * Retrieves a value from the cache if already cached, otherwise, loads from the backing store
    * without caching the value. Eviction is not triggered.
    *
+   * @param segment the segment of the key
    * @param key the key to get the value for
    * @return the value, or empty if the key doesn't exist in the cache or in the backing store
    */
-  private Optional<V> getSkipCache(K key) {
-    Entry entry = mMap.get(key);
+  private Optional<V> getSkipCache(Segment segment, K key) {
+    Entry entry = segment.mMap.get(key);
     if (entry == null) {
       mStatsCounter.recordMiss();
       final Stopwatch stopwatch = Stopwatch.createStarted();
@@ -196,10 +221,11 @@ public abstract class Cache<K, V> implements Closeable {
   }
 
   private void putInternal(K key, V value, boolean isNewEntry) {
-    mMap.compute(key, (k, entry) -> {
+    Segment segment = segmentFor(key);
+    segment.mMap.compute(key, (k, entry) -> {
       V existingValue = entry == null ? null : entry.mValue;
       onPut(key, existingValue, value, isNewEntry);
-      if (entry == null && cacheIsFull()) {
+      if (entry == null && segment.cacheIsFull()) {
         writeToBackingStore(key, value);
         return null;
       }
@@ -212,7 +238,7 @@ public abstract class Cache<K, V> implements Closeable {
       entry.mDirty = true;
       return entry;
     });
-    wakeEvictionThreadIfNecessary();
+    segment.wakeEvictionThreadIfNecessary();
   }
 
   /**
@@ -226,11 +252,12 @@ public abstract class Cache<K, V> implements Closeable {
    * @param key the key to remove
    */
   public void remove(K key) {
+    Segment segment = segmentFor(key);
     // Set the entry so that it will be removed from the backing store when it is encountered by
     // the eviction thread.
-    mMap.compute(key, (k, entry) -> {
+    segment.mMap.compute(key, (k, entry) -> {
       onRemove(key);
-      if (entry == null && cacheIsFull()) {
+      if (entry == null && segment.cacheIsFull()) {
         removeFromBackingStore(k);
         return null;
       }
@@ -244,7 +271,7 @@ public abstract class Cache<K, V> implements Closeable {
       entry.mDirty = true;
       return entry;
     });
-    wakeEvictionThreadIfNecessary();
+    segment.wakeEvictionThreadIfNecessary();
   }
 
   /**
@@ -252,19 +279,21 @@ public abstract class Cache<K, V> implements Closeable {
    */
   public void flush() throws InterruptedException {
     List<Entry> toFlush = new ArrayList<>(mEvictBatchSize);
-    Iterator<Entry> it = mMap.values().iterator();
-    while (it.hasNext()) {
-      if (Thread.interrupted()) {
-        throw new InterruptedException();
-      }
-      while (toFlush.size() < mEvictBatchSize && it.hasNext()) {
-        Entry candidate = it.next();
-        if (candidate.mDirty) {
-          toFlush.add(candidate);
+    for (Segment segment : mSegments) {
+      Iterator<Entry> it = segment.mMap.values().iterator();
+      while (it.hasNext()) {
+        if (Thread.interrupted()) {
+          throw new InterruptedException();
+        }
+        while (toFlush.size() < mEvictBatchSize && it.hasNext()) {
+          Entry candidate = it.next();
+          if (candidate.mDirty) {
+            toFlush.add(candidate);
+          }
         }
+        flushEntries(toFlush);
+        toFlush.clear();
       }
-      flushEntries(toFlush);
-      toFlush.clear();
     }
   }
 
@@ -273,43 +302,57 @@ public abstract class Cache<K, V> implements Closeable {
    * to prevent concurrent modifications to the cache.
    */
   public void clear() {
-    mMap.forEach((key, value) -> {
-      onCacheUpdate(key, value.mValue);
-      onRemove(key);
-    });
-    mMap.clear();
-  }
-
-  private boolean underHighWaterMark() {
-    return mMap.size() < mHighWaterMark;
+    for (Segment segment : mSegments) {
+      segment.mMap.forEach((key, value) -> {
+        onCacheUpdate(key, value.mValue);
+        onRemove(key);
+      });
+      segment.mMap.clear();
+    }
   }
 
-  private boolean cacheIsFull() {
-    return mMap.size() >= mMaxSize;
+  /**
+   * @return the number of entries in the cache
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : mSegments) {
+      size += segment.mMap.size();
+    }
+    return size;
   }
 
-  private void wakeEvictionThreadIfNecessary() {
-    if (mEvictionThread.mIsSleeping && mMap.size() >= mHighWaterMark) {
-      kickEvictionThread();
+  /**
+   * @return the maps of the segments, holding all the entries of the cache
+   */
+  List<Map<K, Entry>> getSegmentMaps() {
+    List<Map<K, Entry>> maps = new ArrayList<>(mSegments.size());
+    for (Segment segment : mSegments) {
+      maps.add(segment.mMap);
     }
+    return maps;
   }
 
-  private void kickEvictionThread() {
-    synchronized (mEvictionThread) {
-      if (mEvictionThread.getState() == State.NEW) {
-        mEvictionThread.start();
-      }
-      mEvictionThread.notifyAll();
-    }
+  /**
+   * @return whether the eviction threads of all the segments are waiting for the segments to
+   *         reach their high water marks
+   */
+  @VisibleForTesting
+  boolean isEvictionSleeping() {
+    return mSegments.stream().allMatch(segment -> segment.mEvictionThread.mIsSleeping);
   }
 
   @Override
   public void close() {
-    mEvictionThread.interrupt();
+    for (Segment segment : mSegments) {
+      segment.mEvictionThread.interrupt();
+    }
     try {
-      mEvictionThread.join(10L * Constants.SECOND_MS);
-      if (mEvictionThread.isAlive()) {
-        LOG.warn("Failed to stop eviction thread");
+      for (Segment segment : mSegments) {
+        segment.mEvictionThread.join(10L * Constants.SECOND_MS);
+        if (segment.mEvictionThread.isAlive()) {
+          LOG.warn("Failed to stop eviction thread {}", segment.mEvictionThread.getName());
+        }
       }
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
@@ -317,128 +360,182 @@ public abstract class Cache<K, V> implements Closeable {
     }
   }
 
+  /**
+   * A partition of the cache, with its own map, water marks and eviction thread.
+   */
   @VisibleForTesting
-  class EvictionThread extends Thread {
+  class Segment {
     @VisibleForTesting
-    volatile boolean mIsSleeping = true;
+    final ConcurrentHashMap<K, Entry> mMap;
+    private final String mName;
+    private final int mMaxSize;
+    private final int mHighWaterMark;
+    private final int mLowWaterMark;
+    // Thread for performing eviction of the segment to the backing store.
+    @VisibleForTesting
+    final EvictionThread mEvictionThread;
+
+    private Segment(String name, int maxSize, int highWaterMark, int lowWaterMark) {
+      mName = name;
+      mMaxSize = maxSize;
+      mHighWaterMark = highWaterMark;
+      mLowWaterMark = lowWaterMark;
+      mMap = new ConcurrentHashMap<>(mMaxSize);
+      mEvictionThread = new EvictionThread();
+      mEvictionThread.setDaemon(true);
+    }
 
-    // Populated with #fillBatch, cleared with #evictBatch. We keep it around so that we don't need
-    // to keep re-allocating the list.
-    private final List<Entry> mEvictionCandidates = new ArrayList<>(mEvictBatchSize);
-    private final List<Entry> mDirtyEvictionCandidates = new ArrayList<>(mEvictBatchSize);
-    private final Logger mCacheFullLogger = new SamplingLogger(LOG, 10L * Constants.SECOND_MS);
+    private boolean underHighWaterMark() {
+      return mMap.size() < mHighWaterMark;
+    }
 
-    private Iterator<Entry> mEvictionHead = Collections.emptyIterator();
+    private boolean cacheIsFull() {
+      return mMap.size() >= mMaxSize;
+    }
 
-    private EvictionThread() {
-      super(mName + "-eviction-thread");
+    private void wakeEvictionThreadIfNecessary() {
+      if (mEvictionThread.mIsSleeping && mMap.size() >= mHighWaterMark) {
+        kickEvictionThread();
+      }
     }
 
-    @Override
-    public void run() {
-      while (!Thread.interrupted()) {
-        // Wait for the cache to get over the high water mark.
-        while (underHighWaterMark()) {
-          synchronized (mEvictionThread) {
-            if (underHighWaterMark()) {
-              try {
-                mIsSleeping = true;
-                mEvictionThread.wait();
-                mIsSleeping = false;
-              } catch (InterruptedException e) {
-                return;
-              }
-            }
-          }
-        }
-        if (cacheIsFull()) {
-          mCacheFullLogger.warn(
-              "Metastore {} cache is full. Consider increasing the cache size or lowering the "
-                  + "high water mark. size:{} lowWaterMark:{} highWaterMark:{} maxSize:{}",
-              mName, mMap.size(), mLowWaterMark, mHighWaterMark, mMaxSize);
+    private void kickEvictionThread() {
+      synchronized (mEvictionThread) {
+        if (mEvictionThread.getState() == State.NEW) {
+          mEvictionThread.start();
         }
-        evictToLowWaterMark();
+        mEvictionThread.notifyAll();
       }
     }
 
-    private void evictToLowWaterMark() {
-      long evictionStart = System.nanoTime();
-      int toEvict = mMap.size() - mLowWaterMark;
-      int evictionCount = 0;
-      while (evictionCount < toEvict) {
-        if (!mEvictionHead.hasNext()) {
-          mEvictionHead = mMap.values().iterator();
-        }
-        fillBatch(toEvict - evictionCount);
-        evictionCount += evictBatch();
+    @VisibleForTesting
+    class EvictionThread extends Thread {
+      @VisibleForTesting
+      volatile boolean mIsSleeping = true;
+
+      // Populated with #fillBatch, cleared with #evictBatch. We keep it around so that we don't
+      // need to keep re-allocating the list.
+      private final List<Entry> mEvictionCandidates = new ArrayList<>(mEvictBatchSize);
+      private final List<Entry> mDirtyEvictionCandidates = new ArrayList<>(mEvictBatchSize);
+      private final Logger mCacheFullLogger = new SamplingLogger(LOG, 10L * Constants.SECOND_MS);
+
+      // The CLOCK hand of the segment.
+      private Iterator<Entry> mEvictionHead = Collections.emptyIterator();
+
+      private EvictionThread() {
+        super(mName + "-eviction-thread");
       }
-      if (evictionCount > 0) {
-        mStatsCounter.recordEvictions(evictionCount);
-        LOG.debug("{}: Evicted {} entries in {}ms", mName, evictionCount,
-            (System.nanoTime() - evictionStart) / Constants.MS_NANO);
+
+      @Override
+      public void run() {
+        while (!Thread.interrupted()) {
+          // Wait for the segment to get over the high water mark.
+          while (underHighWaterMark()) {
+            synchronized (mEvictionThread) {
+              if (underHighWaterMark()) {
+                try {
+                  mIsSleeping = true;
+                  mEvictionThread.wait();
+                  mIsSleeping = false;
+                } catch (InterruptedException e) {
+                  return;
+                }
+              }
+            }
+          }
+          if (cacheIsFull()) {
+            mCacheFullLogger.warn(
+                "Metastore {} cache is full. Consider increasing the cache size or lowering the "
+                    + "high water mark. size:{} lowWaterMark:{} highWaterMark:{} maxSize:{}",
+                mName, mMap.size(), mLowWaterMark, mHighWaterMark, mMaxSize);
+          }
+          evictToLowWaterMark();
+        }
       }
-    }
 
-    /**
-     * Attempts to fill mEvictionCandidates with up to min(count, mEvictBatchSize) candidates for
-     * eviction.
-     *
-     * @param count maximum number of entries to store in the batch
-     */
-    private void fillBatch(int count) {
-      int targetSize = Math.min(count, mEvictBatchSize);
-      while (mEvictionCandidates.size() < targetSize && mEvictionHead.hasNext()) {
-        Entry candidate = mEvictionHead.next();
-        if (candidate.mReferenced) {
-          candidate.mReferenced = false;
-          continue;
+      private void evictToLowWaterMark() {
+        long evictionStart = System.nanoTime();
+        int toEvict = mMap.size() - mLowWaterMark;
+        int evictionCount = 0;
+        while (evictionCount < toEvict) {
+          if (!mEvictionHead.hasNext()) {
+            mEvictionHead = mMap.values().iterator();
+          }
+          fillBatch(toEvict - evictionCount);
+          evictionCount += evictBatch();
         }
-        mEvictionCandidates.add(candidate);
-        if (candidate.mDirty) {
-          mDirtyEvictionCandidates.add(candidate);
+        if (evictionCount > 0) {
+          mStatsCounter.recordEvictions(evictionCount);
+          LOG.debug("{}: Evicted {} entries in {}ms", mName, evictionCount,
+              (System.nanoTime() - evictionStart) / Constants.MS_NANO);
         }
       }
-    }
 
-    /**
-     * Attempts to evict all entries in mEvictionCandidates.
-     *
-     * @return the number of candidates actually evicted
-     */
-    private int evictBatch() {
-      int evicted = 0;
-      if (mEvictionCandidates.isEmpty()) {
-        return evicted;
-      }
-      flushEntries(mDirtyEvictionCandidates);
-      for (Entry entry : mEvictionCandidates) {
-        if (evictIfClean(entry)) {
-          evicted++;
+      /**
+       * Attempts to fill mEvictionCandidates with up to min(count, mEvictBatchSize) candidates for
+       * eviction.
+       *
+       * @param count maximum number of entries to store in the batch
+       */
+      private void fillBatch(int count) {
+        int targetSize = Math.min(count, mEvictBatchSize);
+        while (mEvictionCandidates.size() < targetSize && mEvictionHead.hasNext()) {
+          Entry candidate = mEvictionHead.next();
+          if (candidate.mReferenced) {
+            candidate.mReferenced = false;
+            continue;
+          }
+          mEvictionCandidates.add(candidate);
+          if (candidate.mDirty) {
+            mDirtyEvictionCandidates.add(candidate);
+          }
         }
       }
-      mEvictionCandidates.clear();
-      mDirtyEvictionCandidates.clear();
-      return evicted;
-    }
 
-    /**
-     * @param entry the entry to try to evict
-     * @return whether the entry was successfully evicted
-     */
-    private boolean evictIfClean(Entry entry) {
-      return null == mMap.computeIfPresent(entry.mKey, (key, e) -> {
-        if (entry.mDirty) {
-          return entry; // entry must have been written since we evicted.
+      /**
+       * Attempts to evict all entries in mEvictionCandidates.
+       *
+       * @return the number of candidates actually evicted
+       */
+      private int evictBatch() {
+        int evicted = 0;
+        if (mEvictionCandidates.isEmpty()) {
+          return evicted;
         }
-        onCacheRemove(entry.mKey);
-        return null;
-      });
+        flushEntries(mDirtyEvictionCandidates);
+        for (Entry entry : mEvictionCandidates) {
+          if (evictIfClean(entry)) {
+            evicted++;
+          }
+        }
+        mEvictionCandidates.clear();
+        mDirtyEvictionCandidates.clear();
+        return evicted;
+      }
+
+      /**
+       * @param entry the entry to try to evict
+       * @return whether the entry was successfully evicted
+       */
+      private boolean evictIfClean(Entry entry) {
+        return null == mMap.computeIfPresent(entry.mKey, (key, e) -> {
+          if (entry.mDirty) {
+            return entry; // entry must have been written since we evicted.
+          }
+          onCacheRemove(entry.mKey);
+          return null;
+        });
+      }
     }
   }
 
   @VisibleForTesting
   protected Map<K, Entry> getCacheMap() {
-    return new HashMap<>(mMap);
+    Map<K, Entry> map = new HashMap<>(size());
+    for (Segment segment : mSegments) {
+      map.putAll(segment.mMap);
+    }
+    return map;
   }
 
   //
@@ -19,12 +19,15 @@ public class CacheConfiguration {
   private final int mHighWaterMark;
   private final int mLowWaterMark;
   private final int mEvictBatchSize;
+  private final int mSegments;
 
-  private CacheConfiguration(int maxSize, int highWaterMark, int lowWaterMark, int evictBatchSize) {
+  private CacheConfiguration(int maxSize, int highWaterMark, int lowWaterMark, int evictBatchSize,
+      int segments) {
     mMaxSize = maxSize;
     mHighWaterMark = highWaterMark;
     mLowWaterMark = lowWaterMark;
     mEvictBatchSize = evictBatchSize;
+    mSegments = segments;
   }
 
   /**
@@ -55,6 +58,13 @@ public class CacheConfiguration {
     return mEvictBatchSize;
   }
 
+  /**
+   * @return the number of segments
+   */
+  public int getSegments() {
+    return mSegments;
+  }
+
   /**
    * @return a cache configuration builder
    */
@@ -70,6 +80,7 @@ public class CacheConfiguration {
     private int mHighWaterMark;
     private int mLowWaterMark;
     private int mEvictBatchSize;
+    private int mSegments = 1;
 
     /**
      * @param maxSize the target max cache size
@@ -107,11 +118,21 @@ public class CacheConfiguration {
       return this;
     }
 
+    /**
+     * @param segments the number of segments to partition the cache into
+     * @return the builder
+     */
+    public Builder setSegments(int segments) {
+      mSegments = segments;
+      return this;
+    }
+
     /**
      * @return a cache configuration based on the values passed to the builder
      */
     public CacheConfiguration build() {
-      return new CacheConfiguration(mMaxSize, mHighWaterMark, mLowWaterMark, mEvictBatchSize);
+      return new CacheConfiguration(mMaxSize, mHighWaterMark, mLowWaterMark, mEvictBatchSize,
+          mSegments);
     }
   }
 }
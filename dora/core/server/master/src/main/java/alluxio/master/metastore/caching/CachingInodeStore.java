@@ -153,6 +153,7 @@ public final class CachingInodeStore implements InodeStore, Closeable {
     CacheConfiguration cacheConf = CacheConfiguration.newBuilder().setMaxSize(maxSize)
         .setHighWaterMark(highWaterMark).setLowWaterMark(lowWaterMark)
         .setEvictBatchSize(conf.getInt(PropertyKey.MASTER_METASTORE_INODE_CACHE_EVICT_BATCH_SIZE))
+        .setSegments(conf.getInt(PropertyKey.MASTER_METASTORE_INODE_CACHE_SEGMENTS))
         .build();
     mInodeCache = new InodeCache(cacheConf);
     mEdgeCache = new EdgeCache(cacheConf);
@@ -161,9 +162,9 @@ public final class CachingInodeStore implements InodeStore, Closeable {
       MetricsSystem.registerCachedGaugeIfAbsent(MetricKey.MASTER_INODE_HEAP_SIZE.getName(),
           () -> {
             try {
-              return ObjectSizeCalculator.getObjectSize(mInodeCache.mMap,
+              return ObjectSizeCalculator.getObjectSize(mInodeCache.getSegmentMaps(),
                   ImmutableSet.of(Long.class, MutableInodeFile.class, MutableInodeDirectory.class))
-                  + ObjectSizeCalculator.getObjectSize(mEdgeCache.mMap,
+                  + ObjectSizeCalculator.getObjectSize(mEdgeCache.getSegmentMaps(),
                   ImmutableSet.of(Long.class, Edge.class))
                   + ObjectSizeCalculator.getObjectSize(mListingCache.mMap,
                   ImmutableSet.of(Long.class, ListingCache.ListingCacheEntry.class));
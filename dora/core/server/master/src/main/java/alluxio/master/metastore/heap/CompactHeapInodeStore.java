@@ -0,0 +1,338 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.metastore.heap;
+
+import alluxio.collections.ConcurrentLongObjectHashMap;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.master.file.meta.EdgeEntry;
+import alluxio.master.file.meta.Inode;
+import alluxio.master.file.meta.InodeDirectoryView;
+import alluxio.master.file.meta.MutableInode;
+import alluxio.master.file.meta.MutableInodeDirectory;
+import alluxio.master.file.meta.MutableInodeFile;
+import alluxio.master.journal.checkpoint.CheckpointInputStream;
+import alluxio.master.journal.checkpoint.CheckpointName;
+import alluxio.master.journal.checkpoint.CheckpointOutputStream;
+import alluxio.master.journal.checkpoint.CheckpointType;
+import alluxio.master.metastore.InodeStore;
+import alluxio.master.metastore.ReadOption;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.proto.meta.InodeMeta;
+import alluxio.resource.CloseableIterator;
+import alluxio.util.ObjectSizeCalculator;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * FileStore implementation using on-heap data structures indexed by primitive inode ids.
+ *
+ * Compared to {@link HeapInodeStore}, the inodes are indexed by a
+ * {@link ConcurrentLongObjectHashMap} rather than a map of boxed ids, and the children of each
+ * directory are kept in a {@link SortedChildren} rather than a sorted map, so that the index
+ * costs no object per inode. The name of a child in the index is the name of its inode when the
+ * inode is known, rather than a copy. The checkpoints are the same as those of
+ * {@link HeapInodeStore}, so the two stores can restore each other's checkpoints.
+ */
+@ThreadSafe
+public class CompactHeapInodeStore implements InodeStore {
+  private static final Logger LOG = LoggerFactory.getLogger(CompactHeapInodeStore.class);
+  /** The max number of children copied from a directory at once by an iterator. */
+  private static final int ITERATOR_BATCH_SIZE = 64;
+
+  private final ConcurrentLongObjectHashMap<MutableInode<?>> mInodes =
+      new ConcurrentLongObjectHashMap<>();
+  // Map from inode id to the children of that inode.
+  private final ConcurrentLongObjectHashMap<SortedChildren> mEdges =
+      new ConcurrentLongObjectHashMap<>();
+
+  /**
+   * Construct a compact heap inode store.
+   */
+  public CompactHeapInodeStore() {
+    MetricsSystem.registerCachedGaugeIfAbsent(
+        MetricKey.MASTER_INODE_INDEX_BYTES_PER_INODE.getName(), this::getIndexBytesPerInode);
+    if (Configuration.getBoolean(PropertyKey.MASTER_METRICS_HEAP_ENABLED)) {
+      MetricsSystem.registerCachedGaugeIfAbsent(MetricKey.MASTER_INODE_HEAP_SIZE.getName(),
+          () -> ObjectSizeCalculator.getObjectSize(mInodes,
+          ImmutableSet.of(MutableInodeFile.class, MutableInodeDirectory.class)));
+    }
+  }
+
+  @Override
+  public void remove(Long inodeId) {
+    mInodes.remove(inodeId);
+  }
+
+  @Override
+  public void writeNewInode(MutableInode<?> inode) {
+    mInodes.compute(inode.getId(), existingInode -> {
+      if (existingInode != null && !existingInode.getName().equals(inode.getName())) {
+        LOG.error(
+            "[InodeTreeCorruption] trying writing the inode name {} id {}, parent id {}, "
+                + "but a different inode name {} id {} parent id {} already exists. "
+                + "Your journal files are probably corrupted!",
+            inode.getName(), inode.getId(), inode.getParentId(),
+            existingInode.getName(), existingInode.getId(), existingInode.getParentId());
+      }
+      return existingInode == null ? inode : existingInode;
+    });
+  }
+
+  @Override
+  public void writeInode(MutableInode<?> inode) {
+    mInodes.putIfAbsent(inode.getId(), inode);
+  }
+
+  @Override
+  public void addChild(long parentId, String childName, Long childId) {
+    MutableInode<?> child = mInodes.get(childId);
+    String name = child != null && child.getName().equals(childName)
+        ? child.getName() : childName;
+    mEdges.compute(parentId, children -> {
+      if (children == null) {
+        children = new SortedChildren();
+      }
+      children.put(name, childId);
+      return children;
+    });
+  }
+
+  @Override
+  public void removeChild(long parentId, String name) {
+    mEdges.compute(parentId, children -> {
+      if (children == null || (children.remove(name) && children.isEmpty())) {
+        return null;
+      }
+      return children;
+    });
+  }
+
+  @Override
+  public Optional<MutableInode<?>> getMutable(long id, ReadOption option) {
+    return Optional.ofNullable(mInodes.get(id));
+  }
+
+  @Override
+  public CloseableIterator<? extends Inode> getChildren(Long inodeId, ReadOption option) {
+    Iterator<Long> childIds = childIds(inodeId, option);
+    return CloseableIterator.noopCloseable(new Iterator<Inode>() {
+      private Inode mNext = advance();
+
+      @Override
+      public boolean hasNext() {
+        return mNext != null;
+      }
+
+      @Override
+      public Inode next() {
+        if (mNext == null) {
+          throw new NoSuchElementException();
+        }
+        Inode next = mNext;
+        mNext = advance();
+        return next;
+      }
+
+      @Nullable
+      private Inode advance() {
+        while (childIds.hasNext()) {
+          MutableInode<?> child = mInodes.get(childIds.next());
+          if (child != null) {
+            return Inode.wrap(child);
+          }
+        }
+        return null;
+      }
+    });
+  }
+
+  @Override
+  public CloseableIterator<Long> getChildIds(Long inodeId, ReadOption option) {
+    return CloseableIterator.noopCloseable(childIds(inodeId, option));
+  }
+
+  @Override
+  public Optional<Long> getChildId(Long inodeId, String child, ReadOption option) {
+    SortedChildren children = mEdges.get(inodeId);
+    if (children == null) {
+      return Optional.empty();
+    }
+    long childId = children.get(child);
+    return childId == SortedChildren.NO_CHILD ? Optional.empty() : Optional.of(childId);
+  }
+
+  @Override
+  public Optional<Inode> getChild(Long inodeId, String child, ReadOption option) {
+    return getChildId(inodeId, child, option)
+        .flatMap(this::get);
+  }
+
+  @Override
+  public boolean hasChildren(InodeDirectoryView dir, ReadOption option) {
+    SortedChildren children = mEdges.get(dir.getId());
+    return children != null && !children.isEmpty();
+  }
+
+  @Override
+  public Set<EdgeEntry> allEdges() {
+    Set<EdgeEntry> edges = new HashSet<>();
+    mEdges.forEach((children, parentId) -> children.forEach(
+        (name, childId) -> edges.add(new EdgeEntry(parentId, name, childId))));
+    return edges;
+  }
+
+  @Override
+  public Set<MutableInode<?>> allInodes() {
+    return new HashSet<>(mInodes.values());
+  }
+
+  @Override
+  public void clear() {
+    mInodes.clear();
+    mEdges.clear();
+  }
+
+  @Override
+  public void writeToCheckpoint(OutputStream output) throws IOException, InterruptedException {
+    output = new CheckpointOutputStream(output, CheckpointType.INODE_PROTOS);
+    for (MutableInode<?> inode : mInodes.values()) {
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      inode.toProto().writeDelimitedTo(output);
+    }
+  }
+
+  @Override
+  public void restoreFromCheckpoint(CheckpointInputStream input) throws IOException {
+    Preconditions.checkState(input.getType() == CheckpointType.INODE_PROTOS,
+        "Unexpected checkpoint type in compact heap inode store: " + input.getType());
+    InodeMeta.Inode inodeProto;
+    while ((inodeProto = InodeMeta.Inode.parseDelimitedFrom(input)) != null) {
+      MutableInode<?> inode = MutableInode.fromProto(inodeProto);
+      mInodes.put(inode.getId(), inode);
+      addChild(inode.getParentId(), inode.getName(), inode.getId());
+    }
+  }
+
+  @Override
+  public CheckpointName getCheckpointName() {
+    return CheckpointName.HEAP_INODE_STORE;
+  }
+
+  /**
+   * @return an estimate of the bytes of the inode and edge indexes per inode, excluding the
+   *         inodes and their names
+   */
+  public long getIndexBytesPerInode() {
+    AtomicLong bytes = new AtomicLong(mInodes.getTableBytes() + mEdges.getTableBytes());
+    mEdges.forEach((children, parentId) -> bytes.addAndGet(children.getBytes()));
+    return bytes.get() / Math.max(1, mInodes.size());
+  }
+
+  private Iterator<Long> childIds(long inodeId, ReadOption option) {
+    SortedChildren children = mEdges.get(inodeId);
+    if (children == null) {
+      return Collections.emptyIterator();
+    }
+    String from = option.getStartFrom();
+    String prefix = option.getPrefix();
+    if (prefix != null && (from == null || prefix.compareTo(from) > 0)) {
+      from = prefix;
+    }
+    return new ChildIdIterator(children, from, prefix);
+  }
+
+  /**
+   * Iterates over the ids of the children of a directory in the order of their names, copying
+   * the children in batches so that the directory is not locked while they are consumed. Like
+   * the iterators of a concurrent sorted map, it reflects the changes made to the directory
+   * after the last batch copied.
+   */
+  private static final class ChildIdIterator implements Iterator<Long> {
+    private final SortedChildren mChildren;
+    @Nullable
+    private final String mPrefix;
+    private final String[] mNames;
+    private final long[] mIds;
+    /** The name the next batch starts from. */
+    @Nullable
+    private String mFrom;
+    private boolean mInclusive = true;
+    private int mCount;
+    private int mPosition;
+    private boolean mLastBatch;
+
+    ChildIdIterator(SortedChildren children, @Nullable String from, @Nullable String prefix) {
+      mChildren = children;
+      mPrefix = prefix;
+      int batchSize = Math.max(1, Math.min(ITERATOR_BATCH_SIZE, children.size()));
+      mNames = new String[batchSize];
+      mIds = new long[batchSize];
+      mFrom = from;
+      fill();
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (mPosition == mCount && !mLastBatch) {
+        fill();
+      }
+      return mPosition < mCount;
+    }
+
+    @Override
+    public Long next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return mIds[mPosition++];
+    }
+
+    private void fill() {
+      mCount = mChildren.copyFrom(mFrom, mInclusive, mNames, mIds);
+      mPosition = 0;
+      mInclusive = false;
+      mLastBatch = mCount < mNames.length;
+      if (mCount > 0) {
+        mFrom = mNames[mCount - 1];
+      }
+      if (mPrefix != null) {
+        // stops at the first child past the prefix
+        for (int i = 0; i < mCount; i++) {
+          if (!mNames[i].startsWith(mPrefix)) {
+            mCount = i;
+            mLastBatch = true;
+            break;
+          }
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,336 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.metastore.heap;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.ObjLongConsumer;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The children of a directory, as their names and ids ordered by name.
+ *
+ * The children are kept in sorted leaves of up to {@link #LEAF_CAPACITY} children, each holding
+ * the names and the primitive ids of its children in two arrays, so that a child costs two array
+ * slots rather than the nodes and the boxed id of a sorted map. A leaf is split in two when it
+ * is full, which keeps the insertions in large directories cheap.
+ *
+ * The lookups of children by name are optimistic reads, which do not write to shared memory, so
+ * that concurrent lookups in a hot directory do not contend with each other. A lookup racing a
+ * modification may read the leaves in an inconsistent state, in which case it is retried under
+ * the read lock.
+ */
+@ThreadSafe
+final class SortedChildren {
+  /** The id returned for a child which does not exist. */
+  static final long NO_CHILD = -1;
+  static final int LEAF_CAPACITY = 256;
+  private static final int INITIAL_LEAF_CAPACITY = 2;
+  /** The bytes of an object reference, assuming compressed references. */
+  private static final int REFERENCE_BYTES = 4;
+  /** The bytes of the header of an object or an array. */
+  private static final int HEADER_BYTES = 16;
+
+  /** The leaves ordered by the names of their children, the first one only may be empty. */
+  private final StampedLock mLock = new StampedLock();
+  private Leaf[] mLeaves = {new Leaf(INITIAL_LEAF_CAPACITY)};
+  private int mLeafCount = 1;
+  private int mSize;
+
+  /**
+   * @param name the name of a child
+   * @return the id of the child, or {@link #NO_CHILD} if the child does not exist
+   */
+  long get(String name) {
+    long stamp = mLock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        long id = find(name);
+        if (mLock.validate(stamp)) {
+          return id;
+        }
+      } catch (RuntimeException e) {
+        // the leaves were read while being modified, unless the read is still valid
+        if (mLock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = mLock.readLock();
+    try {
+      return find(name);
+    } finally {
+      mLock.unlockRead(stamp);
+    }
+  }
+
+  private long find(String name) {
+    Leaf leaf = mLeaves[findLeaf(name)];
+    int index = leaf.search(name);
+    return index >= 0 ? leaf.mIds[index] : NO_CHILD;
+  }
+
+  /**
+   * Adds a child, or replaces the id of the child of the same name.
+   *
+   * @param name the name of the child
+   * @param id the id of the child
+   */
+  void put(String name, long id) {
+    long stamp = mLock.writeLock();
+    try {
+      putInternal(name, id);
+    } finally {
+      mLock.unlockWrite(stamp);
+    }
+  }
+
+  private void putInternal(String name, long id) {
+    int leafIndex = findLeaf(name);
+    Leaf leaf = mLeaves[leafIndex];
+    int index = leaf.search(name);
+    if (index >= 0) {
+      leaf.mIds[index] = id;
+      return;
+    }
+    index = -(index + 1);
+    if (leaf.mSize == LEAF_CAPACITY && index == LEAF_CAPACITY) {
+      // the children created in order are appended to a new leaf rather than to a split leaf,
+      // which would leave half empty leaves behind
+      leaf = new Leaf(LEAF_CAPACITY);
+      insertLeaf(leafIndex + 1, leaf);
+      index = 0;
+    } else if (leaf.mSize == LEAF_CAPACITY) {
+      Leaf right = leaf.split();
+      insertLeaf(leafIndex + 1, right);
+      if (index > leaf.mSize) {
+        leaf = right;
+        index -= LEAF_CAPACITY / 2;
+      }
+    }
+    leaf.insert(index, name, id);
+    mSize++;
+  }
+
+  /**
+   * @param name the name of the child to remove
+   * @return whether the child existed
+   */
+  boolean remove(String name) {
+    long stamp = mLock.writeLock();
+    try {
+      return removeInternal(name);
+    } finally {
+      mLock.unlockWrite(stamp);
+    }
+  }
+
+  private boolean removeInternal(String name) {
+    int leafIndex = findLeaf(name);
+    Leaf leaf = mLeaves[leafIndex];
+    int index = leaf.search(name);
+    if (index < 0) {
+      return false;
+    }
+    leaf.delete(index);
+    mSize--;
+    if (leaf.mSize == 0 && mLeafCount > 1) {
+      System.arraycopy(mLeaves, leafIndex + 1, mLeaves, leafIndex, mLeafCount - leafIndex - 1);
+      mLeaves[--mLeafCount] = null;
+    }
+    return true;
+  }
+
+  /**
+   * @return the number of children
+   */
+  int size() {
+    long stamp = mLock.tryOptimisticRead();
+    int size = mSize;
+    if (!mLock.validate(stamp)) {
+      stamp = mLock.readLock();
+      try {
+        size = mSize;
+      } finally {
+        mLock.unlockRead(stamp);
+      }
+    }
+    return size;
+  }
+
+  /**
+   * @return whether there are no children
+   */
+  boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Copies the children following a name, in order.
+   *
+   * @param from the name to start from, or null to start from the first child
+   * @param inclusive whether the child named from is copied
+   * @param names the array receiving the names of the children
+   * @param ids the array receiving the ids of the children
+   * @return the number of children copied, less than the length of the arrays if there are no
+   *         more children
+   */
+  int copyFrom(@Nullable String from, boolean inclusive, String[] names, long[] ids) {
+    long stamp = mLock.readLock();
+    try {
+      return copyFromInternal(from, inclusive, names, ids);
+    } finally {
+      mLock.unlockRead(stamp);
+    }
+  }
+
+  private int copyFromInternal(@Nullable String from, boolean inclusive, String[] names,
+      long[] ids) {
+    int leafIndex = 0;
+    int index = 0;
+    if (from != null) {
+      leafIndex = findLeaf(from);
+      index = mLeaves[leafIndex].search(from);
+      index = index >= 0 ? (inclusive ? index : index + 1) : -(index + 1);
+    }
+    int count = 0;
+    while (count < names.length && leafIndex < mLeafCount) {
+      Leaf leaf = mLeaves[leafIndex];
+      int n = Math.min(names.length - count, leaf.mSize - index);
+      System.arraycopy(leaf.mNames, index, names, count, n);
+      System.arraycopy(leaf.mIds, index, ids, count, n);
+      count += n;
+      leafIndex++;
+      index = 0;
+    }
+    return count;
+  }
+
+  /**
+   * @param action the action run on the name and the id of each child, under the read lock of
+   *        the children, which must not modify the children
+   */
+  void forEach(ObjLongConsumer<String> action) {
+    long stamp = mLock.readLock();
+    try {
+      for (int i = 0; i < mLeafCount; i++) {
+        Leaf leaf = mLeaves[i];
+        for (int j = 0; j < leaf.mSize; j++) {
+          action.accept(leaf.mNames[j], leaf.mIds[j]);
+        }
+      }
+    } finally {
+      mLock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * @return an estimate of the bytes of the children, excluding their names
+   */
+  long getBytes() {
+    long stamp = mLock.readLock();
+    try {
+      long bytes = 2L * HEADER_BYTES + (long) mLeaves.length * REFERENCE_BYTES;
+      for (int i = 0; i < mLeafCount; i++) {
+        bytes += 3L * HEADER_BYTES
+            + (long) mLeaves[i].mIds.length * (Long.BYTES + REFERENCE_BYTES);
+      }
+      return bytes;
+    } finally {
+      mLock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * @return the index of the leaf which holds or would hold the name
+   */
+  private int findLeaf(String name) {
+    int low = 1;
+    int high = mLeafCount - 1;
+    // the last leaf whose first name is not after the name, or the first leaf
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (mLeaves[mid].mNames[0].compareTo(name) <= 0) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low - 1;
+  }
+
+  private void insertLeaf(int index, Leaf leaf) {
+    if (mLeafCount == mLeaves.length) {
+      mLeaves = Arrays.copyOf(mLeaves, mLeaves.length * 2);
+    }
+    System.arraycopy(mLeaves, index, mLeaves, index + 1, mLeafCount - index);
+    mLeaves[index] = leaf;
+    mLeafCount++;
+  }
+
+  /**
+   * A sorted run of children.
+   */
+  private static final class Leaf {
+    private String[] mNames;
+    private long[] mIds;
+    private int mSize;
+
+    Leaf(int capacity) {
+      mNames = new String[capacity];
+      mIds = new long[capacity];
+    }
+
+    /**
+     * @return the index of the name, or (-(insertion point) - 1) if the name is absent
+     */
+    int search(String name) {
+      return Arrays.binarySearch(mNames, 0, mSize, name);
+    }
+
+    void insert(int index, String name, long id) {
+      if (mSize == mNames.length) {
+        int capacity = Math.min(LEAF_CAPACITY, mNames.length * 2);
+        mNames = Arrays.copyOf(mNames, capacity);
+        mIds = Arrays.copyOf(mIds, capacity);
+      }
+      System.arraycopy(mNames, index, mNames, index + 1, mSize - index);
+      System.arraycopy(mIds, index, mIds, index + 1, mSize - index);
+      mNames[index] = name;
+      mIds[index] = id;
+      mSize++;
+    }
+
+    void delete(int index) {
+      System.arraycopy(mNames, index + 1, mNames, index, mSize - index - 1);
+      System.arraycopy(mIds, index + 1, mIds, index, mSize - index - 1);
+      mNames[--mSize] = null;
+    }
+
+    /**
+     * Moves the upper half of the children of a full leaf to a new leaf.
+     *
+     * @return the new leaf
+     */
+    Leaf split() {
+      int half = LEAF_CAPACITY / 2;
+      Leaf right = new Leaf(LEAF_CAPACITY);
+      System.arraycopy(mNames, half, right.mNames, 0, mSize - half);
+      System.arraycopy(mIds, half, right.mIds, 0, mSize - half);
+      right.mSize = mSize - half;
+      Arrays.fill(mNames, half, mSize, null);
+      mSize = half;
+      return right;
+    }
+  }
+}
@@ -658,6 +658,26 @@ public final class FileSystemMasterTest extends FileSystemMasterTestBase {
     mFileSystemMaster.getFileInfo(dirId);
   }
 
+  /**
+   * Tests that a file and its parent directory expiring in the same TTL check are both deleted.
+   */
+  @Test
+  public void ttlNestedDelete() throws Exception {
+    FileSystemMasterCommonPOptions ttlOptions = FileSystemMasterCommonPOptions.newBuilder()
+        .setTtl(0).setTtlAction(alluxio.grpc.TtlAction.DELETE).build();
+    mFileSystemMaster.createDirectory(NESTED_DIR_URI, CreateDirectoryContext.mergeFrom(
+        CreateDirectoryPOptions.newBuilder().setRecursive(true).setCommonOptions(ttlOptions)));
+    AlluxioURI fileUri = NESTED_DIR_URI.join("file");
+    CreateFileContext context = CreateFileContext.defaults();
+    context.getOptions().setBlockSizeBytes(Constants.KB);
+    context.getOptions().setCommonOptions(ttlOptions);
+    mFileSystemMaster.createFile(fileUri, context);
+    HeartbeatScheduler.execute(HeartbeatContext.MASTER_TTL_CHECK);
+    assertEquals(IdUtils.INVALID_FILE_ID, mFileSystemMaster.getFileId(fileUri));
+    assertEquals(IdUtils.INVALID_FILE_ID, mFileSystemMaster.getFileId(NESTED_DIR_URI));
+    assertNotEquals(IdUtils.INVALID_FILE_ID, mFileSystemMaster.getFileId(NESTED_URI));
+  }
+
   /**
    * Tests that file information is still present after it has been freed after the TTL has been set
    * to 0.
@@ -0,0 +1,147 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import alluxio.AlluxioURI;
+import alluxio.grpc.TtlAction;
+import alluxio.master.file.contexts.DeleteContext;
+import alluxio.master.file.meta.Inode;
+import alluxio.master.file.meta.InodeTree;
+import alluxio.master.file.meta.InodeTree.LockPattern;
+import alluxio.master.file.meta.LockedInodePath;
+import alluxio.master.file.meta.TtlBucket;
+import alluxio.master.file.meta.TtlBucketList;
+import alluxio.master.journal.JournalContext;
+import alluxio.master.metastore.ReadOnlyInodeStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Unit tests for {@link InodeTtlChecker}.
+ */
+public final class InodeTtlCheckerTest {
+  private static final AlluxioURI DIR = new AlluxioURI("/dir");
+  private static final AlluxioURI NESTED_DIR = new AlluxioURI("/dir/nested");
+  private static final AlluxioURI FILE = new AlluxioURI("/dir/nested/file");
+
+  private FileSystemMaster mFileSystemMaster;
+  private ReadOnlyInodeStore mInodeStore;
+  private InodeTree mInodeTree;
+  private TtlBucketList mTtlBuckets;
+  private InodeTtlChecker mChecker;
+
+  @Before
+  public void before() {
+    mFileSystemMaster = mock(FileSystemMaster.class);
+    mInodeStore = mock(ReadOnlyInodeStore.class);
+    mInodeTree = mock(InodeTree.class);
+    mTtlBuckets = new TtlBucketList(mInodeStore);
+    when(mInodeTree.getTtlBuckets()).thenReturn(mTtlBuckets);
+    mChecker = new InodeTtlChecker(mFileSystemMaster, mInodeTree);
+  }
+
+  @After
+  public void after() {
+    mChecker.close();
+  }
+
+  @Test
+  public void deletedAncestor() throws Exception {
+    addExpiredInode(1, DIR, true);
+    addExpiredInode(2, NESTED_DIR, true);
+    addExpiredInode(3, FILE, false);
+    mChecker.heartbeat(Long.MAX_VALUE);
+    verify(mFileSystemMaster).delete(eq(DIR), any(DeleteContext.class));
+    verify(mFileSystemMaster, never()).delete(eq(NESTED_DIR), any(DeleteContext.class));
+    verify(mFileSystemMaster, never()).delete(eq(FILE), any(DeleteContext.class));
+    assertTrue(pollRetries().isEmpty());
+  }
+
+  @Test
+  public void failedAncestorDelete() throws Exception {
+    addExpiredInode(1, DIR, true);
+    addExpiredInode(2, NESTED_DIR, true);
+    addExpiredInode(3, FILE, false);
+    doThrow(new IOException("failed to delete")).when(mFileSystemMaster)
+        .delete(eq(DIR), any(DeleteContext.class));
+    mChecker.heartbeat(Long.MAX_VALUE);
+    // the nested directory is deleted on its own, along with the file
+    verify(mFileSystemMaster, times(1)).delete(eq(NESTED_DIR), any(DeleteContext.class));
+    verify(mFileSystemMaster, never()).delete(eq(FILE), any(DeleteContext.class));
+    Map<Long, Integer> retries = pollRetries();
+    assertEquals(1, retries.size());
+    assertEquals(TtlBucket.DEFAULT_RETRY_ATTEMPTS - 1, (int) retries.get(1L));
+  }
+
+  @Test
+  public void failedAncestorsDelete() throws Exception {
+    addExpiredInode(1, DIR, true);
+    addExpiredInode(2, NESTED_DIR, true);
+    addExpiredInode(3, FILE, false);
+    doThrow(new IOException("failed to delete")).when(mFileSystemMaster)
+        .delete(eq(DIR), any(DeleteContext.class));
+    doThrow(new IOException("failed to delete")).when(mFileSystemMaster)
+        .delete(eq(NESTED_DIR), any(DeleteContext.class));
+    mChecker.heartbeat(Long.MAX_VALUE);
+    verify(mFileSystemMaster, times(1)).delete(eq(FILE), any(DeleteContext.class));
+    Map<Long, Integer> retries = pollRetries();
+    assertEquals(2, retries.size());
+    assertEquals(TtlBucket.DEFAULT_RETRY_ATTEMPTS - 1, (int) retries.get(1L));
+    assertEquals(TtlBucket.DEFAULT_RETRY_ATTEMPTS - 1, (int) retries.get(2L));
+  }
+
+  private void addExpiredInode(long id, AlluxioURI path, boolean isDirectory) throws Exception {
+    Inode inode = mock(Inode.class);
+    when(inode.getId()).thenReturn(id);
+    when(inode.isDirectory()).thenReturn(isDirectory);
+    when(inode.getCreationTimeMs()).thenReturn(0L);
+    when(inode.getTtl()).thenReturn(1L);
+    when(inode.getTtlAction()).thenReturn(TtlAction.DELETE);
+    when(mInodeStore.get(id)).thenReturn(Optional.of(inode));
+    LockedInodePath inodePath = mock(LockedInodePath.class);
+    when(inodePath.getUri()).thenReturn(path);
+    when(mInodeTree.lockFullInodePath(eq(id), any(LockPattern.class), any(JournalContext.class)))
+        .thenReturn(inodePath);
+    mTtlBuckets.insert(inode);
+  }
+
+  /**
+   * @return the ids of the inodes in the expired buckets, with their retries left
+   */
+  private Map<Long, Integer> pollRetries() {
+    Map<Long, Integer> retries = new HashMap<>();
+    for (TtlBucket bucket : mTtlBuckets.pollExpiredBuckets(System.currentTimeMillis())) {
+      for (Map.Entry<Long, Integer> entry : bucket.getInodeExpiries()) {
+        retries.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return retries;
+  }
+}
@@ -22,7 +22,12 @@ import org.junit.ClassRule;
 import org.junit.Test;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -133,4 +138,57 @@ public final class TtlBucketListTest {
     expired = pollSortedExpiredBuckets(BUCKET2_END);
     Assert.assertEquals(0, expired.size());
   }
+
+  /**
+   * Tests that the inodes expire at their ticks as the timing wheel moves across its levels,
+   * skipping ticks and receiving inodes already expired.
+   */
+  @Test
+  public void timingWheel() {
+    TtlBucketList bucketList = new TtlBucketList(mock(InodeStore.class), 0);
+    Random random = new Random(0);
+    // up to the first level, the last level and past the last level of the wheel
+    long[] horizons = {BUCKET_INTERVAL << 6, BUCKET_INTERVAL << 24, BUCKET_INTERVAL << 27};
+    Map<Long, Long> endTimes = new HashMap<>();
+    long nextId = 0;
+    for (; nextId < 10000; nextId++) {
+      long endTime = (long) (random.nextDouble() * horizons[(int) (nextId % horizons.length)]);
+      endTimes.put(nextId, endTime);
+      bucketList.insert(TtlTestUtils.createFileWithIdAndTtl(nextId, endTime));
+    }
+    for (long id = 0; id < nextId; id += 7) {
+      bucketList.remove(TtlTestUtils.createFileWithIdAndTtl(id, endTimes.remove(id)));
+    }
+    Assert.assertEquals(endTimes.size(), bucketList.getNumInodes());
+
+    long time = 0;
+    while (!endTimes.isEmpty()) {
+      time += random.nextBoolean() ? random.nextInt((int) BUCKET_INTERVAL * 3)
+          : (long) (random.nextDouble() * horizons[random.nextInt(horizons.length)] / 100);
+      if (random.nextInt(10) == 0) {
+        long endTime = Math.max(0,
+            time - BUCKET_INTERVAL * 2 + random.nextInt((int) BUCKET_INTERVAL << 8));
+        endTimes.put(nextId, endTime);
+        bucketList.insert(TtlTestUtils.createFileWithIdAndTtl(nextId++, endTime));
+      }
+      Set<Long> expected = new HashSet<>();
+      for (Map.Entry<Long, Long> endTime : endTimes.entrySet()) {
+        // an inode expires once the whole interval of its bucket has passed
+        if (endTime.getValue() / BUCKET_INTERVAL * BUCKET_INTERVAL + BUCKET_INTERVAL <= time) {
+          expected.add(endTime.getKey());
+        }
+      }
+      Set<Long> expired = new HashSet<>();
+      for (TtlBucket bucket : bucketList.pollExpiredBuckets(time)) {
+        Assert.assertTrue(bucket.getTtlIntervalEndTimeMs() <= time);
+        expired.addAll(bucket.getInodeIds());
+      }
+      Assert.assertEquals(expected, expired);
+      expected.forEach(endTimes::remove);
+      Assert.assertEquals(endTimes.size(), bucketList.getNumInodes());
+    }
+    // the buckets emptied by the removals expire too
+    bucketList.pollExpiredBuckets(time + horizons[horizons.length - 1]);
+    Assert.assertEquals(0, bucketList.getNumBuckets());
+  }
 }
@@ -11,6 +11,10 @@
 
 package alluxio.master.journal.raft;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
@@ -19,6 +23,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import alluxio.exception.JournalClosedException;
 import alluxio.proto.journal.File;
 import alluxio.proto.journal.Journal;
 
@@ -27,6 +32,7 @@ import org.apache.ratis.protocol.Message;
 import org.apache.ratis.protocol.RaftClientReply;
 import org.apache.ratis.protocol.RaftGroupId;
 import org.apache.ratis.protocol.RaftGroupMemberId;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -34,8 +40,11 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -44,6 +53,12 @@ import java.util.concurrent.TimeUnit;
 public class RaftJournalWriterTest {
   private RaftJournalAppender mClient;
   private RaftJournalWriter mRaftJournalWriter;
+  private RaftClientReply mReply;
+  private Long mWriteTimeoutMs;
+  /** The messages sent by the writer, in order. */
+  private final List<Message> mSentMessages = new ArrayList<>();
+  /** The replies of the messages sent by the writer, completed by the tests. */
+  private final List<CompletableFuture<RaftClientReply>> mReplies = new ArrayList<>();
 
   @Before
   public void setupRaftJournalWriter() throws IOException  {
@@ -88,10 +103,18 @@ public class RaftJournalWriterTest {
       }
     };
     when(mClient.sendAsync(any())).thenReturn(future);
+    mReply = reply;
 
     mRaftJournalWriter = new RaftJournalWriter(1, mClient);
   }
 
+  @After
+  public void after() throws Exception {
+    if (mWriteTimeoutMs != null) {
+      setStaticField("MASTER_EMBEDDED_JOURNAL_WRITE_TIMEOUT", mWriteTimeoutMs);
+    }
+  }
+
   @Test
   public void writeAndFlush() throws Exception {
     for (int i = 0; i < 10; i++) {
@@ -139,4 +162,92 @@ public class RaftJournalWriterTest {
     mRaftJournalWriter.write(Journal.JournalEntry.getDefaultInstance());
     verify(mClient, atLeast(totalMessageBytes / flushBatchSize)).sendAsync(any());
   }
+
+  @Test
+  public void resubmitAfterFailedMiddleUnit() throws Exception {
+    recordSentMessages();
+    List<alluxio.concurrent.jsr.CompletableFuture<Void>> flushes = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      mRaftJournalWriter.write(Journal.JournalEntry.getDefaultInstance());
+      flushes.add(mRaftJournalWriter.flushAsync());
+    }
+    assertEquals(3, mSentMessages.size());
+    mReplies.get(0).complete(mReply);
+    flushes.get(0).get(10, TimeUnit.SECONDS);
+    mReplies.get(1).completeExceptionally(new IOException("failed to append"));
+    assertThrows(ExecutionException.class, () -> flushes.get(1).get(10, TimeUnit.SECONDS));
+    // the failed unit and the unit submitted after it are submitted again, in order
+    alluxio.concurrent.jsr.CompletableFuture<Void> retry = mRaftJournalWriter.flushAsync();
+    assertEquals(5, mSentMessages.size());
+    assertSame(mSentMessages.get(1), mSentMessages.get(3));
+    assertSame(mSentMessages.get(2), mSentMessages.get(4));
+    mReplies.get(3).complete(mReply);
+    mReplies.get(4).complete(mReply);
+    retry.get(10, TimeUnit.SECONDS);
+    // the first submission of the last unit is committed late, which changes nothing
+    mReplies.get(2).complete(mReply);
+    flushes.get(2).get(10, TimeUnit.SECONDS);
+    assertTrue(mRaftJournalWriter.flushAsync().isDone());
+    assertEquals(5, mSentMessages.size());
+  }
+
+  @Test
+  public void resubmitAfterTimeoutWithLateCommit() throws Exception {
+    mWriteTimeoutMs = setStaticField("MASTER_EMBEDDED_JOURNAL_WRITE_TIMEOUT", 100L);
+    recordSentMessages();
+    mRaftJournalWriter.write(Journal.JournalEntry.getDefaultInstance());
+    alluxio.concurrent.jsr.CompletableFuture<Void> flush = mRaftJournalWriter.flushAsync();
+    ExecutionException e = assertThrows(ExecutionException.class,
+        () -> flush.get(10, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof IOException);
+    // the reply arrives after the submission timed out, and is ignored
+    mReplies.get(0).complete(mReply);
+    alluxio.concurrent.jsr.CompletableFuture<Void> retry = mRaftJournalWriter.flushAsync();
+    assertEquals(2, mSentMessages.size());
+    assertSame(mSentMessages.get(0), mSentMessages.get(1));
+    mReplies.get(1).complete(mReply);
+    retry.get(10, TimeUnit.SECONDS);
+    assertTrue(mRaftJournalWriter.flushAsync().isDone());
+  }
+
+  @Test
+  public void closeWithFlushInFlight() throws Exception {
+    recordSentMessages();
+    mRaftJournalWriter.write(Journal.JournalEntry.getDefaultInstance());
+    alluxio.concurrent.jsr.CompletableFuture<Void> flush = mRaftJournalWriter.flushAsync();
+    mRaftJournalWriter.close();
+    verify(mClient).close();
+    // the flush in flight fails without waiting for its reply
+    ExecutionException e = assertThrows(ExecutionException.class,
+        () -> flush.get(10, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof JournalClosedException);
+    assertThrows(JournalClosedException.class, () -> mRaftJournalWriter.flushAsync());
+    assertThrows(JournalClosedException.class, () -> mRaftJournalWriter.flush());
+    // the reply arriving after the writer is closed changes nothing
+    mReplies.get(0).complete(mReply);
+    assertEquals(1, mSentMessages.size());
+  }
+
+  /**
+   * Makes the client record each message sent, and reply once the test completes its reply.
+   */
+  private void recordSentMessages() throws IOException {
+    when(mClient.sendAsync(any())).thenAnswer(invocation -> {
+      CompletableFuture<RaftClientReply> reply = new CompletableFuture<>();
+      mSentMessages.add(invocation.getArgument(0));
+      mReplies.add(reply);
+      return reply;
+    });
+  }
+
+  private static long setStaticField(String name, long value) throws Exception {
+    final Field field = RaftJournalWriter.class.getDeclaredField(name);
+    field.setAccessible(true);
+    final Field modifiersField = Field.class.getDeclaredField("modifiers");
+    modifiersField.setAccessible(true);
+    modifiersField.setInt(field, field.getModifiers() & ~Modifier.FINAL);
+    long previous = field.getLong(null);
+    field.set(null, value);
+    return previous;
+  }
 }
@@ -0,0 +1,89 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.journal.tool;
+
+import alluxio.master.journal.checkpoint.CheckpointOutputStream;
+import alluxio.master.journal.checkpoint.CheckpointType;
+import alluxio.master.journal.checkpoint.OptimizedCheckpointOutputStream;
+import alluxio.master.journal.checkpoint.ParallelCheckpointOutputStream;
+
+import org.apache.ratis.io.MD5Hash;
+import org.apache.ratis.util.MD5FileUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tests for {@link RaftJournalDumper}.
+ */
+public class RaftJournalDumperTest {
+  @Rule
+  public TemporaryFolder mFolder = new TemporaryFolder();
+
+  private final ExecutorService mExecutor = Executors.newFixedThreadPool(2);
+
+  private RaftJournalDumper mDumper;
+
+  @Before
+  public void before() throws IOException {
+    mDumper = new RaftJournalDumper("FileSystemMaster", 0, Long.MAX_VALUE,
+        mFolder.newFolder("output").getPath(), mFolder.newFolder("input").getPath());
+  }
+
+  @After
+  public void after() {
+    mExecutor.shutdownNow();
+  }
+
+  @Test
+  public void readSingleStreamSnapshotFile() throws IOException {
+    File file = mFolder.newFile();
+    MessageDigest md5 = MD5Hash.getDigester();
+    writeLongCheckpoint(new OptimizedCheckpointOutputStream(file, md5), 42L);
+    MD5FileUtil.saveMD5File(file, new MD5Hash(md5.digest()));
+    Assert.assertEquals("42", dump(file));
+  }
+
+  @Test
+  public void readParallelSnapshotFile() throws IOException {
+    File file = mFolder.newFile();
+    MessageDigest md5 = MD5Hash.getDigester();
+    writeLongCheckpoint(new ParallelCheckpointOutputStream(file, md5, mExecutor, 4, 2), 42L);
+    MD5FileUtil.saveMD5File(file, new MD5Hash(md5.digest()));
+    Assert.assertEquals("42", dump(file));
+  }
+
+  private String dump(File file) throws IOException {
+    Path humanReadableFile = mFolder.getRoot().toPath().resolve("dump");
+    mDumper.readSnapshotFile(file, humanReadableFile);
+    return new String(Files.readAllBytes(humanReadableFile), StandardCharsets.UTF_8).trim();
+  }
+
+  private static void writeLongCheckpoint(OutputStream out, long value) throws IOException {
+    try (CheckpointOutputStream checkpoint = new CheckpointOutputStream(out, CheckpointType.LONG)) {
+      checkpoint.writeLong(value);
+    }
+  }
+}
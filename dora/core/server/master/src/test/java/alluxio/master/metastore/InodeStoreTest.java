@@ -34,6 +34,7 @@ import alluxio.master.file.meta.MutableInodeDirectory;
 import alluxio.master.file.meta.MutableInodeFile;
 import alluxio.master.metastore.InodeStore.WriteBatch;
 import alluxio.master.metastore.caching.CachingInodeStore;
+import alluxio.master.metastore.heap.CompactHeapInodeStore;
 import alluxio.master.metastore.heap.HeapInodeStore;
 import alluxio.master.metastore.rocks.RocksInodeStore;
 import alluxio.resource.CloseableIterator;
@@ -74,6 +75,7 @@ public class InodeStoreTest {
 
     return Arrays.asList(
         lockManager -> new HeapInodeStore(),
+        lockManager -> new CompactHeapInodeStore(),
         lockManager -> new RocksInodeStore(sDir),
         lockManager -> new CachingInodeStore(new RocksInodeStore(sDir), lockManager));
   }
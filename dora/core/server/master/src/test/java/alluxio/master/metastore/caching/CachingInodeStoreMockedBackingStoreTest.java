@@ -232,12 +232,12 @@ public class CachingInodeStoreMockedBackingStoreTest {
               Long.toString(random.nextLong(10, 15)));
         }
         operations.incrementAndGet();
-        assertTrue(mStore.mEdgeCache.mMap.size() <= CACHE_SIZE + numThreads);
+        assertTrue(mStore.mEdgeCache.size() <= CACHE_SIZE + numThreads);
       }
       return null;
     }));
     alluxio.util.CommonUtils.waitFor("eviction thread to finish",
-        () -> mStore.mEdgeCache.mEvictionThread.mIsSleeping);
+        () -> mStore.mEdgeCache.isEvictionSleeping());
     mStore.mEdgeCache.verifyIndices();
   }
 
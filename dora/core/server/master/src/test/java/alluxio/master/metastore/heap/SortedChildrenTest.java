@@ -0,0 +1,145 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.master.metastore.heap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SortedChildrenTest {
+  private final SortedChildren mChildren = new SortedChildren();
+
+  @Test
+  public void putGetRemove() {
+    mChildren.put("b", 2);
+    mChildren.put("a", 1);
+    mChildren.put("b", 3);
+    assertEquals(2, mChildren.size());
+    assertEquals(1, mChildren.get("a"));
+    assertEquals(3, mChildren.get("b"));
+    assertEquals(SortedChildren.NO_CHILD, mChildren.get("c"));
+    assertTrue(mChildren.remove("a"));
+    assertFalse(mChildren.remove("a"));
+    assertTrue(mChildren.remove("b"));
+    assertTrue(mChildren.isEmpty());
+  }
+
+  /**
+   * Compares the children of a directory large enough to span many leaves with a sorted map.
+   */
+  @Test
+  public void largeDirectory() {
+    TreeMap<String, Long> expected = new TreeMap<>();
+    Random random = new Random();
+    int names = SortedChildren.LEAF_CAPACITY * 20;
+    for (int i = 0; i < names * 10; i++) {
+      String name = "file" + random.nextInt(names);
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(name) != null, mChildren.remove(name));
+      } else {
+        expected.put(name, (long) i);
+        mChildren.put(name, i);
+      }
+    }
+    assertEquals(expected.size(), mChildren.size());
+    assertEquals(new ArrayList<>(expected.values()), copyAll(null, true));
+    String from = "file" + random.nextInt(names);
+    assertEquals(new ArrayList<>(expected.tailMap(from, true).values()), copyAll(from, true));
+    assertEquals(new ArrayList<>(expected.tailMap(from, false).values()), copyAll(from, false));
+  }
+
+  @Test
+  public void appendInOrder() {
+    NavigableMap<String, Long> expected = new TreeMap<>();
+    for (int i = 0; i < SortedChildren.LEAF_CAPACITY * 4; i++) {
+      String name = String.format("part-%05d", i);
+      expected.put(name, (long) i);
+      mChildren.put(name, i);
+    }
+    assertEquals(new ArrayList<>(expected.values()), copyAll(null, true));
+  }
+
+  /**
+   * Looks up children which are not modified while other children are added and removed around
+   * them, splitting and shifting the leaves holding them.
+   */
+  @Test
+  public void concurrentGetDuringModification() throws Exception {
+    int stableNames = SortedChildren.LEAF_CAPACITY * 4;
+    for (int i = 0; i < stableNames; i++) {
+      mChildren.put(String.format("file-%05d-a", i), i);
+    }
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicReference<String> failure = new AtomicReference<>();
+    List<Thread> readers = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      Thread reader = new Thread(() -> {
+        Random random = new Random();
+        while (!done.get() && failure.get() == null) {
+          int i = random.nextInt(stableNames);
+          long id = mChildren.get(String.format("file-%05d-a", i));
+          if (id != i) {
+            failure.set(String.format("expected id %d for child %d, got %d", i, i, id));
+          }
+        }
+      });
+      reader.start();
+      readers.add(reader);
+    }
+    Random random = new Random();
+    for (int round = 0; round < 20; round++) {
+      for (int i = 0; i < stableNames; i++) {
+        mChildren.put(String.format("file-%05d-b", random.nextInt(stableNames)), -i);
+      }
+      for (int i = 0; i < stableNames; i++) {
+        mChildren.remove(String.format("file-%05d-b", i));
+      }
+    }
+    done.set(true);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    assertNull(failure.get(), failure.get());
+    assertEquals(stableNames, mChildren.size());
+  }
+
+  /**
+   * Copies the ids of the children in small batches.
+   */
+  private List<Long> copyAll(String from, boolean inclusive) {
+    List<Long> ids = new ArrayList<>();
+    String[] nameBatch = new String[7];
+    long[] idBatch = new long[7];
+    while (true) {
+      int count = mChildren.copyFrom(from, inclusive, nameBatch, idBatch);
+      for (int i = 0; i < count; i++) {
+        ids.add(idBatch[i]);
+      }
+      if (count < nameBatch.length) {
+        return ids;
+      }
+      from = nameBatch[count - 1];
+      inclusive = false;
+    }
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.underfs.UnderFileSystem;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.netty.buffer.ByteBuf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Loads the pages of files missing from the cache with asynchronous reads from the under
+ * storage, so that the readers missing them do not hold a thread while the pages are read.
+ *
+ * The pages missing from a range are read with one asynchronous ranged read for each run of
+ * missing pages, and are then put into the cache by a small executor. Concurrent loads of a page
+ * wait for the same read. A load completes once its pages are cached or failed to load, the
+ * reader then reading the pages through the cache, which reads a page failed to load from the
+ * under storage again and reports its error.
+ */
+@ThreadSafe
+public final class AsyncPageLoader implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncPageLoader.class);
+
+  private final CacheManager mCacheManager;
+  private final long mPageSize;
+  private final ExecutorService mExecutor;
+  /** The pages being loaded. */
+  private final ConcurrentHashMap<PageId, CompletableFuture<Void>> mLoads =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Creates an asynchronous page loader if asynchronous loads are enabled.
+   *
+   * @param conf the configuration
+   * @param cacheManager the cache manager to load the pages into
+   * @return the page loader, or null if asynchronous loads are disabled
+   */
+  @Nullable
+  public static AsyncPageLoader create(AlluxioConfiguration conf, CacheManager cacheManager) {
+    if (!conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_ASYNC_LOAD_ENABLED)) {
+      return null;
+    }
+    return new AsyncPageLoader(cacheManager,
+        conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE),
+        conf.getInt(PropertyKey.WORKER_PAGE_STORE_ASYNC_LOAD_THREADS));
+  }
+
+  /**
+   * @param cacheManager the cache manager to load the pages into
+   * @param pageSize the page size
+   * @param threads the number of threads caching the pages read
+   */
+  @VisibleForTesting
+  AsyncPageLoader(CacheManager cacheManager, long pageSize, int threads) {
+    mCacheManager = cacheManager;
+    mPageSize = pageSize;
+    mExecutor = Executors.newFixedThreadPool(threads,
+        ThreadFactoryUtils.build("dora-async-page-load-%d", true));
+  }
+
+  /**
+   * Loads the pages of a range of a file missing from the cache.
+   *
+   * @param fileId the id of the file the pages are cached by
+   * @param ufs the under storage of the file
+   * @param ufsPath the ufs path of the file
+   * @param fileSize the size of the file
+   * @param position the position of the range
+   * @param length the length of the range
+   * @return a future completed once the missing pages are loaded or failed to load, or null if
+   *         all the pages of the range are cached
+   */
+  @Nullable
+  public CompletableFuture<Void> load(String fileId, UnderFileSystem ufs, String ufsPath,
+      long fileSize, long position, long length) {
+    if (length <= 0 || position >= fileSize) {
+      return null;
+    }
+    long firstPage = position / mPageSize;
+    long lastPage = (Math.min(position + length, fileSize) - 1) / mPageSize;
+    List<CompletableFuture<Void>> loads = new ArrayList<>();
+    List<CompletableFuture<Void>> run = new ArrayList<>();
+    long runStart = -1;
+    for (long page = firstPage; page <= lastPage + 1; page++) {
+      CompletableFuture<Void> claim = null;
+      if (page <= lastPage) {
+        PageId pageId = new PageId(fileId, page);
+        if (!mCacheManager.hasPageUnsafe(pageId)) {
+          CompletableFuture<Void> created = new CompletableFuture<>();
+          CompletableFuture<Void> existing = mLoads.putIfAbsent(pageId, created);
+          if (existing == null) {
+            claim = created;
+          } else {
+            // loaded by a concurrent reader
+            loads.add(existing);
+          }
+        }
+      }
+      if (claim != null) {
+        if (runStart < 0) {
+          runStart = page;
+        }
+        run.add(claim);
+        continue;
+      }
+      if (runStart >= 0) {
+        loadRange(fileId, ufs, ufsPath, fileSize, runStart, run);
+        loads.addAll(run);
+        run = new ArrayList<>();
+        runStart = -1;
+      }
+    }
+    if (loads.isEmpty()) {
+      return null;
+    }
+    return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0]));
+  }
+
+  /**
+   * Reads a run of pages claimed by a load, and completes their claims once they are cached.
+   */
+  private void loadRange(String fileId, UnderFileSystem ufs, String ufsPath, long fileSize,
+      long startPage, List<CompletableFuture<Void>> claims) {
+    long position = startPage * mPageSize;
+    int length = (int) (Math.min((startPage + claims.size()) * mPageSize, fileSize) - position);
+    CompletableFuture<ByteBuf> read;
+    try {
+      read = ufs.readAsync(ufsPath, fileSize, position, length);
+    } catch (RuntimeException e) {
+      read = new CompletableFuture<>();
+      read.completeExceptionally(e);
+    }
+    // the pages are cached off the threads completing the reads
+    read.whenCompleteAsync((buf, err) -> {
+      try {
+        if (err != null) {
+          LOG.debug("Failed to load pages of {} from page {}", ufsPath, startPage, err);
+          return;
+        }
+        try {
+          MetricsSystem.meter(MetricKey.CLIENT_CACHE_BYTES_READ_EXTERNAL.getName())
+              .mark(buf.readableBytes());
+          cachePages(fileId, fileSize, startPage, claims.size(), buf);
+        } finally {
+          buf.release();
+        }
+      } catch (RuntimeException e) {
+        LOG.debug("Failed to cache pages of {} loaded from page {}", ufsPath, startPage, e);
+      } finally {
+        for (int i = 0; i < claims.size(); i++) {
+          mLoads.remove(new PageId(fileId, startPage + i), claims.get(i));
+          claims.get(i).complete(null);
+        }
+      }
+    }, this::execute);
+  }
+
+  private void cachePages(String fileId, long fileSize, long startPage, int numPages,
+      ByteBuf buf) {
+    for (int i = 0; i < numPages; i++) {
+      long page = startPage + i;
+      int offset = (int) (i * mPageSize);
+      int pageLength = (int) Math.min(mPageSize, fileSize - page * mPageSize);
+      if (buf.readableBytes() < offset + pageLength) {
+        // the rest of the range was not read
+        return;
+      }
+      PageId pageId = new PageId(fileId, page);
+      if (mCacheManager.hasPageUnsafe(pageId)) {
+        // cached by a reader in the meantime
+        continue;
+      }
+      byte[] data = new byte[pageLength];
+      buf.getBytes(buf.readerIndex() + offset, data);
+      mCacheManager.put(pageId, data);
+    }
+  }
+
+  /**
+   * Runs a task on the executor, or on the calling thread once the executor is shut down, so
+   * that the claims of the pages are always completed.
+   */
+  private void execute(Runnable task) {
+    try {
+      mExecutor.execute(task);
+    } catch (RejectedExecutionException e) {
+      task.run();
+    }
+  }
+
+  @Override
+  public void close() {
+    mExecutor.shutdownNow();
+    // the readers waiting for the pages read them through the cache instead
+    for (CompletableFuture<Void> load : mLoads.values()) {
+      load.complete(null);
+    }
+  }
+}
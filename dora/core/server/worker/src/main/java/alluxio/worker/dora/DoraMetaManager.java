@@ -19,6 +19,7 @@ import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.file.FileId;
 import alluxio.grpc.FileInfo;
+import alluxio.grpc.GetRevokedMetadataLeasesResponse;
 import alluxio.proto.meta.DoraMeta;
 import alluxio.proto.meta.DoraMeta.FileStatus;
 import alluxio.underfs.Fingerprint;
@@ -42,20 +43,27 @@ import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 /**
  * The Dora metadata manager that orchestrates the metadata operations.
  *
- * TODO(elega) Invalidating page cache synchronously causes performance issue and currently it
- *  also lacks concurrency control. Address this problem in the future.
+ * The page cache of a changed or removed file is invalidated without waiting for its pages to be
+ * deleted, see {@link CacheManager#invalidateFile(String)}.
+ *
+ * The metadata leases of the clients on a changed or removed file are revoked through the
+ * {@link MetadataRevocationLog}, once the metastore is updated, so that a client seeing the
+ * revocation does not read the previous metadata again.
  */
 public class DoraMetaManager implements Closeable {
   private static final Logger LOG = LoggerFactory.getLogger(DoraMetaManager.class);
   private final AlluxioConfiguration mConf;
   private final DoraMetaStore mMetaStore;
   private final CacheManager mCacheManager;
+  private final MetadataRevocationLog mRevocationLog;
   protected final UfsManager mUfsManager;
 
   private static final Logger SAMPLING_LOG = new SamplingLogger(
@@ -92,6 +100,8 @@ public class DoraMetaManager implements Closeable {
     mMetaStore = new RocksDBDoraMetaStore(dbDir, ttl);
     mCacheManager = cacheManger;
     mUfsManager = ufsManager;
+    mRevocationLog = new MetadataRevocationLog(
+        mConf.getInt(PropertyKey.DORA_WORKER_METADATA_REVOCATION_LOG_SIZE));
   }
 
   protected UnderFileSystem getUfsInstance(String ufsUriStr) {
@@ -155,6 +165,15 @@ public class DoraMetaManager implements Closeable {
     return mMetaStore.getDoraMeta(path);
   }
 
+  /**
+   * Gets meta of multiple files from the metastore with a single batched read.
+   * @param paths the full ufs paths
+   * @return the file meta found, keyed by the full ufs paths
+   */
+  public Map<String, FileStatus> getFromMetaStore(Collection<String> paths) {
+    return mMetaStore.getDoraMetas(paths);
+  }
+
   /**
    * Puts meta of a file into the metastore, and invalidates the file data cache.
    * @param path the full ufs path
@@ -162,20 +181,60 @@ public class DoraMetaManager implements Closeable {
    */
   public void put(String path, FileStatus status) {
     Optional<FileStatus> existingStatus = mMetaStore.getDoraMeta(path);
-    if (!existingStatus.isPresent()
-        || existingStatus.get().getFileInfo().getFolder()
-        || existingStatus.get().getFileInfo().getLength() == 0) {
-      mMetaStore.putDoraMeta(path, status);
+    existingStatus.ifPresent(existing -> invalidateCachedFileIfChanged(path, existing, status));
+    mMetaStore.putDoraMeta(path, status);
+    if (!existingStatus.isPresent() || isMetadataChanged(existingStatus.get(), status)) {
+      mRevocationLog.revoke(path, false);
+    }
+  }
+
+  /**
+   * Puts meta of multiple files into the metastore with a single batched read and write, and
+   * invalidates the data cache of the files changed.
+   * @param statuses the file meta keyed by the full ufs paths
+   */
+  public void put(Map<String, FileStatus> statuses) {
+    if (statuses.isEmpty()) {
       return;
     }
-    if (shouldInvalidatePageCache(existingStatus.get().getFileInfo(), status.getFileInfo())) {
+    Map<String, FileStatus> existingStatuses = mMetaStore.getDoraMetas(statuses.keySet());
+    existingStatuses.forEach((path, existing) ->
+        invalidateCachedFileIfChanged(path, existing, statuses.get(path)));
+    mMetaStore.putDoraMetas(statuses);
+    statuses.forEach((path, status) -> {
+      FileStatus existing = existingStatuses.get(path);
+      if (existing == null || isMetadataChanged(existing, status)) {
+        mRevocationLog.revoke(path, false);
+      }
+    });
+  }
+
+  /**
+   * Checks whether the metadata of a file changed, ignoring the fields depending on the cache of
+   * the worker rather than on the file.
+   */
+  private static boolean isMetadataChanged(FileStatus existing, FileStatus updated) {
+    return !existing.getFileInfo().toBuilder()
+        .clearInAlluxioPercentage().clearInMemoryPercentage().build()
+        .equals(updated.getFileInfo().toBuilder()
+            .clearInAlluxioPercentage().clearInMemoryPercentage().build());
+  }
+
+  private void invalidateCachedFileIfChanged(String path, FileStatus existing,
+      FileStatus updated) {
+    if (existing.getFileInfo().getFolder() || existing.getFileInfo().getLength() == 0) {
+      return;
+    }
+    if (shouldInvalidatePageCache(existing.getFileInfo(), updated.getFileInfo())) {
       invalidateCachedFile(path);
     }
-    mMetaStore.putDoraMeta(path, status);
   }
 
   /**
-   * Removes meta of a file from the meta store.
+   * Removes meta of a file from the meta store. Unless the path is known to be a file, the meta
+   * of all files under it is removed as well, as they are gone along with the directory. The
+   * meta of a directory may be missing while the meta of files under it is stored, e.g. after
+   * getting the status of these files, so the paths with no meta are scanned too.
    * @param path the full ufs path
    * @return the removed file meta, if exists
    */
@@ -186,9 +245,28 @@ public class DoraMetaManager implements Closeable {
       mMetaStore.removeDoraMeta(path);
     }
     invalidateCachedFile(path);
+    if (!status.isPresent() || status.get().getFileInfo().getFolder()) {
+      String prefix = path.endsWith(AlluxioURI.SEPARATOR) ? path : path + AlluxioURI.SEPARATOR;
+      List<String> descendants = mMetaStore.getDoraMetaPathsByPrefix(prefix);
+      if (!descendants.isEmpty()) {
+        mMetaStore.removeDoraMetas(descendants);
+        descendants.forEach(this::invalidateCachedFile);
+      }
+    }
+    mRevocationLog.revoke(path, !status.isPresent() || status.get().getFileInfo().getFolder());
     return status;
   }
 
+  /**
+   * Gets the metadata leases revoked after a sequence number.
+   * @param epoch the epoch of the worker the sequence number belongs to
+   * @param sinceSequence the sequence number of the last revocation seen by the client
+   * @return the leases revoked
+   */
+  public GetRevokedMetadataLeasesResponse getRevokedLeases(long epoch, long sinceSequence) {
+    return mRevocationLog.getRevokedSince(epoch, sinceSequence);
+  }
+
   /**
    * Invalidates the listing cache of a given path.
    * @param path the full ufs path
@@ -345,7 +423,7 @@ public class DoraMetaManager implements Closeable {
   private void invalidateCachedFile(String path) {
     SAMPLING_LOG.info("Invalidating cached file {}", path);
     FileId fileId = FileId.of(AlluxioURI.hash(path));
-    mCacheManager.deleteFile(fileId.toString());
+    mCacheManager.invalidateFile(fileId.toString());
   }
 
   private String getPathParent(String path) {
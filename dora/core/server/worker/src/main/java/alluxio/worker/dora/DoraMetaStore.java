@@ -13,6 +13,10 @@ package alluxio.worker.dora;
 
 import alluxio.proto.meta.DoraMeta.FileStatus;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -36,6 +40,47 @@ public interface DoraMetaStore {
    */
   void putDoraMeta(String path, FileStatus meta);
 
+  /**
+   * Queries dora metadata of multiple files from the dora meta store.
+   *
+   * @param paths the full paths of the files
+   * @return the meta of the files found, keyed by their paths
+   */
+  default Map<String, FileStatus> getDoraMetas(Collection<String> paths) {
+    Map<String, FileStatus> metas = new HashMap<>();
+    for (String path : paths) {
+      getDoraMeta(path).ifPresent(meta -> metas.put(path, meta));
+    }
+    return metas;
+  }
+
+  /**
+   * Adds dora metadata of multiple files to the dora meta store, updating the existing ones.
+   *
+   * @param metas the meta of the files keyed by their full paths
+   */
+  default void putDoraMetas(Map<String, FileStatus> metas) {
+    metas.forEach(this::putDoraMeta);
+  }
+
+  /**
+   * Queries dora metadata of all files whose paths start with the given prefix, e.g. all
+   * descendants of a directory when the prefix ends with the path separator.
+   *
+   * @param prefix the prefix of the full paths
+   * @return the meta of the files found, keyed by their paths in lexicographic order
+   */
+  Map<String, FileStatus> getDoraMetasByPrefix(String prefix);
+
+  /**
+   * Queries the full paths of all files whose paths start with the given prefix, without reading
+   * their metadata.
+   *
+   * @param prefix the prefix of the full paths
+   * @return the paths of the files found, in lexicographic order
+   */
+  List<String> getDoraMetaPathsByPrefix(String prefix);
+
   /**
    * Removes a dora meta, or does nothing if the dora meta does not exist.
    *
@@ -43,6 +88,15 @@ public interface DoraMetaStore {
    */
   void removeDoraMeta(String path);
 
+  /**
+   * Removes dora metadata of multiple files, ignoring the ones that do not exist.
+   *
+   * @param paths the full paths of the files
+   */
+  default void removeDoraMetas(Collection<String> paths) {
+    paths.forEach(this::removeDoraMeta);
+  }
+
   /**
    * Removes all metadata from the dora meta store.
    */
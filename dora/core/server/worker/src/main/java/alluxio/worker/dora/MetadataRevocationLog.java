@@ -0,0 +1,81 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.grpc.GetRevokedMetadataLeasesResponse;
+import alluxio.grpc.RevokedMetadataLease;
+import alluxio.util.IdUtils;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The recent changes of the metadata kept by the worker, which revoke the metadata leases of the
+ * clients caching the metadata of the paths changed.
+ *
+ * The changes are numbered by a sequence, and kept in a ring of a fixed size. A client polls the
+ * changes after the last sequence it has seen, and has all its leases revoked when the changes
+ * it missed are no longer kept, or when the worker restarted, which starts a new epoch.
+ */
+@ThreadSafe
+public class MetadataRevocationLog {
+  private final long mEpoch = IdUtils.getRandomNonNegativeLong() + 1;
+  private final int mCapacity;
+  @GuardedBy("this")
+  private final RevokedMetadataLease[] mLeases;
+  /** The sequence number of the last revocation, starting from 1. */
+  @GuardedBy("this")
+  private long mSequence;
+
+  /**
+   * @param capacity the number of recent revocations kept
+   */
+  public MetadataRevocationLog(int capacity) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be positive: %s", capacity);
+    mCapacity = capacity;
+    mLeases = new RevokedMetadataLease[capacity];
+  }
+
+  /**
+   * Revokes the leases of a path, after its metadata changed.
+   *
+   * @param path the full ufs path
+   * @param recursive whether the leases of the paths under the path are revoked as well
+   */
+  public synchronized void revoke(String path, boolean recursive) {
+    mSequence++;
+    mLeases[(int) (mSequence % mCapacity)] = RevokedMetadataLease.newBuilder()
+        .setPath(path).setRecursive(recursive).build();
+  }
+
+  /**
+   * Gets the leases revoked after a sequence number.
+   *
+   * @param epoch the epoch the sequence number belongs to
+   * @param sinceSequence the sequence number of the last revocation seen
+   * @return the leases revoked, or all of them if the revocations are no longer kept
+   */
+  public synchronized GetRevokedMetadataLeasesResponse getRevokedSince(long epoch,
+      long sinceSequence) {
+    GetRevokedMetadataLeasesResponse.Builder response = GetRevokedMetadataLeasesResponse
+        .newBuilder().setEpoch(mEpoch).setSequence(mSequence);
+    if (epoch != mEpoch || sinceSequence > mSequence || mSequence - sinceSequence > mCapacity) {
+      return response.setAllRevoked(true).build();
+    }
+    for (long sequence = sinceSequence + 1; sequence <= mSequence; sequence++) {
+      response.addLeases(mLeases[(int) (sequence % mCapacity)]);
+    }
+    return response.build();
+  }
+}
@@ -38,6 +38,7 @@ import alluxio.exception.runtime.FailedPreconditionRuntimeException;
 import alluxio.exception.runtime.UnavailableRuntimeException;
 import alluxio.exception.status.AlreadyExistsException;
 import alluxio.exception.status.FailedPreconditionException;
+import alluxio.grpc.BatchGetStatusResponse;
 import alluxio.grpc.Command;
 import alluxio.grpc.CommandType;
 import alluxio.grpc.CompleteFilePOptions;
@@ -45,6 +46,7 @@ import alluxio.grpc.CreateDirectoryPOptions;
 import alluxio.grpc.CreateFilePOptions;
 import alluxio.grpc.DeletePOptions;
 import alluxio.grpc.ExistsPOptions;
+import alluxio.grpc.GetRevokedMetadataLeasesResponse;
 import alluxio.grpc.GetStatusPOptions;
 import alluxio.grpc.GrpcService;
 import alluxio.grpc.GrpcUtils;
@@ -55,6 +57,7 @@ import alluxio.grpc.LoadFileResponse;
 import alluxio.grpc.LoadMetadataPType;
 import alluxio.grpc.LoadMetadataSubTask;
 import alluxio.grpc.LoadSubTask;
+import alluxio.grpc.PathFailure;
 import alluxio.grpc.RenamePOptions;
 import alluxio.grpc.Route;
 import alluxio.grpc.RouteFailure;
@@ -127,6 +130,7 @@ import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -174,6 +178,12 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   private final ExecutorService mCacheDataExecutor = Executors.newFixedThreadPool(
       Configuration.getInt(PropertyKey.WORKER_PRELOAD_DATA_THREAD_POOL_SIZE));
   private final boolean mFastDataLoadEnabled;
+  /** Reads pages ahead of sequential readers, or null if read-ahead is disabled. */
+  @Nullable
+  private final ReadAheadManager mReadAheadManager;
+  /** Loads the pages missed by readers asynchronously, or null if disabled. */
+  @Nullable
+  private final AsyncPageLoader mAsyncPageLoader;
 
   /**
    * Constructor.
@@ -219,6 +229,8 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
         .getBoolean(PropertyKey.CLIENT_WRITE_TO_UFS_ENABLED);
     mXAttrWriteToUFSEnabled = mConf.getBoolean(PropertyKey.UNDERFS_XATTR_CHANGE_ENABLED);
     mFastDataLoadEnabled = mConf.getBoolean(PropertyKey.WORKER_FAST_DATA_LOAD_ENABLED);
+    mReadAheadManager = ReadAheadManager.create(mConf, mCacheManager);
+    mAsyncPageLoader = AsyncPageLoader.create(mConf, mCacheManager);
   }
 
   /**
@@ -353,6 +365,8 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     try (AutoCloseable ignoredCloser = mResourceCloser;
          AutoCloseable ignoredCacheManager = mCacheManager;
          AutoCloseable ignoredMembershipManager = mMembershipManager;
+         AutoCloseable ignoredReadAheadManager = mReadAheadManager;
+         AutoCloseable ignoredAsyncPageLoader = mAsyncPageLoader;
     ) {
       // do nothing as we are closing
     } catch (Exception e) {
@@ -395,10 +409,7 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   @Override
   public FileInfo getFileInfo(String ufsFullPath, GetStatusPOptions options)
       throws IOException, AccessControlException {
-    long syncIntervalMs = options.hasCommonOptions()
-        ? (options.getCommonOptions().hasSyncIntervalMs()
-        ? options.getCommonOptions().getSyncIntervalMs() : -1) :
-        -1;
+    long syncIntervalMs = getSyncIntervalMs(options);
     alluxio.grpc.FileInfo fi = getGrpcFileInfo(ufsFullPath, syncIntervalMs);
     int cachedPercentage = getCachedPercentage(fi, ufsFullPath);
 
@@ -407,6 +418,76 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
         .setInMemoryPercentage(cachedPercentage);
   }
 
+  @Override
+  public BatchGetStatusResponse getFileInfos(List<String> ufsFullPaths,
+      GetStatusPOptions options) {
+    long syncIntervalMs = getSyncIntervalMs(options);
+    Map<String, DoraMeta.FileStatus> statuses = mMetaManager.getFromMetaStore(ufsFullPaths);
+    List<String> pathsToLoad = new ArrayList<>();
+    for (String ufsFullPath : ufsFullPaths) {
+      DoraMeta.FileStatus status = statuses.get(ufsFullPath);
+      if (status != null && (syncIntervalMs < 0
+          || System.nanoTime() - status.getTs() <= syncIntervalMs * Constants.MS_NANO)) {
+        MetricsSystem.counter(MetricKey.WORKER_GET_FILE_INFO_HIT_REQUESTS.getName()).inc();
+        continue;
+      }
+      statuses.remove(ufsFullPath);
+      if (mOpenFileHandleContainer.find(ufsFullPath) != null) {
+        // The target is being written to. It's fine to return FileNotFound.
+        LOG.debug("File {} is being written to.", ufsFullPath);
+      } else {
+        pathsToLoad.add(ufsFullPath);
+      }
+    }
+
+    BatchGetStatusResponse.Builder response = BatchGetStatusResponse.newBuilder();
+    // the UFS has no bulk status call, so only the metastore updates are batched
+    Map<String, DoraMeta.FileStatus> loaded = new HashMap<>();
+    for (String ufsFullPath : pathsToLoad) {
+      MetricsSystem.counter(MetricKey.WORKER_GET_FILE_INFO_EXTERNAL_REQUESTS.getName()).inc();
+      try {
+        Optional<DoraMeta.FileStatus> status = mMetaManager.getFromUfs(ufsFullPath);
+        if (status.isPresent()) {
+          loaded.put(ufsFullPath, status.get());
+        } else {
+          mMetaManager.removeFromMetaStore(ufsFullPath);
+        }
+      } catch (Exception e) {
+        LOG.debug("Failed to load status of {}", ufsFullPath, e);
+        AlluxioRuntimeException t = AlluxioRuntimeException.from(e);
+        response.addFailures(PathFailure.newBuilder()
+            .setPath(ufsFullPath)
+            .setCode(t.getStatus().getCode().value())
+            .setMessage(t.getMessage()));
+      }
+    }
+    mMetaManager.put(loaded);
+    statuses.putAll(loaded);
+
+    statuses.forEach((ufsFullPath, status) -> {
+      alluxio.grpc.FileInfo fi = status.getFileInfo();
+      int cachedPercentage = getCachedPercentage(fi, ufsFullPath);
+      response.putFileInfos(ufsFullPath, fi.toBuilder()
+          .setInAlluxioPercentage(cachedPercentage)
+          .setInMemoryPercentage(cachedPercentage)
+          .build());
+    });
+    return response.build();
+  }
+
+  @Override
+  public GetRevokedMetadataLeasesResponse getRevokedMetadataLeases(long epoch,
+      long sinceSequence) {
+    return mMetaManager.getRevokedLeases(epoch, sinceSequence);
+  }
+
+  private static long getSyncIntervalMs(GetStatusPOptions options) {
+    return options.hasCommonOptions()
+        ? (options.getCommonOptions().hasSyncIntervalMs()
+        ? options.getCommonOptions().getSyncIntervalMs() : -1) :
+        -1;
+  }
+
   protected alluxio.grpc.FileInfo getGrpcFileInfo(String ufsFullPath, long syncIntervalMs)
       throws IOException {
     Optional<DoraMeta.FileStatus> status = mMetaManager.getFromMetaStore(ufsFullPath);
@@ -459,9 +540,15 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
   @Override
   public BlockReader createFileReader(String fileId, long offset, boolean positionShort,
       Protocol.OpenUfsBlockOptions options) throws IOException, AccessControlException {
+    return createFileReader(fileId, offset, options, mReadAheadManager);
+  }
+
+  private BlockReader createFileReader(String fileId, long offset,
+      Protocol.OpenUfsBlockOptions options, @Nullable ReadAheadManager readAheadManager)
+      throws IOException, AccessControlException {
     UnderFileSystem ufs = getUfsInstance(options.getUfsPath());
-    return PagedFileReader.create(mConf, mCacheManager, ufs, fileId,
-        options.getUfsPath(), options.getBlockSize(), offset);
+    return PagedFileReader.create(mConf, mCacheManager, readAheadManager, mAsyncPageLoader, ufs,
+        fileId, options.getUfsPath(), options.getBlockSize(), offset);
   }
 
   @Override
@@ -493,11 +580,14 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     List<LoadFailure> errors = Collections.synchronizedList(new ArrayList<>());
     AtomicInteger numSkipped = new AtomicInteger();
     AtomicLong skippedLength = new AtomicLong();
+    List<UfsStatus> metadataToLoad = new ArrayList<>();
     for (LoadSubTask task : subTasks) {
       if (task.hasLoadMetadataSubtask()) {
-        UfsStatus status = UfsStatus.fromProto(task.getLoadMetadataSubtask().getUfsStatus());
-        loadMetadata(status, errors);
+        metadataToLoad.add(UfsStatus.fromProto(task.getLoadMetadataSubtask().getUfsStatus()));
       }
+    }
+    loadMetadata(metadataToLoad, errors);
+    for (LoadSubTask task : subTasks) {
       if (task.hasLoadDataSubtask()) {
         LoadDataSubTask subtask = task.getLoadDataSubtask();
         if (subtask.getLength() <= 0) {
@@ -646,32 +736,48 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
    * We may be able to solve this by providing specific implementations for certain UFSes
    * in the future.
    *
-   * @param status the ufs status
+   * The metadata of all the files is put into the meta manager as a single batch.
+   *
+   * @param statuses the ufs statuses
    * @param errors the errors
    */
-  private void loadMetadata(UfsStatus status, List<LoadFailure> errors) {
-    String ufsFullPath = status.getUfsFullPath().toString();
-    Map<String, String> xattrMap = null;
-    UnderFileSystem ufs = getUfsInstance(ufsFullPath);
-    try {
-      if (mXAttrWriteToUFSEnabled) {
-        xattrMap = ufs.getAttributes(ufsFullPath);
+  private void loadMetadata(List<UfsStatus> statuses, List<LoadFailure> errors) {
+    Map<String, DoraMeta.FileStatus> fileStatuses = new HashMap<>();
+    Map<String, UfsStatus> ufsStatuses = new HashMap<>();
+    for (UfsStatus status : statuses) {
+      String ufsFullPath = status.getUfsFullPath().toString();
+      Map<String, String> xattrMap = null;
+      try {
+        UnderFileSystem ufs = getUfsInstance(ufsFullPath);
+        if (mXAttrWriteToUFSEnabled) {
+          xattrMap = ufs.getAttributes(ufsFullPath);
+        }
+        fileStatuses.put(ufsFullPath, buildFileStatusFromUfsStatus(getCacheUsage(),
+            ufs.getUnderFSType(), status, ufsFullPath, xattrMap));
+        ufsStatuses.put(ufsFullPath, status);
+      } catch (Exception e) {
+        addLoadMetadataFailure(status, e, errors);
       }
-      DoraMeta.FileStatus fs = buildFileStatusFromUfsStatus(getCacheUsage(), ufs.getUnderFSType(),
-          status, ufsFullPath, xattrMap);
-      mMetaManager.put(ufsFullPath, fs);
+    }
+    try {
+      mMetaManager.put(fileStatuses);
     } catch (Exception e) {
-      LOG.error("Failed to put file status to meta manager", e);
-      AlluxioRuntimeException t = AlluxioRuntimeException.from(e);
-      errors.add(LoadFailure.newBuilder().setSubtask(LoadSubTask.newBuilder()
-                            .setLoadMetadataSubtask(
-                                LoadMetadataSubTask.newBuilder().setUfsStatus(status.toProto())
-                                                   .build()))
-                            .setCode(t.getStatus().getCode().value()).setRetryable(true)
-                            .setMessage(t.getMessage()).build());
+      ufsStatuses.values().forEach(status -> addLoadMetadataFailure(status, e, errors));
     }
   }
 
+  private static void addLoadMetadataFailure(UfsStatus status, Exception e,
+      List<LoadFailure> errors) {
+    LOG.error("Failed to put file status to meta manager", e);
+    AlluxioRuntimeException t = AlluxioRuntimeException.from(e);
+    errors.add(LoadFailure.newBuilder().setSubtask(LoadSubTask.newBuilder()
+                          .setLoadMetadataSubtask(
+                              LoadMetadataSubTask.newBuilder().setUfsStatus(status.toProto())
+                                                 .build()))
+                          .setCode(t.getStatus().getCode().value()).setRetryable(true)
+                          .setMessage(t.getMessage()).build());
+  }
+
   private void loadPages(String ufsPath, List<PageId> pageIds, long fileLength)
       throws AccessControlException, IOException {
     Optional<UnderFileSystem> ufs = mUfsManager.get(new AlluxioURI(ufsPath));
@@ -723,7 +829,8 @@ public class PagedDoraWorker extends AbstractWorker implements DoraWorker {
     int bufferSize = (int) Math.min(4 * mPageSize, lengthToLoad);
     ByteBuf buf =
         PooledByteBufAllocator.DEFAULT.directBuffer(bufferSize);
-    try (BlockReader fileReader = createFileReader(fileId, offset, false, options)) {
+    // loads read exactly the requested range, so they are not read ahead
+    try (BlockReader fileReader = createFileReader(fileId, offset, options, null)) {
       //Transfers data from this reader to the buffer until we reach lengthToLoad.
       int bytesRead;
       while (lengthToLoad > 0 && (bytesRead = fileReader.transferTo(buf)) != -1) {
@@ -21,6 +21,8 @@ import alluxio.conf.PropertyKey;
 import alluxio.file.FileId;
 import alluxio.file.NettyBufTargetBuffer;
 import alluxio.file.ReadTargetBuffer;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
 import alluxio.network.protocol.databuffer.CompositeDataBuffer;
 import alluxio.network.protocol.databuffer.DataBuffer;
 import alluxio.network.protocol.databuffer.DataFileChannel;
@@ -42,6 +44,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nullable;
 
 /**
  * Paged file reader.
@@ -50,6 +54,13 @@ public class PagedFileReader extends BlockReader implements PositionReader {
   private static final ByteBuffer EMPTY_BYTE_BUFFER = ByteBuffer.allocate(0);
   private final long mFileSize;
   private final LocalCachePositionReader mPositionReader;
+  @Nullable
+  private final ReadAheadManager mReadAheadManager;
+  @Nullable
+  private final AsyncPageLoader mAsyncPageLoader;
+  private final String mFileId;
+  private final UnderFileSystem mUfs;
+  private final String mUfsPath;
   private long mPos;
   private volatile boolean mClosed = false;
 
@@ -68,11 +79,59 @@ public class PagedFileReader extends BlockReader implements PositionReader {
   public static PagedFileReader create(AlluxioConfiguration conf, CacheManager cacheManager,
                                        UnderFileSystem ufs, String fileId,
                                        String ufsPath, long fileSize, long startPosition) {
+    return create(conf, cacheManager, null, ufs, fileId, ufsPath, fileSize, startPosition);
+  }
+
+  /**
+   * Creates a new {@link PagedFileReader} whose reads are reported to a read-ahead manager.
+   *
+   * @param conf
+   * @param cacheManager
+   * @param readAheadManager the read-ahead manager, or null to not read ahead
+   * @param ufs
+   * @param fileId
+   * @param ufsPath
+   * @param fileSize
+   * @param startPosition
+   * @return a new {@link PagedFileReader}
+   */
+  public static PagedFileReader create(AlluxioConfiguration conf, CacheManager cacheManager,
+                                       @Nullable ReadAheadManager readAheadManager,
+                                       UnderFileSystem ufs, String fileId,
+                                       String ufsPath, long fileSize, long startPosition) {
+    return create(conf, cacheManager, readAheadManager, null, ufs, fileId, ufsPath, fileSize,
+        startPosition);
+  }
+
+  /**
+   * Creates a new {@link PagedFileReader} whose reads are reported to a read-ahead manager, and
+   * whose missing pages can be loaded asynchronously.
+   *
+   * @param conf
+   * @param cacheManager
+   * @param readAheadManager the read-ahead manager, or null to not read ahead
+   * @param asyncPageLoader the loader of the missing pages, or null to load them synchronously
+   * @param ufs
+   * @param fileId
+   * @param ufsPath
+   * @param fileSize
+   * @param startPosition
+   * @return a new {@link PagedFileReader}
+   */
+  public static PagedFileReader create(AlluxioConfiguration conf, CacheManager cacheManager,
+                                       @Nullable ReadAheadManager readAheadManager,
+                                       @Nullable AsyncPageLoader asyncPageLoader,
+                                       UnderFileSystem ufs, String fileId,
+                                       String ufsPath, long fileSize, long startPosition) {
     FileId fileIdField = FileId.of(fileId);
+    long maxRangeGap = conf.getBoolean(PropertyKey.WORKER_PAGE_STORE_RANGE_READ_ENABLED)
+        ? conf.getBytes(PropertyKey.WORKER_PAGE_STORE_RANGE_READ_MAX_GAP)
+        : LocalCachePositionReader.NO_RANGE_READ;
     return new PagedFileReader(LocalCachePositionReader.create(cacheManager,
         new CloseableSupplier<>(() -> ufs.openPositionRead(ufsPath, fileSize)),
         fileIdField, fileSize, conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE),
-        CacheContext.defaults()), fileSize, startPosition);
+        CacheContext.defaults(), maxRangeGap), readAheadManager, asyncPageLoader, ufs, fileId,
+        ufsPath, fileSize, startPosition);
   }
 
   /**
@@ -84,7 +143,19 @@ public class PagedFileReader extends BlockReader implements PositionReader {
    */
   public PagedFileReader(LocalCachePositionReader localCachePositionReader,
                          long fileSize, long startPosition) {
+    this(localCachePositionReader, null, null, null, null, null, fileSize, startPosition);
+  }
+
+  private PagedFileReader(LocalCachePositionReader localCachePositionReader,
+                          @Nullable ReadAheadManager readAheadManager,
+                          @Nullable AsyncPageLoader asyncPageLoader, UnderFileSystem ufs,
+                          String fileId, String ufsPath, long fileSize, long startPosition) {
     mPositionReader = Preconditions.checkNotNull(localCachePositionReader);
+    mReadAheadManager = readAheadManager;
+    mAsyncPageLoader = asyncPageLoader;
+    mUfs = ufs;
+    mFileId = fileId;
+    mUfsPath = ufsPath;
     mFileSize = fileSize;
     mPos = startPosition;
   }
@@ -100,7 +171,8 @@ public class PagedFileReader extends BlockReader implements PositionReader {
   }
 
   /**
-   * Get a {@link CompositeDataBuffer} which has a list of {@link DataFileChannel}.
+   * Get a {@link CompositeDataBuffer} which has a list of {@link DataFileChannel}, or of
+   * retained slices of the pages if they are cached in memory.
    *
    * @param channel the Channel object which is used for allocating ByteBuf
    * @param length the bytes to read
@@ -114,22 +186,30 @@ public class PagedFileReader extends BlockReader implements PositionReader {
     }
     List<DataBuffer> dataBufferList = new ArrayList<>();
     long bytesToTransfer = Math.min(length, mFileSize - mPos);
+    onRead(mPos, bytesToTransfer);
     long bytesToTransferLeft = bytesToTransfer;
     while (bytesToTransferLeft > 0) {
       long lengthPerOp = Math.min(bytesToTransferLeft, mPositionReader.getPageSize());
       DataBuffer dataBuffer;
-      Optional<DataFileChannel> dataFileChannel =
-          mPositionReader.getDataFileChannel(mPos, (int) lengthPerOp);
-      if (!dataFileChannel.isPresent()) {
+      Optional<DataBuffer> pageBuffer =
+          mPositionReader.getDataBuffer(mPos, (int) lengthPerOp);
+      if (!pageBuffer.isPresent()) {
         dataBuffer = getDataBufferByCopying(channel, (int) lengthPerOp);
+        MetricsSystem.meter(MetricKey.WORKER_BYTES_READ_COPIED.getName())
+            .mark(dataBuffer.getLength());
       } else {
         // update mPos
-        // TODO(JiamingMai): need to lock page files since the openFile op is called in netty latter
-        dataBuffer = dataFileChannel.get();
+        // the page is pinned in the cache until netty has sent it and released the buffer
+        dataBuffer = pageBuffer.get();
         if (dataBuffer.getLength() > 0) {
           mPos += dataBuffer.getLength();
+          MetricsSystem.meter(MetricKey.WORKER_BYTES_READ_ZERO_COPY.getName())
+              .mark(dataBuffer.getLength());
         } else {
+          dataBuffer.release();
           dataBuffer = getDataBufferByCopying(channel, (int) lengthPerOp);
+          MetricsSystem.meter(MetricKey.WORKER_BYTES_READ_COPIED.getName())
+              .mark(dataBuffer.getLength());
         }
       }
       // update bytesToTransferLeft
@@ -143,7 +223,7 @@ public class PagedFileReader extends BlockReader implements PositionReader {
   private DataBuffer getDataBufferByCopying(Channel channel, int len) throws IOException {
     ByteBuf buf = channel.alloc().buffer(len, len);
     try {
-      while (buf.writableBytes() > 0 && transferTo(buf) != -1) {
+      while (buf.writableBytes() > 0 && transferToInternal(buf) != -1) {
       }
       return new NettyDataBuffer(buf);
     } catch (Throwable e) {
@@ -162,6 +242,7 @@ public class PagedFileReader extends BlockReader implements PositionReader {
     // is left in the block, but expect as many bytes as there is
     length = Math.min(length, mFileSize - offset);
     ensureReadable(offset, length);
+    onRead(offset, length);
 
     // must not use pooled buffer, see interface implementation note
     ByteBuffer buffer = ByteBuffer.allocateDirect((int) length);
@@ -179,6 +260,23 @@ public class PagedFileReader extends BlockReader implements PositionReader {
     return buffer;
   }
 
+  /**
+   * Loads the pages of a range missing from the cache asynchronously, so that a reader can wait
+   * for them without holding a thread before reading the range.
+   *
+   * @param position the position of the range
+   * @param length the length of the range
+   * @return a future completed once the missing pages are loaded or failed to load, or null if
+   *         the pages are cached or cannot be loaded asynchronously
+   */
+  @Nullable
+  public CompletableFuture<Void> loadAsync(long position, long length) {
+    if (mAsyncPageLoader == null || mClosed) {
+      return null;
+    }
+    return mAsyncPageLoader.load(mFileId, mUfs, mUfsPath, mFileSize, position, length);
+  }
+
   private void ensureReadable(long offset, long length) {
     Preconditions.checkState(!mClosed, "reader closed");
     Preconditions.checkArgument(length >= 0, "negative read length %s", length);
@@ -202,6 +300,13 @@ public class PagedFileReader extends BlockReader implements PositionReader {
 
   @Override
   public int transferTo(ByteBuf buf) throws IOException {
+    if (mFileSize > mPos) {
+      onRead(mPos, Math.min(buf.writableBytes(), mFileSize - mPos));
+    }
+    return transferToInternal(buf);
+  }
+
+  private int transferToInternal(ByteBuf buf) throws IOException {
     if (mFileSize <= mPos) {
       return -1;
     }
@@ -218,9 +323,16 @@ public class PagedFileReader extends BlockReader implements PositionReader {
   @Override
   public int readInternal(long position, ReadTargetBuffer buffer, int length)
       throws IOException {
+    onRead(position, length);
     return mPositionReader.read(position, buffer, length);
   }
 
+  private void onRead(long position, long length) {
+    if (mReadAheadManager != null) {
+      mReadAheadManager.onRead(mFileId, mUfs, mUfsPath, mFileSize, position, length);
+    }
+  }
+
   @Override
   public synchronized void close() throws IOException {
     if (mClosed) {
@@ -0,0 +1,343 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.conf.AlluxioConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.metrics.MetricKey;
+import alluxio.metrics.MetricsSystem;
+import alluxio.underfs.UnderFileSystem;
+import alluxio.util.ThreadFactoryUtils;
+
+import com.codahale.metrics.Counter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.netty.buffer.ByteBuf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Reads pages of files read sequentially ahead of their readers into the page store, so that
+ * the following reads hit the cache instead of waiting for the under storage.
+ *
+ * The reads of each file are tracked as streams of sequential reads, across the readers of the
+ * file, as a stream of a client may be served by several readers, one for each of its read
+ * requests. A read continues the stream whose previous read it follows, or starts a new stream
+ * of the file, so that concurrent sequential readers of a file do not reset each other. A stream
+ * is read ahead once it has read sequentially a few times in a row. The read-ahead window starts
+ * at the initial size, and doubles each time the reader catches up with half of it, up to the
+ * max size. Reads not following any stream of the file are random access, which is not read
+ * ahead.
+ *
+ * The pages missing from the cache are read from the under storage with asynchronous ranged
+ * reads, one for each run of missing pages, so the pages in flight do not each hold a thread.
+ * They are then put into the cache, unless a reader cached them in the meantime.
+ */
+@ThreadSafe
+public final class ReadAheadManager implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(ReadAheadManager.class);
+  /** Number of sequential reads in a row for a file to be read ahead. */
+  private static final int SEQUENTIAL_READS_THRESHOLD = 2;
+  private static final int MAX_TRACKED_FILES = 10_000;
+  /** Number of concurrent streams of sequential reads tracked for each file. */
+  private static final int MAX_STREAMS_PER_FILE = 8;
+
+  private final CacheManager mCacheManager;
+  private final long mPageSize;
+  private final int mInitialWindowPages;
+  private final int mMaxWindowPages;
+  private final ExecutorService mExecutor;
+  /** Permits of the pages pending read-ahead, bounding the pages queued in the executor. */
+  private final Semaphore mPendingPages;
+  private final Cache<String, FileReadPatterns> mReadPatterns = CacheBuilder.newBuilder()
+      .maximumSize(MAX_TRACKED_FILES)
+      .expireAfterAccess(10, TimeUnit.MINUTES)
+      .build();
+
+  /**
+   * Creates a read-ahead manager if read-ahead is enabled.
+   *
+   * @param conf the configuration
+   * @param cacheManager the cache manager to read the pages into
+   * @return the read-ahead manager, or null if read-ahead is disabled
+   */
+  @Nullable
+  public static ReadAheadManager create(AlluxioConfiguration conf, CacheManager cacheManager) {
+    if (!conf.getBoolean(PropertyKey.WORKER_READ_AHEAD_ENABLED)) {
+      return null;
+    }
+    long pageSize = conf.getBytes(PropertyKey.WORKER_PAGE_STORE_PAGE_SIZE);
+    return new ReadAheadManager(cacheManager, pageSize,
+        conf.getBytes(PropertyKey.WORKER_READ_AHEAD_WINDOW_INITIAL),
+        conf.getBytes(PropertyKey.WORKER_READ_AHEAD_WINDOW_MAX),
+        conf.getInt(PropertyKey.WORKER_READ_AHEAD_THREADS));
+  }
+
+  /**
+   * @param cacheManager the cache manager to read the pages into
+   * @param pageSize the page size
+   * @param initialWindowSize the size of the read-ahead window of a file starting sequential reads
+   * @param maxWindowSize the max size of the read-ahead window
+   * @param threads the number of threads reading ahead
+   */
+  @VisibleForTesting
+  ReadAheadManager(CacheManager cacheManager, long pageSize, long initialWindowSize,
+      long maxWindowSize, int threads) {
+    Preconditions.checkArgument(initialWindowSize <= maxWindowSize,
+        "initial read-ahead window %s exceeds the max window %s", initialWindowSize,
+        maxWindowSize);
+    mCacheManager = cacheManager;
+    mPageSize = pageSize;
+    mInitialWindowPages = (int) Math.max(1, initialWindowSize / pageSize);
+    mMaxWindowPages = (int) Math.max(mInitialWindowPages, maxWindowSize / pageSize);
+    mExecutor = Executors.newFixedThreadPool(threads,
+        ThreadFactoryUtils.build("dora-read-ahead-%d", true));
+    mPendingPages = new Semaphore(threads * mMaxWindowPages);
+  }
+
+  /**
+   * Records a read of a file, and reads the pages ahead of it asynchronously if the file is read
+   * sequentially.
+   *
+   * @param fileId the id of the file the pages are cached by
+   * @param ufs the under storage of the file
+   * @param ufsPath the ufs path of the file
+   * @param fileSize the size of the file
+   * @param position the position of the read
+   * @param length the length of the read
+   */
+  public void onRead(String fileId, UnderFileSystem ufs, String ufsPath, long fileSize,
+      long position, long length) {
+    if (length <= 0 || position >= fileSize) {
+      return;
+    }
+    FileReadPatterns patterns;
+    try {
+      patterns = mReadPatterns.get(fileId, FileReadPatterns::new);
+    } catch (ExecutionException e) {
+      // not thrown by the constructor
+      throw new IllegalStateException(e);
+    }
+    long lastPage = (fileSize - 1) / mPageSize;
+    long[] pages = patterns.next(position, Math.min(length, fileSize - position), lastPage);
+    if (pages == null) {
+      return;
+    }
+    readAhead(fileId, ufs, ufsPath, fileSize, pages[0], pages[1]);
+  }
+
+  private void readAhead(String fileId, UnderFileSystem ufs, String ufsPath, long fileSize,
+      long startPage, long endPage) {
+    int numPages = 0;
+    for (long page = startPage; page < endPage; page++) {
+      if (!mPendingPages.tryAcquire()) {
+        Metrics.PAGES_READ_AHEAD_SKIPPED.inc(endPage - page);
+        break;
+      }
+      numPages++;
+    }
+    if (numPages == 0) {
+      return;
+    }
+    long readAheadEnd = startPage + numPages;
+    long rangeStart = -1;
+    for (long page = startPage; page <= readAheadEnd; page++) {
+      if (page < readAheadEnd && !mCacheManager.hasPageUnsafe(new PageId(fileId, page))) {
+        if (rangeStart < 0) {
+          rangeStart = page;
+        }
+        continue;
+      }
+      if (page < readAheadEnd) {
+        // already cached
+        mPendingPages.release();
+      }
+      if (rangeStart >= 0) {
+        readAheadRange(fileId, ufs, ufsPath, fileSize, rangeStart, page);
+        rangeStart = -1;
+      }
+    }
+  }
+
+  private void readAheadRange(String fileId, UnderFileSystem ufs, String ufsPath, long fileSize,
+      long startPage, long endPage) {
+    int numPages = (int) (endPage - startPage);
+    long position = startPage * mPageSize;
+    int length = (int) (Math.min(endPage * mPageSize, fileSize) - position);
+    CompletableFuture<ByteBuf> future;
+    try {
+      future = ufs.readAsync(ufsPath, fileSize, position, length);
+    } catch (RuntimeException e) {
+      LOG.debug("Failed to read ahead pages of {} from page {}", ufsPath, startPage, e);
+      mPendingPages.release(numPages);
+      return;
+    }
+    // the pages are cached off the threads completing the reads
+    future.whenCompleteAsync((buf, err) -> {
+      try {
+        if (err != null) {
+          LOG.debug("Failed to read ahead pages of {} from page {}", ufsPath, startPage, err);
+          return;
+        }
+        try {
+          cachePages(fileId, fileSize, startPage, buf);
+        } finally {
+          buf.release();
+        }
+      } catch (Exception e) {
+        LOG.debug("Failed to cache pages of {} read ahead from page {}", ufsPath, startPage, e);
+      } finally {
+        mPendingPages.release(numPages);
+      }
+    }, mExecutor);
+  }
+
+  private void cachePages(String fileId, long fileSize, long startPage, ByteBuf buf) {
+    for (long page = startPage; ; page++) {
+      int offset = (int) ((page - startPage) * mPageSize);
+      int pageLength = (int) Math.min(mPageSize, fileSize - page * mPageSize);
+      if (pageLength <= 0 || buf.readableBytes() < offset + pageLength) {
+        // the rest of the range was not read
+        return;
+      }
+      PageId pageId = new PageId(fileId, page);
+      if (mCacheManager.hasPageUnsafe(pageId)) {
+        // cached by a reader while being read ahead
+        continue;
+      }
+      byte[] data = new byte[pageLength];
+      buf.getBytes(buf.readerIndex() + offset, data);
+      if (mCacheManager.put(pageId, data)) {
+        Metrics.PAGES_READ_AHEAD.inc();
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    mExecutor.shutdownNow();
+  }
+
+  /**
+   * The streams of recent reads of a file, the most recently read first.
+   */
+  private final class FileReadPatterns {
+    @GuardedBy("this")
+    private final Deque<ReadPattern> mStreams = new ArrayDeque<>();
+
+    /**
+     * Records a read in the stream it follows, or in a new stream, and decides the pages to read
+     * ahead.
+     *
+     * @return the range of pages to read ahead, start inclusive and end exclusive, or null
+     */
+    @Nullable
+    synchronized long[] next(long position, long length, long lastPage) {
+      ReadPattern stream = null;
+      for (Iterator<ReadPattern> it = mStreams.iterator(); it.hasNext(); ) {
+        ReadPattern candidate = it.next();
+        if (candidate.follows(position)) {
+          it.remove();
+          stream = candidate;
+          break;
+        }
+      }
+      if (stream == null) {
+        stream = new ReadPattern();
+        if (mStreams.size() >= MAX_STREAMS_PER_FILE) {
+          mStreams.removeLast();
+        }
+      }
+      mStreams.addFirst(stream);
+      return stream.next(position, length, lastPage);
+    }
+  }
+
+  /**
+   * The recent reads of a stream of a file, guarded by the {@link FileReadPatterns} of the file.
+   */
+  private final class ReadPattern {
+    private long mNextPosition = -1;
+    private int mSequentialReads;
+    private int mWindowPages;
+    /** The page after the last page read ahead, or 0 if nothing has been read ahead. */
+    private long mReadAheadEnd;
+
+    /**
+     * @return whether a read at the position follows the previous read of this stream
+     */
+    boolean follows(long position) {
+      // a read skipping less than a page still counts as sequential
+      return mNextPosition >= 0 && position >= mNextPosition
+          && position - mNextPosition <= mPageSize;
+    }
+
+    /**
+     * Records a read and decides the pages to read ahead.
+     *
+     * @return the range of pages to read ahead, start inclusive and end exclusive, or null
+     */
+    @Nullable
+    long[] next(long position, long length, long lastPage) {
+      boolean sequential = follows(position);
+      mNextPosition = position + length;
+      if (!sequential) {
+        mSequentialReads = 0;
+        mWindowPages = 0;
+        mReadAheadEnd = 0;
+        return null;
+      }
+      if (++mSequentialReads < SEQUENTIAL_READS_THRESHOLD) {
+        return null;
+      }
+      long currentPage = (mNextPosition - 1) / mPageSize;
+      if (mWindowPages > 0 && mReadAheadEnd - currentPage > mWindowPages / 2) {
+        // still far enough ahead of the reader
+        return null;
+      }
+      mWindowPages = mWindowPages == 0 ? mInitialWindowPages
+          : Math.min(mMaxWindowPages, mWindowPages * 2);
+      long startPage = Math.max(currentPage + 1, mReadAheadEnd);
+      long endPage = Math.min(lastPage + 1, currentPage + 1 + mWindowPages);
+      if (startPage >= endPage) {
+        return null;
+      }
+      mReadAheadEnd = endPage;
+      return new long[] {startPage, endPage};
+    }
+  }
+
+  private static final class Metrics {
+    private static final Counter PAGES_READ_AHEAD =
+        MetricsSystem.counter(MetricKey.WORKER_PAGES_READ_AHEAD.getName());
+    private static final Counter PAGES_READ_AHEAD_SKIPPED =
+        MetricsSystem.counter(MetricKey.WORKER_PAGES_READ_AHEAD_SKIPPED.getName());
+  }
+}
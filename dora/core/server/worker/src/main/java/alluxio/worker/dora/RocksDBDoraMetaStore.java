@@ -19,6 +19,7 @@ import alluxio.rocks.RocksStore;
 import alluxio.util.io.PathUtils;
 
 import com.google.common.base.Preconditions;
+import com.google.protobuf.InvalidProtocolBufferException;
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
@@ -29,18 +30,27 @@ import org.rocksdb.HashLinkedListMemTableConfig;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
 import org.rocksdb.RocksObject;
+import org.rocksdb.Slice;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 /**
@@ -156,6 +166,147 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
     }
   }
 
+  /**
+   * Queries the metadata of multiple files with a single multiGet.
+   *
+   * @param paths the full paths of the files
+   * @return the metadata of the files found, keyed by their paths
+   */
+  @Override
+  public Map<String, DoraMeta.FileStatus> getDoraMetas(Collection<String> paths) {
+    List<String> keys = new ArrayList<>(paths);
+    List<byte[]> statuses;
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock()) {
+      statuses = db().multiGetAsList(mReadOption,
+          Collections.nCopies(keys.size(), mFileStatusColumn.get()),
+          keys.stream().map(String::getBytes).collect(Collectors.toList()));
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    }
+    Map<String, DoraMeta.FileStatus> metas = new HashMap<>();
+    List<String> corrupted = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      byte[] status = statuses.get(i);
+      if (status == null) {
+        continue;
+      }
+      try {
+        metas.put(keys.get(i), DoraMeta.FileStatus.parseFrom(status));
+      } catch (InvalidProtocolBufferException e) {
+        LOG.error("Cannot parse get result for {} : {}", keys.get(i), e);
+        corrupted.add(keys.get(i));
+      }
+    }
+    if (!corrupted.isEmpty()) {
+      removeDoraMetas(corrupted);
+    }
+    return metas;
+  }
+
+  /**
+   * Stores the metadata of multiple files with a single write batch.
+   *
+   * @param metas the metadata of the files keyed by their full paths
+   */
+  @Override
+  public void putDoraMetas(Map<String, DoraMeta.FileStatus> metas) {
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock();
+         WriteBatch batch = new WriteBatch()) {
+      for (Map.Entry<String, DoraMeta.FileStatus> entry : metas.entrySet()) {
+        batch.put(mFileStatusColumn.get(), entry.getKey().getBytes(),
+            entry.getValue().toByteString().toByteArray());
+      }
+      db().write(mWriteOption, batch);
+    } catch (RocksDBException e) {
+      LOG.error("Cannot put {} metas : {}", metas.size(), e);
+    }
+  }
+
+  /**
+   * Queries the metadata of all files whose paths start with the given prefix, by iterating the
+   * keys from the prefix on.
+   *
+   * @param prefix the prefix of the full paths
+   * @return the metadata of the files found, keyed by their paths in lexicographic order
+   */
+  @Override
+  public Map<String, DoraMeta.FileStatus> getDoraMetasByPrefix(String prefix) {
+    Map<String, DoraMeta.FileStatus> metas = new LinkedHashMap<>();
+    List<String> corrupted = new ArrayList<>();
+    scanPrefix(prefix, iter -> {
+      String path = new String(iter.key());
+      try {
+        metas.put(path, DoraMeta.FileStatus.parseFrom(iter.value()));
+      } catch (InvalidProtocolBufferException e) {
+        LOG.error("Cannot parse get result for {} : {}", path, e);
+        corrupted.add(path);
+      }
+    });
+    if (!corrupted.isEmpty()) {
+      removeDoraMetas(corrupted);
+    }
+    return metas;
+  }
+
+  /**
+   * Queries the paths of all files whose paths start with the given prefix, by iterating the
+   * keys from the prefix on without parsing their values.
+   *
+   * @param prefix the prefix of the full paths
+   * @return the paths of the files found, in lexicographic order
+   */
+  @Override
+  public List<String> getDoraMetaPathsByPrefix(String prefix) {
+    List<String> paths = new ArrayList<>();
+    scanPrefix(prefix, iter -> paths.add(new String(iter.key())));
+    return paths;
+  }
+
+  /**
+   * Visits the entries whose keys start with the given prefix, in the order of their keys.
+   *
+   * @param prefix the prefix of the keys
+   * @param visitor the visitor of the iterator positioned at each entry
+   */
+  private void scanPrefix(String prefix, Consumer<RocksIterator> visitor) {
+    byte[] prefixBytes = prefix.getBytes();
+    // the keys are iterated across hash buckets of the memtable, up to the first key after the
+    // prefix so that the scan ends with the prefix instead of at the next key found
+    byte[] upperBound = upperBound(prefixBytes);
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock();
+         Slice upperBoundSlice = upperBound == null ? null : new Slice(upperBound);
+         ReadOptions readOptions = new ReadOptions().setTotalOrderSeek(true);
+         RocksIterator iter = db().newIterator(mFileStatusColumn.get(),
+             upperBoundSlice == null ? readOptions
+                 : readOptions.setIterateUpperBound(upperBoundSlice))) {
+      for (iter.seek(prefixBytes); iter.isValid() && startsWith(iter.key(), prefixBytes);
+           iter.next()) {
+        visitor.accept(iter);
+      }
+      iter.status();
+    } catch (RocksDBException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Removes the metadata of multiple files with a single write batch.
+   *
+   * @param paths the full paths of the files whose metadata to be removed
+   */
+  @Override
+  public void removeDoraMetas(Collection<String> paths) {
+    try (RocksSharedLockHandle lock = mRocksStore.checkAndAcquireSharedLock();
+         WriteBatch batch = new WriteBatch()) {
+      for (String path : paths) {
+        batch.delete(mFileStatusColumn.get(), path.getBytes());
+      }
+      db().write(mWriteOption, batch);
+    } catch (RocksDBException e) {
+      LOG.error("Cannot remove {} metas : {}", paths.size(), e);
+    }
+  }
+
   /**
    * Removes the metadata from the RocksDB. It is not an error if the record specified by the key
    * is not found.
@@ -214,4 +365,32 @@ public class RocksDBDoraMetaStore implements DoraMetaStore {
   private RocksDB db() {
     return mRocksStore.getDb();
   }
+
+  /**
+   * @param prefix the prefix of keys
+   * @return the first key after all the keys starting with the prefix, or null if there is none
+   */
+  @Nullable
+  private static byte[] upperBound(byte[] prefix) {
+    for (int i = prefix.length - 1; i >= 0; i--) {
+      if (prefix[i] != (byte) 0xff) {
+        byte[] bound = Arrays.copyOf(prefix, i + 1);
+        bound[i]++;
+        return bound;
+      }
+    }
+    return null;
+  }
+
+  private static boolean startsWith(byte[] key, byte[] prefix) {
+    if (key.length < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (key[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
@@ -19,6 +19,8 @@ import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.runtime.AlluxioRuntimeException;
 import alluxio.exception.runtime.NotFoundRuntimeException;
+import alluxio.grpc.BatchGetStatusRequest;
+import alluxio.grpc.BatchGetStatusResponse;
 import alluxio.grpc.BlockWorkerGrpc;
 import alluxio.grpc.CacheDataRequest;
 import alluxio.grpc.CacheDataResponse;
@@ -34,6 +36,8 @@ import alluxio.grpc.DeletePRequest;
 import alluxio.grpc.DeletePResponse;
 import alluxio.grpc.ExistsPRequest;
 import alluxio.grpc.ExistsPResponse;
+import alluxio.grpc.GetRevokedMetadataLeasesRequest;
+import alluxio.grpc.GetRevokedMetadataLeasesResponse;
 import alluxio.grpc.GetStatusPRequest;
 import alluxio.grpc.GetStatusPResponse;
 import alluxio.grpc.GrpcUtils;
@@ -212,6 +216,35 @@ public class DoraWorkerClientServiceHandler extends BlockWorkerGrpc.BlockWorkerI
     }
   }
 
+  @Override
+  public void batchGetStatus(BatchGetStatusRequest request,
+      StreamObserver<BatchGetStatusResponse> responseObserver) {
+    try {
+      MultiDimensionalMetricsSystem.META_OPERATION.labelValues("batchGetStatus").inc();
+      BatchGetStatusResponse response =
+          mWorker.getFileInfos(request.getPathsList(), request.getOptions());
+      responseObserver.onNext(response);
+      responseObserver.onCompleted();
+    } catch (Exception e) {
+      LOG.debug(String.format("Failed to get status of %d paths: ", request.getPathsCount()), e);
+      responseObserver.onError(AlluxioRuntimeException.from(e).toGrpcStatusRuntimeException());
+    }
+  }
+
+  @Override
+  public void getRevokedMetadataLeases(GetRevokedMetadataLeasesRequest request,
+      StreamObserver<GetRevokedMetadataLeasesResponse> responseObserver) {
+    try {
+      GetRevokedMetadataLeasesResponse response = mWorker.getRevokedMetadataLeases(
+          request.getEpoch(), request.getSinceSequence());
+      responseObserver.onNext(response);
+      responseObserver.onCompleted();
+    } catch (Exception e) {
+      LOG.debug("Failed to get revoked metadata leases: ", e);
+      responseObserver.onError(AlluxioRuntimeException.from(e).toGrpcStatusRuntimeException());
+    }
+  }
+
   @Override
   public void listStatus(ListStatusPRequest request,
                          StreamObserver<ListStatusPResponse> responseObserver) {
@@ -33,6 +33,7 @@ import alluxio.util.LogUtils;
 import alluxio.wire.BlockReadRequest;
 import alluxio.worker.block.io.BlockReader;
 import alluxio.worker.dora.DoraWorker;
+import alluxio.worker.dora.PagedFileReader;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Meter;
@@ -48,6 +49,7 @@ import io.netty.buffer.Unpooled;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.ReentrantLock;
@@ -258,12 +260,18 @@ public class FileReadHandler implements StreamObserver<ReadRequest> {
 
   /**
    * A runnable that reads data and writes them to the channel.
+   *
+   * Before reading a chunk whose pages are missing from the cache, the data reader loads them
+   * asynchronously and returns, to be resumed by a new data reader once they are loaded, so that
+   * the chunks waiting for the under storage do not hold a thread.
    */
   private class DataReader implements Runnable {
     private final CallStreamObserver<ReadResponse> mResponse;
     private final BlockReadRequestContext mContext;
     private final BlockReadRequest mRequest;
     private final long mChunkSize;
+    /** The position of the chunk whose pages have been loaded, or -1. */
+    private final long mLoadedPosition;
 
     /**
      * Creates an instance of the {@link FileReadHandler.DataReader}.
@@ -272,6 +280,20 @@ public class FileReadHandler implements StreamObserver<ReadRequest> {
      * @param response the response
      */
     DataReader(BlockReadRequestContext context, StreamObserver<ReadResponse> response) {
+      this(context, response, -1);
+    }
+
+    /**
+     * Creates an instance of the {@link FileReadHandler.DataReader} resuming once the pages of
+     * the chunk at a position have been loaded.
+     *
+     * @param context context of the request to complete
+     * @param response the response
+     * @param loadedPosition the position of the chunk whose pages have been loaded, or -1
+     */
+    DataReader(BlockReadRequestContext context, StreamObserver<ReadResponse> response,
+        long loadedPosition) {
+      mLoadedPosition = loadedPosition;
       mContext = Preconditions.checkNotNull(context);
       mRequest = Preconditions.checkNotNull(context.getRequest());
       mChunkSize = Math.min(mRequest.getChunkSize(), MAX_CHUNK_SIZE);
@@ -329,6 +351,15 @@ public class FileReadHandler implements StreamObserver<ReadRequest> {
 
         DataBuffer chunk;
         try {
+          if (start != mLoadedPosition) {
+            // the pages loaded are read even if evicted since, not to load them again
+            CompletableFuture<Void> load = loadMissingPages(mContext, start, chunkSize);
+            if (load != null) {
+              // the data reader stays active until resumed
+              load.whenComplete((result, e) -> resume(start));
+              return;
+            }
+          }
           // Once we get the data buffer, the lock on the block has been acquired.
           // If there are any stream errors during this time, we must unlock the block
           // before exiting.
@@ -422,6 +453,43 @@ public class FileReadHandler implements StreamObserver<ReadRequest> {
       context.setBlockReader(reader);
     }
 
+    /**
+     * Loads the pages of a chunk missing from the cache asynchronously.
+     *
+     * @param context context of the request
+     * @param offset the offset of the chunk
+     * @param len the length of the chunk
+     * @return a future completed once the missing pages are loaded, or null to read the chunk
+     *         right away
+     */
+    @Nullable
+    private CompletableFuture<Void> loadMissingPages(BlockReadRequestContext context,
+        long offset, int len) throws Exception {
+      openBlock(context);
+      BlockReader reader = context.getBlockReader();
+      if (!(reader instanceof PagedFileReader)) {
+        return null;
+      }
+      return ((PagedFileReader) reader).loadAsync(offset, len);
+    }
+
+    /**
+     * Resumes reading with a new data reader once the pages of a chunk have been loaded.
+     *
+     * @param position the position of the chunk
+     */
+    private void resume(long position) {
+      try (LockResource lr = new LockResource(mLock)) {
+        try {
+          mDataReaderExecutor.submit(new DataReader(mContext, mResponseObserver, position));
+        } catch (RejectedExecutionException e) {
+          mContext.setDataReaderActive(false);
+          handleStreamEndingException(Status.RESOURCE_EXHAUSTED.withCause(e)
+              .withDescription("Failed to resume the data reader"));
+        }
+      }
+    }
+
     /**
      * Completes the read request. When the request is closed, we should clean up any temporary
      * state it may have accumulated.
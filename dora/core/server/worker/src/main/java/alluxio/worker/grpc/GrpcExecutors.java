@@ -19,6 +19,7 @@ import alluxio.metrics.MetricsSystem;
 import alluxio.security.User;
 import alluxio.security.authentication.AuthenticatedClientUser;
 import alluxio.util.ThreadFactoryUtils;
+import alluxio.util.executor.VirtualThreads;
 
 import com.codahale.metrics.Counter;
 import org.slf4j.Logger;
@@ -53,8 +54,8 @@ public final class GrpcExecutors {
           PropertyKey.WORKER_NETWORK_GRPC_READER_THREADS_MAX), THREAD_STOP_MS,
           TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
           ThreadFactoryUtils.build("GrpcDataReaderExecutor-%d", true));
-  public static final ExecutorService READER_EXECUTOR =
-      new ImpersonateThreadPoolExecutor(READER_THREAD_POOL_EXECUTOR, true);
+  public static final ExecutorService READER_EXECUTOR = new ImpersonateThreadPoolExecutor(
+      virtualOrPool("GrpcDataReaderExecutor-", READER_THREAD_POOL_EXECUTOR), true);
 
   // Used for replying data to the client in FileReadHandler.
   // The thread pool has a small queue of a constant size.
@@ -74,8 +75,8 @@ public final class GrpcExecutors {
           PropertyKey.WORKER_NETWORK_GRPC_WRITER_THREADS_MAX), THREAD_STOP_MS,
           TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
           ThreadFactoryUtils.build("GrpcDataWriterExecutor-%d", true));
-  public static final ExecutorService WRITER_EXECUTOR =
-          new ImpersonateThreadPoolExecutor(WRITE_THREAD_POOL_EXECUTOR, true);
+  public static final ExecutorService WRITER_EXECUTOR = new ImpersonateThreadPoolExecutor(
+      virtualOrPool("GrpcDataWriterExecutor-", WRITE_THREAD_POOL_EXECUTOR), true);
 
   static {
     MetricsSystem.registerGaugeIfAbsent(MetricsSystem.getMetricName(
@@ -123,6 +124,25 @@ public final class GrpcExecutors {
    */
   private GrpcExecutors() {}
 
+  /**
+   * Returns an executor running each task on a new virtual thread if enabled and supported, or
+   * the thread pool otherwise. The pool does not start any thread until it is used.
+   *
+   * @param namePrefix the prefix of the virtual thread names
+   * @param pool the thread pool
+   * @return the executor
+   */
+  private static ExecutorService virtualOrPool(String namePrefix, ThreadPoolExecutor pool) {
+    if (Configuration.getBoolean(PropertyKey.WORKER_NETWORK_VIRTUAL_THREADS_ENABLED)) {
+      if (VirtualThreads.isSupported()) {
+        return VirtualThreads.newThreadPerTaskExecutor(namePrefix);
+      }
+      LOG.warn("Virtual threads are not supported by Java {}, {} uses a thread pool",
+          System.getProperty("java.specification.version"), namePrefix);
+    }
+    return pool;
+  }
+
   /**
    * This executor passes impersonation information to the real worker thread.
    * The proxy user is tracked by {@link AuthenticatedClientUser#sUserThreadLocal}.
@@ -15,6 +15,10 @@ import alluxio.Constants;
 import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.util.ThreadFactoryUtils;
+import alluxio.util.executor.VirtualThreads;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.SynchronousQueue;
@@ -27,26 +31,39 @@ import javax.annotation.concurrent.ThreadSafe;
  */
 @ThreadSafe
 public final class NettyExecutors {
+  private static final Logger LOG = LoggerFactory.getLogger(NettyExecutors.class);
   private static final long THREAD_STOP_MS = Constants.SECOND_MS * 10;
   private static final int THREADS_MIN = 4;
 
-  public static final ExecutorService READER_EXECUTOR =
-      new ThreadPoolExecutor(THREADS_MIN,
-          Configuration.getInt(PropertyKey.WORKER_NETWORK_NETTY_READER_THREADS_MAX),
-          THREAD_STOP_MS, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
-          ThreadFactoryUtils.build("NettyReaderExecutor-%d", true));
-
-  public static final ExecutorService WRITER_EXECUTOR =
-      new ThreadPoolExecutor(THREADS_MIN,
-          Configuration.getInt(PropertyKey.WORKER_NETWORK_NETTY_WRITER_THREADS_MAX),
-          THREAD_STOP_MS, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
-          ThreadFactoryUtils.build("NettyWriterExecutor-%d", true));
-
-  public static final ExecutorService UFS_WRITER_EXECUTOR =
-      new ThreadPoolExecutor(THREADS_MIN,
-          Configuration.getInt(PropertyKey.WORKER_NETWORK_NETTY_UFS_WRITER_THREADS_MAX),
-          THREAD_STOP_MS, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
-          ThreadFactoryUtils.build("NettyUfsWriterExecutor-%d", true));
+  public static final ExecutorService READER_EXECUTOR = createExecutor(
+      "NettyReaderExecutor-", PropertyKey.WORKER_NETWORK_NETTY_READER_THREADS_MAX);
+
+  public static final ExecutorService WRITER_EXECUTOR = createExecutor(
+      "NettyWriterExecutor-", PropertyKey.WORKER_NETWORK_NETTY_WRITER_THREADS_MAX);
+
+  public static final ExecutorService UFS_WRITER_EXECUTOR = createExecutor(
+      "NettyUfsWriterExecutor-", PropertyKey.WORKER_NETWORK_NETTY_UFS_WRITER_THREADS_MAX);
+
+  /**
+   * Creates an executor running each task on a new virtual thread if enabled and supported,
+   * or a thread pool bounded by the max threads otherwise.
+   *
+   * @param namePrefix the prefix of the thread names
+   * @param maxThreads the property of the max threads of the pool
+   * @return the executor
+   */
+  private static ExecutorService createExecutor(String namePrefix, PropertyKey maxThreads) {
+    if (Configuration.getBoolean(PropertyKey.WORKER_NETWORK_VIRTUAL_THREADS_ENABLED)) {
+      if (VirtualThreads.isSupported()) {
+        return VirtualThreads.newThreadPerTaskExecutor(namePrefix);
+      }
+      LOG.warn("Virtual threads are not supported by Java {}, {} uses a thread pool",
+          System.getProperty("java.specification.version"), namePrefix);
+    }
+    return new ThreadPoolExecutor(THREADS_MIN, Configuration.getInt(maxThreads),
+        THREAD_STOP_MS, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+        ThreadFactoryUtils.build(namePrefix + "%d", true));
+  }
 
   /**
    * Private constructor.
@@ -0,0 +1,124 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.underfs.UnderFileSystem;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncPageLoaderTest {
+  private static final String FILE_ID = "file";
+  private static final String UFS_PATH = "/file";
+  private static final long PAGE_SIZE = 10;
+  private static final long FILE_SIZE = 95;
+
+  private CacheManager mCacheManager;
+  private UnderFileSystem mUfs;
+  private AsyncPageLoader mLoader;
+
+  @Before
+  public void before() {
+    mCacheManager = mock(CacheManager.class);
+    when(mCacheManager.put(any(PageId.class), any(byte[].class))).thenReturn(true);
+    mUfs = mock(UnderFileSystem.class);
+    when(mUfs.readAsync(anyString(), anyLong(), anyLong(), anyInt())).thenAnswer(invocation ->
+        CompletableFuture.completedFuture(
+            Unpooled.wrappedBuffer(new byte[invocation.<Integer>getArgument(3)])));
+    mLoader = new AsyncPageLoader(mCacheManager, PAGE_SIZE, 1);
+  }
+
+  @After
+  public void after() {
+    mLoader.close();
+  }
+
+  @Test
+  public void loadRunsOfMissingPages() throws Exception {
+    when(mCacheManager.hasPageUnsafe(new PageId(FILE_ID, 2))).thenReturn(true);
+    load(0, 5 * PAGE_SIZE).get(10, TimeUnit.SECONDS);
+    verify(mUfs).readAsync(UFS_PATH, FILE_SIZE, 0, 2 * (int) PAGE_SIZE);
+    verify(mUfs).readAsync(UFS_PATH, FILE_SIZE, 3 * PAGE_SIZE, 2 * (int) PAGE_SIZE);
+    for (long page : new long[] {0, 1, 3, 4}) {
+      verify(mCacheManager).put(eq(new PageId(FILE_ID, page)), any(byte[].class));
+    }
+    verify(mCacheManager, never()).put(eq(new PageId(FILE_ID, 2)), any(byte[].class));
+  }
+
+  @Test
+  public void loadLastPage() throws Exception {
+    load(90, 100).get(10, TimeUnit.SECONDS);
+    // the last page is shorter than a page
+    verify(mUfs).readAsync(UFS_PATH, FILE_SIZE, 90, 5);
+    verify(mCacheManager).put(eq(new PageId(FILE_ID, 9)), any(byte[].class));
+  }
+
+  @Test
+  public void cachedPages() {
+    when(mCacheManager.hasPageUnsafe(any(PageId.class))).thenReturn(true);
+    assertNull(load(0, 3 * PAGE_SIZE));
+    assertNull(load(FILE_SIZE, PAGE_SIZE));
+    verify(mUfs, never()).readAsync(anyString(), anyLong(), anyLong(), anyInt());
+  }
+
+  @Test
+  public void concurrentLoadsShareRead() throws Exception {
+    CompletableFuture<ByteBuf> read = new CompletableFuture<>();
+    when(mUfs.readAsync(anyString(), anyLong(), anyLong(), anyInt())).thenReturn(read);
+    CompletableFuture<Void> first = load(0, 2 * PAGE_SIZE);
+    CompletableFuture<Void> second = load(5, PAGE_SIZE);
+    assertNotNull(first);
+    assertNotNull(second);
+    verify(mUfs, times(1)).readAsync(anyString(), anyLong(), anyLong(), anyInt());
+    assertFalse(second.isDone());
+    read.complete(Unpooled.wrappedBuffer(new byte[2 * (int) PAGE_SIZE]));
+    first.get(10, TimeUnit.SECONDS);
+    second.get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void failedRead() throws Exception {
+    CompletableFuture<ByteBuf> read = new CompletableFuture<>();
+    read.completeExceptionally(new IOException("failed to read"));
+    when(mUfs.readAsync(anyString(), anyLong(), anyLong(), anyInt())).thenReturn(read);
+    // the load completes, the reader reading the pages through the cache
+    load(0, PAGE_SIZE).get(10, TimeUnit.SECONDS);
+    verify(mCacheManager, never()).put(any(PageId.class), any(byte[].class));
+  }
+
+  private CompletableFuture<Void> load(long position, long length) {
+    return mLoader.load(FILE_ID, mUfs, UFS_PATH, FILE_SIZE, position, length);
+  }
+}
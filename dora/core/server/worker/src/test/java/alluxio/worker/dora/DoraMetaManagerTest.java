@@ -12,7 +12,9 @@
 package alluxio.worker.dora;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doReturn;
@@ -25,6 +27,9 @@ import alluxio.conf.AlluxioConfiguration;
 import alluxio.conf.AlluxioProperties;
 import alluxio.conf.InstancedConfiguration;
 import alluxio.conf.PropertyKey;
+import alluxio.grpc.FileInfo;
+import alluxio.grpc.GetRevokedMetadataLeasesResponse;
+import alluxio.proto.meta.DoraMeta.FileStatus;
 import alluxio.underfs.UfsStatus;
 import alluxio.underfs.UnderFileSystem;
 
@@ -37,6 +42,8 @@ import org.junit.rules.TemporaryFolder;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 public class DoraMetaManagerTest {
@@ -135,4 +142,59 @@ public class DoraMetaManagerTest {
     Optional<UfsStatus[]> status = mManager.listFromUfsThenCache("/test", false);
     assertEquals(status, Optional.empty());
   }
+
+  @Test
+  public void removeDirectoryFromMetaStore() {
+    FileStatus dir = FileStatus.newBuilder()
+        .setFileInfo(FileInfo.newBuilder().setFolder(true)).build();
+    FileStatus file = FileStatus.newBuilder()
+        .setFileInfo(FileInfo.newBuilder().setLength(0)).build();
+    Map<String, FileStatus> statuses = new HashMap<>();
+    statuses.put("/dir", dir);
+    statuses.put("/dir/file", file);
+    statuses.put("/dir/sub/file", file);
+    statuses.put("/dir2/file", file);
+    mManager.put(statuses);
+    for (String path : statuses.keySet()) {
+      assertTrue(mManager.getFromMetaStore(path).isPresent());
+    }
+
+    mManager.removeFromMetaStore("/dir");
+    assertFalse(mManager.getFromMetaStore("/dir").isPresent());
+    assertFalse(mManager.getFromMetaStore("/dir/file").isPresent());
+    assertFalse(mManager.getFromMetaStore("/dir/sub/file").isPresent());
+    assertTrue(mManager.getFromMetaStore("/dir2/file").isPresent());
+  }
+
+  @Test
+  public void revokeLeasesOfChangedMetadata() {
+    FileStatus file = FileStatus.newBuilder()
+        .setFileInfo(FileInfo.newBuilder().setLength(0).setMode(0644)).build();
+    mManager.put("/dir/file", file);
+    GetRevokedMetadataLeasesResponse first = mManager.getRevokedLeases(0, 0);
+    assertTrue(first.getAllRevoked());
+
+    // the cache usage of the file is not part of its metadata
+    mManager.put("/dir/file", file.toBuilder().setFileInfo(
+        file.getFileInfo().toBuilder().setInAlluxioPercentage(100)).build());
+    GetRevokedMetadataLeasesResponse unchanged =
+        mManager.getRevokedLeases(first.getEpoch(), first.getSequence());
+    assertFalse(unchanged.getAllRevoked());
+    assertEquals(0, unchanged.getLeasesCount());
+
+    mManager.put("/dir/file", file.toBuilder().setFileInfo(
+        file.getFileInfo().toBuilder().setMode(0600)).build());
+    GetRevokedMetadataLeasesResponse changed =
+        mManager.getRevokedLeases(first.getEpoch(), first.getSequence());
+    assertEquals(1, changed.getLeasesCount());
+    assertEquals("/dir/file", changed.getLeases(0).getPath());
+    assertFalse(changed.getLeases(0).getRecursive());
+
+    mManager.removeFromMetaStore("/dir");
+    GetRevokedMetadataLeasesResponse removed =
+        mManager.getRevokedLeases(changed.getEpoch(), changed.getSequence());
+    assertEquals(1, removed.getLeasesCount());
+    assertEquals("/dir", removed.getLeases(0).getPath());
+    assertTrue(removed.getLeases(0).getRecursive());
+  }
 }
@@ -0,0 +1,73 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import alluxio.grpc.GetRevokedMetadataLeasesResponse;
+import alluxio.grpc.RevokedMetadataLease;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+public class MetadataRevocationLogTest {
+  @Test
+  public void revokedSinceSequence() {
+    MetadataRevocationLog log = new MetadataRevocationLog(4);
+    GetRevokedMetadataLeasesResponse first = log.getRevokedSince(0, 0);
+    assertTrue(first.getAllRevoked());
+    assertEquals(0, first.getSequence());
+
+    log.revoke("/a", false);
+    log.revoke("/b", true);
+    GetRevokedMetadataLeasesResponse second = log.getRevokedSince(first.getEpoch(), 0);
+    assertFalse(second.getAllRevoked());
+    assertEquals(2, second.getSequence());
+    assertEquals(ImmutableList.of("/a", "/b"), paths(second));
+    assertTrue(second.getLeases(1).getRecursive());
+
+    log.revoke("/c", false);
+    assertEquals(ImmutableList.of("/c"), paths(log.getRevokedSince(second.getEpoch(), 2)));
+    assertEquals(0, log.getRevokedSince(second.getEpoch(), 3).getLeasesCount());
+  }
+
+  @Test
+  public void allRevokedWhenBehind() {
+    MetadataRevocationLog log = new MetadataRevocationLog(4);
+    long epoch = log.getRevokedSince(0, 0).getEpoch();
+    for (int i = 0; i < 5; i++) {
+      log.revoke("/file" + i, false);
+    }
+    // the first revocation is no longer kept
+    assertTrue(log.getRevokedSince(epoch, 0).getAllRevoked());
+    assertEquals(ImmutableList.of("/file1", "/file2", "/file3", "/file4"),
+        paths(log.getRevokedSince(epoch, 1)));
+  }
+
+  @Test
+  public void allRevokedOnNewEpoch() {
+    MetadataRevocationLog log = new MetadataRevocationLog(4);
+    log.revoke("/a", false);
+    // the sequence seen from a previous run of the worker
+    assertTrue(log.getRevokedSince(log.getRevokedSince(0, 0).getEpoch() + 1, 1)
+        .getAllRevoked());
+    assertTrue(new MetadataRevocationLog(4).getRevokedSince(
+        log.getRevokedSince(0, 0).getEpoch(), 1).getAllRevoked());
+  }
+
+  private static ImmutableList<String> paths(GetRevokedMetadataLeasesResponse response) {
+    return response.getLeasesList().stream().map(RevokedMetadataLease::getPath)
+        .collect(ImmutableList.toImmutableList());
+  }
+}
@@ -29,6 +29,7 @@ import alluxio.conf.Configuration;
 import alluxio.conf.PropertyKey;
 import alluxio.exception.AccessControlException;
 import alluxio.file.ReadTargetBuffer;
+import alluxio.grpc.BatchGetStatusResponse;
 import alluxio.grpc.CompleteFilePOptions;
 import alluxio.grpc.CreateDirectoryPOptions;
 import alluxio.grpc.CreateFilePOptions;
@@ -767,6 +768,38 @@ public class PagedDoraWorkerTest {
     assertTrue(result.isFolder());
   }
 
+  @Test
+  public void testGetFileInfos() throws Exception {
+    File f1 = mTestFolder.newFile();
+    Files.write(f1.toPath(), "foo".getBytes());
+    File f2 = mTestFolder.newFile();
+    Files.write(f2.toPath(), "foobar".getBytes());
+    File dir = mTestFolder.newFolder();
+    String missing = new File(mTestFolder.getRoot(), "missing").getPath();
+
+    List<String> paths = Arrays.asList(f1.getPath(), f2.getPath(), dir.getPath(), missing);
+    BatchGetStatusResponse response =
+        mWorker.getFileInfos(paths, GetStatusPOptions.getDefaultInstance());
+    assertEquals(0, response.getFailuresCount());
+    assertEquals(3, response.getFileInfosCount());
+    assertEquals(3, response.getFileInfosOrThrow(f1.getPath()).getLength());
+    assertEquals(6, response.getFileInfosOrThrow(f2.getPath()).getLength());
+    assertTrue(response.getFileInfosOrThrow(dir.getPath()).getFolder());
+    assertFalse(response.containsFileInfos(missing));
+
+    // served from the meta store and matching the single path lookup
+    response = mWorker.getFileInfos(paths, GetStatusPOptions.getDefaultInstance());
+    assertEquals(3, response.getFileInfosCount());
+    assertEquals(
+        mWorker.getFileInfo(f2.getPath(), GetStatusPOptions.getDefaultInstance()).getLength(),
+        response.getFileInfosOrThrow(f2.getPath()).getLength());
+
+    assertTrue(f1.delete());
+    response = mWorker.getFileInfos(paths, GET_STATUS_OPTIONS_MUST_SYNC);
+    assertEquals(2, response.getFileInfosCount());
+    assertFalse(response.containsFileInfos(f1.getPath()));
+  }
+
   @Test
   public void testCreateDeleteFile() throws Exception {
     File testDir = mTestFolder.newFolder("testDir");
@@ -0,0 +1,138 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.worker.dora;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import alluxio.client.file.cache.CacheManager;
+import alluxio.client.file.cache.PageId;
+import alluxio.underfs.UnderFileSystem;
+
+import io.netty.buffer.Unpooled;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+public class ReadAheadManagerTest {
+  private static final String FILE_ID = "file";
+  private static final String UFS_PATH = "/file";
+  private static final long PAGE_SIZE = 10;
+  private static final long FILE_SIZE = 1000;
+
+  private CacheManager mCacheManager;
+  private UnderFileSystem mUfs;
+  private ReadAheadManager mReadAheadManager;
+
+  @Before
+  public void before() {
+    mCacheManager = mock(CacheManager.class);
+    when(mCacheManager.put(any(PageId.class), any(byte[].class))).thenReturn(true);
+    mUfs = mock(UnderFileSystem.class);
+    when(mUfs.readAsync(anyString(), anyLong(), anyLong(), anyInt())).thenAnswer(invocation ->
+        CompletableFuture.completedFuture(
+            Unpooled.wrappedBuffer(new byte[invocation.<Integer>getArgument(3)])));
+    mReadAheadManager = new ReadAheadManager(mCacheManager, PAGE_SIZE, 4 * PAGE_SIZE,
+        16 * PAGE_SIZE, 1);
+  }
+
+  @After
+  public void after() {
+    mReadAheadManager.close();
+  }
+
+  @Test
+  public void readAheadSequentialReads() {
+    read(0);
+    read(10);
+    verify(mCacheManager, never()).put(any(PageId.class), any(byte[].class));
+    read(20);
+    // the pages of the initial window after the page read
+    for (int page = 3; page < 7; page++) {
+      verifyReadAhead(page);
+    }
+    // the reader is still far enough from the end of the window
+    read(30);
+    read(40);
+    verify(mCacheManager, never()).put(eq(new PageId(FILE_ID, 7)), any(byte[].class));
+    read(50);
+    // the doubled window
+    for (int page = 7; page < 14; page++) {
+      verifyReadAhead(page);
+    }
+  }
+
+  @Test
+  public void noReadAheadRandomReads() {
+    read(0);
+    read(500);
+    read(20);
+    read(800);
+    read(300);
+    verify(mCacheManager, never()).put(any(PageId.class), any(byte[].class));
+  }
+
+  @Test
+  public void randomReadResetsWindow() {
+    read(0);
+    read(10);
+    read(20);
+    verifyReadAhead(6);
+    read(500);
+    read(510);
+    verify(mCacheManager, never()).put(eq(new PageId(FILE_ID, 52)), any(byte[].class));
+    read(520);
+    verifyReadAhead(53);
+  }
+
+  @Test
+  public void concurrentSequentialReaders() {
+    // two readers of the file interleave their sequential reads
+    for (long position = 0; position < 30; position += PAGE_SIZE) {
+      read(position);
+      read(500 + position);
+    }
+    verifyReadAhead(3);
+    verifyReadAhead(53);
+  }
+
+  @Test
+  public void skipPagesCachedWhileReadingAhead() {
+    // the page is cached by a reader once the read ahead is issued
+    when(mCacheManager.hasPageUnsafe(new PageId(FILE_ID, 4))).thenReturn(false, true);
+    read(0);
+    read(10);
+    read(20);
+    verifyReadAhead(3);
+    verifyReadAhead(5);
+    verify(mCacheManager, never()).put(eq(new PageId(FILE_ID, 4)), any(byte[].class));
+  }
+
+  private void read(long position) {
+    mReadAheadManager.onRead(FILE_ID, mUfs, UFS_PATH, FILE_SIZE, position, PAGE_SIZE);
+  }
+
+  private void verifyReadAhead(long pageIndex) {
+    verify(mCacheManager, timeout(10000)).put(eq(new PageId(FILE_ID, pageIndex)),
+        any(byte[].class));
+  }
+}
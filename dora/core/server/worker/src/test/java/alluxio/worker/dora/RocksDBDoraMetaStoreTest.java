@@ -16,6 +16,11 @@ import alluxio.proto.meta.DoraMeta;
 
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class RocksDBDoraMetaStoreTest extends TestCase {
@@ -88,6 +93,42 @@ public class RocksDBDoraMetaStoreTest extends TestCase {
     System.out.println("End testRemoveNotExist");
   }
 
+  public void testBatchPutAndGetAndDel() {
+    String prefix = "/BATCH" + System.nanoTime();
+    Map<String, DoraMeta.FileStatus> metas = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      metas.put(prefix + "/" + i, DoraMeta.FileStatus.newBuilder()
+          .setFileInfo(FileInfo.newBuilder().setFileId(i).setLength(1000))
+          .setTs(System.nanoTime())
+          .build());
+    }
+    mTestMetastore.putDoraMetas(metas);
+    List<String> paths = new ArrayList<>(metas.keySet());
+    paths.add(prefix + "/NOT_EXIST");
+    assertEquals(metas, mTestMetastore.getDoraMetas(paths));
+
+    mTestMetastore.removeDoraMetas(metas.keySet());
+    assertTrue(mTestMetastore.getDoraMetas(paths).isEmpty());
+  }
+
+  public void testGetByPrefix() {
+    String prefix = "/PREFIX" + System.nanoTime();
+    DoraMeta.FileStatus fs = DoraMeta.FileStatus.newBuilder()
+        .setFileInfo(FileInfo.newBuilder().setFileId(1234).setLength(1000))
+        .setTs(System.nanoTime())
+        .build();
+    for (String path : Arrays.asList(prefix, prefix + "/a", prefix + "/b/c", prefix + "0/d")) {
+      mTestMetastore.putDoraMeta(path, fs);
+    }
+    Map<String, DoraMeta.FileStatus> res = mTestMetastore.getDoraMetasByPrefix(prefix + "/");
+    assertEquals(Arrays.asList(prefix + "/a", prefix + "/b/c"), new ArrayList<>(res.keySet()));
+    assertEquals(fs, res.get(prefix + "/a"));
+    assertTrue(mTestMetastore.getDoraMetasByPrefix(prefix + "/NOT_EXIST").isEmpty());
+    assertEquals(Arrays.asList(prefix + "/a", prefix + "/b/c"),
+        mTestMetastore.getDoraMetaPathsByPrefix(prefix + "/"));
+    assertTrue(mTestMetastore.getDoraMetaPathsByPrefix(prefix + "/NOT_EXIST").isEmpty());
+  }
+
   /**
    * Performance Testing.
    */
@@ -0,0 +1,212 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.dora.cache;
+
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.evictor.CacheEvictor;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.FIFOCacheEvictor;
+import alluxio.client.file.cache.evictor.LFUCacheEvictor;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+import alluxio.client.file.cache.evictor.TinyLFUCacheEvictor;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * This benchmark replays a trace of page accesses against a cache of a fixed number of pages,
+ * driving the evictor the same way {@link alluxio.client.file.cache.LocalCacheManager} does,
+ * and reports the hit ratio of each evictor along with its throughput.
+ * The following parameters can be varied:
+ * mEvictor - the evictor, one of LRU, LFU, FIFO or TINY_LFU
+ * mTrace - the trace to replay, either one of the synthetic traces below or the path of a trace
+ *   file which has one page access per line, formatted as "fileId pageIndex"
+ *   ZIPF: accesses following a zipf distribution over ten times as many pages as the cache holds
+ *   ZIPF_WITH_SCANS: the zipf accesses interrupted by sequential scans over as many new pages as
+ *     the cache holds twice, e.g. full table scans of batch jobs
+ * mCachePages - the number of pages the cache holds
+ * The hit ratio of each run is printed at the end of the run, the hits and misses per second
+ * are also reported as secondary results.
+ */
+public class CacheEvictorBench {
+  private static final int TRACE_LENGTH = 1 << 22;
+  private static final double ZIPF_EXPONENT = 0.9;
+  private static final int ZIPF_ACCESSES_BETWEEN_SCANS = 100_000;
+
+  @State(Scope.Thread)
+  public static class BenchState {
+    @Param({"LRU", "LFU", "FIFO", "TINY_LFU"})
+    public String mEvictor;
+
+    @Param({"ZIPF", "ZIPF_WITH_SCANS"})
+    public String mTrace;
+
+    @Param({"10000"})
+    public int mCachePages;
+
+    PageId[] mAccesses;
+    CacheEvictor mCacheEvictor;
+    Set<PageId> mPages;
+    int mNext;
+    long mHits;
+    long mMisses;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+      mAccesses = loadTrace();
+      mPages = new HashSet<>(mCachePages * 2);
+      CacheEvictorOptions options = new CacheEvictorOptions();
+      switch (mEvictor) {
+        case "LRU":
+          mCacheEvictor = new LRUCacheEvictor(options);
+          break;
+        case "LFU":
+          mCacheEvictor = new LFUCacheEvictor(options);
+          break;
+        case "FIFO":
+          mCacheEvictor = new FIFOCacheEvictor(options);
+          break;
+        case "TINY_LFU":
+          mCacheEvictor = new TinyLFUCacheEvictor(options);
+          break;
+        default:
+          throw new IllegalStateException("Invalid evictor: " + mEvictor);
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      System.out.printf("%n%s on %s: hit ratio %.4f (%d hits, %d misses)%n", mEvictor, mTrace,
+          (double) mHits / Math.max(1, mHits + mMisses), mHits, mMisses);
+    }
+
+    private PageId[] loadTrace() throws IOException {
+      switch (mTrace) {
+        case "ZIPF":
+          return zipfTrace(new Random(0), 0);
+        case "ZIPF_WITH_SCANS":
+          return zipfTrace(new Random(0), ZIPF_ACCESSES_BETWEEN_SCANS);
+        default:
+          List<String> lines = Files.readAllLines(Paths.get(mTrace));
+          return lines.stream()
+              .map(String::trim)
+              .filter(line -> !line.isEmpty())
+              .map(line -> {
+                String[] parts = line.split("\\s+");
+                return new PageId(parts[0], Long.parseLong(parts[1]));
+              })
+              .toArray(PageId[]::new);
+      }
+    }
+
+    /**
+     * @param accessesBetweenScans the number of zipf accesses between two scans, 0 for no scans
+     */
+    private PageId[] zipfTrace(Random random, int accessesBetweenScans) {
+      int numPages = mCachePages * 10;
+      double[] cdf = new double[numPages];
+      double sum = 0;
+      for (int i = 0; i < numPages; i++) {
+        sum += 1 / Math.pow(i + 1, ZIPF_EXPONENT);
+        cdf[i] = sum;
+      }
+      PageId[] accesses = new PageId[TRACE_LENGTH];
+      int scan = 0;
+      int i = 0;
+      while (i < TRACE_LENGTH) {
+        if (accessesBetweenScans > 0 && i > 0 && i % accessesBetweenScans == 0) {
+          for (int j = 0; j < mCachePages * 2 && i < TRACE_LENGTH; j++) {
+            accesses[i++] = new PageId("scan" + scan, j);
+          }
+          scan++;
+          continue;
+        }
+        int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+        int page = index >= 0 ? index : -index - 1;
+        accesses[i++] = new PageId("zipf" + page / 64, page % 64);
+      }
+      return accesses;
+    }
+  }
+
+  /**
+   * Hits and misses of the cache, reported as secondary results.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class HitCounters {
+    public long mHits;
+    public long mMisses;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      mHits = 0;
+      mMisses = 0;
+    }
+  }
+
+  @Benchmark
+  public PageId replay(BenchState state, HitCounters counters) {
+    PageId pageId = state.mAccesses[state.mNext];
+    state.mNext = (state.mNext + 1) % state.mAccesses.length;
+    if (state.mPages.contains(pageId)) {
+      state.mCacheEvictor.updateOnGet(pageId);
+      state.mHits++;
+      counters.mHits++;
+      return pageId;
+    }
+    state.mMisses++;
+    counters.mMisses++;
+    PageId victim = null;
+    if (state.mPages.size() >= state.mCachePages) {
+      victim = state.mCacheEvictor.evict();
+      state.mPages.remove(victim);
+      state.mCacheEvictor.updateOnDelete(victim);
+    }
+    state.mPages.add(pageId);
+    state.mCacheEvictor.updateOnPut(pageId);
+    return victim;
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options argsCli = new CommandLineOptions(args);
+    Options opts = new OptionsBuilder()
+        .parent(argsCli)
+        .include(CacheEvictorBench.class.getName())
+        .result("results.json")
+        .resultFormat(ResultFormatType.JSON)
+        .build();
+    new Runner(opts).run();
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.dora.cache;
+
+import alluxio.Constants;
+import alluxio.client.file.cache.ConcurrentPageMetaStore;
+import alluxio.client.file.cache.DefaultPageMetaStore;
+import alluxio.client.file.cache.PageId;
+import alluxio.client.file.cache.PageInfo;
+import alluxio.client.file.cache.PageMetaStore;
+import alluxio.client.file.cache.evictor.CacheEvictorOptions;
+import alluxio.client.file.cache.evictor.LRUCacheEvictor;
+import alluxio.client.file.cache.store.MemoryPageStore;
+import alluxio.client.file.cache.store.MemoryPageStoreDir;
+import alluxio.client.file.cache.store.PageStoreDir;
+import alluxio.client.file.cache.store.PageStoreOptions;
+import alluxio.exception.PageNotFoundException;
+import alluxio.resource.LockResource;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This benchmark measures the throughput of page meta store operations issued the same way
+ * {@link alluxio.client.file.cache.LocalCacheManager} issues them, i.e. while holding the lock
+ * returned by {@link PageMetaStore#getLock()}.
+ * The following parameters can be varied:
+ * mType - the meta store implementation, either DEFAULT or CONCURRENT
+ * mPageCount - the number of pages preloaded into the meta store
+ * mReadPercentage - the percentage of operations that are page lookups, the rest being
+ *   a delete followed by a re-insert of a random page
+ * The number of threads is varied by the main method from 1 to 128.
+ */
+public class PageMetaStoreBench {
+  private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64, 128};
+
+  @State(Scope.Benchmark)
+  public static class BenchState {
+    @Param({"DEFAULT", "CONCURRENT"})
+    public String mType;
+
+    @Param({"1000000"})
+    public int mPageCount;
+
+    @Param({"100", "95"})
+    public int mReadPercentage;
+
+    PageMetaStore mMetaStore;
+    PageStoreDir mDir;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      PageStoreOptions options = new PageStoreOptions()
+          .setRootDir(Paths.get("/tmp/page-meta-store-bench"))
+          .setPageSize(Constants.KB)
+          .setCacheSize((long) mPageCount * Constants.KB * 2);
+      mDir = new MemoryPageStoreDir(options, new MemoryPageStore((int) options.getPageSize()),
+          new LRUCacheEvictor(new CacheEvictorOptions()));
+      List<PageStoreDir> dirs = ImmutableList.of(mDir);
+      switch (mType) {
+        case "DEFAULT":
+          mMetaStore = new DefaultPageMetaStore(dirs);
+          break;
+        case "CONCURRENT":
+          mMetaStore = new ConcurrentPageMetaStore(dirs);
+          break;
+        default:
+          throw new IllegalStateException("Invalid type: " + mType);
+      }
+      for (int i = 0; i < mPageCount; i++) {
+        PageId pageId = pageId(i);
+        mMetaStore.addPage(pageId, new PageInfo(pageId, Constants.KB, mDir));
+      }
+    }
+
+    PageId pageId(int i) {
+      return new PageId(Integer.toString(i / 64), i % 64);
+    }
+  }
+
+  @Benchmark
+  public void pageMetaStoreOps(BenchState state, Blackhole bh) {
+    ThreadLocalRandom rand = ThreadLocalRandom.current();
+    PageMetaStore metaStore = state.mMetaStore;
+    PageId pageId = state.pageId(rand.nextInt(state.mPageCount));
+    if (rand.nextInt(100) < state.mReadPercentage) {
+      try (LockResource r = new LockResource(metaStore.getLock().readLock())) {
+        bh.consume(metaStore.getPageInfo(pageId));
+      } catch (PageNotFoundException e) {
+        bh.consume(e);
+      }
+      return;
+    }
+    try (LockResource r = new LockResource(metaStore.getLock().writeLock())) {
+      PageInfo removed = metaStore.removePage(pageId);
+      metaStore.addPage(pageId, new PageInfo(pageId, removed.getPageSize(), state.mDir));
+    } catch (PageNotFoundException e) {
+      // a concurrent writer is re-inserting the same page
+      bh.consume(e);
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options argsCli = new CommandLineOptions(args);
+    for (int threads : THREAD_COUNTS) {
+      Options opts = new OptionsBuilder()
+          .parent(argsCli)
+          .include(PageMetaStoreBench.class.getName())
+          .threads(threads)
+          .result(String.format("results-%d-threads.json", threads))
+          .resultFormat(ResultFormatType.JSON)
+          .build();
+      new Runner(opts).run();
+    }
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.dora.client;
+
+import alluxio.client.block.BlockWorkerInfo;
+import alluxio.client.file.dora.ConsistentHashPolicy;
+import alluxio.client.file.dora.HotFileReadSpreader;
+import alluxio.client.file.dora.WorkerLocationPolicy;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+import alluxio.exception.status.ResourceExhaustedException;
+import alluxio.membership.WorkerClusterView;
+import alluxio.wire.WorkerIdentity;
+import alluxio.wire.WorkerInfo;
+import alluxio.wire.WorkerNetAddress;
+import alluxio.wire.WorkerState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * This benchmark replays a zipf trace of file reads from several clients against a simulated
+ * cluster of workers, choosing the worker of each read the same way
+ * {@link alluxio.client.file.dora.DoraCacheClient} does, and reports the aggregate read
+ * throughput of the cluster. Each worker is assumed to serve the same number of reads per
+ * second, bound by its network, so the cluster serves the reads only as fast as its busiest
+ * worker does.
+ * The following parameters can be varied:
+ * mSpread - whether the reads of hot files are spread across workers, as with
+ *   alluxio.user.file.read.spread.enabled
+ * mWorkers - the number of workers
+ * mClients - the number of clients, each detecting the hot files on its own
+ * mFiles - the number of files read
+ * mZipfExponent - the exponent of the zipf distribution of the reads, the higher the more skewed
+ * The aggregate throughput, as the number of workers whose bandwidth the reads use, along with
+ * the number of replicas cached, is printed after each iteration. The throughput of the worker
+ * selection is the primary result.
+ */
+public class ReadSpreadBench {
+  private static final int TRACE_LENGTH = 1 << 20;
+
+  @State(Scope.Thread)
+  public static class BenchState {
+    @Param({"false", "true"})
+    public boolean mSpread;
+
+    @Param({"16"})
+    public int mWorkers;
+
+    @Param({"8"})
+    public int mClients;
+
+    @Param({"10000"})
+    public int mFiles;
+
+    @Param({"0.9", "1.2"})
+    public double mZipfExponent;
+
+    WorkerLocationPolicy mPolicy;
+    WorkerClusterView mClusterView;
+    HotFileReadSpreader[] mSpreaders;
+    String[] mPaths;
+    int[] mTrace;
+    int mNext;
+    Map<WorkerIdentity, Integer> mWorkerIndexes = new HashMap<>();
+    long[] mReadsPerWorker;
+    /** The pairs of file and worker read from, as the file index times the number of workers. */
+    Set<Long> mReplicas = new HashSet<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+      InstancedConfiguration conf = new InstancedConfiguration(Configuration.copyProperties());
+      conf.set(PropertyKey.USER_FILE_READ_SPREAD_ENABLED, mSpread);
+      mPolicy = new ConsistentHashPolicy(conf);
+      List<WorkerInfo> workers = new ArrayList<>();
+      for (int i = 0; i < mWorkers; i++) {
+        WorkerIdentity identity = WorkerIdentity.ParserV0.INSTANCE.fromLong(i);
+        workers.add(new WorkerInfo()
+            .setIdentity(identity)
+            .setAddress(new WorkerNetAddress().setHost("worker" + i).setRpcPort(29998)
+                .setDataPort(29999).setWebPort(30000))
+            .setCapacityBytes(Long.MAX_VALUE)
+            .setState(WorkerState.LIVE));
+        mWorkerIndexes.put(identity, i);
+      }
+      mClusterView = new WorkerClusterView(workers);
+      mSpreaders = new HotFileReadSpreader[mClients];
+      for (int i = 0; i < mClients; i++) {
+        mSpreaders[i] = HotFileReadSpreader.create(conf);
+      }
+      mPaths = new String[mFiles];
+      for (int i = 0; i < mFiles; i++) {
+        mPaths[i] = "s3://bucket/dataset/part-" + i;
+      }
+      mTrace = zipfTrace(new Random(0));
+      mReadsPerWorker = new long[mWorkers];
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+      long reads = Arrays.stream(mReadsPerWorker).sum();
+      long maxReads = Arrays.stream(mReadsPerWorker).max().orElse(0);
+      long filesRead = mReplicas.stream().map(replica -> replica / mWorkers).distinct().count();
+      System.out.printf("%nspread %s, zipf %.1f: aggregate throughput %.2f of %d workers, "
+              + "busiest worker %.1f%% of reads, %d replicas of %d files%n", mSpread,
+          mZipfExponent, (double) reads / Math.max(1, maxReads), mWorkers,
+          100.0 * maxReads / Math.max(1, reads), mReplicas.size(), filesRead);
+      Arrays.fill(mReadsPerWorker, 0);
+      mReplicas.clear();
+    }
+
+    private int[] zipfTrace(Random random) {
+      double[] cdf = new double[mFiles];
+      double sum = 0;
+      for (int i = 0; i < mFiles; i++) {
+        sum += 1 / Math.pow(i + 1, mZipfExponent);
+        cdf[i] = sum;
+      }
+      int[] trace = new int[TRACE_LENGTH];
+      for (int i = 0; i < TRACE_LENGTH; i++) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+        trace[i] = index >= 0 ? index : -index - 1;
+      }
+      return trace;
+    }
+  }
+
+  @Benchmark
+  public BlockWorkerInfo read(BenchState state) throws ResourceExhaustedException {
+    int file = state.mTrace[state.mNext];
+    HotFileReadSpreader spreader = state.mSpreaders[state.mNext % state.mClients];
+    state.mNext = (state.mNext + 1) % state.mTrace.length;
+    String path = state.mPaths[file];
+    int replicas = spreader != null
+        ? Math.min(spreader.recordRead(path), state.mClusterView.size()) : 1;
+    List<BlockWorkerInfo> candidates =
+        state.mPolicy.getPreferredWorkers(state.mClusterView, path, replicas);
+    BlockWorkerInfo worker = replicas > 1
+        ? spreader.chooseWorker(candidates, replicas) : candidates.get(0);
+    int workerIndex = state.mWorkerIndexes.get(worker.getIdentity());
+    state.mReadsPerWorker[workerIndex]++;
+    state.mReplicas.add((long) file * state.mWorkers + workerIndex);
+    return worker;
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options argsCli = new CommandLineOptions(args);
+    Options opts = new OptionsBuilder()
+        .parent(argsCli)
+        .include(ReadSpreadBench.class.getName())
+        .result("results.json")
+        .resultFormat(ResultFormatType.JSON)
+        .build();
+    new Runner(opts).run();
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.dora.executor;
+
+import alluxio.util.ThreadFactoryUtils;
+import alluxio.util.executor.VirtualThreads;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark compares the executors of the worker data servers under a burst of requests
+ * blocked on a slow under storage. Each invocation submits a burst of requests, each sleeping
+ * for the under storage latency, and waits for all of them.
+ * The following parameters can be varied:
+ * mExecutor - the executor, one of
+ *   POOL: a thread pool of mConcurrency platform threads, as the data servers use by default
+ *   VIRTUAL: a virtual thread per request, with mConcurrency permits of calls to the under
+ *     storage, as with alluxio.worker.network.virtual.threads.enabled, requires Java 21
+ * mRequests - the number of requests of each burst
+ * mConcurrency - the max number of requests blocked on the under storage at the same time
+ * mUfsLatencyMs - the latency of each call to the under storage
+ * The latency percentiles of the requests, the resident set size and the peak number of threads
+ * of the process are printed after each iteration.
+ */
+@Fork(value = 1, jvmArgsPrepend = "-server")
+@Warmup(iterations = 2, time = 5, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WorkerExecutorBench {
+
+  @State(Scope.Benchmark)
+  public static class BenchState {
+    @Param({"POOL", "VIRTUAL"})
+    public String mExecutor;
+
+    @Param({"4000"})
+    public int mRequests;
+
+    @Param({"2048"})
+    public int mConcurrency;
+
+    @Param({"20"})
+    public int mUfsLatencyMs;
+
+    ExecutorService mExecutorService;
+    /** Permits of the calls to the under storage, null if bounded by the pool. */
+    Semaphore mUfsPermits;
+    long[] mLatenciesNs = new long[1 << 20];
+    int mNumLatencies;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      switch (mExecutor) {
+        case "POOL":
+          ThreadPoolExecutor pool = new ThreadPoolExecutor(mConcurrency, mConcurrency,
+              10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+              ThreadFactoryUtils.build("bench-pool-%d", true));
+          pool.allowCoreThreadTimeOut(true);
+          mExecutorService = pool;
+          break;
+        case "VIRTUAL":
+          if (!VirtualThreads.isSupported()) {
+            throw new IllegalStateException("VIRTUAL requires Java 21");
+          }
+          mExecutorService = VirtualThreads.newThreadPerTaskExecutor("bench-virtual-");
+          mUfsPermits = new Semaphore(mConcurrency);
+          break;
+        default:
+          throw new IllegalStateException("Invalid executor: " + mExecutor);
+      }
+      ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() throws IOException {
+      long[] latencies = Arrays.copyOf(mLatenciesNs, mNumLatencies);
+      Arrays.sort(latencies);
+      ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+      System.out.printf("%n%s: %d requests, latency p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, "
+              + "max %.1f ms, RSS %s, peak threads %d%n", mExecutor, latencies.length,
+          percentileMs(latencies, 0.5), percentileMs(latencies, 0.99),
+          percentileMs(latencies, 0.999), percentileMs(latencies, 1), residentSetSize(),
+          threads.getPeakThreadCount());
+      mNumLatencies = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      mExecutorService.shutdownNow();
+    }
+
+    synchronized void record(long latencyNs) {
+      if (mNumLatencies < mLatenciesNs.length) {
+        mLatenciesNs[mNumLatencies++] = latencyNs;
+      }
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+      if (sorted.length == 0) {
+        return 0;
+      }
+      int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+      return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * @return the resident set size of the process, only available on Linux
+     */
+    private static String residentSetSize() throws IOException {
+      if (!Files.exists(Paths.get("/proc/self/status"))) {
+        return "N/A";
+      }
+      return Files.readAllLines(Paths.get("/proc/self/status")).stream()
+          .filter(line -> line.startsWith("VmRSS:"))
+          .map(line -> line.substring("VmRSS:".length()).trim())
+          .findFirst()
+          .orElse("N/A");
+    }
+  }
+
+  @Benchmark
+  public void burst(BenchState state) throws InterruptedException {
+    CountDownLatch done = new CountDownLatch(state.mRequests);
+    for (int i = 0; i < state.mRequests; i++) {
+      long submitNs = System.nanoTime();
+      state.mExecutorService.execute(() -> {
+        try {
+          if (state.mUfsPermits != null) {
+            state.mUfsPermits.acquireUninterruptibly();
+          }
+          try {
+            Thread.sleep(state.mUfsLatencyMs);
+          } finally {
+            if (state.mUfsPermits != null) {
+              state.mUfsPermits.release();
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          state.record(System.nanoTime() - submitNs);
+          done.countDown();
+        }
+      });
+    }
+    done.await();
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options argsCli = new CommandLineOptions(args);
+    Options opts = new OptionsBuilder()
+        .parent(argsCli)
+        .include(WorkerExecutorBench.class.getName())
+        .result("results.json")
+        .resultFormat(ResultFormatType.JSON)
+        .build();
+    new Runner(opts).run();
+  }
+}
@@ -18,7 +18,9 @@ import static alluxio.dora.meta.DoraMetaBenchBase.makeFileStatus;
 
 import alluxio.BaseFileStructure;
 import alluxio.BaseThreadState;
+import alluxio.proto.meta.DoraMeta;
 
+import org.openjdk.jmh.annotations.AuxCounters;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Param;
@@ -34,6 +36,11 @@ import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * This benchmark measures the time it takes to read/write metadata from the dora worker metastore
  * The following parameters can be varied:
@@ -43,7 +50,13 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
  *   with shallow depth will be more likely to be chosen, and files with
  *   larger ids are more likely to be chosen (i.e. those written later).
  * mType - the type of inode storage to use
- * mOperation - read or write
+ * mOperation - the operation to run
+ *   READ, WRITE: reads or writes the meta of a single file
+ *   BATCH_READ, BATCH_WRITE: reads or writes the meta of mBatchSize files in a single batch
+ *   PREFIX_SCAN: reads the meta of all the mBatchSize files of a directory by its path prefix
+ * mBatchSize - the number of files read or written by a batch, which is also the number of
+ *   files in a directory
+ * The number of file metas read or written per second is reported as a secondary result.
  */
 public class DoraMetaBench {
   @State(Scope.Thread)
@@ -60,18 +73,31 @@ public class DoraMetaBench {
     @Param({ROCKS, ROCKS_1GB_CACHE})
     public String mType;
 
-    @Param({"READ"})
+    @Param({"READ", "BATCH_READ", "PREFIX_SCAN"})
     public String mOperation;
 
+    @Param({"1000"})
+    public int mBatchSize;
+
     DoraMetaBenchBase mBase;
 
     @Setup(Level.Trial)
     public void setup() throws Exception {
       super.init(0, 0, mFileCount, mDistribution);
       mBase = new DoraMetaBenchBase(mType);
+      Map<String, DoraMeta.FileStatus> batch = new HashMap<>();
       for (int i = 0; i < mFileCount; ++i) {
-        mBase.getDoraMetaStore().putDoraMeta(UFS_PATH_PREFIX + i, makeFileStatus());
+        batch.put(path(i), makeFileStatus());
+        if (batch.size() == mBatchSize) {
+          mBase.getDoraMetaStore().putDoraMetas(batch);
+          batch.clear();
+        }
       }
+      mBase.getDoraMetaStore().putDoraMetas(batch);
+    }
+
+    String path(long fileId) {
+      return UFS_PATH_PREFIX + fileId / mBatchSize + "/" + fileId;
     }
 
     @TearDown(Level.Trial)
@@ -82,14 +108,60 @@ public class DoraMetaBench {
     }
   }
 
+  /**
+   * The number of file metas read or written, reported as a secondary result.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class FileCounters {
+    public long mFiles;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      mFiles = 0;
+    }
+  }
+
   @Benchmark
-  public void testMethod(Db db, ThreadState ts, Blackhole bh) throws Exception {
-    if (db.mOperation.equals("READ")) {
-      bh.consume(db.mBase.getDoraMetaStore().getDoraMeta(UFS_PATH_PREFIX +  ts.nextFileId(db, 0)));
-    } else
-    {
-      db.mBase.getDoraMetaStore().putDoraMeta(
-          UFS_PATH_PREFIX +  ts.nextFileId(db, 0), makeFileStatus());
+  public void testMethod(Db db, ThreadState ts, FileCounters counters, Blackhole bh)
+      throws Exception {
+    switch (db.mOperation) {
+      case "READ":
+        bh.consume(db.mBase.getDoraMetaStore().getDoraMeta(db.path(ts.nextFileId(db, 0))));
+        counters.mFiles++;
+        break;
+      case "WRITE":
+        db.mBase.getDoraMetaStore().putDoraMeta(db.path(ts.nextFileId(db, 0)), makeFileStatus());
+        counters.mFiles++;
+        break;
+      case "BATCH_READ": {
+        List<String> paths = new ArrayList<>(db.mBatchSize);
+        for (int i = 0; i < db.mBatchSize; i++) {
+          paths.add(db.path(ts.nextFileId(db, 0)));
+        }
+        bh.consume(db.mBase.getDoraMetaStore().getDoraMetas(paths));
+        counters.mFiles += db.mBatchSize;
+        break;
+      }
+      case "BATCH_WRITE": {
+        Map<String, DoraMeta.FileStatus> metas = new HashMap<>();
+        for (int i = 0; i < db.mBatchSize; i++) {
+          metas.put(db.path(ts.nextFileId(db, 0)), makeFileStatus());
+        }
+        db.mBase.getDoraMetaStore().putDoraMetas(metas);
+        counters.mFiles += metas.size();
+        break;
+      }
+      case "PREFIX_SCAN": {
+        long dir = ts.nextFileId(db, 0) / db.mBatchSize;
+        Map<String, DoraMeta.FileStatus> metas =
+            db.mBase.getDoraMetaStore().getDoraMetasByPrefix(UFS_PATH_PREFIX + dir + "/");
+        bh.consume(metas);
+        counters.mFiles += metas.size();
+        break;
+      }
+      default:
+        throw new IllegalStateException("Invalid operation: " + db.mOperation);
     }
   }
 
@@ -0,0 +1,158 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.fsmaster;
+
+import alluxio.AlluxioURI;
+import alluxio.annotation.SuppressFBWarnings;
+import alluxio.conf.Configuration;
+import alluxio.conf.PropertyKey;
+import alluxio.grpc.CreateFilePOptions;
+import alluxio.grpc.FileSystemMasterCommonPOptions;
+import alluxio.grpc.TtlAction;
+import alluxio.heartbeat.HeartbeatContext;
+import alluxio.heartbeat.HeartbeatScheduler;
+import alluxio.heartbeat.ManuallyScheduleHeartbeat;
+import alluxio.master.file.contexts.CreateDirectoryContext;
+import alluxio.master.file.contexts.CreateFileContext;
+import alluxio.security.authentication.AuthenticatedClientUser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures the latency of the getStatus RPCs served by the file system master
+ * while its ttl checker expires files. Before each iteration, files expiring by the next check
+ * are created, and a thread runs the ttl check while other threads sample the latency of
+ * getStatus on files without a ttl.
+ * The following parameters can be varied:
+ * mExpiringFileCount - the number of files expired by the ttl check of an iteration, 0 measuring
+ * the latency without a ttl check running
+ */
+@SuppressFBWarnings("UWF_FIELD_NOT_INITIALIZED_IN_CONSTRUCTOR")
+@Fork(value = 1, jvmArgsPrepend = "-server")
+@Warmup(iterations = 1, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 4, time = 10, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TtlCheckerBench {
+  private static final int FILE_COUNT = 1000;
+  private static final AlluxioURI EXPIRING_DIR = new AlluxioURI("/expiring");
+  private static final long TTL_CHECKER_INTERVAL_MS = 1000;
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    @Setup(Level.Trial)
+    public void setup() {
+      AuthenticatedClientUser.set("test");
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class FileSystem {
+    @Param({"0", "100000"})
+    public int mExpiringFileCount;
+
+    FileSystemMasterBase mBase = new FileSystemMasterBase();
+    ManuallyScheduleHeartbeat.Resource mHeartbeat;
+    long mNextFileId;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      // the buckets of the ttl checker are as long as its interval
+      Configuration.set(PropertyKey.MASTER_TTL_CHECKER_INTERVAL_MS, TTL_CHECKER_INTERVAL_MS);
+      mHeartbeat = new ManuallyScheduleHeartbeat.Resource(
+          Collections.singletonList(HeartbeatContext.MASTER_TTL_CHECK));
+      mBase.init();
+      mBase.createPathDepths(0);
+      for (int i = 0; i < FILE_COUNT; i++) {
+        mBase.createFile(0, i);
+      }
+      mBase.mFsMaster.createDirectory(EXPIRING_DIR, CreateDirectoryContext.defaults());
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() throws Exception {
+      CreateFileContext context = CreateFileContext.mergeFrom(CreateFilePOptions.newBuilder()
+          .setCommonOptions(FileSystemMasterCommonPOptions.newBuilder()
+              .setTtl(0).setTtlAction(TtlAction.DELETE)));
+      for (int i = 0; i < mExpiringFileCount; i++) {
+        mBase.mFsMaster.createFile(EXPIRING_DIR.join("file" + mNextFileId++), context);
+      }
+      // the bucket of the files expires once the interval after it has passed
+      Thread.sleep(2 * TTL_CHECKER_INTERVAL_MS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      mBase.tearDown();
+      mHeartbeat.close();
+    }
+  }
+
+  /**
+   * Runs the ttl check, which expires the files created for the iteration the first time it runs.
+   */
+  @Benchmark
+  @Group("ttl")
+  @GroupThreads(1)
+  public void check() throws Exception {
+    HeartbeatScheduler.execute(HeartbeatContext.MASTER_TTL_CHECK);
+    // the checks after the first have nothing to expire
+    Thread.sleep(TTL_CHECKER_INTERVAL_MS);
+  }
+
+  /**
+   * Gets the status of a file without a ttl, as a client RPC does.
+   *
+   * @param fs the file system
+   * @param ts the state of the thread
+   */
+  @Benchmark
+  @Group("ttl")
+  @GroupThreads(4)
+  public void getStatus(FileSystem fs, ThreadState ts) {
+    fs.mBase.getStatus(0, ThreadLocalRandom.current().nextInt(FILE_COUNT));
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options argsCli = new CommandLineOptions(args);
+    Options opts = new OptionsBuilder()
+        .parent(argsCli)
+        .include(TtlCheckerBench.class.getName())
+        .result("results.json")
+        .resultFormat(ResultFormatType.JSON)
+        .build();
+    new Runner(opts).run();
+  }
+}
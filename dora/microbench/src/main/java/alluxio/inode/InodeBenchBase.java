@@ -41,6 +41,7 @@ import alluxio.master.file.meta.options.MountInfo;
 import alluxio.master.journal.NoopJournalContext;
 import alluxio.master.metastore.InodeStore;
 import alluxio.master.metastore.caching.CachingInodeStore;
+import alluxio.master.metastore.heap.CompactHeapInodeStore;
 import alluxio.master.metastore.heap.HeapInodeStore;
 import alluxio.master.metastore.rocks.RocksInodeStore;
 import alluxio.master.metrics.MetricsMaster;
@@ -54,10 +55,12 @@ import org.apache.log4j.Logger;
 import java.io.IOException;
 import java.time.Clock;
 import java.util.ArrayList;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 class InodeBenchBase {
   public static final String HEAP = "heap";
+  public static final String HEAP_COMPACT = "heapCompact";
   public static final String ROCKS = "rocks";
   public static final String ROCKSCACHE = "rocksCache";
   private static final CreateDirectoryContext DIRECTORY_CONTEXT = CreateDirectoryContext
@@ -65,14 +68,20 @@ class InodeBenchBase {
       .setOwner(TEST_OWNER).setGroup(TEST_GROUP);
 
   private ArrayList<String> mBasePath;
+  /** The ids of the directories of the base path, by depth. */
+  private ArrayList<Long> mBasePathIds;
   private final InodeStore mInodeStore;
   private final InodeTree mTree;
   private final MasterRegistry mRegistry;
   private final BlockMaster mBlockMaster;
   private final InodeLockManager mInodeLockManager = new InodeLockManager();
+  private final String mInodeStoreType;
+  /** The heap used before the inodes are created. */
+  private final long mBaseHeapBytes;
 
   InodeBenchBase(String inodeStoreType, String rocksConfig) throws Exception {
     Logger.getRootLogger().setLevel(Level.ERROR);
+    mInodeStoreType = inodeStoreType;
     mRegistry = new MasterRegistry();
     CoreMasterContext context = MasterTestUtils.testMasterContext();
     MetricsMaster metricsMaster = new MetricsMasterFactory().create(mRegistry, context);
@@ -87,6 +96,24 @@ class InodeBenchBase {
         mountTable, mInodeLockManager);
     mRegistry.start(true);
     mTree.initializeRoot(TEST_OWNER, TEST_GROUP, TEST_DIR_MODE, NoopJournalContext.INSTANCE);
+    mBaseHeapBytes = getUsedHeapBytes();
+  }
+
+  /**
+   * Prints the heap used per inode since the creation of the tree, which includes the inodes,
+   * the index of the inode store, and the garbage not collected by a full collection.
+   */
+  void printFootprint() {
+    long inodes = mTree.getInodeCount();
+    long bytes = getUsedHeapBytes() - mBaseHeapBytes;
+    System.out.printf("Inode store %s: %d inodes, %d heap bytes per inode%n",
+        mInodeStoreType, inodes, bytes / Math.max(1, inodes));
+  }
+
+  private static long getUsedHeapBytes() {
+    System.gc();
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
   }
 
   public void after() throws Exception {
@@ -102,10 +129,11 @@ class InodeBenchBase {
       InodeLockManager lockManager) throws IOException {
     switch (inodeStoreType) {
       case HEAP:
+      case HEAP_COMPACT:
         Preconditions.checkArgument(rocksConfig.equals(RocksBenchConfig.JAVA_CONFIG),
             String.format("Heap inode store does not expect a configuration for rocksDB,"
                 + " instead should be %s", RocksBenchConfig.JAVA_CONFIG));
-        return new HeapInodeStore();
+        return inodeStoreType.equals(HEAP) ? new HeapInodeStore() : new CompactHeapInodeStore();
       case ROCKS:
         String dir =
             AlluxioTestDirectory.createTemporaryDirectory("inode-store-bench").getAbsolutePath();
@@ -133,12 +161,22 @@ class InodeBenchBase {
 
   void createBasePath(int depth) throws Exception {
     mBasePath = new ArrayList<>(depth + 1);
+    mBasePathIds = new ArrayList<>(depth + 1);
     String prevBasePath = "/";
     mBasePath.add(prevBasePath);
+    mBasePathIds.add(getInodeId(prevBasePath));
     for (int i = 0; i < depth; i++) {
       prevBasePath += "nxt/";
       mBasePath.add(prevBasePath);
       createPath(mTree, new AlluxioURI(prevBasePath));
+      mBasePathIds.add(getInodeId(prevBasePath));
+    }
+  }
+
+  private long getInodeId(String path) throws Exception {
+    try (LockedInodePath inodePath = mTree.lockFullInodePath(
+        new AlluxioURI(path), InodeTree.LockPattern.READ, NoopJournalContext.INSTANCE)) {
+      return inodePath.getInode().getId();
     }
   }
 
@@ -154,6 +192,14 @@ class InodeBenchBase {
     }
   }
 
+  /**
+   * Looks up the id of a file in its directory from the inode store, without locking its path.
+   */
+  Optional<Long> getChildId(int depth, long nxtFileId) {
+    return mInodeStore.getChildId(mBasePathIds.get(depth),
+        String.format("%dthread%d", nxtFileId, 0));
+  }
+
   void writeFile(int myId, int depth, long nxtFileId) throws Exception {
     createPath(mTree, getPath(myId, depth, nxtFileId));
   }
@@ -11,6 +11,8 @@
 
 package alluxio.inode;
 
+import static alluxio.inode.InodeBenchBase.HEAP;
+import static alluxio.inode.InodeBenchBase.HEAP_COMPACT;
 import static alluxio.inode.InodeBenchBase.ROCKSCACHE;
 
 import alluxio.BaseFileStructure;
@@ -24,6 +26,7 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -46,6 +49,9 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
  *   larger ids are more likely to be chosen (i.e. those written later).
  * mType - the type of inode storage to use
  * mRocksConfig - see {@link RocksBenchConfig}
+ * The concurrentGetChildId benchmark measures instead the lookups of files by name in the
+ * deepest directory by many threads at once, without locking their paths, to exercise the
+ * contention of the inode store index on a hot directory. It ignores mSingleFile.
  */
 public class InodeBenchRead {
 
@@ -69,7 +75,7 @@ public class InodeBenchRead {
     @Param({"true", "false"})
     public boolean mSingleFile;
 
-    @Param({ROCKSCACHE})
+    @Param({HEAP, HEAP_COMPACT, ROCKSCACHE})
     public String mType;
 
     @Param({RocksBenchConfig.JAVA_CONFIG})
@@ -90,6 +96,7 @@ public class InodeBenchRead {
           mBase.writeFile(0, d, i);
         }
       }
+      mBase.printFootprint();
     }
 
     @TearDown(Level.Trial)
@@ -109,6 +116,12 @@ public class InodeBenchRead {
     }
   }
 
+  @Benchmark
+  @Threads(8)
+  public void concurrentGetChildId(Db db, ThreadState ts, Blackhole bh) {
+    bh.consume(db.mBase.getChildId(db.mDepth, ts.nextFileId(db, db.mDepth)));
+  }
+
   public static void main(String []args) throws RunnerException {
     Options opt = new OptionsBuilder().include(InodeBenchRead.class.getSimpleName())
         .forks(1).build();
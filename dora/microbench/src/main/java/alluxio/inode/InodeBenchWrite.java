@@ -11,6 +11,8 @@
 
 package alluxio.inode;
 
+import static alluxio.inode.InodeBenchBase.HEAP;
+import static alluxio.inode.InodeBenchBase.HEAP_COMPACT;
 import static alluxio.inode.InodeBenchBase.ROCKSCACHE;
 
 import alluxio.BaseFileStructure;
@@ -69,7 +71,7 @@ public class InodeBenchWrite {
     // is used in read benchmark to simulate different file access patterns
     @Param({"ZIPF"})
     public Distribution mDistribution;
-    @Param({ROCKSCACHE})
+    @Param({HEAP, HEAP_COMPACT, ROCKSCACHE})
     public String mType;
 
     @Param({RocksBenchConfig.JAVA_CONFIG})
@@ -86,6 +88,7 @@ public class InodeBenchWrite {
 
     @TearDown(Level.Iteration)
     public void after() throws Exception {
+      mBase.printFootprint();
       mBase.after();
       mBase = null;
     }
@@ -0,0 +1,105 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.inode;
+
+import static alluxio.inode.InodeBenchBase.ROCKSCACHE;
+
+import alluxio.BaseThreadState;
+import alluxio.conf.Configuration;
+import alluxio.conf.InstancedConfiguration;
+import alluxio.conf.PropertyKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This benchmark measures the throughput of file creates on the caching inode store backed by
+ * RocksDB, with a cache small enough for the creates to keep the eviction threads of the cache
+ * busy, so that the throughput depends on how the eviction scales with the number of writers.
+ * The following parameters can be varied:
+ * mSegments - the number of segments of the inode cache, 1 being the unpartitioned cache
+ * mCacheSize - the max number of entries in each of the inode and edge caches
+ * mDepth - the depth of the directory the files are created in
+ * The number of threads is varied by the main method from 1 to the number of cores.
+ */
+public class InodeCacheCreateBench {
+
+  @State(Scope.Thread)
+  public static class ThreadState extends BaseThreadState {
+    long mNxtFileId;
+  }
+
+  @State(Scope.Benchmark)
+  public static class Db {
+    @Param({"1", "4", "16"})
+    public int mSegments;
+
+    @Param({"100000"})
+    public int mCacheSize;
+
+    @Param({"3"})
+    public int mDepth;
+
+    InodeBenchBase mBase;
+
+    @Setup(Level.Iteration)
+    public void setup() throws Exception {
+      InstancedConfiguration conf = Configuration.modifiableGlobal();
+      conf.set(PropertyKey.MASTER_METASTORE_INODE_CACHE_SEGMENTS, mSegments);
+      conf.set(PropertyKey.MASTER_METASTORE_INODE_CACHE_MAX_SIZE, mCacheSize);
+      mBase = new InodeBenchBase(ROCKSCACHE, RocksBenchConfig.JAVA_CONFIG);
+      mBase.createBasePath(mDepth);
+    }
+
+    @TearDown(Level.Iteration)
+    public void after() throws Exception {
+      mBase.after();
+      mBase = null;
+      InstancedConfiguration conf = Configuration.modifiableGlobal();
+      conf.unset(PropertyKey.MASTER_METASTORE_INODE_CACHE_SEGMENTS);
+      conf.unset(PropertyKey.MASTER_METASTORE_INODE_CACHE_MAX_SIZE);
+    }
+  }
+
+  @Benchmark
+  public void createFile(Db db, ThreadState ts) throws Exception {
+    db.mBase.writeFile(ts.mMyId, db.mDepth, ts.mNxtFileId++);
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options argsCli = new CommandLineOptions(args);
+    int cores = Runtime.getRuntime().availableProcessors();
+    for (int threads = 1; threads <= cores; threads *= 2) {
+      Options opts = new OptionsBuilder()
+          .parent(argsCli)
+          .include(InodeCacheCreateBench.class.getName())
+          .forks(1)
+          .threads(threads)
+          .result(String.format("results-%d-threads.json", threads))
+          .resultFormat(ResultFormatType.JSON)
+          .build();
+      new Runner(opts).run();
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * The Alluxio Open Foundation licenses this work under the Apache License, version 2.0
+ * (the "License"). You may not use this work except in compliance with the License, which is
+ * available at www.apache.org/licenses/LICENSE-2.0
+ *
+ * This software is distributed on an "AS IS" basis, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied, as more fully set forth in the License.
+ *
+ * See the NOTICE file distributed with this work for information regarding copyright ownership.
+ */
+
+package alluxio.inode;
+
+import alluxio.annotation.SuppressFBWarnings;
+import alluxio.grpc.CreateFilePOptions;
+import alluxio.master.file.contexts.CreateFileContext;
+import alluxio.master.file.meta.Inode;
+import alluxio.master.file.meta.MutableInodeFile;
+import alluxio.master.file.meta.TtlBucket;
+import alluxio.master.file.meta.TtlBucketList;
+import alluxio.master.metastore.heap.HeapInodeStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures the latency of the updates of the ttl of files, as applied by the
+ * master, while millions of files expire. A thread expires the files of the next ttl interval
+ * and sets their ttl again to expire one cycle later, as the ttl checker and the clients would,
+ * while other threads update the ttl of other files. The sampled latencies of both show whether
+ * the expirations stall the updates.
+ * The following parameters can be varied:
+ * mFileCount - the number of files expiring in a cycle
+ * mIntervalCount - the number of ttl intervals of a cycle the files expire over
+ */
+@SuppressFBWarnings("UWF_FIELD_NOT_INITIALIZED_IN_CONSTRUCTOR")
+@Fork(value = 1, jvmArgsPrepend = "-server")
+@Warmup(iterations = 2, time = 3, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 6, time = 3, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TtlBucketListBench {
+  /** The number of files whose ttl is updated concurrently with the expirations. */
+  private static final int UPDATED_FILE_COUNT = 100_000;
+
+  @State(Scope.Group)
+  public static class BenchState {
+    @Param({"1000000", "4000000"})
+    public int mFileCount;
+
+    @Param({"1000"})
+    public int mIntervalCount;
+
+    TtlBucketList mBucketList;
+    MutableInodeFile[] mFiles;
+    Inode[] mUpdatedFiles;
+    long mIntervalMs;
+    long mStartTimeMs;
+    /** The number of intervals expired. */
+    long mExpiredIntervals;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      mIntervalMs = TtlBucket.getTtlIntervalMs();
+      mStartTimeMs = System.currentTimeMillis();
+      mBucketList = new TtlBucketList(new HeapInodeStore());
+      CreateFileContext context = CreateFileContext.mergeFrom(CreateFilePOptions.newBuilder());
+      mFiles = new MutableInodeFile[mFileCount];
+      for (int i = 0; i < mFileCount; i++) {
+        mFiles[i] = MutableInodeFile.create(i, 0, "file" + i, mStartTimeMs, context)
+            .setTtl(mIntervalMs * (i % mIntervalCount + 1));
+        mBucketList.insert(Inode.wrap(mFiles[i]));
+      }
+      // the updated files expire within the cycle too, and are ignored by the expiring thread
+      mUpdatedFiles = new Inode[UPDATED_FILE_COUNT];
+      for (int i = 0; i < UPDATED_FILE_COUNT; i++) {
+        mUpdatedFiles[i] = Inode.wrap(MutableInodeFile.create(mFileCount + i, 0,
+            "updated" + i, mStartTimeMs, context)
+            .setTtl(mIntervalMs * (i % mIntervalCount + 1)));
+        mBucketList.insert(mUpdatedFiles[i]);
+      }
+    }
+  }
+
+  /**
+   * Expires the files of the next interval, and sets their ttl to expire one cycle later.
+   *
+   * @param state the state of the group
+   * @return the number of files expired
+   */
+  @Benchmark
+  @Group("expiry")
+  @GroupThreads(1)
+  public int expire(BenchState state) {
+    state.mExpiredIntervals++;
+    long time = state.mStartTimeMs + state.mExpiredIntervals * state.mIntervalMs;
+    int expired = 0;
+    for (TtlBucket bucket : state.mBucketList.pollExpiredBuckets(time)) {
+      for (long id : bucket.getInodeIds()) {
+        if (id >= state.mFileCount) {
+          continue;
+        }
+        MutableInodeFile file = state.mFiles[(int) id];
+        file.setTtl(file.getTtl() + state.mIntervalCount * state.mIntervalMs);
+        state.mBucketList.insert(Inode.wrap(file));
+        expired++;
+      }
+    }
+    return expired;
+  }
+
+  /**
+   * Updates the ttl of a file, as the master applying a journal entry does.
+   *
+   * @param state the state of the group
+   */
+  @Benchmark
+  @Group("expiry")
+  @GroupThreads(3)
+  public void update(BenchState state) {
+    Inode file = state.mUpdatedFiles[ThreadLocalRandom.current().nextInt(UPDATED_FILE_COUNT)];
+    state.mBucketList.remove(file);
+    state.mBucketList.insert(file);
+  }
+
+  public static void main(String[] args) throws Exception {
+    Options argsCli = new CommandLineOptions(args);
+    Options opts = new OptionsBuilder()
+        .parent(argsCli)
+        .include(TtlBucketListBench.class.getName())
+        .result("results.json")
+        .resultFormat(ResultFormatType.JSON)
+        .build();
+    new Runner(opts).run();
+  }
+}
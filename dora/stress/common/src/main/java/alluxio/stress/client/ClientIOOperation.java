@@ -34,6 +34,11 @@ public enum ClientIOOperation {
   POS_READ("PosRead"),
   /** Positioned read fully api. */
   POS_READ_FULLY("PosReadFully"),
+
+  /** Gets the status of the plan files one by one, like a query planner. */
+  GET_STATUS("GetStatus"),
+  /** Gets the status of the plan files with batched requests to the workers. */
+  BATCH_GET_STATUS("BatchGetStatus"),
   ;
 
   /**
@@ -67,6 +72,20 @@ public enum ClientIOOperation {
     }
   }
 
+  /**
+   * @param operation the operation
+   * @return true if the operation only accesses metadata of the plan files
+   */
+  public static boolean isMetadata(ClientIOOperation operation) {
+    switch (operation) {
+      case GET_STATUS:
+      case BATCH_GET_STATUS:
+        return true;
+      default:
+        return false;
+    }
+  }
+
   private final String mName;
 
   ClientIOOperation(String name) {
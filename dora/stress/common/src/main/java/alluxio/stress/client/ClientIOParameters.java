@@ -33,7 +33,7 @@ public final class ClientIOParameters extends FileSystemParameters {
 
   @Parameter(names = {"--operation"},
       description = "the operation to perform. Options are [ReadArray, ReadByteBuffer, ReadFully,"
-          + " PosRead, PosReadFully]",
+          + " PosRead, PosReadFully, GetStatus, BatchGetStatus]",
       converter = ClientIOOperationConverter.class,
       required = true)
   public ClientIOOperation mOperation;
@@ -93,6 +93,11 @@ public final class ClientIOParameters extends FileSystemParameters {
   @Parameters.BooleanDescription(trueDescription = "Random", falseDescription = "Sequential")
   public boolean mReadRandom = false;
 
+  @Parameter(names = {"--plan-files"},
+      description = "The number of files whose status is got by each plan of the GetStatus and "
+          + "BatchGetStatus operations, simulating the planning of a query over these files.")
+  public int mPlanFiles = 1000;
+
   @Parameter(names = {"--write-num-workers"},
       description = "The number of workers to distribute the files to. The blocks of a written "
           + "file will be round-robin across these number of workers.")
@@ -344,6 +344,9 @@ public final class ClientIOTaskResult implements TaskResult, Summary {
     private long mRecordStartMs;
     private long mEndMs;
     private long mIOBytes;
+    private long mPlans;
+    private long mStatuses;
+    private long mPlanTimeMs;
     private List<String> mErrors;
 
     /**
@@ -363,6 +366,9 @@ public final class ClientIOTaskResult implements TaskResult, Summary {
       mRecordStartMs = Math.min(mRecordStartMs, result.mRecordStartMs);
       mEndMs = Math.max(mEndMs, result.mEndMs);
       mIOBytes += result.mIOBytes;
+      mPlans += result.mPlans;
+      mStatuses += result.mStatuses;
+      mPlanTimeMs += result.mPlanTimeMs;
       mErrors.addAll(result.mErrors);
     }
 
@@ -404,6 +410,60 @@ public final class ClientIOTaskResult implements TaskResult, Summary {
       mIOBytes = ioBytes;
     }
 
+    /**
+     * @return the number of plans, each getting the status of all the plan files
+     */
+    public long getPlans() {
+      return mPlans;
+    }
+
+    /**
+     * @param plans the number of plans
+     */
+    public void setPlans(long plans) {
+      mPlans = plans;
+    }
+
+    /**
+     * @return the number of file status got
+     */
+    public long getStatuses() {
+      return mStatuses;
+    }
+
+    /**
+     * @param statuses the number of file status got
+     */
+    public void setStatuses(long statuses) {
+      mStatuses = statuses;
+    }
+
+    /**
+     * @return the total time spent in plans (in ms)
+     */
+    public long getPlanTimeMs() {
+      return mPlanTimeMs;
+    }
+
+    /**
+     * @param planTimeMs the total time spent in plans (in ms)
+     */
+    public void setPlanTimeMs(long planTimeMs) {
+      mPlanTimeMs = planTimeMs;
+    }
+
+    /**
+     * Records a finished plan.
+     *
+     * @param statuses the number of file status got by the plan
+     * @param planTimeMs the time spent in the plan (in ms)
+     */
+    public void incrementPlans(long statuses, long planTimeMs) {
+      mPlans++;
+      mStatuses += statuses;
+      mPlanTimeMs += planTimeMs;
+    }
+
     /**
      * @return the start time (in ms)
      */
@@ -467,5 +527,35 @@ public final class ClientIOTaskResult implements TaskResult, Summary {
     public void setIOMBps(float ioMBps) {
       // ignore
     }
+
+    /**
+     * @return the metadata throughput (file status / s)
+     */
+    public float getStatusesPerSec() {
+      return ((float) mStatuses / getDurationMs()) * 1000.0f;
+    }
+
+    /**
+     * @param statusesPerSec the metadata throughput (file status / s)
+     */
+    @JsonIgnore
+    public void setStatusesPerSec(float statusesPerSec) {
+      // ignore
+    }
+
+    /**
+     * @return the average time of a plan (in ms)
+     */
+    public float getAvgPlanMs() {
+      return mPlans == 0 ? 0 : (float) mPlanTimeMs / mPlans;
+    }
+
+    /**
+     * @param avgPlanMs the average time of a plan (in ms)
+     */
+    @JsonIgnore
+    public void setAvgPlanMs(float avgPlanMs) {
+      // ignore
+    }
   }
 }
@@ -14,6 +14,7 @@ package alluxio.stress.cli.client;
 import alluxio.AlluxioURI;
 import alluxio.Constants;
 import alluxio.annotation.SuppressFBWarnings;
+import alluxio.client.file.DoraCacheFileSystem;
 import alluxio.client.file.FileInStream;
 import alluxio.client.file.FileOutStream;
 import alluxio.conf.InstancedConfiguration;
@@ -21,6 +22,7 @@ import alluxio.conf.PropertyKey;
 import alluxio.conf.Source;
 import alluxio.exception.AlluxioException;
 import alluxio.grpc.CreateFilePOptions;
+import alluxio.grpc.GetStatusPOptions;
 import alluxio.hadoop.HadoopConfigurationUtils;
 import alluxio.stress.BaseParameters;
 import alluxio.stress.StressConstants;
@@ -109,7 +111,16 @@ public class StressClientIOBench extends AbstractStressBench
         "$ bin/alluxio exec class alluxio.stress.cli.client.StressClientIOBench -- --operation "
             + "ReadArray --base alluxio:///stress-client-io-base --file-size 500m --buffer-size "
             + "64k --block-size 16k --warmup 10s --duration 30s --write-num-workers 1 --cluster "
-            + "--cluster-limit 1\n"));
+            + "--cluster-limit 1",
+        "",
+        "# This test will create 1000 files, then measure the time to get the status of all of",
+        "# them, like a query planner does, with one request per file and with batched requests.",
+        "$ bin/alluxio exec class alluxio.stress.cli.client.StressClientIOBench -- --operation "
+            + "GetStatus --base alluxio:///stress-client-io-base --plan-files 1000 --client-type "
+            + "AlluxioNative --warmup 10s --duration 30s",
+        "$ bin/alluxio exec class alluxio.stress.cli.client.StressClientIOBench -- --operation "
+            + "BatchGetStatus --base alluxio:///stress-client-io-base --plan-files 1000 "
+            + "--client-type AlluxioNative --warmup 10s --duration 30s\n"));
   }
 
   @Override
@@ -139,6 +150,11 @@ public class StressClientIOBench extends AbstractStressBench
         prepareFs.delete(path, true);
         prepareFs.mkdirs(path);
       }
+      if (ClientIOOperation.isMetadata(mParameters.mOperation)) {
+        for (int i = 0; i < mParameters.mPlanFiles; i++) {
+          prepareFs.create(getPlanFilePath(i)).close();
+        }
+      }
     }
 
     // set hdfs conf for all test clients
@@ -243,12 +259,23 @@ public class StressClientIOBench extends AbstractStressBench
 
     ClientIOTaskResult.ThreadCountResult result = context.getResult();
 
-    LOG.info(String.format("thread count: %d, errors: %d, IO throughput (MB/s): %f", numThreads,
-        result.getErrors().size(), result.getIOMBps()));
+    if (ClientIOOperation.isMetadata(mParameters.mOperation)) {
+      LOG.info(String.format("thread count: %d, errors: %d, plans: %d, "
+              + "metadata throughput (status/s): %f, average planning time (ms): %f",
+          numThreads, result.getErrors().size(), result.getPlans(), result.getStatusesPerSec(),
+          result.getAvgPlanMs()));
+    } else {
+      LOG.info(String.format("thread count: %d, errors: %d, IO throughput (MB/s): %f",
+          numThreads, result.getErrors().size(), result.getIOMBps()));
+    }
 
     return result;
   }
 
+  private Path getPlanFilePath(int index) {
+    return new Path(new Path(mParameters.mBasePath, "plan-files"), "file-" + index);
+  }
+
   /**
    * Read the log file from java agent log file.
    *
@@ -361,6 +388,7 @@ public class StressClientIOBench extends AbstractStressBench
     protected final long mMaxOffset;
     protected final Iterator<Long> mLongs;
     protected final long mBlockSize;
+    protected final List<Path> mPlanFilePaths;
 
     protected final ClientIOTaskResult.ThreadCountResult mThreadCountResult =
         new ClientIOTaskResult.ThreadCountResult();
@@ -390,6 +418,13 @@ public class StressClientIOBench extends AbstractStressBench
       mBlockSize = FormatUtils.parseSpaceSize(mParameters.mBlockSize);
 
       mLongs = new Random().longs(0, mMaxOffset).iterator();
+
+      mPlanFilePaths = new ArrayList<>();
+      if (ClientIOOperation.isMetadata(mParameters.mOperation)) {
+        for (int i = 0; i < mParameters.mPlanFiles; i++) {
+          mPlanFilePaths.add(getPlanFilePath(i));
+        }
+      }
     }
 
     @Override
@@ -415,7 +450,8 @@ public class StressClientIOBench extends AbstractStressBench
       // When to start recording measurements
       long recordMs = mContext.getStartMs() + FormatUtils.parseTimeSize(mParameters.mWarmup);
       mThreadCountResult.setRecordStartMs(recordMs);
-      boolean isRead = ClientIOOperation.isRead(mParameters.mOperation);
+      boolean isMetadata = ClientIOOperation.isMetadata(mParameters.mOperation);
+      boolean isTimed = ClientIOOperation.isRead(mParameters.mOperation) || isMetadata;
 
       long waitMs = mContext.getStartMs() - CommonUtils.getCurrentMs();
       if (waitMs < 0) {
@@ -426,14 +462,17 @@ public class StressClientIOBench extends AbstractStressBench
       CommonUtils.sleepMs(waitMs);
       mStartBarrierPassed = true;
 
-      while (!Thread.currentThread().isInterrupted() && (!isRead
+      while (!Thread.currentThread().isInterrupted() && (!isTimed
           || CommonUtils.getCurrentMs() < mContext.getEndMs())) {
+        long opStartMs = CommonUtils.getCurrentMs();
         int ioBytes = applyOperation();
 
         long currentMs = CommonUtils.getCurrentMs();
         // Start recording after the warmup
         if (currentMs > recordMs) {
-          if (ioBytes > 0) {
+          if (isMetadata) {
+            mThreadCountResult.incrementPlans(ioBytes, currentMs - opStartMs);
+          } else if (ioBytes > 0) {
             mThreadCountResult.incrementIOBytes(ioBytes);
           }
           if (mParameters.mOperation == ClientIOOperation.WRITE && ioBytes < 0) {
@@ -444,6 +483,11 @@ public class StressClientIOBench extends AbstractStressBench
       }
     }
 
+    /**
+     * Applies the operation once.
+     *
+     * @return the bytes of IO, or the number of file status got for the metadata operations
+     */
     protected abstract int applyOperation() throws IOException, AlluxioException;
 
     protected abstract void closeInStream();
@@ -528,6 +572,16 @@ public class StressClientIOBench extends AbstractStressBench
           mOutStream.write(mBuffer, 0, bytesToWrite);
           return bytesToWrite;
         }
+        case GET_STATUS: {
+          for (Path path : mPlanFilePaths) {
+            mFs.getFileStatus(path);
+          }
+          return mPlanFilePaths.size();
+        }
+        case BATCH_GET_STATUS: {
+          throw new UnsupportedOperationException(
+              "BATCH_GET_STATUS is only supported by the Alluxio native API!");
+        }
         default:
           throw new IllegalStateException("Unknown operation: " + mParameters.mOperation);
       }
@@ -550,6 +604,8 @@ public class StressClientIOBench extends AbstractStressBench
   private final class AlluxioNativeBenchThread extends BenchThread {
     private final alluxio.client.file.FileSystem mFs;
 
+    private final List<AlluxioURI> mPlanFileUris = new ArrayList<>();
+
     private FileInStream mInStream = null;
     private FileOutStream mOutStream = null;
 
@@ -558,6 +614,9 @@ public class StressClientIOBench extends AbstractStressBench
       super(context, threadId);
 
       mFs = fs;
+      for (Path path : mPlanFilePaths) {
+        mPlanFileUris.add(new AlluxioURI(path.toString()));
+      }
     }
 
     @Override
@@ -621,6 +680,21 @@ public class StressClientIOBench extends AbstractStressBench
           mOutStream.write(mBuffer, 0, bytesToWrite);
           return bytesToWrite;
         }
+        case GET_STATUS: {
+          for (AlluxioURI uri : mPlanFileUris) {
+            mFs.getStatus(uri);
+          }
+          return mPlanFileUris.size();
+        }
+        case BATCH_GET_STATUS: {
+          DoraCacheFileSystem doraFs = mFs.getDoraCacheFileSystem();
+          if (doraFs == null) {
+            throw new UnsupportedOperationException(
+                "BATCH_GET_STATUS is only supported by the Dora client!");
+          }
+          return doraFs.getStatuses(mPlanFileUris, GetStatusPOptions.getDefaultInstance())
+              .size();
+        }
         default:
           throw new IllegalStateException("Unknown operation: " + mParameters.mOperation);
       }
@@ -651,6 +725,10 @@ public class StressClientIOBench extends AbstractStressBench
     @Override
     @SuppressFBWarnings("BC_UNCONFIRMED_CAST")
     protected int applyOperation() throws IOException, AlluxioException {
+      if (ClientIOOperation.isMetadata(mParameters.mOperation)) {
+        throw new UnsupportedOperationException(
+            mParameters.mOperation + " is not supported by the POSIX API!");
+      }
       if (mRandomAccessFile == null) {
         mRandomAccessFile = new RandomAccessFile(mFilePath.toString(), "rw");
         mCurrentOffset = 0;
@@ -37,6 +37,7 @@ import alluxio.underfs.options.MkdirsOptions;
 import alluxio.util.io.PathUtils;
 import alluxio.util.network.NetworkAddressUtils;
 
+import io.netty.buffer.ByteBuf;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -53,6 +54,7 @@ import java.nio.file.LinkOption;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
@@ -183,6 +185,27 @@ public class LocalUnderFileSystemTest {
     Assert.assertArrayEquals(bytes, bytes1);
   }
 
+  @Test
+  public void readAsync() throws Exception {
+    byte[] bytes = getBytes();
+    String filepath = PathUtils.concatPath(mLocalUfsRoot, getUniqueFileName());
+
+    OutputStream os = mLocalUfs.create(filepath);
+    os.write(bytes);
+    os.close();
+
+    int position = bytes.length / 2;
+    // reads past the end of the file are cut short
+    ByteBuf buf = mLocalUfs.readAsync(filepath, bytes.length, position, bytes.length).get();
+    try {
+      byte[] bytes1 = new byte[buf.readableBytes()];
+      buf.readBytes(bytes1);
+      Assert.assertArrayEquals(Arrays.copyOfRange(bytes, position, bytes.length), bytes1);
+    } finally {
+      buf.release();
+    }
+  }
+
   @Test
   public void getFileLocations() throws IOException {
     byte[] bytes = getBytes();
@@ -71,6 +71,8 @@ import com.amazonaws.util.RuntimeHttpUtils;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections4.IteratorUtils;
 import org.slf4j.Logger;
@@ -79,6 +81,7 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.core.client.config.ClientAsyncConfiguration;
 import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
 import software.amazon.awssdk.http.nio.netty.Http2Configuration;
@@ -89,6 +92,7 @@ import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
@@ -111,6 +115,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
@@ -484,6 +489,37 @@ public class S3AUnderFileSystem extends ObjectUnderFileSystem {
     return new S3APositionReader(mClient, mBucketName, stripPrefixIfPresent(path), fileLength);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * The range is read with one ranged GET of the async client, which does not block any thread
+   * while waiting for the data.
+   */
+  @Override
+  public CompletableFuture<ByteBuf> readAsync(String path, long fileLength, long position,
+      int length) {
+    long end = Math.min(fileLength, position + length);
+    if (position >= end) {
+      return CompletableFuture.completedFuture(Unpooled.EMPTY_BUFFER);
+    }
+    GetObjectRequest request = GetObjectRequest.builder()
+        .bucket(mBucketName)
+        .key(stripPrefixIfPresent(path))
+        .range(String.format("bytes=%d-%d", position, end - 1))
+        .build();
+    CompletableFuture<ByteBuf> future = new CompletableFuture<>();
+    mAsyncClient.getObject(request, AsyncResponseTransformer.toBytes())
+        .whenComplete((response, err) -> {
+          if (err != null) {
+            Throwable t = parseS3AsyncException(err);
+            future.completeExceptionally(t instanceof IOException ? t : new IOException(t));
+          } else {
+            future.complete(Unpooled.wrappedBuffer(response.asByteArrayUnsafe()));
+          }
+        });
+    return future;
+  }
+
   @Override
   public String getUnderFSType() {
     return "s3";
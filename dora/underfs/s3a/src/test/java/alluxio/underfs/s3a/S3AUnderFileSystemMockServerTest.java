@@ -34,6 +34,7 @@ import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.google.common.collect.Iterators;
+import io.netty.buffer.ByteBuf;
 import org.apache.commons.io.IOUtils;
 import org.gaul.s3proxy.junit.S3ProxyRule;
 import org.junit.After;
@@ -122,6 +123,19 @@ public class S3AUnderFileSystemMockServerTest {
     assertEquals(TEST_CONTENT, IOUtils.toString(is, StandardCharsets.UTF_8));
   }
 
+  @Test
+  public void readAsync() throws Exception {
+    mClient.putObject(TEST_BUCKET, TEST_FILE, TEST_CONTENT);
+
+    ByteBuf buf = mS3UnderFileSystem.readAsync(TEST_FILE_URI.getPath(),
+        TEST_CONTENT.length(), 5, 100).get();
+    try {
+      assertEquals(TEST_CONTENT.substring(5), buf.toString(StandardCharsets.UTF_8));
+    } finally {
+      buf.release();
+    }
+  }
+
   @Test
   public void nestedDirectory() throws Throwable {
     mClient.putObject(TEST_BUCKET, "d1/d1/f1", TEST_CONTENT);